@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.emf.EMFScope;
+import org.eclipse.viatra.query.runtime.exception.ViatraQueryException;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.index.ExistenceNode;
+import org.eclipse.viatra.query.runtime.rete.index.GenericProjectionIndexer;
+import org.eclipse.viatra.query.runtime.rete.index.JoinNode;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteBackendFactory;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteEngine;
+import org.eclipse.viatra.query.runtime.rete.network.DefaultMailbox;
+import org.eclipse.viatra.query.runtime.rete.network.Direction;
+import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.StandardNode;
+import org.eclipse.viatra.query.runtime.rete.single.SingleInputNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the delivery of updates to the indexers of a join and an antijoin node, either as batches grouped by
+ * signature (stored in the mailbox of the indexers until delivery) or one by one (passed through the mailboxes).
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchDeliveryBenchmark {
+
+    /**
+     * The number of updates delivered in a single transaction.
+     */
+    @Param({ "1000", "10000" })
+    public int updateCount;
+
+    /**
+     * The number of updates sharing the same join signature.
+     */
+    @Param({ "1", "10", "100" })
+    public int groupSize;
+
+    /**
+     * Whether the indexers receive the updates as batches.
+     */
+    @Param({ "true", "false" })
+    public boolean batched;
+
+    private AdvancedViatraQueryEngine engine;
+    private ReteContainer container;
+    private SourceNode left;
+    private Tuple[] updates;
+
+    /**
+     * A supplier that propagates the updates of the benchmark; it has no contents.
+     */
+    private static final class SourceNode extends StandardNode {
+
+        public SourceNode(ReteContainer reteContainer) {
+            super(reteContainer);
+        }
+
+        void send(Direction direction, Tuple tuple) {
+            propagateUpdate(direction, tuple);
+        }
+
+        @Override
+        public void pullInto(Collection<Tuple> collector) {
+        }
+    }
+
+    /**
+     * Counts the updates it receives.
+     */
+    private static final class CountingNode extends SingleInputNode {
+        int count = 0;
+
+        public CountingNode(ReteContainer reteContainer) {
+            super(reteContainer);
+        }
+
+        @Override
+        public void update(Direction direction, Tuple updateElement) {
+            count++;
+        }
+
+        @Override
+        public void pullInto(Collection<Tuple> collector) {
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ViatraQueryException {
+        engine = AdvancedViatraQueryEngine.createUnmanagedEngine(new EMFScope(new ResourceSetImpl()));
+        container = ((ReteEngine) engine.getQueryBackend(new ReteBackendFactory())).getReteNet().getHeadContainer();
+
+        // left(a, b) is joined with right(b, c); every third signature has a right tuple
+        left = new SourceNode(container);
+        SourceNode right = new SourceNode(container);
+        GenericProjectionIndexer leftIndexer = (GenericProjectionIndexer) left
+                .constructIndex(TupleMask.selectSingle(1, 2));
+        GenericProjectionIndexer rightIndexer = (GenericProjectionIndexer) right
+                .constructIndex(TupleMask.selectSingle(0, 2));
+        JoinNode join = new JoinNode(container, TupleMask.selectSingle(1, 2));
+        ExistenceNode antijoin = new ExistenceNode(container, true);
+        join.connectToIndexers(leftIndexer, rightIndexer);
+        antijoin.connectToIndexers(leftIndexer, rightIndexer);
+        container.connectAndSynchronize(join, new CountingNode(container));
+        container.connectAndSynchronize(antijoin, new CountingNode(container));
+        ((DefaultMailbox) leftIndexer.getMailbox()).setFallThrough(!batched);
+        ((DefaultMailbox) rightIndexer.getMailbox()).setFallThrough(!batched);
+
+        int signatureCount = Math.max(1, updateCount / groupSize);
+        for (int i = 0; i < signatureCount; i += 3) {
+            right.send(Direction.INSERT, Tuples.staticArityFlatTupleOf(i, 0));
+        }
+        container.deliverMessagesSingleThreaded();
+
+        Random random = new Random(42);
+        updates = new Tuple[updateCount];
+        for (int i = 0; i < updateCount; i++) {
+            updates[i] = Tuples.staticArityFlatTupleOf(i, random.nextInt(signatureCount));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.dispose();
+    }
+
+    /**
+     * Inserts all updates in a transaction, then revokes them in another one.
+     */
+    @Benchmark
+    public void insertAndRevoke() {
+        for (Tuple update : updates) {
+            left.send(Direction.INSERT, update);
+        }
+        container.deliverMessagesSingleThreaded();
+        for (Tuple update : updates) {
+            left.send(Direction.REVOKE, update);
+        }
+        container.deliverMessagesSingleThreaded();
+    }
+
+}
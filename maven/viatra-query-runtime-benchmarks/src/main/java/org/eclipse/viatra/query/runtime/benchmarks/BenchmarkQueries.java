@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.viatra.query.runtime.api.GenericPatternMatcher;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.impl.BaseGeneratedEMFPQuery;
+import org.eclipse.viatra.query.runtime.api.impl.BaseGeneratedEMFQuerySpecificationWithGenericMatcher;
+import org.eclipse.viatra.query.runtime.emf.types.EClassTransitiveInstancesKey;
+import org.eclipse.viatra.query.runtime.emf.types.EStructuralFeatureInstancesKey;
+import org.eclipse.viatra.query.runtime.matchers.psystem.PBody;
+import org.eclipse.viatra.query.runtime.matchers.psystem.PVariable;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicdeferred.ExportedParameter;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicdeferred.Inequality;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicdeferred.NegativePatternCall;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicenumerables.BinaryTransitiveClosure;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicenumerables.TypeConstraint;
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PParameter;
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PParameterDirection;
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.QueryInitializationException;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+
+/**
+ * The queries evaluated by the benchmarks over the models of {@link ModelGenerator}. They are defined directly as
+ * {@link PQuery} instances, in the style of generated query specifications, to avoid depending on the query language
+ * infrastructure. Together they cover type and feature constraints, joins, inequality, negation and transitive
+ * closure:
+ *
+ * <pre>
+ * pattern directSupertype(c : EClass, s : EClass) { EClass.eSuperTypes(c, s); }
+ * pattern transitiveSupertype(c : EClass, s : EClass) { find directSupertype+(c, s); }
+ * pattern sameNamedClasses(c1 : EClass, c2 : EClass) {
+ *     EClass.name(c1, n); EClass.name(c2, n); c1 != c2;
+ * }
+ * pattern attribute(c : EClass, a : EAttribute) { EClass.eStructuralFeatures(c, a); }
+ * pattern classWithoutAttributes(c : EClass) { EClass(c); neg find attribute(c, _); }
+ * </pre>
+ *
+ * @author agent
+ * @since 1.7
+ */
+public final class BenchmarkQueries {
+
+    public static final PQuery DIRECT_SUPERTYPE = new DirectSupertype();
+    public static final PQuery TRANSITIVE_SUPERTYPE = new TransitiveSupertype();
+    public static final PQuery SAME_NAMED_CLASSES = new SameNamedClasses();
+    public static final PQuery ATTRIBUTE = new Attribute();
+    public static final PQuery CLASS_WITHOUT_ATTRIBUTES = new ClassWithoutAttributes();
+
+    private BenchmarkQueries() {
+    }
+
+    /**
+     * @return the query specifications of all benchmark queries
+     */
+    public static List<IQuerySpecification<GenericPatternMatcher>> getSpecifications() {
+        return Arrays.asList(toSpecification(DIRECT_SUPERTYPE), toSpecification(TRANSITIVE_SUPERTYPE),
+                toSpecification(SAME_NAMED_CLASSES), toSpecification(ATTRIBUTE),
+                toSpecification(CLASS_WITHOUT_ATTRIBUTES));
+    }
+
+    public static IQuerySpecification<GenericPatternMatcher> toSpecification(PQuery query) {
+        return new BaseGeneratedEMFQuerySpecificationWithGenericMatcher(query) {
+        };
+    }
+
+    private static PParameter classParameter(String name) {
+        return new PParameter(name, "org.eclipse.emf.ecore.EClass",
+                new EClassTransitiveInstancesKey(EcorePackage.Literals.ECLASS), PParameterDirection.INOUT);
+    }
+
+    private abstract static class BenchmarkQuery extends BaseGeneratedEMFPQuery {
+        private final String name;
+        private final List<PParameter> parameters;
+
+        protected BenchmarkQuery(String name, PParameter... parameters) {
+            this.name = name;
+            this.parameters = Arrays.asList(parameters);
+        }
+
+        @Override
+        public String getFullyQualifiedName() {
+            return "org.eclipse.viatra.query.runtime.benchmarks." + name;
+        }
+
+        @Override
+        public List<PParameter> getParameters() {
+            return parameters;
+        }
+
+        protected PVariable exportParameter(PBody body, List<ExportedParameter> exported, int index) {
+            PParameter parameter = parameters.get(index);
+            PVariable variable = body.getOrCreateVariableByName(parameter.getName());
+            exported.add(new ExportedParameter(body, variable, parameter));
+            return variable;
+        }
+
+        protected Set<PBody> singleBody(PBody body, List<ExportedParameter> exported) {
+            body.setSymbolicParameters(exported);
+            return Collections.singleton(body);
+        }
+    }
+
+    private static final class DirectSupertype extends BenchmarkQuery {
+        DirectSupertype() {
+            super("directSupertype", classParameter("c"), classParameter("s"));
+        }
+
+        @Override
+        protected Set<PBody> doGetContainedBodies() throws QueryInitializationException {
+            PBody body = new PBody(this);
+            List<ExportedParameter> exported = new ArrayList<ExportedParameter>();
+            PVariable c = exportParameter(body, exported, 0);
+            PVariable s = exportParameter(body, exported, 1);
+            new TypeConstraint(body, Tuples.flatTupleOf(c, s),
+                    new EStructuralFeatureInstancesKey(EcorePackage.Literals.ECLASS__ESUPER_TYPES));
+            return singleBody(body, exported);
+        }
+    }
+
+    private static final class TransitiveSupertype extends BenchmarkQuery {
+        TransitiveSupertype() {
+            super("transitiveSupertype", classParameter("c"), classParameter("s"));
+        }
+
+        @Override
+        protected Set<PBody> doGetContainedBodies() throws QueryInitializationException {
+            PBody body = new PBody(this);
+            List<ExportedParameter> exported = new ArrayList<ExportedParameter>();
+            PVariable c = exportParameter(body, exported, 0);
+            PVariable s = exportParameter(body, exported, 1);
+            new BinaryTransitiveClosure(body, Tuples.flatTupleOf(c, s), DIRECT_SUPERTYPE);
+            return singleBody(body, exported);
+        }
+    }
+
+    private static final class SameNamedClasses extends BenchmarkQuery {
+        SameNamedClasses() {
+            super("sameNamedClasses", classParameter("c1"), classParameter("c2"));
+        }
+
+        @Override
+        protected Set<PBody> doGetContainedBodies() throws QueryInitializationException {
+            PBody body = new PBody(this);
+            List<ExportedParameter> exported = new ArrayList<ExportedParameter>();
+            PVariable c1 = exportParameter(body, exported, 0);
+            PVariable c2 = exportParameter(body, exported, 1);
+            PVariable n = body.getOrCreateVariableByName("n");
+            new TypeConstraint(body, Tuples.flatTupleOf(c1), new EClassTransitiveInstancesKey(EcorePackage.Literals.ECLASS));
+            new TypeConstraint(body, Tuples.flatTupleOf(c2), new EClassTransitiveInstancesKey(EcorePackage.Literals.ECLASS));
+            new TypeConstraint(body, Tuples.flatTupleOf(c1, n),
+                    new EStructuralFeatureInstancesKey(EcorePackage.Literals.ENAMED_ELEMENT__NAME));
+            new TypeConstraint(body, Tuples.flatTupleOf(c2, n),
+                    new EStructuralFeatureInstancesKey(EcorePackage.Literals.ENAMED_ELEMENT__NAME));
+            new Inequality(body, c1, c2);
+            return singleBody(body, exported);
+        }
+    }
+
+    private static final class Attribute extends BenchmarkQuery {
+        Attribute() {
+            super("attribute", classParameter("c"), new PParameter("a", "org.eclipse.emf.ecore.EAttribute",
+                    new EClassTransitiveInstancesKey(EcorePackage.Literals.EATTRIBUTE), PParameterDirection.INOUT));
+        }
+
+        @Override
+        protected Set<PBody> doGetContainedBodies() throws QueryInitializationException {
+            PBody body = new PBody(this);
+            List<ExportedParameter> exported = new ArrayList<ExportedParameter>();
+            PVariable c = exportParameter(body, exported, 0);
+            PVariable a = exportParameter(body, exported, 1);
+            new TypeConstraint(body, Tuples.flatTupleOf(c, a),
+                    new EStructuralFeatureInstancesKey(EcorePackage.Literals.ECLASS__ESTRUCTURAL_FEATURES));
+            new TypeConstraint(body, Tuples.flatTupleOf(a),
+                    new EClassTransitiveInstancesKey(EcorePackage.Literals.EATTRIBUTE));
+            return singleBody(body, exported);
+        }
+    }
+
+    private static final class ClassWithoutAttributes extends BenchmarkQuery {
+        ClassWithoutAttributes() {
+            super("classWithoutAttributes", classParameter("c"));
+        }
+
+        @Override
+        protected Set<PBody> doGetContainedBodies() throws QueryInitializationException {
+            PBody body = new PBody(this);
+            List<ExportedParameter> exported = new ArrayList<ExportedParameter>();
+            PVariable c = exportParameter(body, exported, 0);
+            PVariable a = body.getOrCreateVariableByName("_a");
+            new TypeConstraint(body, Tuples.flatTupleOf(c), new EClassTransitiveInstancesKey(EcorePackage.Literals.ECLASS));
+            new NegativePatternCall(body, Tuples.flatTupleOf(c, a), ATTRIBUTE);
+            return singleBody(body, exported);
+        }
+    }
+
+}
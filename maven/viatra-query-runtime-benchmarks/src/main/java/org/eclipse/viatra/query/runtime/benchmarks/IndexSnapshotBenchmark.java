@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reopening a persisted model: loading the resource and building a wildcard base index of it, either by
+ * traversing the contents or by replaying the index snapshot saved next to the resource (see
+ * {@link BaseIndexOptions#withIndexSnapshots(boolean)}).
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexSnapshotBenchmark {
+
+    /**
+     * The number of EClasses in the generated model.
+     */
+    @Param({ "1000", "10000" })
+    public int modelSize;
+
+    /**
+     * Whether the index is built from the snapshot.
+     */
+    @Param({ "false", "true" })
+    public boolean indexSnapshots;
+
+    private File directory;
+    private URI modelURI;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("viatra-index-snapshot").toFile();
+        modelURI = URI.createFileURI(new File(directory, "benchmark.ecore").getAbsolutePath());
+        Resource resource = new ModelGenerator(42).generate(modelSize).getResources().get(0);
+        resource.setURI(modelURI);
+        resource.save(Collections.emptyMap());
+
+        // the snapshot is written in any case, so that both settings read the same files
+        NavigationHelper index = createIndex(resource, false);
+        try {
+            index.writeIndexSnapshot(resource);
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    private NavigationHelper createIndex(Resource resource, boolean indexSnapshots) throws Exception {
+        return ViatraBaseFactory.getInstance().createNavigationHelper(resource,
+                new BaseIndexOptions().withWildcardMode(true).withIndexSnapshots(indexSnapshots), null);
+    }
+
+    @Benchmark
+    public NavigationHelper reopen() throws Exception {
+        ResourceSet resourceSet = ModelGenerator.createResourceSet();
+        Resource resource = resourceSet.getResource(modelURI, true);
+        NavigationHelper index = createIndex(resource, indexSnapshots);
+        index.dispose();
+        return index;
+    }
+
+}
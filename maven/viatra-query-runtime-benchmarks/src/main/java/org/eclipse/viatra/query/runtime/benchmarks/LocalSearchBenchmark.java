@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.GenericPatternMatch;
+import org.eclipse.viatra.query.runtime.api.GenericPatternMatcher;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryEngineOptions;
+import org.eclipse.viatra.query.runtime.emf.EMFScope;
+import org.eclipse.viatra.query.runtime.exception.ViatraQueryException;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the execution of local search plans for the {@link BenchmarkQueries}, both unbound and with the first
+ * parameter bound. Plans are compiled and cached by the first invocation in the setup, so the benchmarks measure plan
+ * execution only.
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalSearchBenchmark {
+
+    private static final int BOUND_SEARCHES_PER_INVOCATION = 100;
+
+    /**
+     * The number of EClasses in the generated model.
+     */
+    @Param({ "1000", "10000" })
+    public int modelSize;
+
+    /**
+     * The simple name of the evaluated benchmark query.
+     */
+    @Param({ "directSupertype", "sameNamedClasses", "attribute", "classWithoutAttributes" })
+    public String query;
+
+    private ModelGenerator generator;
+    private AdvancedViatraQueryEngine engine;
+    private GenericPatternMatcher matcher;
+    private GenericPatternMatch[] boundMatches;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ViatraQueryException {
+        generator = new ModelGenerator(42);
+        ViatraQueryEngineOptions options = ViatraQueryEngineOptions.defineOptions()
+                .withDefaultHint(LocalSearchHints.getDefault().build()).build();
+        engine = AdvancedViatraQueryEngine.createUnmanagedEngine(new EMFScope(generator.generate(modelSize)), options);
+        matcher = engine.getMatcher(findSpecification(query));
+
+        List<EClass> classes = generator.getClasses();
+        int arity = matcher.getParameterNames().size();
+        boundMatches = new GenericPatternMatch[BOUND_SEARCHES_PER_INVOCATION];
+        for (int i = 0; i < BOUND_SEARCHES_PER_INVOCATION; i++) {
+            Object[] parameters = new Object[arity];
+            parameters[0] = classes.get(i * classes.size() / BOUND_SEARCHES_PER_INVOCATION);
+            boundMatches[i] = matcher.newMatch(parameters);
+        }
+        // plans are cached per adornment, both are prepared before measurement
+        matcher.countMatches();
+        matcher.countMatches(boundMatches[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.dispose();
+    }
+
+    private static IQuerySpecification<GenericPatternMatcher> findSpecification(String simpleName) {
+        for (IQuerySpecification<GenericPatternMatcher> specification : BenchmarkQueries.getSpecifications()) {
+            if (specification.getFullyQualifiedName().endsWith("." + simpleName)) {
+                return specification;
+            }
+        }
+        throw new IllegalArgumentException("Unknown benchmark query " + simpleName);
+    }
+
+    @Benchmark
+    public void getAllMatches(Blackhole blackhole) {
+        for (GenericPatternMatch match : matcher.getAllMatches()) {
+            blackhole.consume(match);
+        }
+    }
+
+    @Benchmark
+    public int countMatches() {
+        return matcher.countMatches();
+    }
+
+    @Benchmark
+    public int countBoundMatches() {
+        int result = 0;
+        for (GenericPatternMatch boundMatch : boundMatches) {
+            result += matcher.countMatches(boundMatch);
+        }
+        return result;
+    }
+
+}
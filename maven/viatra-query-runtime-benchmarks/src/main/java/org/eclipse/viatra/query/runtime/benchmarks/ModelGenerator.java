@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.EcoreResourceFactoryImpl;
+
+/**
+ * Generates Ecore models of configurable size, to be used as instance models of the benchmarks. Ecore is used as the
+ * metamodel, so that the benchmarks need no generated model code.
+ *
+ * <p>
+ * The generated model consists of EPackages containing EClasses, each with a few attributes, references to other
+ * classes, and supertypes chosen among the previously created classes (so that the inheritance hierarchy is acyclic).
+ * Class names are drawn from a pool as large as the number of classes, so that a fair share of them coincide. The
+ * generated model and the subsequent modifications are deterministic for a given seed.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class ModelGenerator {
+
+    private static final int CLASSES_PER_PACKAGE = 50;
+    private static final int FEATURES_PER_CLASS = 3;
+    private static final int MAX_SUPERTYPES = 2;
+
+    private final Random random;
+    private final EcoreFactory factory = EcoreFactory.eINSTANCE;
+    private final List<EClass> classes = new ArrayList<EClass>();
+    private int namePoolSize = 1;
+
+    public ModelGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates a model with the given number of EClasses into a fresh resource set.
+     */
+    public ResourceSet generate(int classCount) {
+        classes.clear();
+        namePoolSize = Math.max(1, classCount);
+        ResourceSet resourceSet = createResourceSet();
+        Resource resource = resourceSet.createResource(URI.createURI("benchmark.ecore"));
+        EPackage root = createPackage("root");
+        resource.getContents().add(root);
+
+        EPackage currentPackage = null;
+        for (int i = 0; i < classCount; i++) {
+            if (i % CLASSES_PER_PACKAGE == 0) {
+                currentPackage = createPackage("package" + i / CLASSES_PER_PACKAGE);
+                root.getESubpackages().add(currentPackage);
+            }
+            EClass eClass = createClass();
+            currentPackage.getEClassifiers().add(eClass);
+            classes.add(eClass);
+        }
+        return resourceSet;
+    }
+
+    /**
+     * Creates a resource set that can persist the generated models, with the <code>ecore</code> extension.
+     */
+    public static ResourceSet createResourceSet() {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("ecore",
+                new EcoreResourceFactoryImpl());
+        return resourceSet;
+    }
+
+    /**
+     * @return the classes of the last generated model
+     */
+    public List<EClass> getClasses() {
+        return classes;
+    }
+
+    /**
+     * Applies a small random modification to the last generated model: renames a class, and either adds a supertype
+     * to a class or removes one. The inheritance hierarchy is kept acyclic.
+     */
+    public void modify() {
+        EClass renamed = randomClass();
+        renamed.setName(randomClassName());
+
+        int index = random.nextInt(classes.size());
+        EClass eClass = classes.get(index);
+        if (!eClass.getESuperTypes().isEmpty() && random.nextBoolean()) {
+            eClass.getESuperTypes().remove(random.nextInt(eClass.getESuperTypes().size()));
+        } else if (index > 0) {
+            EClass supertype = classes.get(random.nextInt(index));
+            if (!eClass.getESuperTypes().contains(supertype)) {
+                eClass.getESuperTypes().add(supertype);
+            }
+        }
+    }
+
+    private EPackage createPackage(String name) {
+        EPackage ePackage = factory.createEPackage();
+        ePackage.setName(name);
+        ePackage.setNsPrefix(name);
+        ePackage.setNsURI("http://viatra.eclipse.org/benchmark/" + name);
+        return ePackage;
+    }
+
+    private EClass createClass() {
+        EClass eClass = factory.createEClass();
+        eClass.setName(randomClassName());
+        if (!classes.isEmpty()) {
+            int supertypes = random.nextInt(MAX_SUPERTYPES + 1);
+            for (int i = 0; i < supertypes; i++) {
+                EClass supertype = randomClass();
+                if (!eClass.getESuperTypes().contains(supertype)) {
+                    eClass.getESuperTypes().add(supertype);
+                }
+            }
+        }
+        for (int i = 0; i < FEATURES_PER_CLASS; i++) {
+            if (classes.isEmpty() || random.nextBoolean()) {
+                EAttribute attribute = factory.createEAttribute();
+                attribute.setName("attribute" + i);
+                attribute.setEType(EcorePackage.Literals.ESTRING);
+                eClass.getEStructuralFeatures().add(attribute);
+            } else {
+                EReference reference = factory.createEReference();
+                reference.setName("reference" + i);
+                reference.setEType(randomClass());
+                eClass.getEStructuralFeatures().add(reference);
+            }
+        }
+        return eClass;
+    }
+
+    private EClass randomClass() {
+        return classes.get(random.nextInt(classes.size()));
+    }
+
+    private String randomClassName() {
+        return "Class" + random.nextInt(namePoolSize);
+    }
+
+}
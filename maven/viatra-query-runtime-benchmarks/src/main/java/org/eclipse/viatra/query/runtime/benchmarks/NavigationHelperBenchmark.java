@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the EMF base index ({@link NavigationHelper}): the model traversal when the index is built or types are
+ * registered, the handling of model change notifications, and index lookups.
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigationHelperBenchmark {
+
+    private static final int MODIFICATIONS_PER_INVOCATION = 100;
+
+    /**
+     * The number of EClasses in the generated model.
+     */
+    @Param({ "1000", "10000" })
+    public int modelSize;
+
+    /**
+     * Whether the index uses the compact store (see {@link BaseIndexOptions#withCompactStoreMode(boolean)}).
+     */
+    @Param({ "false", "true" })
+    public boolean compactStoreMode;
+
+    private ModelGenerator generator;
+    private ResourceSet model;
+    private NavigationHelper wildcardIndex;
+    private Set<EClass> classes;
+    private Set<EStructuralFeature> features;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generator = new ModelGenerator(42);
+        model = generator.generate(modelSize);
+        wildcardIndex = createIndex(true);
+
+        classes = new HashSet<EClass>();
+        classes.add(EcorePackage.Literals.ECLASS);
+        classes.add(EcorePackage.Literals.EATTRIBUTE);
+        features = new HashSet<EStructuralFeature>();
+        features.add(EcorePackage.Literals.ECLASS__ESUPER_TYPES);
+        features.add(EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wildcardIndex.dispose();
+    }
+
+    private NavigationHelper createIndex(boolean wildcard) throws Exception {
+        return ViatraBaseFactory.getInstance().createNavigationHelper(model,
+                new BaseIndexOptions().withWildcardMode(wildcard).withCompactStoreMode(compactStoreMode), null);
+    }
+
+    @Benchmark
+    public NavigationHelper traverseInWildcardMode() throws Exception {
+        NavigationHelper index = createIndex(true);
+        index.dispose();
+        return index;
+    }
+
+    @Benchmark
+    public NavigationHelper traverseForRegisteredTypes() throws Exception {
+        NavigationHelper index = createIndex(false);
+        index.registerObservedTypes(classes, Collections.<EDataType> emptySet(), features);
+        index.dispose();
+        return index;
+    }
+
+    @Benchmark
+    public void handleNotifications() {
+        for (int i = 0; i < MODIFICATIONS_PER_INVOCATION; i++) {
+            generator.modify();
+        }
+    }
+
+    @Benchmark
+    public void lookupInstancesAndValues(Blackhole blackhole) {
+        blackhole.consume(wildcardIndex.getAllInstances(EcorePackage.Literals.ECLASS).size());
+        for (int i = 0; i < MODIFICATIONS_PER_INVOCATION; i++) {
+            blackhole.consume(wildcardIndex.findByAttributeValue("Class" + i, EcorePackage.Literals.ENAMED_ELEMENT__NAME));
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.GenericPatternMatcher;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryEngineOptions;
+import org.eclipse.viatra.query.runtime.emf.EMFScope;
+import org.eclipse.viatra.query.runtime.exception.ViatraQueryException;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteBackendFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Rete engine on the {@link BenchmarkQueries}: the initialization of the Rete network over a generated
+ * model, and the incremental maintenance of the match sets while the model is modified.
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReteBenchmark {
+
+    private static final int MODIFICATIONS_PER_INVOCATION = 100;
+
+    /**
+     * The number of EClasses in the generated model.
+     */
+    @Param({ "1000", "10000" })
+    public int modelSize;
+
+    private ModelGenerator generator;
+    private ResourceSet model;
+    private AdvancedViatraQueryEngine initializedEngine;
+    private List<GenericPatternMatcher> initializedMatchers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ViatraQueryException {
+        generator = new ModelGenerator(42);
+        model = generator.generate(modelSize);
+        initializedEngine = createEngine();
+        initializedMatchers = initializeMatchers(initializedEngine);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        initializedEngine.dispose();
+    }
+
+    private AdvancedViatraQueryEngine createEngine() throws ViatraQueryException {
+        ViatraQueryEngineOptions options = ViatraQueryEngineOptions.defineOptions()
+                .withDefaultBackend(new ReteBackendFactory()).build();
+        return AdvancedViatraQueryEngine.createUnmanagedEngine(new EMFScope(model), options);
+    }
+
+    private static List<GenericPatternMatcher> initializeMatchers(AdvancedViatraQueryEngine engine)
+            throws ViatraQueryException {
+        List<GenericPatternMatcher> matchers = new ArrayList<GenericPatternMatcher>();
+        for (IQuerySpecification<GenericPatternMatcher> specification : BenchmarkQueries.getSpecifications()) {
+            GenericPatternMatcher matcher = engine.getMatcher(specification);
+            // the match set is computed at the construction of the matcher; counting it forces the evaluation
+            matcher.countMatches();
+            matchers.add(matcher);
+        }
+        return matchers;
+    }
+
+    private static int countAllMatches(List<GenericPatternMatcher> matchers) {
+        int result = 0;
+        for (GenericPatternMatcher matcher : matchers) {
+            result += matcher.countMatches();
+        }
+        return result;
+    }
+
+    /**
+     * Builds the Rete network of all benchmark queries, including the traversal of the model by the base index.
+     */
+    @Benchmark
+    public int initializeEngine() throws ViatraQueryException {
+        AdvancedViatraQueryEngine engine = createEngine();
+        try {
+            return countAllMatches(initializeMatchers(engine));
+        } finally {
+            engine.dispose();
+        }
+    }
+
+    /**
+     * Modifies the model and reads the incrementally maintained match set sizes.
+     */
+    @Benchmark
+    public int updateIncrementally() {
+        for (int i = 0; i < MODIFICATIONS_PER_INVOCATION; i++) {
+            generator.modify();
+        }
+        return countAllMatches(initializedMatchers);
+    }
+
+}
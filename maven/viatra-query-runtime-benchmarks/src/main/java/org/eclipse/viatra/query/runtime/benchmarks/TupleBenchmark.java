@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the construction, hashing, comparison and projection of {@link Tuple}s, which lie on the hot path of both
+ * query evaluation algorithms.
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleBenchmark {
+
+    private static final int TUPLE_COUNT = 1024;
+
+    @Param({ "1", "2", "3", "5" })
+    public int arity;
+
+    private Object[][] contents;
+    private Tuple[] tuples;
+    private Tuple[] equalTuples;
+    private TupleMask projection;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        contents = new Object[TUPLE_COUNT][];
+        tuples = new Tuple[TUPLE_COUNT];
+        equalTuples = new Tuple[TUPLE_COUNT];
+        for (int i = 0; i < TUPLE_COUNT; i++) {
+            Object[] elements = new Object[arity];
+            for (int j = 0; j < arity; j++) {
+                elements[j] = "element" + random.nextInt(TUPLE_COUNT);
+            }
+            contents[i] = elements;
+            tuples[i] = Tuples.flatTupleOf(elements);
+            equalTuples[i] = Tuples.flatTupleOf(elements.clone());
+        }
+        // keep every other column, as in typical join masks
+        boolean[] keep = new boolean[arity];
+        for (int j = 0; j < arity; j += 2) {
+            keep[j] = true;
+        }
+        projection = TupleMask.fromKeepIndicators(keep);
+    }
+
+    @Benchmark
+    public void createTuples(Blackhole blackhole) {
+        for (Object[] elements : contents) {
+            blackhole.consume(Tuples.flatTupleOf(elements));
+        }
+    }
+
+    /**
+     * Fresh tuples are hashed, as the hash code of a tuple may be cached.
+     */
+    @Benchmark
+    public int hashFreshTuples() {
+        int result = 0;
+        for (Object[] elements : contents) {
+            result += Tuples.flatTupleOf(elements).hashCode();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int compareEqualTuples() {
+        int result = 0;
+        for (int i = 0; i < TUPLE_COUNT; i++) {
+            if (tuples[i].equals(equalTuples[i])) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void projectTuples(Blackhole blackhole) {
+        for (Tuple tuple : tuples) {
+            blackhole.consume(projection.transform(tuple));
+        }
+    }
+
+    @Benchmark
+    public int projectAndHashTuples() {
+        int result = 0;
+        for (Tuple tuple : tuples) {
+            result += projection.transform(tuple).hashCode();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.tuple.MaskedTupleMemory;
+import org.eclipse.viatra.query.runtime.rete.tuple.TupleMemory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measures the tuple memories that back the stateful Rete nodes: the counting {@link TupleMemory} of uniqueness
+ * enforcers and the {@link MaskedTupleMemory} of indexers, compared to the {@link HashMap}-based implementations they
+ * replaced in 1.7.
+ *
+ * <p>
+ * The throughput of both implementations is measured by the benchmarks, selected by {@link #implementation}. The
+ * heap footprint is reported by {@link #main(String[])}, which measures the filled memories with JOL.
+ *
+ * @author agent
+ * @since 1.7
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TupleMemoryBenchmark {
+
+    private static final String OPEN_ADDRESSING = "openAddressing";
+    private static final String HASH_MAP = "hashMap";
+
+    @Param({ "1000", "100000" })
+    public int size;
+
+    /**
+     * The number of distinct signatures of the indexed tuples, relative to their number.
+     */
+    @Param({ "0.01", "0.5" })
+    public double selectivity;
+
+    /**
+     * The measured implementation: the open-addressing memories, or the {@link HashMap}-based baseline.
+     */
+    @Param({ OPEN_ADDRESSING, HASH_MAP })
+    public String implementation;
+
+    private Tuple[] tuples;
+    private Tuple[] signatures;
+    private TupleMask mask;
+    private CountingMemory filledMemory;
+    private IndexMemory filledIndex;
+
+    /**
+     * The operations of {@link TupleMemory} used by the benchmarks.
+     */
+    interface CountingMemory {
+        boolean add(Tuple tuple);
+
+        boolean remove(Tuple tuple);
+
+        int get(Tuple tuple);
+    }
+
+    /**
+     * The operations of {@link MaskedTupleMemory} used by the benchmarks.
+     */
+    interface IndexMemory {
+        boolean add(Tuple tuple);
+
+        boolean remove(Tuple tuple);
+
+        Object get(Tuple signature);
+    }
+
+    private static final class OpenAddressingMemory implements CountingMemory {
+        final TupleMemory memory = new TupleMemory();
+
+        @Override
+        public boolean add(Tuple tuple) {
+            return memory.add(tuple);
+        }
+
+        @Override
+        public boolean remove(Tuple tuple) {
+            return memory.remove(tuple);
+        }
+
+        @Override
+        public int get(Tuple tuple) {
+            return memory.get(tuple);
+        }
+    }
+
+    private static final class OpenAddressingIndex implements IndexMemory {
+        final MaskedTupleMemory memory;
+
+        OpenAddressingIndex(TupleMask mask) {
+            memory = new MaskedTupleMemory(mask);
+        }
+
+        @Override
+        public boolean add(Tuple tuple) {
+            return memory.add(tuple);
+        }
+
+        @Override
+        public boolean remove(Tuple tuple) {
+            return memory.remove(tuple);
+        }
+
+        @Override
+        public Object get(Tuple signature) {
+            return memory.get(signature);
+        }
+    }
+
+    /**
+     * The {@link TupleMemory} of 1.6: a hash map from tuples to their boxed number of occurrences.
+     */
+    static final class MapTupleMemory implements CountingMemory {
+        final Map<Tuple, Integer> occurrences = new HashMap<Tuple, Integer>();
+
+        @Override
+        public boolean add(Tuple tuple) {
+            Integer oldCount = occurrences.get(tuple);
+            occurrences.put(tuple, oldCount == null ? 1 : oldCount + 1);
+            return oldCount == null;
+        }
+
+        @Override
+        public boolean remove(Tuple tuple) {
+            int rest = occurrences.get(tuple) - 1;
+            if (rest == 0) {
+                occurrences.remove(tuple);
+            } else {
+                occurrences.put(tuple, rest);
+            }
+            return rest == 0;
+        }
+
+        @Override
+        public int get(Tuple tuple) {
+            Integer count = occurrences.get(tuple);
+            return count == null ? 0 : count;
+        }
+    }
+
+    /**
+     * The {@link MaskedTupleMemory} of 1.6: a hash map from signatures to {@link MapTupleMemory} buckets.
+     */
+    static final class MapMaskedTupleMemory implements IndexMemory {
+        final Map<Tuple, MapTupleMemory> matchings = new HashMap<Tuple, MapTupleMemory>();
+        final TupleMask mask;
+
+        MapMaskedTupleMemory(TupleMask mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        public boolean add(Tuple tuple) {
+            Tuple signature = mask.transform(tuple);
+            MapTupleMemory bucket = matchings.get(signature);
+            boolean change = bucket == null;
+            if (change) {
+                bucket = new MapTupleMemory();
+                matchings.put(signature, bucket);
+            }
+            bucket.add(tuple);
+            return change;
+        }
+
+        @Override
+        public boolean remove(Tuple tuple) {
+            Tuple signature = mask.transform(tuple);
+            MapTupleMemory bucket = matchings.get(signature);
+            bucket.occurrences.remove(tuple);
+            boolean change = bucket.occurrences.isEmpty();
+            if (change) {
+                matchings.remove(signature);
+            }
+            return change;
+        }
+
+        @Override
+        public Object get(Tuple signature) {
+            return matchings.get(signature);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        tuples = createTuples(size, selectivity);
+        mask = TupleMask.selectSingle(0, 2);
+        int signatureCount = signatureCount(size, selectivity);
+        signatures = new Tuple[signatureCount];
+        for (int i = 0; i < signatureCount; i++) {
+            signatures[i] = Tuples.staticArityFlatTupleOf(i);
+        }
+
+        filledMemory = createMemory(implementation);
+        filledIndex = createIndex(implementation, mask);
+        for (Tuple tuple : tuples) {
+            filledMemory.add(tuple);
+            filledIndex.add(tuple);
+        }
+    }
+
+    private static int signatureCount(int size, double selectivity) {
+        return Math.max(1, (int) (size * selectivity));
+    }
+
+    private static Tuple[] createTuples(int size, double selectivity) {
+        Random random = new Random(42);
+        int signatureCount = signatureCount(size, selectivity);
+        Tuple[] result = new Tuple[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = Tuples.staticArityFlatTupleOf(random.nextInt(signatureCount), i);
+        }
+        return result;
+    }
+
+    private static CountingMemory createMemory(String implementation) {
+        return OPEN_ADDRESSING.equals(implementation) ? new OpenAddressingMemory() : new MapTupleMemory();
+    }
+
+    private static IndexMemory createIndex(String implementation, TupleMask mask) {
+        return OPEN_ADDRESSING.equals(implementation) ? new OpenAddressingIndex(mask) : new MapMaskedTupleMemory(mask);
+    }
+
+    @Benchmark
+    public CountingMemory fillAndEmptyMemory() {
+        CountingMemory memory = createMemory(implementation);
+        for (Tuple tuple : tuples) {
+            memory.add(tuple);
+        }
+        for (Tuple tuple : tuples) {
+            memory.remove(tuple);
+        }
+        return memory;
+    }
+
+    @Benchmark
+    public int lookupMemory() {
+        int result = 0;
+        for (Tuple tuple : tuples) {
+            result += filledMemory.get(tuple);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public IndexMemory fillAndEmptyIndex() {
+        IndexMemory index = createIndex(implementation, mask);
+        for (Tuple tuple : tuples) {
+            index.add(tuple);
+        }
+        for (Tuple tuple : tuples) {
+            index.remove(tuple);
+        }
+        return index;
+    }
+
+    @Benchmark
+    public void lookupIndex(Blackhole blackhole) {
+        for (Tuple signature : signatures) {
+            blackhole.consume(filledIndex.get(signature));
+        }
+    }
+
+    @Benchmark
+    public void projectAndLookupIndex(Blackhole blackhole) {
+        for (Tuple tuple : tuples) {
+            blackhole.consume(filledIndex.get(mask.transform(tuple)));
+        }
+    }
+
+    /**
+     * Prints the heap footprint of the filled memories of both implementations, per stored tuple and excluding the
+     * tuples themselves, for the parameter values of the benchmarks.
+     */
+    public static void main(String[] args) {
+        TupleMask mask = TupleMask.selectSingle(0, 2);
+        System.out.println("size\tselectivity\timplementation\tmemory B/tuple\tindex B/tuple");
+        for (int size : new int[] { 1000, 100000 }) {
+            for (double selectivity : new double[] { 0.01, 0.5 }) {
+                Tuple[] tuples = createTuples(size, selectivity);
+                long tuplesOnly = GraphLayout.parseInstance((Object) tuples).totalSize();
+                for (String implementation : new String[] { OPEN_ADDRESSING, HASH_MAP }) {
+                    CountingMemory memory = createMemory(implementation);
+                    IndexMemory index = createIndex(implementation, mask);
+                    for (Tuple tuple : tuples) {
+                        memory.add(tuple);
+                        index.add(tuple);
+                    }
+                    // signatures are created by the index, so they are included in its footprint
+                    long memoryFootprint = GraphLayout.parseInstance(tuples, memory).totalSize() - tuplesOnly;
+                    long indexFootprint = GraphLayout.parseInstance(tuples, index).totalSize() - tuplesOnly;
+                    System.out.println(String.format("%d\t%.2f\t%s\t%.1f\t%.1f", size, selectivity, implementation,
+                            (double) memoryFootprint / size, (double) indexFootprint / size));
+                }
+            }
+        }
+    }
+
+}
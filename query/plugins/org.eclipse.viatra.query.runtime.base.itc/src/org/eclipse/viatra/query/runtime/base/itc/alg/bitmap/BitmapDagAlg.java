@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.viatra.query.runtime.base.itc.alg.bitmap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.base.itc.alg.misc.DFSPathFinder;
+import org.eclipse.viatra.query.runtime.base.itc.alg.misc.IGraphPathFinder;
+import org.eclipse.viatra.query.runtime.base.itc.igraph.IBiDirectionalGraphDataSource;
+import org.eclipse.viatra.query.runtime.base.itc.igraph.IBiDirectionalWrapper;
+import org.eclipse.viatra.query.runtime.base.itc.igraph.IGraphDataSource;
+import org.eclipse.viatra.query.runtime.base.itc.igraph.IGraphObserver;
+import org.eclipse.viatra.query.runtime.base.itc.igraph.ITcDataSource;
+import org.eclipse.viatra.query.runtime.base.itc.igraph.ITcObserver;
+
+/**
+ * Incremental transitive closure maintenance for directed acyclic graphs, with a compact representation of the
+ * transitive closure relation. Nodes are mapped to dense integer identifiers, and the nodes reachable from (and the
+ * nodes reaching) a given node are stored as a {@link SparseBitmap} of identifiers.
+ *
+ * <p>
+ * Edge insertions are propagated to the nodes reaching the source of the edge by bitmap unions; on edge deletion, the
+ * reachability of the nodes reaching the source of the edge is recomputed from their direct successors, in reverse
+ * topological order.
+ *
+ * <p>
+ * The graph data source must be acyclic, such as the graph of strongly connected components maintained by
+ * {@link org.eclipse.viatra.query.runtime.base.itc.alg.incscc.IncSCCAlg}; self-loops are ignored. Similarly to
+ * {@link org.eclipse.viatra.query.runtime.base.itc.alg.counting.CountingAlg}, a node is not considered to be reachable
+ * from itself.
+ *
+ * <p>
+ * The sets returned by {@link #getAllReachableTargets(Object)} and {@link #getAllReachableSources(Object)} are
+ * unmodifiable snapshots that must not be used after the graph has been modified.
+ *
+ * @author agent
+ * @since 1.7
+ *
+ * @param <V>
+ *            the type parameter of the nodes in the graph data source
+ */
+public class BitmapDagAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
+
+    private static final long serialVersionUID = 2926286938291880318L;
+
+    private IBiDirectionalGraphDataSource<V> gds;
+    private List<ITcObserver<V>> observers;
+
+    private Map<V, Integer> ids;
+    /**
+     * Nodes indexed by their identifiers; null for unused identifiers
+     */
+    private List<V> nodes;
+    private Deque<Integer> freeIds;
+    /**
+     * For each identifier, the identifiers of the nodes reachable from the node
+     */
+    private List<SparseBitmap> targets;
+    /**
+     * For each identifier, the identifiers of the nodes from which the node is reachable
+     */
+    private List<SparseBitmap> sources;
+
+    /**
+     * Constructs a new algorithm instance and initializes the transitive closure relation with the given acyclic graph
+     * data source. Attaches itself on the graph data source as an observer.
+     *
+     * @param graphDataSource
+     *            the graph data source instance
+     */
+    public BitmapDagAlg(IGraphDataSource<V> graphDataSource) {
+        if (graphDataSource instanceof IBiDirectionalGraphDataSource<?>) {
+            gds = (IBiDirectionalGraphDataSource<V>) graphDataSource;
+        } else {
+            gds = new IBiDirectionalWrapper<V>(graphDataSource);
+        }
+        observers = new ArrayList<ITcObserver<V>>();
+        ids = new HashMap<V, Integer>();
+        nodes = new ArrayList<V>();
+        freeIds = new ArrayDeque<Integer>();
+        targets = new ArrayList<SparseBitmap>();
+        sources = new ArrayList<SparseBitmap>();
+        initalizeInternalDataStructures();
+        gds.attachObserver(this);
+    }
+
+    private void initalizeInternalDataStructures() {
+        SparseBitmap allNodes = new SparseBitmap();
+        for (V node : gds.getAllNodes()) {
+            allNodes.set(getOrCreateId(node));
+        }
+        for (int id : getReverseTopologicalOrder(allNodes)) {
+            SparseBitmap reachable = computeTargets(nodes.get(id));
+            targets.set(id, reachable);
+            for (int target = reachable.nextSetBit(0); target >= 0; target = reachable.nextSetBit(target + 1)) {
+                sources.get(target).set(id);
+            }
+        }
+    }
+
+    @Override
+    public void edgeInserted(V source, V target) {
+        if (source.equals(target)) {
+            return;
+        }
+        int sourceId = getOrCreateId(source);
+        int targetId = getOrCreateId(target);
+
+        SparseBitmap reachableFromTarget = targets.get(targetId).copy();
+        reachableFromTarget.set(targetId);
+
+        SparseBitmap affected = sources.get(sourceId).copy();
+        affected.set(sourceId);
+        for (int id = affected.nextSetBit(0); id >= 0; id = affected.nextSetBit(id + 1)) {
+            SparseBitmap newTargets = reachableFromTarget.difference(targets.get(id));
+            if (!newTargets.isEmpty()) {
+                targets.get(id).or(newTargets);
+                for (int newTarget = newTargets.nextSetBit(0); newTarget >= 0; newTarget = newTargets
+                        .nextSetBit(newTarget + 1)) {
+                    sources.get(newTarget).set(id);
+                    notifyTcObservers(nodes.get(id), nodes.get(newTarget), true);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void edgeDeleted(V source, V target) {
+        Integer sourceId = ids.get(source);
+        if (source.equals(target) || sourceId == null) {
+            return;
+        }
+        // only nodes reaching the source may lose reachable nodes
+        SparseBitmap affected = sources.get(sourceId).copy();
+        affected.set(sourceId);
+
+        for (int id : getReverseTopologicalOrder(affected)) {
+            SparseBitmap oldTargets = targets.get(id);
+            SparseBitmap newTargets = computeTargets(nodes.get(id));
+            SparseBitmap lostTargets = oldTargets.difference(newTargets);
+            targets.set(id, newTargets);
+            for (int lostTarget = lostTargets.nextSetBit(0); lostTarget >= 0; lostTarget = lostTargets
+                    .nextSetBit(lostTarget + 1)) {
+                sources.get(lostTarget).clear(id);
+                notifyTcObservers(nodes.get(id), nodes.get(lostTarget), false);
+            }
+        }
+    }
+
+    @Override
+    public void nodeInserted(V n) {
+        getOrCreateId(n);
+    }
+
+    @Override
+    public void nodeDeleted(V n) {
+        // the edges of the node have already been deleted
+        Integer id = ids.remove(n);
+        if (id != null) {
+            nodes.set(id, null);
+            targets.set(id, null);
+            sources.set(id, null);
+            freeIds.push(id);
+        }
+    }
+
+    /**
+     * Computes the nodes reachable from the given node as the union of its direct successors and the nodes reachable
+     * from them.
+     */
+    private SparseBitmap computeTargets(V node) {
+        SparseBitmap reachable = new SparseBitmap();
+        int nodeId = ids.get(node);
+        for (V successor : gds.getTargetNodes(node).keySet()) {
+            int successorId = getOrCreateId(successor);
+            if (successorId != nodeId) {
+                reachable.set(successorId);
+                reachable.or(targets.get(successorId));
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Orders the given nodes so that each node comes after its successors among the given nodes.
+     */
+    private List<Integer> getReverseTopologicalOrder(SparseBitmap subset) {
+        List<Integer> order = new ArrayList<Integer>();
+        SparseBitmap visited = new SparseBitmap();
+        Deque<Integer> stack = new ArrayDeque<Integer>();
+        Deque<Iterator<V>> successorIterators = new ArrayDeque<Iterator<V>>();
+
+        for (int root = subset.nextSetBit(0); root >= 0; root = subset.nextSetBit(root + 1)) {
+            if (visited.set(root)) {
+                stack.push(root);
+                successorIterators.push(gds.getTargetNodes(nodes.get(root)).keySet().iterator());
+                while (!stack.isEmpty()) {
+                    Iterator<V> successors = successorIterators.peek();
+                    if (successors.hasNext()) {
+                        Integer successorId = ids.get(successors.next());
+                        if (successorId != null && subset.get(successorId) && visited.set(successorId)) {
+                            stack.push(successorId);
+                            successorIterators.push(gds.getTargetNodes(nodes.get(successorId)).keySet().iterator());
+                        }
+                    } else {
+                        successorIterators.pop();
+                        order.add(stack.pop());
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private int getOrCreateId(V node) {
+        Integer id = ids.get(node);
+        if (id == null) {
+            if (freeIds.isEmpty()) {
+                id = nodes.size();
+                nodes.add(node);
+                targets.add(new SparseBitmap());
+                sources.add(new SparseBitmap());
+            } else {
+                id = freeIds.pop();
+                nodes.set(id, node);
+                targets.set(id, new SparseBitmap());
+                sources.set(id, new SparseBitmap());
+            }
+            ids.put(node, id);
+        }
+        return id;
+    }
+
+    @Override
+    public boolean isReachable(V source, V target) {
+        Integer sourceId = ids.get(source);
+        Integer targetId = ids.get(target);
+        return sourceId != null && targetId != null && targets.get(sourceId).get(targetId);
+    }
+
+    @Override
+    public Set<V> getAllReachableTargets(V source) {
+        Integer id = ids.get(source);
+        return new BitmapNodeSet<V>(id == null ? new SparseBitmap() : targets.get(id).copy(), nodes, ids);
+    }
+
+    @Override
+    public Set<V> getAllReachableSources(V target) {
+        Integer id = ids.get(target);
+        return new BitmapNodeSet<V>(id == null ? new SparseBitmap() : sources.get(id).copy(), nodes, ids);
+    }
+
+    @Override
+    public void attachObserver(ITcObserver<V> to) {
+        observers.add(to);
+    }
+
+    @Override
+    public void detachObserver(ITcObserver<V> to) {
+        observers.remove(to);
+    }
+
+    private void notifyTcObservers(V source, V target, boolean inserted) {
+        for (ITcObserver<V> observer : observers) {
+            if (inserted) {
+                observer.tupleInserted(source, target);
+            } else {
+                observer.tupleDeleted(source, target);
+            }
+        }
+    }
+
+    @Override
+    public IGraphPathFinder<V> getPathFinder() {
+        return new DFSPathFinder<V>(gds, this);
+    }
+
+    @Override
+    public void dispose() {
+        gds.detachObserver(this);
+        ids.clear();
+        nodes.clear();
+        freeIds.clear();
+        targets.clear();
+        sources.clear();
+    }
+
+}
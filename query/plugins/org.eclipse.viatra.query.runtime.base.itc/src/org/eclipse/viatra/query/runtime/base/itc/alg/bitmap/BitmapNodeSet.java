@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.viatra.query.runtime.base.itc.alg.bitmap;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * An unmodifiable set of nodes, represented by a bitmap of their identifiers. Avoids the allocation of a hash set
+ * entry per node; the identifiers are only translated back to nodes upon iteration.
+ *
+ * @author agent
+ *
+ * @param <V>
+ *            the type parameter of the nodes
+ */
+class BitmapNodeSet<V> extends AbstractSet<V> {
+
+    private final SparseBitmap bitmap;
+    private final List<V> nodes;
+    private final Map<V, Integer> ids;
+    private int size = -1;
+
+    /**
+     * @param bitmap
+     *            the identifiers of the contained nodes; must not be modified afterwards
+     * @param nodes
+     *            the nodes indexed by their identifiers
+     * @param ids
+     *            the identifiers of the nodes
+     */
+    BitmapNodeSet(SparseBitmap bitmap, List<V> nodes, Map<V, Integer> ids) {
+        this.bitmap = bitmap;
+        this.nodes = nodes;
+        this.ids = ids;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        Integer id = ids.get(o);
+        return id != null && bitmap.get(id);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bitmap.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            size = bitmap.cardinality();
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+        return new Iterator<V>() {
+            private int next = bitmap.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public V next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                V node = nodes.get(next);
+                next = bitmap.nextSetBit(next + 1);
+                return node;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
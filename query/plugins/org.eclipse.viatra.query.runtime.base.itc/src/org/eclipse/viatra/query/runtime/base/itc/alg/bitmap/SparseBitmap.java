@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.viatra.query.runtime.base.itc.alg.bitmap;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of non-negative integers. Only the non-empty 64-bit words of the bitmap are stored, together with
+ * their indices, in sorted order; the memory footprint is therefore proportional to the number of non-empty words
+ * instead of the largest element, as opposed to {@link java.util.BitSet}. Dense runs of integers share words.
+ *
+ * <p>
+ * Not thread-safe.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class SparseBitmap {
+
+    private static final int[] NO_INDICES = new int[0];
+    private static final long[] NO_WORDS = new long[0];
+
+    /**
+     * Sorted indices of the non-empty words; only the first {@link #size} elements are used
+     */
+    private int[] indices;
+    /**
+     * The non-empty words, aligned with {@link #indices}
+     */
+    private long[] words;
+    private int size;
+
+    /**
+     * Creates an empty bitmap.
+     */
+    public SparseBitmap() {
+        indices = NO_INDICES;
+        words = NO_WORDS;
+        size = 0;
+    }
+
+    private SparseBitmap(int[] indices, long[] words, int size) {
+        this.indices = indices;
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * @return true if the given integer is contained in the bitmap
+     */
+    public boolean get(int bit) {
+        int position = Arrays.binarySearch(indices, 0, size, wordIndex(bit));
+        return position >= 0 && (words[position] & mask(bit)) != 0;
+    }
+
+    /**
+     * Adds the given integer to the bitmap.
+     *
+     * @return true if the bitmap has changed
+     */
+    public boolean set(int bit) {
+        int position = Arrays.binarySearch(indices, 0, size, wordIndex(bit));
+        if (position >= 0) {
+            long oldWord = words[position];
+            words[position] = oldWord | mask(bit);
+            return oldWord != words[position];
+        } else {
+            insertWord(-position - 1, wordIndex(bit), mask(bit));
+            return true;
+        }
+    }
+
+    /**
+     * Removes the given integer from the bitmap.
+     *
+     * @return true if the bitmap has changed
+     */
+    public boolean clear(int bit) {
+        int position = Arrays.binarySearch(indices, 0, size, wordIndex(bit));
+        if (position < 0 || (words[position] & mask(bit)) == 0) {
+            return false;
+        }
+        words[position] &= ~mask(bit);
+        if (words[position] == 0) {
+            removeWord(position);
+        }
+        return true;
+    }
+
+    /**
+     * Adds all integers of the other bitmap to this bitmap. The words are merged in place; the arrays of this bitmap
+     * are only reallocated if the other bitmap has words at new indices and they do not fit into the spare capacity.
+     */
+    public void or(SparseBitmap other) {
+        // first pass: count the words at new indices, and stop early if the other bitmap is a subset
+        int newWordCount = 0;
+        boolean subset = true;
+        int i = 0;
+        for (int j = 0; j < other.size; j++) {
+            while (i < size && indices[i] < other.indices[j]) {
+                i++;
+            }
+            if (i < size && indices[i] == other.indices[j]) {
+                subset &= (other.words[j] & ~words[i]) == 0;
+            } else {
+                newWordCount++;
+            }
+        }
+        if (newWordCount == 0) {
+            if (!subset) {
+                i = 0;
+                for (int j = 0; j < other.size; j++) {
+                    while (indices[i] < other.indices[j]) {
+                        i++;
+                    }
+                    words[i] |= other.words[j];
+                }
+            }
+            return;
+        }
+        int newSize = size + newWordCount;
+        if (newSize > indices.length) {
+            int newCapacity = Math.max(newSize, size + (size >> 1));
+            indices = Arrays.copyOf(indices, newCapacity);
+            words = Arrays.copyOf(words, newCapacity);
+        }
+        // second pass: merge from the end, so that no word is overwritten before it is moved
+        i = size - 1;
+        int j = other.size - 1;
+        for (int k = newSize - 1; k > i; k--) {
+            if (i >= 0 && indices[i] > other.indices[j]) {
+                indices[k] = indices[i];
+                words[k] = words[i--];
+            } else if (i >= 0 && indices[i] == other.indices[j]) {
+                indices[k] = indices[i];
+                words[k] = words[i--] | other.words[j--];
+            } else {
+                indices[k] = other.indices[j];
+                words[k] = other.words[j--];
+            }
+        }
+        // the remaining prefix keeps its indices, only the shared words have to be merged
+        for (; j >= 0; j--) {
+            while (indices[i] > other.indices[j]) {
+                i--;
+            }
+            words[i] |= other.words[j];
+        }
+        size = newSize;
+    }
+
+    /**
+     * @return a new bitmap containing the integers of this bitmap that are not contained in the other one
+     */
+    public SparseBitmap difference(SparseBitmap other) {
+        int[] newIndices = new int[size];
+        long[] newWords = new long[size];
+        int newSize = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.indices[j] < indices[i]) {
+                j++;
+            }
+            long word = words[i];
+            if (j < other.size && other.indices[j] == indices[i]) {
+                word &= ~other.words[j];
+            }
+            if (word != 0) {
+                newIndices[newSize] = indices[i];
+                newWords[newSize++] = word;
+            }
+        }
+        return new SparseBitmap(newIndices, newWords, newSize);
+    }
+
+    /**
+     * Returns the smallest integer of the bitmap that is greater than or equal to the given one, or -1 if there is no
+     * such integer. See {@link java.util.BitSet#nextSetBit(int)}.
+     */
+    public int nextSetBit(int fromBit) {
+        int position = Arrays.binarySearch(indices, 0, size, wordIndex(fromBit));
+        if (position >= 0) {
+            long word = words[position] & (-1L << fromBit);
+            if (word != 0) {
+                return indices[position] * Long.SIZE + Long.numberOfTrailingZeros(word);
+            }
+            position++;
+        } else {
+            position = -position - 1;
+        }
+        if (position < size) {
+            return indices[position] * Long.SIZE + Long.numberOfTrailingZeros(words[position]);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of integers in the bitmap
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += Long.bitCount(words[i]);
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return an independent copy of this bitmap, trimmed to size
+     */
+    public SparseBitmap copy() {
+        return new SparseBitmap(Arrays.copyOf(indices, size), Arrays.copyOf(words, size), size);
+    }
+
+    private void insertWord(int position, int index, long word) {
+        if (size == indices.length) {
+            int newCapacity = Math.max(4, size + (size >> 1));
+            indices = Arrays.copyOf(indices, newCapacity);
+            words = Arrays.copyOf(words, newCapacity);
+        }
+        System.arraycopy(indices, position, indices, position + 1, size - position);
+        System.arraycopy(words, position, words, position + 1, size - position);
+        indices[position] = index;
+        words[position] = word;
+        size++;
+    }
+
+    private void removeWord(int position) {
+        System.arraycopy(indices, position + 1, indices, position, size - position - 1);
+        System.arraycopy(words, position + 1, words, position, size - position - 1);
+        size--;
+    }
+
+    private static int wordIndex(int bit) {
+        return bit >>> 6;
+    }
+
+    private static long mask(int bit) {
+        // shifts are modulo 64
+        return 1L << bit;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + indices[i];
+            hash = 31 * hash + (int) (words[i] ^ (words[i] >>> 32));
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SparseBitmap)) {
+            return false;
+        }
+        SparseBitmap other = (SparseBitmap) obj;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (indices[i] != other.indices[i] || words[i] != other.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int bit = nextSetBit(0); bit >= 0; bit = nextSetBit(bit + 1)) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(bit);
+        }
+        return builder.append("}").toString();
+    }
+
+}
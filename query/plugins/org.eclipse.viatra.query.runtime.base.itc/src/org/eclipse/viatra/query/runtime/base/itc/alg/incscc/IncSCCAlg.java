@@ -21,6 +21,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 
+import org.eclipse.viatra.query.runtime.base.itc.alg.bitmap.BitmapDagAlg;
 import org.eclipse.viatra.query.runtime.base.itc.alg.counting.CountingAlg;
 import org.eclipse.viatra.query.runtime.base.itc.alg.dred.DRedTcRelation;
 import org.eclipse.viatra.query.runtime.base.itc.alg.misc.DFSPathFinder;
@@ -43,6 +44,10 @@ import org.eclipse.viatra.query.runtime.matchers.util.Direction;
 /**
  * Incremental SCC maintenance + counting algorithm.
  * 
+ * <p>
+ * The reachability between SCCs is maintained either by the {@link CountingAlg} or, in compact reachability mode, by
+ * the {@link BitmapDagAlg} that stores the transitive closure of the graph of SCCs as bitmaps.
+ * 
  * @author Tamas Szabo
  * 
  * @param <V>
@@ -54,14 +59,25 @@ public class IncSCCAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
 
     public UnionFind<V> sccs;
     public IBiDirectionalGraphDataSource<V> gds;
-    private CountingAlg<V> counting;
+    private ITcDataSource<V> counting;
     private Graph<V> reducedGraph;
     private IBiDirectionalGraphDataSource<V> reducedGraphIndexer;
     private List<ITcObserver<V>> observers;
     private CountingListener<V> countingListener;
 
     public IncSCCAlg(IGraphDataSource<V> graphDataSource) {
+        this(graphDataSource, false);
+    }
 
+    /**
+     * @param graphDataSource
+     *            the graph data source instance
+     * @param compactReachability
+     *            if true, the reachability between SCCs is stored as bitmaps, which has a much smaller memory footprint
+     *            for large graphs; see {@link BitmapDagAlg}
+     * @since 1.7
+     */
+    public IncSCCAlg(IGraphDataSource<V> graphDataSource, boolean compactReachability) {
         if (graphDataSource instanceof IBiDirectionalGraphDataSource<?>) {
             gds = (IBiDirectionalGraphDataSource<V>) graphDataSource;
         } else {
@@ -72,11 +88,11 @@ public class IncSCCAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
         reducedGraph = new Graph<V>();
         reducedGraphIndexer = new IBiDirectionalWrapper<V>(reducedGraph);
         countingListener = new CountingListener<V>(this);
-        initalizeInternalDataStructures();
+        initalizeInternalDataStructures(compactReachability);
         gds.attachObserver(this);
     }
 
-    private void initalizeInternalDataStructures() {
+    private void initalizeInternalDataStructures(boolean compactReachability) {
         SCCResult<V> _sccres = SCC.computeSCC(gds);
         Set<Set<V>> _sccs = _sccres.getSccs();
 
@@ -104,7 +120,11 @@ public class IncSCCAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
             }
         }
 
-        counting = new CountingAlg<V>(reducedGraph);
+        if (compactReachability) {
+            counting = new BitmapDagAlg<V>(reducedGraph);
+        } else {
+            counting = new CountingAlg<V>(reducedGraph);
+        }
     }
 
     @Override
@@ -299,10 +319,10 @@ public class IncSCCAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
                     V newSourceRoot = sccs.find(source);
                     V newTargetRoot = sccs.find(target);
 
-                    Set<V> sourceSCCs = counting.getAllReachableSources(newSourceRoot);
+                    Set<V> sourceSCCs = new HashSet<V>(counting.getAllReachableSources(newSourceRoot));
                     sourceSCCs.add(newSourceRoot);
 
-                    Set<V> targetSCCs = counting.getAllReachableTargets(newTargetRoot);
+                    Set<V> targetSCCs = new HashSet<V>(counting.getAllReachableTargets(newTargetRoot));
                     targetSCCs.add(newTargetRoot);
 
                     for (V sourceSCC : sourceSCCs) {
@@ -364,6 +384,7 @@ public class IncSCCAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
         }
 
         sccs.deleteSet(n);
+        reducedGraph.deleteNode(n);
     }
 
     @Override
@@ -454,8 +475,8 @@ public class IncSCCAlg<V> implements IGraphObserver<V>, ITcDataSource<V> {
             }
         }
 
-        for (V root : counting.getTcRelation().getTupleStarts()) {
-            for (V end : counting.getTcRelation().getTupleEnds(root)) {
+        for (V root : sccs.getPartitionHeads()) {
+            for (V end : counting.getAllReachableTargets(root)) {
                 for (V s : sccs.getPartition(root)) {
                     for (V t : sccs.getPartition(end)) {
                         if (!tc.containsTuple(s, t))
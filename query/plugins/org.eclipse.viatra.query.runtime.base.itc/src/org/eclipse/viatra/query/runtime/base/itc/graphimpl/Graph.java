@@ -156,6 +156,9 @@ public class Graph<V> implements IGraphDataSource<V>, IBiDirectionalGraphDataSou
                 go.nodeDeleted(node);
             }
         }
+
+        outgoingEdges.remove(node);
+        incomingEdges.remove(node);
     }
 
     @Override
@@ -13,8 +13,11 @@ package org.eclipse.viatra.query.runtime.base.api;
 import org.eclipse.viatra.query.runtime.base.api.filters.IBaseIndexFeatureFilter;
 import org.eclipse.viatra.query.runtime.base.api.filters.IBaseIndexObjectFilter;
 import org.eclipse.viatra.query.runtime.base.api.filters.IBaseIndexResourceFilter;
+import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 
 import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 
 /**
  * The base index options indicate how the indices are built.
@@ -70,6 +73,48 @@ public class BaseIndexOptions {
      */
     protected static final boolean STRICT_NOTIFICATION_MODE_DEFAULT = true;
 
+    /**
+     * By default, the model is traversed on the calling thread.
+     * 
+     * @since 1.7
+     */
+    protected static final boolean PARALLEL_TRAVERSAL_DEFAULT = false;
+
+    /**
+     * By default, parallel traversals use as many threads as there are available processors.
+     * 
+     * @since 1.7
+     */
+    protected static final int TRAVERSAL_THREADS_DEFAULT = 0;
+
+    /**
+     * By default, the index contents are stored in general-purpose collections.
+     * 
+     * @since 1.7
+     */
+    protected static final boolean COMPACT_STORE_MODE_DEFAULT = false;
+
+    /**
+     * By default, resources are indexed by traversing their contents.
+     * 
+     * @since 1.7
+     */
+    protected static final boolean INDEX_SNAPSHOTS_DEFAULT = false;
+
+    /**
+     * By default, the index may only be accessed from a single thread at a time.
+     * 
+     * @since 1.7
+     */
+    protected static final boolean CONCURRENT_READ_ACCESS_DEFAULT = false;
+
+    /**
+     * By default, all resources in scope are indexed.
+     * 
+     * @since 1.7
+     */
+    protected static final boolean LAZY_RESOURCE_INDEXING_DEFAULT = false;
+
     /**
      * @since 1.6
      */
@@ -92,6 +137,60 @@ public class BaseIndexOptions {
      * @since 1.6
      */
     protected boolean strictNotificationMode = STRICT_NOTIFICATION_MODE_DEFAULT;
+    
+    /**
+     * The collections implementation used by the index stores; null if not specified.
+     * 
+     * @since 1.7
+     */
+    protected ICollectionsFramework collectionsFramework;
+
+    /**
+     * If parallel traversal is turned on, model traversals gather index contents on multiple threads, and merge them
+     * into the index afterwards.
+     * 
+     * @since 1.7
+     */
+    protected boolean parallelTraversal = PARALLEL_TRAVERSAL_DEFAULT;
+
+    /**
+     * The number of threads used by parallel traversals; 0 for the number of available processors.
+     * 
+     * @since 1.7
+     */
+    protected int traversalThreads = TRAVERSAL_THREADS_DEFAULT;
+
+    /**
+     * If compact store mode is turned on, the index contents are stored in a representation optimized for memory
+     * consumption.
+     * 
+     * @since 1.7
+     */
+    protected boolean compactStoreMode = COMPACT_STORE_MODE_DEFAULT;
+
+    /**
+     * If index snapshots are turned on, resources are indexed from a previously saved snapshot instead of a traversal,
+     * where possible.
+     * 
+     * @since 1.7
+     */
+    protected boolean indexSnapshots = INDEX_SNAPSHOTS_DEFAULT;
+
+    /**
+     * If concurrent read access is turned on, the index can be queried from multiple threads in parallel, while the
+     * model is updated by a single thread.
+     * 
+     * @since 1.7
+     */
+    protected boolean concurrentReadAccess = CONCURRENT_READ_ACCESS_DEFAULT;
+
+    /**
+     * If lazy resource indexing is turned on, resources of a resource set are only indexed once their contents are
+     * needed.
+     * 
+     * @since 1.7
+     */
+    protected boolean lazyResourceIndexing = LAZY_RESOURCE_INDEXING_DEFAULT;
 
     /**
      * Creates a base index options with the default values.
@@ -256,6 +355,162 @@ public class BaseIndexOptions {
         result.strictNotificationMode = strictNotificationMode;
         return result;
     }
+    
+    /**
+     * Returns a copy of the configuration with the specified collections implementation used by the index stores.
+     * 
+     * @since 1.7
+     */
+    public BaseIndexOptions withCollectionsFramework(ICollectionsFramework collectionsFramework) {
+        BaseIndexOptions result = copy();
+        result.collectionsFramework = collectionsFramework;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the configuration with parallel model traversal turned on or off. If turned on, model
+     * traversals (e.g. the initial indexing of the model, or the indexing of newly registered types) split the model
+     * into the top-level objects of its resources, and visit them on multiple threads; the contents gathered this way
+     * are merged into the index on the calling thread.
+     * 
+     * <p>
+     * Should only be turned on if the model (including derived features, as well as the filters of this
+     * configuration) is safe to read concurrently, and the model is not modified during the traversal. Proxies are not
+     * resolved by the worker threads; they are resolved after the traversal instead.
+     * 
+     * @since 1.7
+     */
+    public BaseIndexOptions withParallelTraversal(boolean parallelTraversal) {
+        BaseIndexOptions result = copy();
+        result.parallelTraversal = parallelTraversal;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the configuration with the specified number of threads used by parallel model traversals (see
+     * {@link #withParallelTraversal(boolean)}). The threads are owned by the index, and are stopped when it is
+     * disposed.
+     * 
+     * @param traversalThreads
+     *            the number of threads; 0 for the number of available processors
+     * @throws IllegalArgumentException
+     *             if the number of threads is negative
+     * @since 1.7
+     */
+    public BaseIndexOptions withTraversalThreads(int traversalThreads) {
+        Preconditions.checkArgument(traversalThreads >= 0, "Negative number of traversal threads: %s",
+                traversalThreads);
+        BaseIndexOptions result = copy();
+        result.traversalThreads = traversalThreads;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the configuration with compact store mode turned on or off. If turned on, the instances,
+     * data type values and feature values are stored in a representation that avoids per-entry wrapper objects: e.g.
+     * a value held by a single object in a feature is stored without any collection, and counters are primitive
+     * integers. This considerably reduces the memory consumption of large indexes, while lookups of the values of a
+     * given object in a multi-valued feature, and lookups across all features, become slightly more expensive.
+     * 
+     * @since 1.7
+     */
+    public BaseIndexOptions withCompactStoreMode(boolean compactStoreMode) {
+        BaseIndexOptions result = copy();
+        result.compactStoreMode = compactStoreMode;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the configuration with index snapshots turned on or off. If turned on, the contents of a
+     * resource are indexed by replaying a snapshot saved by {@link NavigationHelper#writeIndexSnapshot(org.eclipse.emf.ecore.resource.Resource)}
+     * alongside the resource, instead of reflectively traversing the contents, provided that the snapshot is valid: it
+     * was taken of the same persisted resource (verified by the size and modification time of the file, as well as the
+     * classes of the contained objects), with compatible options.
+     * 
+     * <p>
+     * Snapshots are only used for resources that are indexed right after they were loaded; a resource is traversed as
+     * usual after the first change notification concerning its contents. Objects referring to other resources (except
+     * for registered metamodels), or to unresolved proxies, are traversed as usual as well.
+     * 
+     * <p>
+     * The snapshot records the features selected by the options of the index that wrote it; it should be written with
+     * the same feature filter configuration as the one used for reading it.
+     * 
+     * @since 1.7
+     */
+    public BaseIndexOptions withIndexSnapshots(boolean indexSnapshots) {
+        BaseIndexOptions result = copy();
+        result.indexSnapshots = indexSnapshots;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the configuration with concurrent read access turned on or off. If turned on, the index may be
+     * read (e.g. by {@link NavigationHelper#getAllInstances(org.eclipse.emf.ecore.EClass)},
+     * {@link NavigationHelper#getInverseReferences(org.eclipse.emf.ecore.EObject)} or local search matchers) from
+     * multiple threads in parallel, while the model is modified by a single thread at a time.
+     * 
+     * <p>
+     * The index is guarded by a read-write lock: reads are performed in parallel, while the processing of each model
+     * change notification, as well as each model traversal, is performed exclusively, so that readers never observe a
+     * partially processed change. Reading the contents of already indexed types only waits for such an update in
+     * progress; it never initiates a traversal. Collections returned by the index are copies, instead of live views.
+     * 
+     * <p>
+     * Listeners are notified on the thread that updated the model. Note that EMF models themselves are not thread-safe:
+     * readers must not navigate the model directly while it is being modified.
+     * 
+     * @since 1.7
+     */
+    public BaseIndexOptions withConcurrentReadAccess(boolean concurrentReadAccess) {
+        BaseIndexOptions result = copy();
+        result.concurrentReadAccess = concurrentReadAccess;
+        return result;
+    }
+    
+    /**
+     * Returns a copy of the configuration with lazy resource indexing turned on or off. If turned on, the resources of
+     * a resource set are not traversed and observed by the index until the index is needed for a class occurring in
+     * them, or for a feature or attribute type of such a class. Until then, only a lightweight summary of the classes
+     * of their contents is maintained. Therefore indexing a few types of a resource set consisting of many resources
+     * only traverses the resources where instances of these types may occur.
+     * 
+     * <p>
+     * If an indexed resource is unloaded, its contents are removed from the index, and it is not indexed again after
+     * reloading until its new contents are needed. Resources added as model roots directly are always indexed.
+     * 
+     * <p>
+     * Unloading is not cheaper than without this option: the contents of the resource are removed element by element,
+     * and listeners of the index receive a removal notification for each of them. Only the re-indexing of the reloaded
+     * resource is deferred.
+     * 
+     * <p>
+     * The option has no effect in wildcard mode.
+     * 
+     * @since 1.7
+     */
+    public BaseIndexOptions withLazyResourceIndexing(boolean lazyResourceIndexing) {
+        BaseIndexOptions result = copy();
+        result.lazyResourceIndexing = lazyResourceIndexing;
+        return result;
+    }
+    
+    /**
+     * @return the selected collections implementation, or {@link CollectionsFactory#DEFAULT_FRAMEWORK} if not set
+     * @since 1.7
+     */
+    public ICollectionsFramework getCollectionsFramework() {
+        return CollectionsFactory.orDefault(collectionsFramework);
+    }
+    
+    /**
+     * @return whether a collections implementation was selected explicitly
+     * @since 1.7
+     */
+    public boolean isCollectionsFrameworkSpecified() {
+        return collectionsFramework != null;
+    }
+    
     /**
      * @return whether the base index option has wildcard mode set
      */
@@ -282,6 +537,60 @@ public class BaseIndexOptions {
         return strictNotificationMode;
     }
 
+    /**
+     * @return whether model traversals are performed on multiple threads
+     * @see #withParallelTraversal(boolean)
+     * @since 1.7
+     */
+    public boolean isParallelTraversal() {
+        return parallelTraversal;
+    }
+
+    /**
+     * @return the number of threads used by parallel model traversals; 0 for the number of available processors
+     * @see #withTraversalThreads(int)
+     * @since 1.7
+     */
+    public int getTraversalThreads() {
+        return traversalThreads;
+    }
+
+    /**
+     * @return whether the index contents are stored in a representation optimized for memory consumption
+     * @see #withCompactStoreMode(boolean)
+     * @since 1.7
+     */
+    public boolean isCompactStoreMode() {
+        return compactStoreMode;
+    }
+
+    /**
+     * @return whether resources are indexed from previously saved snapshots where possible
+     * @see #withIndexSnapshots(boolean)
+     * @since 1.7
+     */
+    public boolean isIndexSnapshots() {
+        return indexSnapshots;
+    }
+
+    /**
+     * @return whether the index can be read from multiple threads in parallel
+     * @see #withConcurrentReadAccess(boolean)
+     * @since 1.7
+     */
+    public boolean isConcurrentReadAccess() {
+        return concurrentReadAccess;
+    }
+
+    /**
+     * @return whether resources are only indexed once their contents are needed
+     * @see #withLazyResourceIndexing(boolean)
+     * @since 1.7
+     */
+    public boolean isLazyResourceIndexing() {
+        return lazyResourceIndexing;
+    }
+
     /**
      * Creates an independent copy of itself. The values of each option will be the same as this options. This method is
      * used when a provided option must be copied to avoid external option changes afterward.
@@ -296,6 +605,13 @@ public class BaseIndexOptions {
         baseIndexOptions.resourceFilterConfiguration = this.resourceFilterConfiguration;
         baseIndexOptions.featureFilterConfiguration = this.featureFilterConfiguration;
         baseIndexOptions.strictNotificationMode = this.strictNotificationMode;
+        baseIndexOptions.collectionsFramework = this.collectionsFramework;
+        baseIndexOptions.parallelTraversal = this.parallelTraversal;
+        baseIndexOptions.traversalThreads = this.traversalThreads;
+        baseIndexOptions.compactStoreMode = this.compactStoreMode;
+        baseIndexOptions.indexSnapshots = this.indexSnapshots;
+        baseIndexOptions.concurrentReadAccess = this.concurrentReadAccess;
+        baseIndexOptions.lazyResourceIndexing = this.lazyResourceIndexing;
         return baseIndexOptions;
     }
 
@@ -303,7 +619,8 @@ public class BaseIndexOptions {
     public int hashCode() {
         return Objects.hashCode(dynamicEMFMode, notifierFilterConfiguration, resourceFilterConfiguration,
                 featureFilterConfiguration, traverseOnlyWellBehavingDerivedFeatures, wildcardMode, strictNotificationMode,
-                danglingFreeAssumption);
+                danglingFreeAssumption, collectionsFramework, parallelTraversal, traversalThreads, compactStoreMode,
+                indexSnapshots, concurrentReadAccess, lazyResourceIndexing);
     }
 
     @Override
@@ -348,6 +665,27 @@ public class BaseIndexOptions {
         if (strictNotificationMode != other.strictNotificationMode) {
             return false;
         }
+        if (!Objects.equal(collectionsFramework, other.collectionsFramework)) {
+            return false;
+        }
+        if (parallelTraversal != other.parallelTraversal) {
+            return false;
+        }
+        if (traversalThreads != other.traversalThreads) {
+            return false;
+        }
+        if (compactStoreMode != other.compactStoreMode) {
+            return false;
+        }
+        if (indexSnapshots != other.indexSnapshots) {
+            return false;
+        }
+        if (concurrentReadAccess != other.concurrentReadAccess) {
+            return false;
+        }
+        if (lazyResourceIndexing != other.lazyResourceIndexing) {
+            return false;
+        }
         return true;
     }
     
@@ -363,6 +701,13 @@ public class BaseIndexOptions {
         appendModifier(sb, notifierFilterConfiguration, null, "notifierFilter=");
         appendModifier(sb, resourceFilterConfiguration, null, "resourceFilter=");
         appendModifier(sb, featureFilterConfiguration, null, "featureFilterConfiguration=");
+        appendModifier(sb, collectionsFramework, null, "collectionsFramework=");
+        appendModifier(sb, parallelTraversal, PARALLEL_TRAVERSAL_DEFAULT, "parallelTraversal");
+        appendModifier(sb, traversalThreads, TRAVERSAL_THREADS_DEFAULT, "traversalThreads=");
+        appendModifier(sb, compactStoreMode, COMPACT_STORE_MODE_DEFAULT, "compactStoreMode");
+        appendModifier(sb, indexSnapshots, INDEX_SNAPSHOTS_DEFAULT, "indexSnapshots");
+        appendModifier(sb, concurrentReadAccess, CONCURRENT_READ_ACCESS_DEFAULT, "concurrentReadAccess");
+        appendModifier(sb, lazyResourceIndexing, LAZY_RESOURCE_INDEXING_DEFAULT, "lazyResourceIndexing");
         final String result = sb.toString();
         return result.isEmpty() ? "defaults" : result;
     }
@@ -11,6 +11,7 @@
 
 package org.eclipse.viatra.query.runtime.base.api;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collection;
 import java.util.Map;
@@ -34,7 +35,10 @@ import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.viatra.query.runtime.base.api.IEClassifierProcessor.IEClassProcessor;
 import org.eclipse.viatra.query.runtime.base.api.IEClassifierProcessor.IEDataTypeProcessor;
+import org.eclipse.viatra.query.runtime.base.api.metrics.BaseIndexMemoryUsage;
+import org.eclipse.viatra.query.runtime.base.api.metrics.BaseIndexMemoryUsageExporter;
 import org.eclipse.viatra.query.runtime.base.exception.ViatraBaseException;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
 
 /**
  * 
@@ -683,6 +687,60 @@ public interface NavigationHelper {
      */
     public boolean isCoalescing();
 
+    /**
+     * Starts a batch of model modifications. Until the matching {@link #endBatch()}, the index is kept up to date, but
+     * the notifications of {@link InstanceListener}s, {@link FeatureListener}s and {@link DataTypeListener}s are
+     * accumulated; insertions and removals of the same element cancel each other out. At the end of the batch, only
+     * the net changes are delivered, grouped by kind, and {@link EMFBaseIndexChangeListener}s are notified once.
+     *
+     * <p>
+     * The batch only affects the delivery of notifications: the index contents are updated as each modification is
+     * processed, not in bulk at the end of the batch.
+     *
+     * <p>
+     * Batches may be nested; the notifications are delivered at the end of the outermost batch. Pending notifications
+     * are also delivered before a listener is added or removed within the batch. {@link LightweightEObjectObserver}s
+     * are notified immediately.
+     *
+     * <p>
+     * Each invocation must be followed by an invocation of {@link #endBatch()}, preferably in a finally block.
+     *
+     * @since 1.7
+     */
+    public void beginBatch();
+
+    /**
+     * Ends a batch of model modifications started by {@link #beginBatch()}; at the end of the outermost batch, the
+     * accumulated notifications are delivered.
+     *
+     * @throws IllegalStateException
+     *             if there is no batch to end
+     * @since 1.7
+     */
+    public void endBatch();
+
+    /**
+     * @return true iff execution is currently between {@link #beginBatch()} and the matching {@link #endBatch()}
+     * @since 1.7
+     */
+    public boolean isInBatch();
+
+    /**
+     * Saves a snapshot of the indexable contents of the given resource alongside the resource, to be used instead of
+     * traversing the resource when it is indexed after being loaded again (see
+     * {@link BaseIndexOptions#withIndexSnapshots(boolean)}). The snapshot is stored next to the persisted resource,
+     * with the additional extension <code>.vqindex</code>; only resources with file URIs are supported.
+     * 
+     * <p>
+     * The contents of the resource must be identical to its persisted contents, e.g. it was just loaded or saved.
+     * 
+     * @throws IOException
+     *             if the snapshot cannot be written, e.g. the resource is not persisted in a file, or its metamodel is
+     *             not registered
+     * @since 1.7
+     */
+    public void writeIndexSnapshot(Resource resource) throws IOException;
+
     /**
      * Adds a coarse-grained listener that will be invoked after the NavigationHelper index or the underlying model is changed. Can be used
      * e.g. to check model contents. Not intended for general use.
@@ -743,6 +801,41 @@ public interface NavigationHelper {
      */
     public void cheapMoveTo(EObject element, EObject parent, EReference containmentFeature);
 
+    /**
+     * Inserts the given objects (along with their entire containment subtrees) into the containment hierarchy of the
+     * EMF model, at the end of the given containment list.
+     *
+     * <p>
+     * When indexing is enabled, inserting a large detached subtree through normal getters/setters updates the index
+     * object by object. This method absorbs the inserted subtrees in a single pass instead: the contents of the new
+     * objects are gathered while they are being observed, then inserted into the index grouped by class and feature,
+     * and the {@link InstanceListener}s and {@link FeatureListener}s of each class and feature are notified together.
+     * {@link EMFBaseIndexChangeListener}s are notified once.
+     *
+     * <p>
+     * Bulk insertions cannot be nested. Within a batch (see {@link #beginBatch()}), the notifications are delivered at
+     * the end of the batch as usual.
+     *
+     * @param targetContainmentReferenceList
+     *            containment list of the parent object into which the elements have to be inserted
+     * @param elements
+     *            the objects to be inserted, preferably detached from any container
+     * @since 1.7
+     */
+    public <T extends EObject> void bulkInsert(EList<T> targetContainmentReferenceList, Collection<? extends T> elements);
+
+    /**
+     * Adds the given resource (along with its contents) to the given resource set. Similarly to
+     * {@link #bulkInsert(EList, Collection)}, the contents of the resource are absorbed by the index in a single pass.
+     *
+     * @param resource
+     *            the resource to be inserted, not yet contained in any resource set
+     * @param resourceSet
+     *            the resource set into which the resource has to be inserted
+     * @since 1.7
+     */
+    public void bulkInsert(Resource resource, ResourceSet resourceSet);
+
     
     /**
      * Traverses all instances of a selected data type stored in the base index, and allows executing a custom function on
@@ -863,4 +956,25 @@ public interface NavigationHelper {
      */
     public int countFeatures(EStructuralFeature feature);
     
+    /**
+     * Returns the distribution of the values of the given feature among its holders and values: the number of distinct
+     * holders and values, the maximal and average number of values per holder (out-degree) and holders per value
+     * (in-degree), and coarse degree histograms. The statistics is maintained incrementally; it is available if the
+     * feature is registered with at least {@link IndexingLevel#STATISTICS}, similarly to
+     * {@link #countFeatures(EStructuralFeature)}.
+     * 
+     * @since 1.7
+     */
+    public DegreeStatistics getFeatureDegreeStatistics(EStructuralFeature feature);
+
+    /**
+     * Estimates the memory used by the index for each indexed class, data type and feature, together with their current
+     * indexing levels. Can be used to decide which types are worth indexing, e.g. when trimming the wildcard mode; see
+     * also {@link BaseIndexMemoryUsageExporter} for exposing it via JMX.
+     * 
+     * @return a snapshot of the current memory usage
+     * @since 1.7
+     */
+    public BaseIndexMemoryUsage getMemoryUsage();
+    
 }
@@ -182,5 +182,28 @@ public class ViatraBaseFactory {
         return new TransitiveClosureHelperImpl(baseIndex, false, referencesToObserve);
     }
     
+    /**
+     * The method creates a TransitiveClosureHelper instance built on an existing NavigationHelper.
+     * A new instance will be created on every call.
+     * 
+     * <p>
+     * In compact reachability mode, the reachability between strongly connected components is stored as bitmaps
+     * instead of hash maps, which considerably reduces the memory footprint of large graphs, at the cost of slower
+     * processing of edge deletions.
+     * 
+     * @param baseIndex
+     *            the already existing NavigationHelper index on the model
+     * @param referencesToObserve
+     *            the set of references to observe
+     * @param compactReachability
+     *            true if the reachability relation should be stored in the compact representation
+     * @return the TransitiveClosureHelper instance
+     * @since 1.7
+     */
+    public TransitiveClosureHelper createTransitiveClosureHelper(NavigationHelper baseIndex,
+            Set<EReference> referencesToObserve, boolean compactReachability) {
+        return new TransitiveClosureHelperImpl(baseIndex, false, referencesToObserve, compactReachability);
+    }
+    
     
 }
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.api.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+
+/**
+ * A snapshot of the memory used by a base index, per indexed class, data type and feature, see
+ * {@link NavigationHelper#getMemoryUsage()}. Taking the snapshot is proportional to the number of stored collections.
+ *
+ * <p>
+ * Memory estimates are rough, assuming a 64-bit JVM with compressed object references; they cover the data structures
+ * of the index, but not the indexed model elements, which are owned by the model.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public final class BaseIndexMemoryUsage {
+
+    private static final Comparator<IndexedKeyMemoryUsage> BY_MEMORY_DESCENDING = new Comparator<IndexedKeyMemoryUsage>() {
+        @Override
+        public int compare(IndexedKeyMemoryUsage o1, IndexedKeyMemoryUsage o2) {
+            long difference = o2.getEstimatedMemory() - o1.getEstimatedMemory();
+            return difference < 0 ? -1 : (difference > 0 ? 1 : o1.getName().compareTo(o2.getName()));
+        }
+    };
+
+    private final IndexingLevel wildcardLevel;
+    private final List<IndexedKeyMemoryUsage> keyUsages;
+
+    /**
+     * @noreference This constructor is not intended to be referenced by clients.
+     */
+    public BaseIndexMemoryUsage(IndexingLevel wildcardLevel, List<IndexedKeyMemoryUsage> keyUsages) {
+        this.wildcardLevel = wildcardLevel;
+        List<IndexedKeyMemoryUsage> sorted = new ArrayList<IndexedKeyMemoryUsage>(keyUsages);
+        Collections.sort(sorted, BY_MEMORY_DESCENDING);
+        this.keyUsages = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * @return the wildcard level of the index, see {@link NavigationHelper#getWildcardLevel()}
+     */
+    public IndexingLevel getWildcardLevel() {
+        return wildcardLevel;
+    }
+
+    /**
+     * @return the memory usage of the types that are either registered or have contents in the index, in descending
+     *         order of estimated memory
+     */
+    public List<IndexedKeyMemoryUsage> getKeyUsages() {
+        return keyUsages;
+    }
+
+    /**
+     * @return the memory usage of the type with the given key (the type itself, or its String id in dynamic EMF mode),
+     *         or null if the type is neither registered nor has contents in the index
+     */
+    public IndexedKeyMemoryUsage getKeyUsage(Object key) {
+        for (IndexedKeyMemoryUsage usage : keyUsages) {
+            if (usage.getKey().equals(key)) {
+                return usage;
+            }
+        }
+        return null;
+    }
+
+    public long getTotalEntryCount() {
+        long total = 0;
+        for (IndexedKeyMemoryUsage usage : keyUsages) {
+            total += usage.getEntryCount();
+        }
+        return total;
+    }
+
+    /**
+     * @return the estimated memory occupied by the stores of the index in bytes
+     */
+    public long getTotalEstimatedMemory() {
+        long total = 0;
+        for (IndexedKeyMemoryUsage usage : keyUsages) {
+            total += usage.getEstimatedMemory();
+        }
+        return total;
+    }
+
+}
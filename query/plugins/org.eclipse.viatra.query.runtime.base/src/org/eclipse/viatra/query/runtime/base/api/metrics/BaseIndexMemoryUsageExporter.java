@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.api.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+
+/**
+ * Exports the memory usage of a base index as an MXBean, see {@link BaseIndexMemoryUsageMXBean}.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class BaseIndexMemoryUsageExporter implements BaseIndexMemoryUsageMXBean {
+
+    /**
+     * The domain of the object names the exporter registers under, unless specified otherwise.
+     */
+    public static final String DEFAULT_DOMAIN = "org.eclipse.viatra.query.runtime.base";
+
+    private final NavigationHelper navigationHelper;
+    private ObjectName registeredName;
+
+    public BaseIndexMemoryUsageExporter(NavigationHelper navigationHelper) {
+        this.navigationHelper = navigationHelper;
+    }
+
+    /**
+     * Registers the exporter in the platform MBean server under the given name, e.g.
+     * <code>org.eclipse.viatra.query.runtime.base:type=BaseIndexMemoryUsage,name=myIndex</code>.
+     *
+     * @throws JMException
+     *             if the registration fails
+     */
+    public synchronized void register(ObjectName name) throws JMException {
+        unregister();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, name);
+        registeredName = name;
+    }
+
+    /**
+     * Registers the exporter in the platform MBean server under a name in the {@link #DEFAULT_DOMAIN} with the given
+     * name key.
+     */
+    public void register(String name) throws JMException {
+        register(new ObjectName(DEFAULT_DOMAIN + ":type=BaseIndexMemoryUsage,name=" + ObjectName.quote(name)));
+    }
+
+    /**
+     * Removes the exporter from the platform MBean server, if registered.
+     */
+    public synchronized void unregister() throws JMException {
+        if (registeredName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            registeredName = null;
+        }
+    }
+
+    private BaseIndexMemoryUsage capture() {
+        return navigationHelper.getMemoryUsage();
+    }
+
+    @Override
+    public String getWildcardLevel() {
+        return capture().getWildcardLevel().name();
+    }
+
+    @Override
+    public int getIndexedKeyCount() {
+        return capture().getKeyUsages().size();
+    }
+
+    @Override
+    public long getTotalEntryCount() {
+        return capture().getTotalEntryCount();
+    }
+
+    @Override
+    public long getTotalEstimatedMemory() {
+        return capture().getTotalEstimatedMemory();
+    }
+
+    @Override
+    public Map<String, String> getIndexingLevelByKey() {
+        Map<String, String> result = new TreeMap<String, String>();
+        for (IndexedKeyMemoryUsage usage : capture().getKeyUsages()) {
+            result.put(usage.getName(), usage.getIndexingLevel().name());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getEntryCountByKey() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (IndexedKeyMemoryUsage usage : capture().getKeyUsages()) {
+            result.put(usage.getName(), usage.getEntryCount());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getEstimatedMemoryByKey() {
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (IndexedKeyMemoryUsage usage : capture().getKeyUsages()) {
+            result.put(usage.getName(), usage.getEstimatedMemory());
+        }
+        return result;
+    }
+
+}
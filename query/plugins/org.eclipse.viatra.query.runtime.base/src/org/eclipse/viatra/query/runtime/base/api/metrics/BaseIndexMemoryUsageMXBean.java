@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.api.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the {@link BaseIndexMemoryUsage} of a base index via JMX. Each attribute access takes
+ * a new snapshot; per-type values are keyed by {@link IndexedKeyMemoryUsage#getName()}.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public interface BaseIndexMemoryUsageMXBean {
+
+    public String getWildcardLevel();
+
+    public int getIndexedKeyCount();
+
+    public long getTotalEntryCount();
+
+    public long getTotalEstimatedMemory();
+
+    public Map<String, String> getIndexingLevelByKey();
+
+    public Map<String, Long> getEntryCountByKey();
+
+    public Map<String, Long> getEstimatedMemoryByKey();
+
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.api.metrics;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+
+/**
+ * The memory used by the base index for a single indexed class, data type or feature at the time a
+ * {@link BaseIndexMemoryUsage} snapshot was taken.
+ *
+ * <p>
+ * Entries of the instance store are the instances of a class, the distinct values of a data type and the values of a
+ * feature (per holder); entries of the statistics store are the instance counters, plus the holders and values whose
+ * degree is tracked for a feature.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public final class IndexedKeyMemoryUsage {
+
+    private final Object key;
+    private final ENamedElement type;
+    private final String name;
+    private final IndexingLevel indexingLevel;
+    private final long instanceStoreEntries;
+    private final long instanceStoreMemory;
+    private final long statisticsStoreEntries;
+    private final long statisticsStoreMemory;
+
+    /**
+     * @noreference This constructor is not intended to be referenced by clients.
+     */
+    public IndexedKeyMemoryUsage(Object key, ENamedElement type, String name, IndexingLevel indexingLevel,
+            long instanceStoreEntries, long instanceStoreMemory, long statisticsStoreEntries,
+            long statisticsStoreMemory) {
+        this.key = key;
+        this.type = type;
+        this.name = name;
+        this.indexingLevel = indexingLevel;
+        this.instanceStoreEntries = instanceStoreEntries;
+        this.instanceStoreMemory = instanceStoreMemory;
+        this.statisticsStoreEntries = statisticsStoreEntries;
+        this.statisticsStoreMemory = statisticsStoreMemory;
+    }
+
+    /**
+     * @return the key of the type in the index: the type itself, or its String id in dynamic EMF mode
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * @return the {@link EClass}, {@link EDataType} or {@link EStructuralFeature} identified by the key, or null if it
+     *         is not known to the index
+     */
+    public ENamedElement getType() {
+        return type;
+    }
+
+    /**
+     * @return a human-readable name of the type, unique within the snapshot
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the current indexing level of the type, incl. the wildcard level of the index
+     */
+    public IndexingLevel getIndexingLevel() {
+        return indexingLevel;
+    }
+
+    public long getInstanceStoreEntries() {
+        return instanceStoreEntries;
+    }
+
+    /**
+     * @return the estimated memory occupied in the instance store in bytes
+     */
+    public long getInstanceStoreMemory() {
+        return instanceStoreMemory;
+    }
+
+    public long getStatisticsStoreEntries() {
+        return statisticsStoreEntries;
+    }
+
+    /**
+     * @return the estimated memory occupied in the statistics store in bytes
+     */
+    public long getStatisticsStoreMemory() {
+        return statisticsStoreMemory;
+    }
+
+    /**
+     * @return the number of entries in all stores
+     */
+    public long getEntryCount() {
+        return instanceStoreEntries + statisticsStoreEntries;
+    }
+
+    /**
+     * @return the estimated memory occupied in all stores in bytes
+     */
+    public long getEstimatedMemory() {
+        return instanceStoreMemory + statisticsStoreMemory;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s): %d entries, ~%d bytes", name, indexingLevel, getEntryCount(),
+                getEstimatedMemory());
+    }
+
+}
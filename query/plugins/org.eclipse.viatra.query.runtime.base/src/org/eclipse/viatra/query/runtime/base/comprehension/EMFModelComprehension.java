@@ -12,6 +12,7 @@
 package org.eclipse.viatra.query.runtime.base.comprehension;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
@@ -147,6 +148,49 @@ public class EMFModelComprehension {
         }
     }
 
+    /**
+     * Collects the objects that {@link #traverseModel(EMFVisitor, Notifier)} would traverse (along with their contents)
+     * for the given model root, applying the same filters; each of them can be traversed independently by
+     * {@link #traverseObject(EMFVisitor, EObject)}.
+     * 
+     * @param roots
+     *            the collection to which the objects are added
+     * @since 1.7
+     */
+    public void collectTraversalRoots(EMFVisitor visitor, Notifier source, Collection<EObject> roots) {
+        if (source == null)
+            return;
+        if (source instanceof EObject) {
+            final EObject sourceObject = (EObject) source;
+            if (sourceObject.eIsProxy()) 
+                throw new IllegalArgumentException("Proxy EObject cannot act as model roots for VIATRA: " + source);
+            roots.add(sourceObject);
+        } else if (source instanceof Resource) {
+            collectResourceContents(visitor, (Resource) source, roots);
+        } else if (source instanceof ResourceSet) {
+            final List<Resource> resources = new ArrayList<Resource>(((ResourceSet) source).getResources());
+            for (Resource resource : resources) {
+                final IBaseIndexResourceFilter resourceFilter = options.getResourceFilterConfiguration();
+                if (resourceFilter != null && resourceFilter.isResourceFiltered(resource))
+                    continue;
+                final IBaseIndexObjectFilter objectFilter = options.getObjectFilterConfiguration();
+                if (objectFilter != null && objectFilter.isFiltered(resource))
+                    continue;
+                collectResourceContents(visitor, resource, roots);
+            }
+        }
+    }
+
+    private void collectResourceContents(EMFVisitor visitor, Resource source, Collection<EObject> roots) {
+        if (visitor.pruneSubtrees(source))
+            return;
+        final IBaseIndexObjectFilter objectFilter = options.getObjectFilterConfiguration();
+        for (EObject eObject : source.getContents()) {
+            if (objectFilter == null || !objectFilter.isFiltered(eObject))
+                roots.add(eObject);
+        }
+    }
+
     public void traverseResourceSet(EMFVisitor visitor, ResourceSet source) {
         if (source == null)
             return;
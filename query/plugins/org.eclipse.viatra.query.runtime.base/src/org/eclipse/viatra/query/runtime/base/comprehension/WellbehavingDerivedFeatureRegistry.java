@@ -36,9 +36,10 @@ import com.google.common.collect.Multimap;
 public class WellbehavingDerivedFeatureRegistry {
 
     
-    private static Collection<EStructuralFeature> contributedWellbehavingDerivedFeatures = Collections.newSetFromMap(new WeakHashMap<EStructuralFeature, Boolean>());
-    private static Collection<EClass> contributedWellbehavingDerivedClasses = Collections.newSetFromMap(new WeakHashMap<EClass, Boolean>());
-    private static Collection<EPackage> contributedWellbehavingDerivedPackages = Collections.newSetFromMap(new WeakHashMap<EPackage, Boolean>());
+    // synchronized, as parallel model traversals may consult the registry from several threads
+    private static Collection<EStructuralFeature> contributedWellbehavingDerivedFeatures = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<EStructuralFeature, Boolean>()));
+    private static Collection<EClass> contributedWellbehavingDerivedClasses = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<EClass, Boolean>()));
+    private static Collection<EPackage> contributedWellbehavingDerivedPackages = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<EPackage, Boolean>()));
     private static Multimap<String, String> contributingPluginOfFeatureMap = HashMultimap.create();
 
     private WellbehavingDerivedFeatureRegistry() {
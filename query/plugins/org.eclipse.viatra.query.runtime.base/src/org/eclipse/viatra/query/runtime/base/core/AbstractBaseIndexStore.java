@@ -12,6 +12,7 @@ package org.eclipse.viatra.query.runtime.base.core;
 
 import org.apache.log4j.Logger;
 import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 
 /**
  * @since 1.6
@@ -21,11 +22,16 @@ public class AbstractBaseIndexStore {
     protected final NavigationHelperImpl navigationHelper;
     protected final Logger logger;
     protected final BaseIndexOptions options;
+    /**
+     * @since 1.7
+     */
+    protected final ICollectionsFramework collections;
     
     public AbstractBaseIndexStore(NavigationHelperImpl navigationHelper, Logger logger) {
         this.navigationHelper = navigationHelper;
         this.logger = logger;
         this.options = navigationHelper.getBaseIndexOptions();
+        this.collections = options.getCollectionsFramework();
     }
     
     protected void logNotificationHandlingError(String msg) {
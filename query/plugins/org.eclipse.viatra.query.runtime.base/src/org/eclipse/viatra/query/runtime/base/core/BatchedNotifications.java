@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+
+/**
+ * Accumulates the listener notifications of the base index during a batch (see
+ * {@link NavigationHelperImpl#beginBatch()}), keeping only the net change of each instance, feature value and data
+ * type value. Insertions and removals of the same element cancel each other out.
+ *
+ * <p>
+ * Only the notifications are batched; the index stores are updated as each modification is processed, as the content
+ * adapter reads them while handling containment changes, proxy resolution and derived features.
+ *
+ * @author agent
+ */
+class BatchedNotifications {
+
+    private static final class Delta {
+        final Object key;
+        final Object element;
+        final Object value;
+        /**
+         * number of insertions minus number of removals
+         */
+        int net;
+        /**
+         * only used for data type values: whether the value occurred before the batch
+         */
+        boolean presentAtStart;
+
+        Delta(Object key, Object element, Object value) {
+            this.key = key;
+            this.element = element;
+            this.value = value;
+        }
+    }
+
+    private final NavigationHelperImpl navigationHelper;
+
+    private Map<List<Object>, Delta> instanceDeltas = new LinkedHashMap<List<Object>, Delta>();
+    private Map<List<Object>, Delta> featureDeltas = new LinkedHashMap<List<Object>, Delta>();
+    private Map<List<Object>, Delta> dataTypeDeltas = new LinkedHashMap<List<Object>, Delta>();
+
+    BatchedNotifications(NavigationHelperImpl navigationHelper) {
+        this.navigationHelper = navigationHelper;
+    }
+
+    private static Delta getDelta(Map<List<Object>, Delta> deltas, Object key, Object element, Object value) {
+        List<Object> deltaKey = Arrays.asList(key, element, value);
+        Delta delta = deltas.get(deltaKey);
+        if (delta == null) {
+            delta = new Delta(key, element, value);
+            deltas.put(deltaKey, delta);
+        }
+        return delta;
+    }
+
+    void instanceChanged(Object clazzKey, EObject instance, boolean isInsertion) {
+        getDelta(instanceDeltas, clazzKey, instance, null).net += isInsertion ? 1 : -1;
+    }
+
+    void featureChanged(EObject host, Object featureKey, Object value, boolean isInsertion) {
+        getDelta(featureDeltas, featureKey, host, value).net += isInsertion ? 1 : -1;
+    }
+
+    void dataTypeChanged(Object typeKey, Object value, boolean isInsertion, boolean firstOrLastOccurrence) {
+        boolean known = dataTypeDeltas.containsKey(Arrays.asList(typeKey, value, null));
+        Delta delta = getDelta(dataTypeDeltas, typeKey, value, null);
+        if (!known) {
+            delta.presentAtStart = !(isInsertion && firstOrLastOccurrence);
+        }
+        delta.net += isInsertion ? 1 : -1;
+    }
+
+    boolean isEmpty() {
+        return instanceDeltas.isEmpty() && featureDeltas.isEmpty() && dataTypeDeltas.isEmpty();
+    }
+
+    /**
+     * Delivers the net changes accumulated so far to the listeners, and empties the buffer. Removals are delivered
+     * first, then insertions, each grouped by kind; feature values are removed before and inserted after their
+     * holders, so that listeners do not observe dangling references.
+     */
+    void deliver() {
+        Map<List<Object>, Delta> instances = instanceDeltas;
+        Map<List<Object>, Delta> features = featureDeltas;
+        Map<List<Object>, Delta> dataTypes = dataTypeDeltas;
+        // listeners may cause further changes
+        instanceDeltas = new LinkedHashMap<List<Object>, Delta>();
+        featureDeltas = new LinkedHashMap<List<Object>, Delta>();
+        dataTypeDeltas = new LinkedHashMap<List<Object>, Delta>();
+
+        for (Delta delta : features.values()) {
+            for (int i = 0; i < -delta.net; i++) {
+                navigationHelper.fireFeatureListeners((EObject) delta.element, delta.key, delta.value, false);
+            }
+        }
+        for (Delta delta : dataTypes.values()) {
+            if (delta.net < 0) {
+                boolean presentAtEnd = isDataTypeValuePresent(delta.key, delta.element);
+                for (int i = 1; i <= -delta.net; i++) {
+                    navigationHelper.fireDataTypeListeners(delta.key, delta.element, false,
+                            i == -delta.net && !presentAtEnd);
+                }
+            }
+        }
+        for (Delta delta : instances.values()) {
+            for (int i = 0; i < -delta.net; i++) {
+                navigationHelper.fireInstanceListeners(delta.key, (EObject) delta.element, false);
+            }
+        }
+
+        for (Delta delta : instances.values()) {
+            for (int i = 0; i < delta.net; i++) {
+                navigationHelper.fireInstanceListeners(delta.key, (EObject) delta.element, true);
+            }
+        }
+        for (Delta delta : dataTypes.values()) {
+            for (int i = 0; i < delta.net; i++) {
+                navigationHelper.fireDataTypeListeners(delta.key, delta.element, true, i == 0 && !delta.presentAtStart);
+            }
+        }
+        for (Delta delta : features.values()) {
+            for (int i = 0; i < delta.net; i++) {
+                navigationHelper.fireFeatureListeners((EObject) delta.element, delta.key, delta.value, true);
+            }
+        }
+    }
+
+    private boolean isDataTypeValuePresent(Object typeKey, Object value) {
+        Set<Object> values = navigationHelper.instanceStore.getDataTypeValues(typeKey);
+        return values != null && values.contains(value);
+    }
+
+}
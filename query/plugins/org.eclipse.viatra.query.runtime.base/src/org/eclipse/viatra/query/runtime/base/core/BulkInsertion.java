@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFVisitor;
+
+/**
+ * Absorbs newly inserted containment subtrees into the index in one pass, see
+ * {@link NavigationHelperImpl#bulkInsert(org.eclipse.emf.common.util.EList, java.util.Collection)}.
+ *
+ * <p>
+ * While a bulk insertion is in progress, the content adapter does not update the stores for each object it starts to
+ * observe; instead, the objects are gathered here, grouped by class and feature. Once the model modification is
+ * complete, the gathered contents are inserted into the stores key by key, so that each instance set, feature index and
+ * statistics counter is looked up once per key, and the listeners of each key are notified together. Instance sets and
+ * data type value maps created for a key are sized for all of its gathered contents (see
+ * {@link org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework#createSet(int)}).
+ *
+ * <p>
+ * Decisions on what to index are made by the delegate visitor, and cached for each class and feature.
+ *
+ * @author agent
+ */
+class BulkInsertion extends EMFVisitor {
+
+    private static final class ClassDecision {
+        Object key;
+        boolean observed;
+        boolean counted;
+    }
+
+    private static final class FeatureDecision {
+        Object key;
+        boolean unique;
+        boolean observed;
+        boolean counted;
+        boolean pruned;
+        Object dataTypeKey;
+        boolean dataTypeObserved;
+        boolean dataTypeCounted;
+    }
+
+    /**
+     * The gathered tuples of a feature, with values in their internal representation
+     */
+    private static final class FeatureTuples {
+        final List<Object> values = new ArrayList<Object>();
+        final List<EObject> holders = new ArrayList<EObject>();
+    }
+
+    private final NavigationHelperImpl navigationHelper;
+    private final NavigationHelperVisitor delegate;
+    private final Map<EClass, ClassDecision> classDecisions = new HashMap<EClass, ClassDecision>();
+    private final Map<EStructuralFeature, FeatureDecision> featureDecisions = new HashMap<EStructuralFeature, FeatureDecision>();
+
+    private final Map<Object, List<EObject>> instances = new LinkedHashMap<Object, List<EObject>>();
+    private final Map<FeatureDecision, FeatureTuples> observedTuples = new LinkedHashMap<FeatureDecision, FeatureTuples>();
+    private final Map<Object, List<Object>> dataTypeValues = new LinkedHashMap<Object, List<Object>>();
+    private final Map<Object, int[]> counts = new LinkedHashMap<Object, int[]>();
+    private final Map<Object, FeatureTuples> countedTuples = new LinkedHashMap<Object, FeatureTuples>();
+    private final List<EObject> expansionCandidates = new ArrayList<EObject>();
+
+    BulkInsertion(NavigationHelperImpl navigationHelper, NavigationHelperVisitor delegate) {
+        super(true);
+        this.navigationHelper = navigationHelper;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Gathers the contents of the given object (but not of its children) instead of inserting them into the stores.
+     */
+    void gather(EObject object) {
+        navigationHelper.getComprehension().traverseObject(this, object);
+    }
+
+    /**
+     * Inserts the gathered contents into the stores of the navigation helper, key by key.
+     */
+    void mergeIntoStores() {
+        final EMFBaseIndexInstanceStore instanceStore = navigationHelper.instanceStore;
+        final EMFBaseIndexStatisticsStore statsStore = navigationHelper.statsStore;
+        for (Entry<Object, List<EObject>> entry : instances.entrySet()) {
+            instanceStore.insertIntoInstanceSet(entry.getKey(), entry.getValue());
+        }
+        for (Entry<FeatureDecision, FeatureTuples> entry : observedTuples.entrySet()) {
+            FeatureDecision decision = entry.getKey();
+            FeatureTuples tuples = entry.getValue();
+            instanceStore.insertFeatureTuples(decision.key, decision.unique, tuples.values, tuples.holders);
+        }
+        for (Entry<Object, List<Object>> entry : dataTypeValues.entrySet()) {
+            instanceStore.insertIntoDataTypeMap(entry.getKey(), entry.getValue());
+        }
+        for (Entry<Object, int[]> entry : counts.entrySet()) {
+            statsStore.addInstances(entry.getKey(), entry.getValue()[0]);
+        }
+        for (Entry<Object, FeatureTuples> entry : countedTuples.entrySet()) {
+            FeatureTuples tuples = entry.getValue();
+            for (int i = 0; i < tuples.holders.size(); i++) {
+                statsStore.addFeature(tuples.holders.get(i), tuples.values.get(i), entry.getKey());
+            }
+        }
+        for (EObject candidate : expansionCandidates) {
+            navigationHelper.considerForExpansion(candidate);
+        }
+    }
+
+    private ClassDecision getClassDecision(EObject source) {
+        EClass eClass = source.eClass();
+        ClassDecision decision = classDecisions.get(eClass);
+        if (decision == null) {
+            EClass resolvedClass = eClass.eIsProxy() ? (EClass) EcoreUtil.resolve(eClass, source) : eClass;
+            decision = new ClassDecision();
+            decision.key = delegate.toKey(resolvedClass);
+            decision.observed = delegate.observesClass(decision.key);
+            decision.counted = delegate.countsClass(decision.key);
+            classDecisions.put(eClass, decision);
+        }
+        return decision;
+    }
+
+    private FeatureDecision getFeatureDecision(EStructuralFeature feature) {
+        FeatureDecision decision = featureDecisions.get(feature);
+        if (decision == null) {
+            decision = new FeatureDecision();
+            decision.key = delegate.toKey(feature);
+            decision.unique = feature.isUnique();
+            decision.observed = delegate.observesFeature(decision.key);
+            decision.counted = delegate.countsFeature(decision.key);
+            decision.pruned = delegate.pruneFeature(feature);
+            if (feature instanceof EAttribute) {
+                decision.dataTypeKey = delegate.toKey(((EAttribute) feature).getEAttributeType());
+                decision.dataTypeObserved = delegate.observesDataType(decision.dataTypeKey);
+                decision.dataTypeCounted = delegate.countsDataType(decision.dataTypeKey);
+            }
+            featureDecisions.put(feature, decision);
+        }
+        return decision;
+    }
+
+    private void count(Object key) {
+        int[] counter = counts.get(key);
+        if (counter == null) {
+            counter = new int[1];
+            counts.put(key, counter);
+        }
+        counter[0]++;
+    }
+
+    private static <K> FeatureTuples getTuples(Map<K, FeatureTuples> tuplesByKey, K key) {
+        FeatureTuples tuples = tuplesByKey.get(key);
+        if (tuples == null) {
+            tuples = new FeatureTuples();
+            tuplesByKey.put(key, tuples);
+        }
+        return tuples;
+    }
+
+    @Override
+    public void visitElement(EObject source) {
+        ClassDecision decision = getClassDecision(source);
+        if (decision.observed) {
+            List<EObject> classInstances = instances.get(decision.key);
+            if (classInstances == null) {
+                classInstances = new ArrayList<EObject>();
+                instances.put(decision.key, classInstances);
+            }
+            classInstances.add(source);
+        }
+        if (decision.counted) {
+            count(decision.key);
+        }
+    }
+
+    @Override
+    public void visitAttribute(EObject source, EAttribute feature, Object target) {
+        FeatureDecision decision = getFeatureDecision(feature);
+        Object value = navigationHelper.metaStore.toInternalValueRepresentation(target);
+        visitFeature(source, decision, value);
+        if (decision.dataTypeObserved) {
+            List<Object> values = dataTypeValues.get(decision.dataTypeKey);
+            if (values == null) {
+                values = new ArrayList<Object>();
+                dataTypeValues.put(decision.dataTypeKey, values);
+            }
+            values.add(value);
+        }
+        if (decision.dataTypeCounted) {
+            count(decision.dataTypeKey);
+        }
+    }
+
+    @Override
+    public void visitInternalContainment(EObject source, EReference feature, EObject target) {
+        visitFeature(source, getFeatureDecision(feature), target);
+    }
+
+    @Override
+    public void visitNonContainmentReference(EObject source, EReference feature, EObject target) {
+        visitFeature(source, getFeatureDecision(feature), target);
+        if (navigationHelper.isExpansionAllowed()) {
+            expansionCandidates.add(target);
+        }
+    }
+
+    private void visitFeature(EObject source, FeatureDecision decision, Object value) {
+        if (decision.observed) {
+            FeatureTuples tuples = getTuples(observedTuples, decision);
+            tuples.values.add(value);
+            tuples.holders.add(source);
+        }
+        if (decision.counted) {
+            FeatureTuples tuples = getTuples(countedTuples, decision.key);
+            tuples.values.add(value);
+            tuples.holders.add(source);
+        }
+    }
+
+    @Override
+    public void visitProxyReference(EObject source, EReference reference, EObject targetObject, Integer position) {
+        delegate.visitProxyReference(source, reference, targetObject, position);
+    }
+
+    @Override
+    public boolean pruneFeature(EStructuralFeature feature) {
+        return getFeatureDecision(feature).pruned;
+    }
+
+    @Override
+    public boolean pruneSubtrees(EObject source) {
+        // children are gathered separately, once the content adapter reaches them
+        return true;
+    }
+
+    @Override
+    public boolean pruneSubtrees(Resource source) {
+        return true;
+    }
+
+    @Override
+    public boolean avoidTransientContainmentLink(EObject source, EReference reference, EObject targetObject) {
+        return delegate.avoidTransientContainmentLink(source, reference, targetObject);
+    }
+
+    @Override
+    public boolean attemptProxyResolutions(EObject source, EReference feature) {
+        return delegate.attemptProxyResolutions(source, feature);
+    }
+
+    @Override
+    public boolean descendAlongCrossResourceContainments() {
+        return delegate.descendAlongCrossResourceContainments();
+    }
+}
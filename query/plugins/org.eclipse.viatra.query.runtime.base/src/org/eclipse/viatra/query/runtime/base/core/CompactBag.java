@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A memory-efficient bag (multiset) of non-null elements, viewed as the {@link java.util.Set} of its distinct
+ * elements. The Set operations ignore multiplicities: {@link #add(Object)} only adds absent elements, and
+ * {@link #remove(Object)} removes all occurrences; multiplicities are maintained by {@link #addOccurrence(Object)} and
+ * {@link #removeOccurrence(Object)}.
+ *
+ * <p>
+ * The elements are kept in a plain array, which is searched linearly while small, and used as an open-addressing hash
+ * table once it grows. Multiplicities are stored in a parallel int array, which is only allocated once an element
+ * occurs more than once. There is no per-element wrapper object.
+ *
+ * <p>
+ * The bag must not be modified while it is iterated; its iterators do not support removal.
+ *
+ * @author agent
+ */
+final class CompactBag<E> extends AbstractSet<E> {
+
+    /**
+     * Up to this number of distinct elements, the array is searched linearly.
+     */
+    private static final int LINEAR_LIMIT = 8;
+    private static final int INITIAL_CAPACITY = 2;
+
+    /**
+     * In linear mode, the distinct elements are stored at the beginning of the array; in hashed mode, the array is an
+     * open-addressing hash table with linear probing, where null denotes an empty slot.
+     */
+    private Object[] elements = new Object[INITIAL_CAPACITY];
+    /**
+     * Multiplicities of the elements in the same positions; null if all multiplicities are 1.
+     */
+    private int[] counts;
+    private int size;
+    private boolean hashed;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o != null && indexOf(o) >= 0;
+    }
+
+    /**
+     * @return the multiplicity of the given element, 0 if it is not contained
+     */
+    public int count(Object o) {
+        if (o == null) {
+            return 0;
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return 0;
+        }
+        return counts == null ? 1 : counts[index];
+    }
+
+    /**
+     * Adds the element if it is not yet contained, with multiplicity 1.
+     *
+     * @return true if the element was not contained before
+     */
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        if (indexOf(e) >= 0) {
+            return false;
+        }
+        insert(e);
+        return true;
+    }
+
+    /**
+     * Adds an occurrence of the given element.
+     *
+     * @return true if this was the first occurrence of the element
+     */
+    public boolean addOccurrence(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        int index = indexOf(e);
+        if (index < 0) {
+            insert(e);
+            return true;
+        }
+        if (counts == null) {
+            counts = new int[elements.length];
+            Arrays.fill(counts, 1);
+        }
+        counts[index]++;
+        return false;
+    }
+
+    /**
+     * Removes an occurrence of the given element, if contained.
+     *
+     * @return true if the last occurrence of the element was removed
+     */
+    public boolean removeOccurrence(Object o) {
+        if (o == null) {
+            return false;
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        if (counts != null && counts[index] > 1) {
+            counts[index]--;
+            return false;
+        }
+        delete(index);
+        return true;
+    }
+
+    /**
+     * Removes all occurrences of the given element.
+     *
+     * @return true if the element was contained
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null) {
+            return false;
+        }
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        delete(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        elements = new Object[INITIAL_CAPACITY];
+        counts = null;
+        size = 0;
+        hashed = false;
+    }
+
+    /**
+     * @return the estimated memory occupied by the bag in bytes, not counting its elements
+     */
+    public long getEstimatedMemory() {
+        return MemoryUsageCollector.object(2 * MemoryUsageCollector.REFERENCE + 4 + 1)
+                + MemoryUsageCollector.array(elements.length, MemoryUsageCollector.REFERENCE)
+                + (counts == null ? 0 : MemoryUsageCollector.array(counts.length, 4));
+    }
+
+    /**
+     * @return an arbitrary element of the non-empty bag
+     */
+    public E any() {
+        return iterator().next();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            int index = hashed ? nextOccupied(0) : 0;
+
+            @Override
+            public boolean hasNext() {
+                return hashed ? index < elements.length : index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                E result = (E) elements[index];
+                index = hashed ? nextOccupied(index + 1) : index + 1;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private int nextOccupied(int from) {
+        int index = from;
+        while (index < elements.length && elements[index] == null) {
+            index++;
+        }
+        return index;
+    }
+
+    private static int hash(Object o) {
+        int h = o.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object o) {
+        if (hashed) {
+            int mask = elements.length - 1;
+            for (int index = hash(o) & mask;; index = (index + 1) & mask) {
+                Object current = elements[index];
+                if (current == null) {
+                    return -1;
+                } else if (current == o || current.equals(o)) {
+                    return index;
+                }
+            }
+        } else {
+            for (int index = 0; index < size; index++) {
+                Object current = elements[index];
+                if (current == o || current.equals(o)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * @pre element not contained
+     */
+    private void insert(Object element) {
+        if (hashed) {
+            if ((size + 1) * 3 > elements.length * 2) {
+                rehash(elements.length * 2);
+            }
+            place(element, 1);
+        } else if (size < elements.length) {
+            elements[size] = element;
+            if (counts != null) {
+                counts[size] = 1;
+            }
+        } else if (size < LINEAR_LIMIT) {
+            elements = Arrays.copyOf(elements, Math.min(2 * elements.length, LINEAR_LIMIT));
+            if (counts != null) {
+                counts = Arrays.copyOf(counts, elements.length);
+            }
+            elements[size] = element;
+            if (counts != null) {
+                counts[size] = 1;
+            }
+        } else {
+            rehash(4 * LINEAR_LIMIT);
+            place(element, 1);
+        }
+        size++;
+    }
+
+    /**
+     * Puts the given element into the hash table, without changing the size.
+     */
+    private void place(Object element, int count) {
+        int mask = elements.length - 1;
+        int index = hash(element) & mask;
+        while (elements[index] != null) {
+            index = (index + 1) & mask;
+        }
+        elements[index] = element;
+        if (counts != null) {
+            counts[index] = count;
+        }
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldElements = elements;
+        int[] oldCounts = counts;
+        int oldLength = hashed ? oldElements.length : size;
+        elements = new Object[capacity];
+        counts = oldCounts == null ? null : new int[capacity];
+        hashed = true;
+        for (int index = 0; index < oldLength; index++) {
+            if (oldElements[index] != null) {
+                place(oldElements[index], oldCounts == null ? 1 : oldCounts[index]);
+            }
+        }
+    }
+
+    private void delete(int index) {
+        size--;
+        if (hashed) {
+            // backward-shift deletion keeps probe sequences intact without tombstones
+            int mask = elements.length - 1;
+            int hole = index;
+            for (int current = (hole + 1) & mask; elements[current] != null; current = (current + 1) & mask) {
+                int home = hash(elements[current]) & mask;
+                boolean movable = (hole <= current) ? (home <= hole || home > current) : (home <= hole && home > current);
+                if (movable) {
+                    elements[hole] = elements[current];
+                    if (counts != null) {
+                        counts[hole] = counts[current];
+                    }
+                    hole = current;
+                }
+            }
+            elements[hole] = null;
+        } else {
+            elements[index] = elements[size];
+            elements[size] = null;
+            if (counts != null) {
+                counts[index] = counts[size];
+            }
+        }
+    }
+
+}
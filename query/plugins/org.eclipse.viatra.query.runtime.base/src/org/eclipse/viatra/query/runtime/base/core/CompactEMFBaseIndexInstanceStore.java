@@ -0,0 +1,385 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Maps;
+
+/**
+ * An instance store optimized for memory footprint, used in compact store mode (see
+ * {@link BaseIndexOptions#withCompactStoreMode(boolean)}).
+ *
+ * <p>
+ * Feature values are stored per feature. A value held by a single holder (the typical case) refers to the holder
+ * directly; otherwise, the holders are kept in a {@link CompactBag}, which also counts the multiplicities of non-unique
+ * features. Instance sets and data type value multisets are {@link CompactBag}s as well. The holder -> value direction
+ * is constructed on demand, for the requested feature only.
+ *
+ * <p>
+ * As a trade-off, looking up the holders of a value across all features iterates over the indexed features.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class CompactEMFBaseIndexInstanceStore extends EMFBaseIndexInstanceStore {
+
+    /**
+     * The contents of a single feature. Holders and values are either stored directly (if single) or in a
+     * {@link CompactBag}.
+     */
+    private static final class FeatureData {
+        /**
+         * value -> holder(s), with multiplicities for non-unique features
+         */
+        final Map<Object, Object> holdersOfValue = new HashMap<Object, Object>();
+        /**
+         * holder -> distinct value(s), constructed on-demand
+         */
+        Map<EObject, Object> valuesOfHolder;
+    }
+
+    /**
+     * feature (String id or EStructuralFeature) -> contents
+     */
+    private final Map<Object, FeatureData> featureData = collections.createMap();
+
+    /**
+     * key (String id or EDataType instance) -> multiset of value(s)
+     */
+    private final Map<Object, CompactBag<Object>> dataTypeValues = collections.createMap();
+
+    public CompactEMFBaseIndexInstanceStore(NavigationHelperImpl navigationHelper, Logger logger) {
+        super(navigationHelper, logger);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Set<E> asSet(Object singleOrBag) {
+        if (singleOrBag == null) {
+            return null;
+        } else if (singleOrBag instanceof CompactBag<?>) {
+            return (CompactBag<E>) singleOrBag;
+        } else {
+            return Collections.singleton((E) singleOrBag);
+        }
+    }
+
+    private static final Function<Object, Set<EObject>> AS_HOLDER_SET = new Function<Object, Set<EObject>>() {
+        @Override
+        public Set<EObject> apply(Object holders) {
+            return CompactEMFBaseIndexInstanceStore.<EObject> asSet(holders);
+        }
+    };
+
+    private static final Function<Object, Set<Object>> AS_VALUE_SET = new Function<Object, Set<Object>>() {
+        @Override
+        public Set<Object> apply(Object values) {
+            return CompactEMFBaseIndexInstanceStore.<Object> asSet(values);
+        }
+    };
+
+    /**
+     * Adds an element to the single element or bag stored for the given key.
+     *
+     * @return true if this was the first occurrence of the element
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, E> boolean addOccurrence(Map<K, Object> map, K key, E element) {
+        Object current = map.get(key);
+        if (current == null) {
+            map.put(key, element);
+            return true;
+        } else if (current instanceof CompactBag<?>) {
+            return ((CompactBag<E>) current).addOccurrence(element);
+        } else {
+            CompactBag<E> bag = new CompactBag<E>();
+            bag.addOccurrence((E) current);
+            boolean first = bag.addOccurrence(element);
+            map.put(key, bag);
+            return first;
+        }
+    }
+
+    /**
+     * Removes an element from the single element or bag stored for the given key.
+     *
+     * @return the number of occurrences after the removal, or -1 if the element was not present
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> int removeOccurrence(Map<K, Object> map, K key, Object element) {
+        Object current = map.get(key);
+        if (current == null) {
+            return -1;
+        } else if (current instanceof CompactBag<?>) {
+            CompactBag<Object> bag = (CompactBag<Object>) current;
+            if (bag.count(element) == 0) {
+                return -1;
+            }
+            bag.removeOccurrence(element);
+            if (bag.isEmpty()) {
+                map.remove(key);
+            } else if (bag.size() == 1) {
+                Object remaining = bag.any();
+                if (bag.count(remaining) == 1) {
+                    map.put(key, remaining);
+                }
+            }
+            return bag.count(element);
+        } else if (current.equals(element)) {
+            map.remove(key);
+            return 0;
+        } else {
+            return -1;
+        }
+    }
+
+    private Map<EObject, Object> getValuesOfHolder(FeatureData data) {
+        // may be constructed by concurrent readers, see BaseIndexOptions#withConcurrentReadAccess(boolean)
+        synchronized (data) {
+            if (data.valuesOfHolder == null) {
+                Map<EObject, Object> valuesOfHolder = new HashMap<EObject, Object>();
+                for (Entry<Object, Object> entry : data.holdersOfValue.entrySet()) {
+                    for (EObject holder : CompactEMFBaseIndexInstanceStore.<EObject> asSet(entry.getValue())) {
+                        addOccurrence(valuesOfHolder, holder, entry.getKey());
+                    }
+                }
+                data.valuesOfHolder = valuesOfHolder;
+            }
+            return data.valuesOfHolder;
+        }
+    }
+
+    @Override
+    protected boolean storeFeatureTuple(Object featureKey, boolean unique, Object value, EObject holder) {
+        FeatureData data = featureData.get(featureKey);
+        if (data == null) {
+            data = new FeatureData();
+            featureData.put(featureKey, data);
+        }
+        boolean first = addOccurrence(data.holdersOfValue, value, holder);
+        if (unique && !first) {
+            // unique features keep a single occurrence
+            removeOccurrence(data.holdersOfValue, value, holder);
+            String msg = String.format("Error adding feature %s to the index with type %s. This indicates some errors in underlying model representation.", value, featureKey);
+            logNotificationHandlingError(msg);
+        }
+        if (first && data.valuesOfHolder != null) {
+            addOccurrence(data.valuesOfHolder, holder, value);
+        }
+        return unique || first;
+    }
+
+    @Override
+    protected boolean forgetFeatureTuple(Object featureKey, boolean unique, Object value, EObject holder) {
+        FeatureData data = featureData.get(featureKey);
+        if (data == null || !data.holdersOfValue.containsKey(value)) {
+            return false;
+        }
+        int remaining = removeOccurrence(data.holdersOfValue, value, holder);
+        if (remaining < 0) {
+            String msg = String.format("Notification received to remove value %s from feature %s of object %s, but feature value is missing from the index. This indicates some errors in underlying model representation.", value, featureKey, holder);
+            logNotificationHandlingError(msg);
+            return false;
+        }
+        boolean changed = unique || remaining == 0;
+        if (changed && data.valuesOfHolder != null) {
+            removeOccurrence(data.valuesOfHolder, holder, value);
+        }
+        if (data.holdersOfValue.isEmpty()) {
+            featureData.remove(featureKey);
+        }
+        return changed;
+    }
+
+    /**
+     * @return the number of occurrences of the single element or bag
+     */
+    private static int occurrences(Object singleOrBag) {
+        return singleOrBag instanceof CompactBag<?> ? ((CompactBag<?>) singleOrBag).size() : 1;
+    }
+
+    /**
+     * @return the estimated memory of the given map of single elements or bags, not counting the elements
+     */
+    private static long estimateMemory(Map<?, Object> map) {
+        long estimate = MemoryUsageCollector.hashCollection(map.size());
+        for (Object singleOrBag : map.values()) {
+            if (singleOrBag instanceof CompactBag<?>) {
+                estimate += ((CompactBag<?>) singleOrBag).getEstimatedMemory();
+            }
+        }
+        return estimate;
+    }
+
+    @Override
+    protected void collectMemoryUsage(MemoryUsageCollector collector) {
+        // instance sets
+        super.collectMemoryUsage(collector);
+        for (Entry<Object, FeatureData> entry : featureData.entrySet()) {
+            FeatureData data = entry.getValue();
+            long tuples = 0;
+            for (Object holders : data.holdersOfValue.values()) {
+                tuples += occurrences(holders);
+            }
+            long estimate = MemoryUsageCollector.HASH_ENTRY
+                    + MemoryUsageCollector.object(2 * MemoryUsageCollector.REFERENCE)
+                    + estimateMemory(data.holdersOfValue);
+            Map<EObject, Object> valuesOfHolder = data.valuesOfHolder;
+            if (valuesOfHolder != null) {
+                estimate += estimateMemory(valuesOfHolder);
+            }
+            collector.addInstanceStoreUsage(entry.getKey(), tuples, estimate);
+        }
+        for (Entry<Object, CompactBag<Object>> entry : dataTypeValues.entrySet()) {
+            CompactBag<Object> values = entry.getValue();
+            collector.addInstanceStoreUsage(entry.getKey(), values.size(),
+                    MemoryUsageCollector.HASH_ENTRY + values.getEstimatedMemory());
+        }
+    }
+
+    @Override
+    protected Set<EObject> createInstanceSet() {
+        return new CompactBag<EObject>();
+    }
+
+    @Override
+    protected Set<EObject> createInstanceSet(int expectedSize) {
+        // bags grow on their own, starting from an inline single element
+        return createInstanceSet();
+    }
+
+    @Override
+    public Set<Object> getDataTypeValues(Object keyType) {
+        return dataTypeValues.get(keyType);
+    }
+
+    @Override
+    public void removeDataTypeMap(Object keyType) {
+        dataTypeValues.remove(keyType);
+    }
+
+    @Override
+    protected void reserveDataTypeValues(Object keyType, int expectedSize) {
+        // bags grow on their own, starting from an inline single element
+    }
+
+    @Override
+    protected int storeDataTypeValue(Object keyType, Object value) {
+        CompactBag<Object> bag = dataTypeValues.get(keyType);
+        if (bag == null) {
+            bag = new CompactBag<Object>();
+            dataTypeValues.put(keyType, bag);
+        }
+        bag.addOccurrence(value);
+        return bag.count(value);
+    }
+
+    @Override
+    protected int forgetDataTypeValue(Object keyType, Object value) {
+        CompactBag<Object> bag = dataTypeValues.get(keyType);
+        if (bag == null || !bag.contains(value)) {
+            return -1;
+        }
+        bag.removeOccurrence(value);
+        if (bag.isEmpty()) {
+            dataTypeValues.remove(keyType);
+        }
+        return bag.count(value);
+    }
+
+    @Override
+    public Set<EObject> getHolders(Object value, Object featureKey) {
+        FeatureData data = featureData.get(featureKey);
+        return data == null ? null : CompactEMFBaseIndexInstanceStore.<EObject> asSet(data.holdersOfValue.get(value));
+    }
+
+    @Override
+    public Map<Object, Set<EObject>> getHoldersByFeature(Object value) {
+        Map<Object, Set<EObject>> result = new HashMap<Object, Set<EObject>>();
+        for (Entry<Object, FeatureData> entry : featureData.entrySet()) {
+            Object holders = entry.getValue().holdersOfValue.get(value);
+            if (holders != null) {
+                result.put(entry.getKey(), CompactEMFBaseIndexInstanceStore.<EObject> asSet(holders));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Object, Set<EObject>> getHoldersByValue(Object featureKey) {
+        FeatureData data = featureData.get(featureKey);
+        if (data == null) {
+            return Collections.emptyMap();
+        }
+        return Maps.transformValues(data.holdersOfValue, AS_HOLDER_SET);
+    }
+
+    @Override
+    public Set<EObject> getHoldersOfFeature(Object featureKey) {
+        FeatureData data = featureData.get(featureKey);
+        return data == null ? null : getValuesOfHolder(data).keySet();
+    }
+
+    @Override
+    public Set<Object> getValues(EObject holder, Object featureKey) {
+        FeatureData data = featureData.get(featureKey);
+        return data == null ? null : CompactEMFBaseIndexInstanceStore.<Object> asSet(getValuesOfHolder(data).get(holder));
+    }
+
+    @Override
+    public Map<EObject, Set<Object>> getValuesByHolder(Object featureKey) {
+        FeatureData data = featureData.get(featureKey);
+        if (data == null) {
+            return Collections.emptyMap();
+        }
+        return Maps.transformValues(getValuesOfHolder(data), AS_VALUE_SET);
+    }
+
+    @Override
+    public void removeFeature(Object featureKey) {
+        featureData.remove(featureKey);
+    }
+
+    @Override
+    Set<Object> getOldValuesForHolderAndFeature(EObject source, EStructuralFeature feature) {
+        Set<Object> oldValues = new HashSet<Object>();
+        FeatureData data = featureData.get(feature);
+        if (data == null) {
+            return oldValues;
+        }
+        if (data.valuesOfHolder != null) {
+            Set<Object> values = asSet(data.valuesOfHolder.get(source));
+            if (values != null) {
+                oldValues.addAll(values);
+            }
+        } else {
+            // avoid constructing the holder -> value direction only for this lookup
+            for (Entry<Object, Object> entry : data.holdersOfValue.entrySet()) {
+                if (asSet(entry.getValue()).contains(source)) {
+                    oldValues.add(entry.getKey());
+                }
+            }
+        }
+        return oldValues;
+    }
+
+}
@@ -10,9 +10,10 @@
  *******************************************************************************/
 package org.eclipse.viatra.query.runtime.base.core;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
@@ -23,8 +24,10 @@ import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EStructuralFeature;
 
+import com.google.common.base.Function;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
@@ -34,6 +37,10 @@ import com.google.common.collect.Table.Cell;
  * Stores the indexed contents of an EMF model 
  * 	(includes instance model information).
  * 
+ * <p>
+ * Subclasses may provide an alternative representation of the contents by overriding the protected storage methods
+ * along with the queries (see {@link CompactEMFBaseIndexInstanceStore}).
+ * 
  * @author Gabor Bergmann
  *
  */
@@ -76,23 +83,15 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
     /**
      * key (String id or EClass instance) -> instance(s)
      */
-    private final Map<Object, Set<EObject>> instanceMap = new HashMap<Object, Set<EObject>>();
+    private final Map<Object, Set<EObject>> instanceMap = collections.createMap();
 
     /**
      * key (String id or EDataType instance) -> multiset of value(s)
      */
-    private final Map<Object, Map<Object, Integer>> dataTypeMap = new HashMap<Object, Map<Object, Integer>>();
-
+    private final Map<Object, Map<Object, Integer>> dataTypeMap = collections.createMap();
 
 
-    /**
-     * @return the valueToFeatureToHolderMap
-     */
-    protected Table<Object, Object, Collection<EObject>> getValueToFeatureToHolderMap() {
-        return valueToFeatureToHolderMap;
-    }
 
-    
     /**
      * This method uses the original {@link EStructuralFeature} instance or the String id.
      * 
@@ -103,7 +102,7 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
         Collection<EObject> setVal = valueToFeatureToHolderMap.get(value, featureKey);
 
         if (setVal == null) {
-            setVal = unique ? new HashSet<EObject>() : HashMultiset.<EObject> create();
+            setVal = unique ? collections.<EObject> createSet() : HashMultiset.<EObject> create();
             valueToFeatureToHolderMap.put(value, featureKey, setVal);
 
         }
@@ -136,7 +135,7 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
         Set<Object> setVal = holderToFeatureToValueMap.get(holder, feature);
 
         if (setVal == null) {
-            setVal = new HashSet<Object>();
+            setVal = collections.createSet();
             holderToFeatureToValueMap.put(holder, feature, setVal);
         }
         setVal.add(value);
@@ -191,7 +190,14 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
         }
     }
 
-    public void insertFeatureTuple(final Object featureKey, boolean unique, final Object value, final EObject holder) {
+    /**
+     * Stores the given feature value of the given holder.
+     * 
+     * @return true if this was the first time the value was added to this feature of this holder (false is only
+     *         possible for non-unique features)
+     * @since 1.7
+     */
+    protected boolean storeFeatureTuple(final Object featureKey, boolean unique, final Object value, final EObject holder) {
         boolean changed = addToFeatureMap(featureKey, unique, value, holder);
         if (changed) { // if not duplicated
             if (featureToHolderMap != null) {
@@ -200,13 +206,18 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
             if (holderToFeatureToValueMap != null) {
                 addToDirectFeatureMap(holder, featureKey, value);
             }
-
-            isDirty = true;
-            navigationHelper.notifyFeatureListeners(holder, featureKey, value, true);
         }
+        return changed;
     }
 
-    public void removeFeatureTuple(final Object featureKey, boolean unique, final Object value, final EObject holder) {
+    /**
+     * Forgets the given feature value of the given holder.
+     * 
+     * @return true if the value was removed and it is no longer present in this feature of this holder (false is only
+     *         possible for non-unique features, or inconsistent removals)
+     * @since 1.7
+     */
+    protected boolean forgetFeatureTuple(final Object featureKey, boolean unique, final Object value, final EObject holder) {
         boolean changed = removeFromFeatureMap(featureKey, unique, value, holder);
         if (changed) { // if not duplicated
             if (featureToHolderMap != null) {
@@ -215,13 +226,67 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
             if (holderToFeatureToValueMap != null) {
                 removeFromDirectFeatureMap(holder, featureKey, value);
             }
+        }
+        return changed;
+    }
+
+    public void insertFeatureTuple(final Object featureKey, boolean unique, final Object value, final EObject holder) {
+        boolean changed = storeFeatureTuple(featureKey, unique, value, holder);
+        if (changed) { // if not duplicated
+            isDirty = true;
+            navigationHelper.notifyFeatureListeners(holder, featureKey, value, true);
+        }
+    }
+
+    /**
+     * Inserts the given tuples of a feature at once; the listeners of the feature are notified together about the
+     * tuples that were not duplicated.
+     *
+     * @param values
+     *            the values of the tuples, in internal representation, aligned with the holders
+     * @since 1.7
+     */
+    public void insertFeatureTuples(final Object featureKey, boolean unique, final List<Object> values,
+            final List<EObject> holders) {
+        List<Object> insertedValues = new ArrayList<Object>(values.size());
+        List<EObject> insertedHolders = new ArrayList<EObject>(holders.size());
+        for (int i = 0; i < holders.size(); i++) {
+            if (storeFeatureTuple(featureKey, unique, values.get(i), holders.get(i))) { // if not duplicated
+                insertedValues.add(values.get(i));
+                insertedHolders.add(holders.get(i));
+            }
+        }
+        if (!insertedHolders.isEmpty()) {
+            isDirty = true;
+            navigationHelper.notifyFeatureListeners(featureKey, insertedHolders, insertedValues);
+        }
+    }
 
+    public void removeFeatureTuple(final Object featureKey, boolean unique, final Object value, final EObject holder) {
+        boolean changed = forgetFeatureTuple(featureKey, unique, value, holder);
+        if (changed) { // if not duplicated
             isDirty = true;
             navigationHelper.notifyFeatureListeners(holder, featureKey, value, false);
         }
     }
 
     // START ********* InstanceSet *********
+    /**
+     * @return a new, empty set to store the instances of a class
+     * @since 1.7
+     */
+    protected Set<EObject> createInstanceSet() {
+        return collections.createSet();
+    }
+
+    /**
+     * @return a new, empty set to store the instances of a class, expected to receive the given number of instances
+     * @since 1.7
+     */
+    protected Set<EObject> createInstanceSet(int expectedSize) {
+        return collections.createSet(expectedSize);
+    }
+
     public Set<EObject> getInstanceSet(final Object keyClass) {
         return instanceMap.get(keyClass);
     }
@@ -233,7 +298,7 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
     public void insertIntoInstanceSet(final Object keyClass, final EObject value) {
         Set<EObject> set = instanceMap.get(keyClass);
         if (set == null) {
-            set = new HashSet<EObject>();
+            set = createInstanceSet();
             instanceMap.put(keyClass, set);
         }
         
@@ -246,6 +311,29 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
         navigationHelper.notifyInstanceListeners(keyClass, value, true);
     }
 
+    /**
+     * Inserts the given instances of a class at once; the listeners of the class are notified together.
+     *
+     * @since 1.7
+     */
+    public void insertIntoInstanceSet(final Object keyClass, final Collection<EObject> values) {
+        Set<EObject> set = instanceMap.get(keyClass);
+        if (set == null) {
+            set = createInstanceSet(values.size());
+            instanceMap.put(keyClass, set);
+        }
+
+        for (EObject value : values) {
+            if (!set.add(value)) {
+                String msg = String.format("Notification received to index %s as a %s, but it already exists in the index. This indicates some errors in underlying model representation.", value, keyClass);
+                logNotificationHandlingError(msg);
+            }
+        }
+
+        isDirty = true;
+        navigationHelper.notifyInstanceListeners(keyClass, values);
+    }
+
     public void removeFromInstanceSet(final Object keyClass, final EObject value) {
         final Set<EObject> set = instanceMap.get(keyClass);
         if (set != null) {
@@ -266,45 +354,95 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
     // END ********* InstanceSet *********
 
     // START ********* DataTypeMap *********
-    public Map<Object, Integer> getDataTypeMap(final Object keyType) {
-        return dataTypeMap.get(keyType);
+    /**
+     * @return the distinct values of the given data type (or String id), or null if there are none
+     * @since 1.7
+     */
+    public Set<Object> getDataTypeValues(final Object keyType) {
+        Map<Object, Integer> valMap = dataTypeMap.get(keyType);
+        return valMap == null ? null : valMap.keySet();
     }
 
     public void removeDataTypeMap(final Object keyType) {
         dataTypeMap.remove(keyType);
     }
 
-    public void insertIntoDataTypeMap(final Object keyType, final Object value) {
+    /**
+     * Adds an occurrence of the given value of the given data type (or String id).
+     * 
+     * @return the number of occurrences after the addition
+     * @since 1.7
+     */
+    protected int storeDataTypeValue(final Object keyType, final Object value) {
         Map<Object, Integer> valMap = dataTypeMap.get(keyType);
         if (valMap == null) {
-            valMap = new HashMap<Object, Integer>();
+            valMap = collections.createMap();
             dataTypeMap.put(keyType, valMap);
         }
-        final boolean firstOccurrence = (valMap.get(value) == null);
-        if (firstOccurrence) {
-            valMap.put(value, 1);
+        Integer count = valMap.get(value);
+        int newCount = (count == null) ? 1 : count + 1;
+        valMap.put(value, newCount);
+        return newCount;
+    }
+
+    /**
+     * Removes an occurrence of the given value of the given data type (or String id).
+     * 
+     * @return the number of occurrences after the removal, or -1 if the value was not present
+     * @since 1.7
+     */
+    protected int forgetDataTypeValue(final Object keyType, final Object value) {
+        final Map<Object, Integer> valMap = dataTypeMap.get(keyType);
+        if (valMap == null || valMap.get(value) == null) {
+            return -1;
+        }
+        int newCount = valMap.get(value) - 1;
+        if (newCount == 0) {
+            valMap.remove(value);
+            if (valMap.size() == 0) {
+                dataTypeMap.remove(keyType);
+            }
         } else {
-            Integer count = valMap.get(value);
-            valMap.put(value, ++count);
+            valMap.put(value, newCount);
         }
+        return newCount;
+    }
+
+    public void insertIntoDataTypeMap(final Object keyType, final Object value) {
+        final boolean firstOccurrence = (storeDataTypeValue(keyType, value) == 1);
 
         isDirty = true;
         navigationHelper.notifyDataTypeListeners(keyType, value, true, firstOccurrence);
     }
 
+    /**
+     * Inserts the given occurrences of values of a data type (or String id) at once.
+     * 
+     * @since 1.7
+     */
+    public void insertIntoDataTypeMap(final Object keyType, final Collection<Object> values) {
+        reserveDataTypeValues(keyType, values.size());
+        for (Object value : values) {
+            insertIntoDataTypeMap(keyType, value);
+        }
+    }
+
+    /**
+     * Prepares the storage of the given data type (or String id) for the given number of value occurrences, if it
+     * does not exist yet.
+     * 
+     * @since 1.7
+     */
+    protected void reserveDataTypeValues(final Object keyType, int expectedSize) {
+        if (expectedSize > 0 && !dataTypeMap.containsKey(keyType)) {
+            dataTypeMap.put(keyType, collections.<Object, Integer> createMap(expectedSize));
+        }
+    }
+
     public void removeFromDataTypeMap(final Object keyType, final Object value) {
-        final Map<Object, Integer> valMap = dataTypeMap.get(keyType);
-        if (valMap != null && valMap.get(value) != null) {
-            Integer count = valMap.get(value);
-            final boolean lastOccurrence = (--count == 0);
-            if (lastOccurrence) {
-                valMap.remove(value);
-                if (valMap.size() == 0) {
-                    dataTypeMap.remove(keyType);
-                }
-            } else {
-                valMap.put(value, count);
-            }
+        final int count = forgetDataTypeValue(keyType, value);
+        if (count >= 0) {
+            final boolean lastOccurrence = (count == 0);
 
             isDirty = true;
             navigationHelper.notifyDataTypeListeners(keyType, value, false, lastOccurrence);
@@ -314,6 +452,43 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
 
     // END ********* DataTypeMap *********
 
+    /**
+     * Records the number of entries and the estimated memory of the contents stored for each key. Subclasses
+     * overriding the storage methods must record their own structures as well.
+     * 
+     * @since 1.7
+     */
+    protected void collectMemoryUsage(MemoryUsageCollector collector) {
+        for (Entry<Object, Set<EObject>> entry : instanceMap.entrySet()) {
+            Set<EObject> instances = entry.getValue();
+            collector.addInstanceStoreUsage(entry.getKey(), instances.size(),
+                    MemoryUsageCollector.HASH_ENTRY + MemoryUsageCollector.collection(instances));
+        }
+        for (Entry<Object, Map<Object, Integer>> entry : dataTypeMap.entrySet()) {
+            // occurrence counts are mostly small, cached boxed ints
+            int values = entry.getValue().size();
+            collector.addInstanceStoreUsage(entry.getKey(), values,
+                    MemoryUsageCollector.HASH_ENTRY + MemoryUsageCollector.hashCollection(values));
+        }
+        for (Cell<Object, Object, Collection<EObject>> cell : valueToFeatureToHolderMap.cellSet()) {
+            Collection<EObject> holders = cell.getValue();
+            collector.addInstanceStoreUsage(cell.getColumnKey(), holders.size(),
+                    MemoryUsageCollector.HASH_ENTRY + MemoryUsageCollector.collection(holders));
+        }
+        if (featureToHolderMap != null) {
+            for (Entry<Object, Multiset<EObject>> entry : featureToHolderMap.entrySet()) {
+                collector.addInstanceStoreUsage(entry.getKey(), 0,
+                        MemoryUsageCollector.HASH_ENTRY + MemoryUsageCollector.collection(entry.getValue()));
+            }
+        }
+        if (holderToFeatureToValueMap != null) {
+            for (Cell<EObject, Object, Set<Object>> cell : holderToFeatureToValueMap.cellSet()) {
+                collector.addInstanceStoreUsage(cell.getColumnKey(), 0,
+                        MemoryUsageCollector.HASH_ENTRY + MemoryUsageCollector.collection(cell.getValue()));
+            }
+        }
+    }
+
     
     /**
      * Decodes the collection of holders (potentially non-unique) to a unique set
@@ -328,27 +503,102 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
             throw new IllegalStateException("Neither Set nor Multiset: " + holders);
     }
 
+    // START ********* Feature queries *********
+
+    private static final Function<Collection<EObject>, Set<EObject>> HOLDER_COLLECTION_TO_UNIQUE_SET = new Function<Collection<EObject>, Set<EObject>>() {
+        @Override
+        public Set<EObject> apply(Collection<EObject> holders) {
+            return holderCollectionToUniqueSet(holders);
+        }
+    };
+
+    /**
+     * @return the holders of the given value in the given feature (String id or EStructuralFeature), or null if there
+     *         are none
+     * @since 1.7
+     */
+    public Set<EObject> getHolders(final Object value, final Object featureKey) {
+        Collection<EObject> holders = valueToFeatureToHolderMap.get(value, featureKey);
+        return holders == null ? null : holderCollectionToUniqueSet(holders);
+    }
+
+    /**
+     * @return feature (String id or EStructuralFeature) -> holders of the given value in that feature
+     * @since 1.7
+     */
+    public Map<Object, Set<EObject>> getHoldersByFeature(final Object value) {
+        return Maps.transformValues(valueToFeatureToHolderMap.row(value), HOLDER_COLLECTION_TO_UNIQUE_SET);
+    }
+
+    /**
+     * @return value -> holders of that value in the given feature (String id or EStructuralFeature)
+     * @since 1.7
+     */
+    public Map<Object, Set<EObject>> getHoldersByValue(final Object featureKey) {
+        return Maps.transformValues(valueToFeatureToHolderMap.column(featureKey), HOLDER_COLLECTION_TO_UNIQUE_SET);
+    }
+
+    /**
+     * @return the holders that have at least one value in the given feature (String id or EStructuralFeature), or
+     *         null if there are none
+     * @since 1.7
+     */
+    public Set<EObject> getHoldersOfFeature(final Object featureKey) {
+        Multiset<EObject> holders = getFeatureToHolderMap().get(featureKey);
+        return holders == null ? null : holders.elementSet();
+    }
+
+    /**
+     * @return the distinct values of the given feature (String id or EStructuralFeature) of the given holder, or null
+     *         if there are none
+     * @since 1.7
+     */
+    public Set<Object> getValues(final EObject holder, final Object featureKey) {
+        return getHolderToFeatureToValueMap().get(holder, featureKey);
+    }
+
+    /**
+     * @return holder -> distinct values of that holder in the given feature (String id or EStructuralFeature)
+     * @since 1.7
+     */
+    public Map<EObject, Set<Object>> getValuesByHolder(final Object featureKey) {
+        return getHolderToFeatureToValueMap().column(featureKey);
+    }
+
+    /**
+     * Forgets all values of the given feature (String id or EStructuralFeature), without notifying listeners.
+     * 
+     * @since 1.7
+     */
+    public void removeFeature(final Object featureKey) {
+        valueToFeatureToHolderMap.column(featureKey).clear();
+        if (featureToHolderMap != null) {
+            featureToHolderMap.remove(featureKey);
+        }
+        if (holderToFeatureToValueMap != null) {
+            holderToFeatureToValueMap.column(featureKey).clear();
+        }
+    }
+
+    // END ********* Feature queries *********
+
     /**
      * @return the featureToHolderMap
      */
-    protected Map<Object, Multiset<EObject>> getFeatureToHolderMap() {
+    private Map<Object, Multiset<EObject>> getFeatureToHolderMap() {
         if (featureToHolderMap == null) {
-            featureToHolderMap = new HashMap<Object, Multiset<EObject>>();
+            featureToHolderMap = collections.createMap();
             initReversedFeatureMap();
         }
         return featureToHolderMap;
     }
 
-    protected Map<Object, Multiset<EObject>> peekFeatureToHolderMap() {
-        return featureToHolderMap;
-    }
-
     /**
      * Calling this method will construct the map for all holders and features, consuming significant memory!
      * 
      * @return the holderToFeatureToValeMap
      */
-    protected Table<EObject, Object, Set<Object>> getHolderToFeatureToValueMap() {
+    private Table<EObject, Object, Set<Object>> getHolderToFeatureToValueMap() {
         if (holderToFeatureToValueMap == null) {
             holderToFeatureToValueMap = HashBasedTable.create();
             initDirectFeatureMap();
@@ -356,10 +606,6 @@ public class EMFBaseIndexInstanceStore extends AbstractBaseIndexStore {
         return holderToFeatureToValueMap;
     }
 
-    protected Table<EObject, Object, Set<Object>> peekHolderToFeatureToValueMap() {
-        return holderToFeatureToValueMap;
-    }
-    
     private void initReversedFeatureMap() {
         for (final Cell<Object, Object, Collection<EObject>> entry : valueToFeatureToHolderMap.cellSet()) {
             final Object feature = entry.getColumnKey();
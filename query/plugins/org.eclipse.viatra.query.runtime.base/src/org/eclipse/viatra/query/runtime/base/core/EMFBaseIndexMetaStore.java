@@ -113,6 +113,26 @@ public class EMFBaseIndexMetaStore {
     }
     private Object eObjectClassKey = null;
 
+    /**
+     * @return true if the classifier was already encountered, i.e. {@link #toKey(EClassifier)} will not change the
+     *         meta store
+     * @since 1.7
+     */
+    protected boolean isKnown(final EClassifier classifier) {
+        return knownClassifiers.contains(classifier)
+                && (!isDynamicModel || uniqueIDFromClassifier.containsKey(classifier));
+    }
+
+    /**
+     * @return true if the feature was already encountered, i.e. {@link #toKey(EStructuralFeature)} will not change the
+     *         meta store
+     * @since 1.7
+     */
+    protected boolean isKnown(final EStructuralFeature feature) {
+        return knownFeatures.contains(feature)
+                && (!isDynamicModel || uniqueIDFromTypedElement.containsKey(feature));
+    }
+
     protected Object toKey(final EClassifier classifier) {
         if (isDynamicModel) {
             return toKeyDynamicInternal(classifier);
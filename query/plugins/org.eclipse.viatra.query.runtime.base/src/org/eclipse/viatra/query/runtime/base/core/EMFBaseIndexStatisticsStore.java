@@ -10,12 +10,12 @@
  *******************************************************************************/
 package org.eclipse.viatra.query.runtime.base.core;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
 
 /**
  * @author Grill Balázs
@@ -27,17 +27,49 @@ public class EMFBaseIndexStatisticsStore extends AbstractBaseIndexStore {
      * A common map is used to store instance/value statistics. The key can be an {@link EClassifier}, 
      * {@link EStructuralFeature} or a String ID. 
      */
-    private final Map<Object, Integer> stats = new HashMap<Object, Integer>();
+    private static final DegreeStatistics EMPTY_DEGREE_STATISTICS = new DegreeStatistics(0, 0, 0, 0, 0, 0, 0,
+            new int[0], new int[0]);
+
+    private final Map<Object, Integer> stats;
+    
+    /**
+     * Degree statistics of features, maintained along with their total counts in {@link #stats}. The key can be an
+     * {@link EStructuralFeature} or a String ID.
+     */
+    private final Map<Object, FeatureDegrees> featureDegrees;
 
     public EMFBaseIndexStatisticsStore(NavigationHelperImpl navigationHelper, Logger logger) {
         super(navigationHelper, logger);
+        this.stats = collections.createMap();
+        this.featureDegrees = collections.createMap();
     }
-    public void addFeature(Object element, Object feature){
+    
+    /**
+     * @since 1.7
+     */
+    public void addFeature(Object element, Object value, Object feature){
         addInstance(feature);
+        FeatureDegrees degrees = featureDegrees.get(feature);
+        if (degrees == null) {
+            degrees = new FeatureDegrees();
+            featureDegrees.put(feature, degrees);
+        }
+        degrees.add(element, value);
     }
     
-    public void removeFeature(Object element, Object feature){
+    /**
+     * @since 1.7
+     */
+    public void removeFeature(Object element, Object value, Object feature){
         removeInstance(feature);
+        FeatureDegrees degrees = featureDegrees.get(feature);
+        if (degrees == null || !degrees.remove(element, value)) {
+            logNotificationHandlingError(String.format("The value %s of feature %s is not registered for %s before calling removeFeature method.", value, feature, element));
+            return;
+        }
+        if (degrees.isEmpty()) {
+            featureDegrees.remove(feature);
+        }
     }
     
     public void addInstance(Object key){
@@ -45,6 +77,16 @@ public class EMFBaseIndexStatisticsStore extends AbstractBaseIndexStore {
         stats.put(key, v == null ? 1 : v+1);
     }
     
+    /**
+     * Registers the given number of instances at once.
+     * 
+     * @since 1.7
+     */
+    public void addInstances(Object key, int count){
+        Integer v = stats.get(key);
+        stats.put(key, v == null ? count : v+count);
+    }
+    
     public void removeInstance(Object key){
         Integer v = stats.get(key);
         if(v == null || v <= 0) {
@@ -65,10 +107,35 @@ public class EMFBaseIndexStatisticsStore extends AbstractBaseIndexStore {
     
     public void removeType(Object key){
         stats.remove(key);
+        featureDegrees.remove(key);
     }
 
     public int countFeatures(Object feature) {
         return countInstances(feature);
     }
     
+    /**
+     * Records the number of entries and the estimated memory of the statistics stored for each key.
+     */
+    void collectMemoryUsage(MemoryUsageCollector collector) {
+        for (Map.Entry<Object, Integer> entry : stats.entrySet()) {
+            collector.addStatisticsStoreUsage(entry.getKey(), 1,
+                    MemoryUsageCollector.HASH_ENTRY + MemoryUsageCollector.BOXED_INT);
+        }
+        for (Map.Entry<Object, FeatureDegrees> entry : featureDegrees.entrySet()) {
+            FeatureDegrees degrees = entry.getValue();
+            collector.addStatisticsStoreUsage(entry.getKey(), degrees.getTrackedElementCount(),
+                    MemoryUsageCollector.HASH_ENTRY + degrees.getEstimatedMemory());
+        }
+    }
+    
+    /**
+     * @return the degree statistics of the given feature
+     * @since 1.7
+     */
+    public DegreeStatistics getFeatureDegreeStatistics(Object feature) {
+        FeatureDegrees degrees = featureDegrees.get(feature);
+        return degrees == null ? EMPTY_DEGREE_STATISTICS : degrees.getStatistics();
+    }
+    
 }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
+
+/**
+ * Incrementally maintained out- and in-degrees of the holders and values of a single feature, for the statistics
+ * store.
+ *
+ * @author agent
+ */
+class FeatureDegrees {
+
+    /**
+     * Degrees of the elements at one end of the feature.
+     */
+    private static final class Degrees {
+        /**
+         * element -> degree (positive)
+         */
+        final Map<Object, Integer> degrees = new HashMap<Object, Integer>();
+        /**
+         * degree -> number of elements with that degree
+         */
+        final Map<Integer, Integer> frequencies = new HashMap<Integer, Integer>();
+        long sumOfSquares;
+        int max;
+
+        void increment(Object element) {
+            Integer old = degrees.get(element);
+            int degree = old == null ? 1 : old + 1;
+            degrees.put(element, degree);
+            changeFrequency(degree - 1, -1);
+            changeFrequency(degree, +1);
+            sumOfSquares += 2 * degree - 1;
+            max = Math.max(max, degree);
+        }
+
+        /**
+         * @return false if the element had no occurrence
+         */
+        boolean decrement(Object element) {
+            Integer old = degrees.get(element);
+            if (old == null) {
+                return false;
+            }
+            int degree = old - 1;
+            if (degree == 0) {
+                degrees.remove(element);
+            } else {
+                degrees.put(element, degree);
+            }
+            changeFrequency(old, -1);
+            changeFrequency(degree, +1);
+            sumOfSquares -= 2 * old - 1;
+            while (max > 0 && !frequencies.containsKey(max)) {
+                max--;
+            }
+            return true;
+        }
+
+        private void changeFrequency(int degree, int change) {
+            if (degree == 0) {
+                return;
+            }
+            Integer old = frequencies.get(degree);
+            int frequency = (old == null ? 0 : old) + change;
+            if (frequency == 0) {
+                frequencies.remove(degree);
+            } else {
+                frequencies.put(degree, frequency);
+            }
+        }
+
+        int[] histogram() {
+            int[] histogram = new int[max == 0 ? 0 : DegreeStatistics.getHistogramBucket(max) + 1];
+            for (Entry<Integer, Integer> entry : frequencies.entrySet()) {
+                histogram[DegreeStatistics.getHistogramBucket(entry.getKey())] += entry.getValue();
+            }
+            return histogram;
+        }
+    }
+
+    private final Degrees outDegrees = new Degrees();
+    private final Degrees inDegrees = new Degrees();
+    private int tupleCount;
+
+    void add(Object holder, Object value) {
+        outDegrees.increment(holder);
+        inDegrees.increment(value);
+        tupleCount++;
+    }
+
+    /**
+     * @return false if the tuple was not registered
+     */
+    boolean remove(Object holder, Object value) {
+        if (!outDegrees.degrees.containsKey(holder) || !inDegrees.degrees.containsKey(value)) {
+            return false;
+        }
+        outDegrees.decrement(holder);
+        inDegrees.decrement(value);
+        tupleCount--;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return tupleCount == 0;
+    }
+
+    /**
+     * @return the number of holders and values whose degree is tracked
+     */
+    int getTrackedElementCount() {
+        return outDegrees.degrees.size() + inDegrees.degrees.size();
+    }
+
+    /**
+     * @return the estimated memory occupied by the degrees in bytes, see {@link MemoryUsageCollector}; degrees are
+     *         assumed to be small, cached boxed ints
+     */
+    long getEstimatedMemory() {
+        return MemoryUsageCollector.object(3 * MemoryUsageCollector.REFERENCE + 4)
+                + 2 * MemoryUsageCollector.object(2 * MemoryUsageCollector.REFERENCE + 8 + 4)
+                + MemoryUsageCollector.hashCollection(outDegrees.degrees.size())
+                + MemoryUsageCollector.hashCollection(inDegrees.degrees.size())
+                + MemoryUsageCollector.hashCollection(outDegrees.frequencies.size())
+                + MemoryUsageCollector.hashCollection(inDegrees.frequencies.size());
+    }
+
+    DegreeStatistics getStatistics() {
+        return new DegreeStatistics(tupleCount, outDegrees.degrees.size(), inDegrees.degrees.size(), outDegrees.max,
+                inDegrees.max, outDegrees.sumOfSquares, inDegrees.sumOfSquares, outDegrees.histogram(),
+                inDegrees.histogram());
+    }
+
+}
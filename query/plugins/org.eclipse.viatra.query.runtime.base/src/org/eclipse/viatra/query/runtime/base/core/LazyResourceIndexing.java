@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EContentAdapter;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.filters.IBaseIndexResourceFilter;
+
+/**
+ * Keeps track of the resources whose indexing is deferred until their contents are needed, see
+ * {@link BaseIndexOptions#withLazyResourceIndexing(boolean)}.
+ *
+ * <p>
+ * Deferred resources are not observed by the content adapter of the index; instead, a {@link ResourceTypeSummary}
+ * keeps track of the classes of their contents. A deferred resource is indexed as soon as any of these classes becomes
+ * relevant for the index, i.e. the class, one of its features or the data type of one of its attributes is
+ * registered.
+ *
+ * <p>
+ * The contributions of an indexed resource are not tracked per resource, so they cannot be dropped in bulk on unload;
+ * they are removed by the usual removal notifications, see {@link #unloaded(Resource)}.
+ *
+ * @author agent
+ * @since 1.7
+ */
+class LazyResourceIndexing {
+
+    /**
+     * The classes of the objects of a deferred resource, maintained by an {@link EContentAdapter}. The summary is
+     * conservative: classes are not forgotten when their instances are removed, only when the resource is unloaded.
+     */
+    private final class ResourceTypeSummary extends EContentAdapter {
+
+        private final Resource resource;
+        private final Set<EClass> classes = new HashSet<EClass>();
+        /**
+         * Classes that were added to the summary since the last relevance check
+         */
+        private final Set<EClass> uncheckedClasses = new HashSet<EClass>();
+
+        ResourceTypeSummary(Resource resource) {
+            this.resource = resource;
+        }
+
+        @Override
+        protected boolean resolve() {
+            // cross-resource containment proxies belong to other resources
+            return false;
+        }
+
+        @Override
+        protected void setTarget(EObject target) {
+            super.setTarget(target);
+            if (classes.add(target.eClass())) {
+                uncheckedClasses.add(target.eClass());
+            }
+        }
+
+        @Override
+        public void notifyChanged(Notification notification) {
+            super.notifyChanged(notification);
+            if (notification.getNotifier() == resource
+                    && notification.getFeatureID(Resource.class) == Resource.RESOURCE__IS_LOADED
+                    && !resource.isLoaded()) {
+                classes.clear();
+                uncheckedClasses.clear();
+            }
+            if (!uncheckedClasses.isEmpty()) {
+                checkNewClasses(resource);
+            }
+        }
+
+        /**
+         * @return true if any of the unchecked classes are relevant for the index
+         */
+        boolean checkUncheckedClasses() {
+            try {
+                for (EClass clazz : uncheckedClasses) {
+                    if (navigationHelper.isIndexingRequired(clazz)) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                uncheckedClasses.clear();
+            }
+        }
+
+        /**
+         * @return true if any of the classes are relevant for the index
+         */
+        boolean checkAllClasses() {
+            uncheckedClasses.clear();
+            for (EClass clazz : classes) {
+                if (navigationHelper.isIndexingRequired(clazz)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final NavigationHelperImpl navigationHelper;
+    private final IBaseIndexResourceFilter userResourceFilter;
+    private final Map<Resource, ResourceTypeSummary> deferredResources = new LinkedHashMap<Resource, ResourceTypeSummary>();
+    private final Set<Resource> indexedResources = new HashSet<Resource>();
+
+    LazyResourceIndexing(NavigationHelperImpl navigationHelper, IBaseIndexResourceFilter userResourceFilter) {
+        this.navigationHelper = navigationHelper;
+        this.userResourceFilter = userResourceFilter;
+    }
+
+    /**
+     * @return a resource filter that, in addition to the filter configured by the user, excludes deferred resources
+     *         from model traversals
+     */
+    IBaseIndexResourceFilter getTraversalResourceFilter() {
+        return new IBaseIndexResourceFilter() {
+            @Override
+            public boolean isResourceFiltered(Resource resource) {
+                return deferredResources.containsKey(resource)
+                        || (userResourceFilter != null && userResourceFilter.isResourceFiltered(resource));
+            }
+        };
+    }
+
+    /**
+     * Called when the content adapter is about to observe a resource; decides whether the indexing of the resource is
+     * deferred. Only resources of resource sets that are model roots are deferred.
+     *
+     * @return true if the resource should not be observed and traversed for now
+     */
+    boolean deferIfNotRequired(Resource resource) {
+        if (indexedResources.contains(resource) || deferredResources.containsKey(resource)) {
+            return deferredResources.containsKey(resource);
+        }
+        if (resource.getResourceSet() == null || !navigationHelper.modelRoots.contains(resource.getResourceSet())) {
+            return false;
+        }
+        ResourceTypeSummary summary = new ResourceTypeSummary(resource);
+        // summarizes the current contents
+        resource.eAdapters().add(summary);
+        if (summary.checkAllClasses()) {
+            resource.eAdapters().remove(summary);
+            indexedResources.add(resource);
+            return false;
+        } else {
+            deferredResources.put(resource, summary);
+            return true;
+        }
+    }
+
+    /**
+     * Called when the content adapter stops observing a resource, e.g. because it was removed from the resource set.
+     *
+     * @return true if the resource was deferred, i.e. not observed by the content adapter
+     */
+    boolean forget(Resource resource) {
+        indexedResources.remove(resource);
+        ResourceTypeSummary summary = deferredResources.remove(resource);
+        if (summary != null) {
+            resource.eAdapters().remove(summary);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Called when an indexed resource is unloaded, after its contents were removed from the index; the resource is
+     * deferred again until its new contents are needed.
+     */
+    void unloaded(Resource resource) {
+        if (indexedResources.remove(resource)) {
+            navigationHelper.getContentAdapter().removeAdapter(resource);
+            deferIfNotRequired(resource);
+        }
+    }
+
+    /**
+     * Indexes the deferred resources whose contents became relevant, e.g. after new types were registered. Must be
+     * called during a coalesced traversal, after the new types were gathered from the model roots.
+     */
+    void indexRequiredResources() {
+        for (Entry<Resource, ResourceTypeSummary> entry : new ArrayList<Entry<Resource, ResourceTypeSummary>>(
+                deferredResources.entrySet())) {
+            if (entry.getValue().checkAllClasses()) {
+                index(entry.getKey());
+            }
+        }
+    }
+
+    private void checkNewClasses(final Resource resource) {
+        try {
+            navigationHelper.coalesceTraversals(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    ResourceTypeSummary summary = deferredResources.get(resource);
+                    if (summary != null && summary.checkUncheckedClasses()) {
+                        index(resource);
+                    }
+                    return null;
+                }
+            });
+        } catch (InvocationTargetException ex) {
+            navigationHelper.processingFatal(ex.getCause(), "index the resource: " + resource.getURI());
+        }
+    }
+
+    private void index(Resource resource) {
+        ResourceTypeSummary summary = deferredResources.remove(resource);
+        resource.eAdapters().remove(summary);
+        indexedResources.add(resource);
+        navigationHelper.getContentAdapter().addAdapter(resource);
+    }
+
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.common.collect.Multiset;
+
+/**
+ * Gathers the number of entries and the estimated memory of the contents stored for each key (String id, EClassifier
+ * or EStructuralFeature) by the stores of a navigation helper.
+ *
+ * <p>
+ * Estimates are rough, assuming a 64-bit JVM with compressed object references; collections created by a custom
+ * collections framework are estimated as if they were {@link java.util.HashSet}s and {@link java.util.HashMap}s. The
+ * keys and the indexed model elements themselves are not counted, as they are owned by the model.
+ *
+ * @author agent
+ */
+class MemoryUsageCollector {
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    /**
+     * Estimated size of an entry of a {@link java.util.HashMap}, incl. its slot in the table.
+     */
+    static final int HASH_ENTRY = 40;
+    /**
+     * Estimated size of an empty {@link java.util.HashSet} or {@link java.util.HashMap}, incl. the header of its table.
+     */
+    static final int HASH_COLLECTION = 64;
+    /**
+     * Estimated size of a boxed int that is not cached.
+     */
+    static final int BOXED_INT = 16;
+
+    /**
+     * key -> { entries, bytes }
+     */
+    private final Map<Object, long[]> instanceStoreUsage = new LinkedHashMap<Object, long[]>();
+    private final Map<Object, long[]> statisticsStoreUsage = new LinkedHashMap<Object, long[]>();
+
+    static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    static long object(int fieldBytes) {
+        return align(OBJECT_HEADER + (long) fieldBytes);
+    }
+
+    static long hashCollection(int size) {
+        return HASH_COLLECTION + (long) size * HASH_ENTRY;
+    }
+
+    /**
+     * @return the estimated size of the given collection of holders or instances, not counting its elements
+     */
+    static long collection(Collection<?> collection) {
+        if (collection instanceof CompactBag<?>) {
+            return ((CompactBag<?>) collection).getEstimatedMemory();
+        } else if (collection instanceof Multiset<?>) {
+            // an entry and a mutable counter for each distinct element
+            int distinct = ((Multiset<?>) collection).elementSet().size();
+            return hashCollection(distinct) + (long) distinct * object(4);
+        } else {
+            return hashCollection(collection.size());
+        }
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static void add(Map<Object, long[]> usage, Object key, long entries, long bytes) {
+        long[] current = usage.get(key);
+        if (current == null) {
+            current = new long[2];
+            usage.put(key, current);
+        }
+        current[0] += entries;
+        current[1] += bytes;
+    }
+
+    /**
+     * Records entries (instances, feature tuples or data type values) and memory of the instance store for the given
+     * key; auxiliary index structures are recorded with 0 entries.
+     */
+    void addInstanceStoreUsage(Object key, long entries, long bytes) {
+        add(instanceStoreUsage, key, entries, bytes);
+    }
+
+    /**
+     * Records entries (counters or tracked degrees) and memory of the statistics store for the given key.
+     */
+    void addStatisticsStoreUsage(Object key, long entries, long bytes) {
+        add(statisticsStoreUsage, key, entries, bytes);
+    }
+
+    /**
+     * @return key -> { entries, bytes }
+     */
+    Map<Object, long[]> getInstanceStoreUsage() {
+        return instanceStoreUsage;
+    }
+
+    /**
+     * @return key -> { entries, bytes }
+     */
+    Map<Object, long[]> getStatisticsStoreUsage() {
+        return statisticsStoreUsage;
+    }
+
+}
@@ -88,6 +88,7 @@ public class NavigationHelperContentAdapter extends AdapterImpl {
             this.navigationHelper.coalesceTraversals(new Callable<Void>() {
                 @Override
                 public Void call() throws Exception {
+                    invalidateIndexSnapshot(notification);
                     simpleNotifyChanged(notification);
 
                     final Object oFeature = notification.getFeature();
@@ -108,6 +109,9 @@ public class NavigationHelperContentAdapter extends AdapterImpl {
                                 navigationHelper.resolutionDelayingResources.add(resource);
                             else
                                 navigationHelper.resolutionDelayingResources.remove(resource);
+                            if (navigationHelper.lazyResourceIndexing != null && !resource.isLoaded()) {
+                                navigationHelper.lazyResourceIndexing.unloaded(resource);
+                            }
                         }
                     }
                     return null;
@@ -122,6 +126,22 @@ public class NavigationHelperContentAdapter extends AdapterImpl {
         navigationHelper.notifyBaseIndexChangeListeners();
     }
 
+    private void invalidateIndexSnapshot(final Notification notification) {
+        if (notification.isTouch()) {
+            return;
+        }
+        final Object oNotifier = notification.getNotifier();
+        if (oNotifier instanceof EObject) {
+            final Resource resource = ((EObject) oNotifier).eResource();
+            if (resource != null) {
+                navigationHelper.invalidateIndexSnapshot(resource);
+            }
+        } else if (oNotifier instanceof Resource
+                && notification.getFeatureID(Resource.class) == Resource.RESOURCE__CONTENTS) {
+            navigationHelper.invalidateIndexSnapshot((Resource) oNotifier);
+        }
+    }
+
     @SuppressWarnings("deprecation")
     private boolean handleNotification(final Notification notification, final EObject notifier,
             final EStructuralFeature feature) {
@@ -208,13 +228,21 @@ public class NavigationHelperContentAdapter extends AdapterImpl {
                     // the object is really traversed BEFORE the notification listener is added,
                     // so that if a proxy is resolved due to the traversal, we do not get notified about it
                     if (notifier instanceof EObject) {
-                        comprehension.traverseObject(getVisitorForChange(true), (EObject) notifier);
+                        if (navigationHelper.bulkInsertion != null) {
+                            navigationHelper.bulkInsertion.gather((EObject) notifier);
+                        } else {
+                            comprehension.traverseObject(getVisitorForChange(true), (EObject) notifier);
+                        }
                     } else if (notifier instanceof Resource) {
                         Resource resource = (Resource) notifier;
                         if (resourceFilterConfiguration != null
                                 && resourceFilterConfiguration.isResourceFiltered(resource)) {
                             return null;
                         }
+                        if (navigationHelper.lazyResourceIndexing != null
+                                && navigationHelper.lazyResourceIndexing.deferIfNotRequired(resource)) {
+                            return null;
+                        }
                         if (comprehension.isLoading(resource))
                             navigationHelper.resolutionDelayingResources.add(resource);
                     }
@@ -297,6 +325,10 @@ public class NavigationHelperContentAdapter extends AdapterImpl {
                             && resourceFilterConfiguration.isResourceFiltered((Resource) notifier)) {
                         return null;
                     }
+                    if (navigationHelper.lazyResourceIndexing != null
+                            && navigationHelper.lazyResourceIndexing.forget((Resource) notifier)) {
+                        return null;
+                    }
                     navigationHelper.resolutionDelayingResources.remove(notifier);
                 }
                 // unsubscribes from the adapter list, will receive unsetTarget callback that will spread
@@ -11,7 +11,9 @@
 package org.eclipse.viatra.query.runtime.base.core;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -20,22 +22,28 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.notify.Notification;
 import org.eclipse.emf.common.notify.Notifier;
 import org.eclipse.emf.common.notify.NotifyingList;
 import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.Enumerator;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.ENamedElement;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.EStructuralFeature.Setting;
@@ -58,9 +66,12 @@ import org.eclipse.viatra.query.runtime.base.api.LightweightEObjectObserver;
 import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
 import org.eclipse.viatra.query.runtime.base.api.filters.IBaseIndexObjectFilter;
 import org.eclipse.viatra.query.runtime.base.api.filters.IBaseIndexResourceFilter;
+import org.eclipse.viatra.query.runtime.base.api.metrics.BaseIndexMemoryUsage;
+import org.eclipse.viatra.query.runtime.base.api.metrics.IndexedKeyMemoryUsage;
 import org.eclipse.viatra.query.runtime.base.comprehension.EMFModelComprehension;
 import org.eclipse.viatra.query.runtime.base.comprehension.EMFVisitor;
 import org.eclipse.viatra.query.runtime.base.exception.ViatraBaseException;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
 
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
@@ -69,7 +80,6 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 
@@ -102,6 +112,19 @@ public class NavigationHelperImpl implements NavigationHelper {
      * Feature registration and model traversal is delayed while true
      */
     protected boolean delayTraversals = false;
+    /**
+     * Nesting depth of batches, see {@link #beginBatch()}
+     */
+    private int batchDepth = 0;
+    /**
+     * Listener notifications accumulated in the current batch; null if not in a batch
+     */
+    private BatchedNotifications batchedNotifications;
+    /**
+     * Gathers the contents of the newly observed objects during a bulk insertion; null if there is no bulk insertion in
+     * progress, see {@link #bulkInsert(EList, Collection)}
+     */
+    BulkInsertion bulkInsertion;
     /**
      * Classes (or String ID in dynamic mode) to be registered once the coalescing period is over
      */
@@ -158,6 +181,24 @@ public class NavigationHelperImpl implements NavigationHelper {
     EMFBaseIndexInstanceStore instanceStore;
     EMFBaseIndexStatisticsStore statsStore;
 
+    /**
+     * Guards the index if concurrent read access is allowed, null otherwise; see
+     * {@link BaseIndexOptions#withConcurrentReadAccess(boolean)}
+     */
+    private final ReentrantReadWriteLock indexLock;
+
+    /**
+     * Resources whose indexing is deferred; null unless lazy resource indexing is turned on, see
+     * {@link BaseIndexOptions#withLazyResourceIndexing(boolean)}
+     */
+    final LazyResourceIndexing lazyResourceIndexing;
+
+    /**
+     * The worker threads of parallel traversals; created on first use, see
+     * {@link BaseIndexOptions#withParallelTraversal(boolean)}
+     */
+    private ForkJoinPool traversalPool;
+
     <T> Set<T> setMinus(Collection<? extends T> a, Collection<T> b) {
         Set<T> result = new HashSet<T>(a);
         result.removeAll(b);
@@ -231,8 +272,21 @@ public class NavigationHelperImpl implements NavigationHelper {
         this.logger = logger;
         assert (logger != null);
 
-        this.comprehension = new EMFModelComprehension(baseIndexOptions);
+        BaseIndexOptions comprehensionOptions = baseIndexOptions;
+        if (baseIndexOptions.isLazyResourceIndexing()) {
+            this.lazyResourceIndexing = new LazyResourceIndexing(this,
+                    baseIndexOptions.getResourceFilterConfiguration());
+            // deferred resources are skipped by traversals
+            comprehensionOptions = baseIndexOptions
+                    .withResourceFilterConfiguration(lazyResourceIndexing.getTraversalResourceFilter());
+        } else {
+            this.lazyResourceIndexing = null;
+        }
+        this.comprehension = baseIndexOptions.isIndexSnapshots()
+                ? new SnapshotModelComprehension(comprehensionOptions, logger)
+                : new EMFModelComprehension(comprehensionOptions);
         this.wildcardMode = baseIndexOptions.getWildcardLevel();
+        this.indexLock = baseIndexOptions.isConcurrentReadAccess() ? new ReentrantReadWriteLock() : null;
         this.subscribedInstanceListeners = new HashMap<InstanceListener, Set<EClass>>();
         this.subscribedFeatureListeners = new HashMap<FeatureListener, Set<EStructuralFeature>>();
         this.subscribedDataTypeListeners = new HashMap<DataTypeListener, Set<EDataType>>();
@@ -242,7 +296,8 @@ public class NavigationHelperImpl implements NavigationHelper {
         this.observedDataTypes = new HashMap<Object, IndexingLevel>();
 
         metaStore = new EMFBaseIndexMetaStore(this);
-        instanceStore = new EMFBaseIndexInstanceStore(this, logger);
+        instanceStore = baseIndexOptions.isCompactStoreMode() ? new CompactEMFBaseIndexInstanceStore(this, logger)
+                : new EMFBaseIndexInstanceStore(this, logger);
         statsStore = new EMFBaseIndexStatisticsStore(this, logger);
 
         this.contentAdapter = new NavigationHelperContentAdapter(this);
@@ -267,6 +322,7 @@ public class NavigationHelperImpl implements NavigationHelper {
     
     @Override
     public void setWildcardLevel(final IndexingLevel level) {
+        beginWrite();
         try{
             IndexingLevel mergedLevel = NavigationHelperImpl.this.wildcardMode.merge(level);
             if (mergedLevel != NavigationHelperImpl.this.wildcardMode){
@@ -289,6 +345,8 @@ public class NavigationHelperImpl implements NavigationHelper {
             processingFatal(ex.getCause(), "Setting wildcard level: " + level);
         } catch (Exception ex) {
             processingFatal(ex, "Setting wildcard level: " + level);
+        } finally {
+            endWrite();
         }
     }
 
@@ -306,20 +364,34 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     @Override
     public void dispose() {
-        ensureNoListenersForDispose();
-        for (Notifier root : modelRoots) {
-            contentAdapter.removeAdapter(root);
+        beginWrite();
+        try {
+            ensureNoListenersForDispose();
+            for (Notifier root : modelRoots) {
+                contentAdapter.removeAdapter(root);
+            }
+            if (traversalPool != null) {
+                traversalPool.shutdown();
+                traversalPool = null;
+            }
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public Set<Object> getDataTypeInstances(EDataType type) {
         Object typeKey = toKey(type);
-        Map<Object, Integer> valMap = instanceStore.getDataTypeMap(typeKey);
-        if (valMap != null) {
-            return Collections.unmodifiableSet(valMap.keySet());
-        } else {
-            return Collections.emptySet();
+        beginRead();
+        try {
+            Set<Object> values = instanceStore.getDataTypeValues(typeKey);
+            if (values != null) {
+                return readOnly(values);
+            } else {
+                return Collections.emptySet();
+            }
+        } finally {
+            endRead();
         }
     }
 
@@ -327,14 +399,18 @@ public class NavigationHelperImpl implements NavigationHelper {
     public Set<Setting> findByAttributeValue(Object value_) {
         Object value = toCanonicalValueRepresentation(value_);
         Set<Setting> retSet = new HashSet<Setting>();
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(value);
+        beginRead();
+        try {
+            Map<Object, Set<EObject>> valMap = instanceStore.getHoldersByFeature(value);
 
-        for (Entry<Object, Collection<EObject>> entry : valMap.entrySet()) {
-            final Collection<EObject> holders = entry.getValue();
-            EStructuralFeature feature = metaStore.getKnownFeatureForKey(entry.getKey());
-            for (EObject holder : EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders)) {
-                retSet.add(new NavigationHelperSetting(feature, holder, value));
+            for (Entry<Object, Set<EObject>> entry : valMap.entrySet()) {
+                EStructuralFeature feature = metaStore.getKnownFeatureForKey(entry.getKey());
+                for (EObject holder : entry.getValue()) {
+                    retSet.add(new NavigationHelperSetting(feature, holder, value));
+                }
             }
+        } finally {
+            endRead();
         }
 
         return retSet;
@@ -344,16 +420,19 @@ public class NavigationHelperImpl implements NavigationHelper {
     public Set<Setting> findByAttributeValue(Object value_, Collection<EAttribute> attributes) {
         Object value = toCanonicalValueRepresentation(value_);
         Set<Setting> retSet = new HashSet<Setting>();
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(value);
-
-        for (EAttribute attr : attributes) {
-            Object feature = toKey(attr);
-            final Collection<EObject> holders = valMap.get(feature);
-            if (holders != null) {
-                for (EObject holder : EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders)) {
-                    retSet.add(new NavigationHelperSetting(attr, holder, value));
+        Map<EAttribute, Object> featureKeys = toKeys(attributes);
+        beginRead();
+        try {
+            for (Entry<EAttribute, Object> entry : featureKeys.entrySet()) {
+                final Set<EObject> holders = instanceStore.getHolders(value, entry.getValue());
+                if (holders != null) {
+                    for (EObject holder : holders) {
+                        retSet.add(new NavigationHelperSetting(entry.getKey(), holder, value));
+                    }
                 }
             }
+        } finally {
+            endRead();
         }
 
         return retSet;
@@ -362,23 +441,32 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public Set<EObject> findByAttributeValue(Object value_, EAttribute attribute) {
         Object value = toCanonicalValueRepresentation(value_);
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(value);
         Object feature = toKey(attribute);
-        final Collection<EObject> holders = valMap.get(feature);
-        if (holders == null) {
-            return Collections.emptySet();
-        } else {
-            return Collections.unmodifiableSet(EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders));
+        beginRead();
+        try {
+            final Set<EObject> holders = instanceStore.getHolders(value, feature);
+            if (holders == null) {
+                return Collections.emptySet();
+            } else {
+                return readOnly(holders);
+            }
+        } finally {
+            endRead();
         }
     }
 
     @Override
     public void processAllFeatureInstances(EStructuralFeature feature, IEStructuralFeatureProcessor processor) {
-        final Map<Object, Collection<EObject>> instanceMap = instanceStore.getValueToFeatureToHolderMap()
-                .column(toKey(feature));
-        for (Entry<Object, Collection<EObject>> entry : instanceMap.entrySet()) {
-            final Collection<EObject> holders = entry.getValue();
-            for (EObject src : EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders)) {
+        Object featureKey = toKey(feature);
+        final Map<Object, Set<EObject>> instanceMap;
+        beginRead();
+        try {
+            instanceMap = readOnly(instanceStore.getHoldersByValue(featureKey));
+        } finally {
+            endRead();
+        }
+        for (Entry<Object, Set<EObject>> entry : instanceMap.entrySet()) {
+            for (EObject src : entry.getValue()) {
                 processor.process(feature, src, entry.getKey());
             }
         }
@@ -387,36 +475,63 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public void processDirectInstances(EClass type, IEClassProcessor processor) {
         Object typeKey = toKey(type);
-        processDirectInstancesInternal(type, processor, typeKey);
+        List<Set<EObject>> instanceSets = new ArrayList<Set<EObject>>();
+        beginRead();
+        try {
+            collectInstanceSet(typeKey, instanceSets);
+        } finally {
+            endRead();
+        }
+        processInstanceSets(type, processor, instanceSets);
     }
 
     @Override
     public void processAllInstances(EClass type, IEClassProcessor processor) {
         Object typeKey = toKey(type);
-        Set<Object> subTypes = metaStore.getSubTypeMap().get(typeKey);
-        if (subTypes != null) {
-            for (Object subTypeKey : subTypes) {
-                processDirectInstancesInternal(type, processor, subTypeKey);
+        List<Set<EObject>> instanceSets = new ArrayList<Set<EObject>>();
+        beginRead();
+        try {
+            Set<Object> subTypes = metaStore.getSubTypeMap().get(typeKey);
+            if (subTypes != null) {
+                for (Object subTypeKey : subTypes) {
+                    collectInstanceSet(subTypeKey, instanceSets);
+                }
             }
+            collectInstanceSet(typeKey, instanceSets);
+        } finally {
+            endRead();
         }
-        processDirectInstancesInternal(type, processor, typeKey);
+        processInstanceSets(type, processor, instanceSets);
     }
 
     @Override
     public void processDataTypeInstances(EDataType type, IEDataTypeProcessor processor) {
         Object typeKey = toKey(type);
-        Map<Object, Integer> valMap = instanceStore.getDataTypeMap(typeKey);
-        if (valMap == null) {
-            return;
+        Set<Object> values;
+        beginRead();
+        try {
+            values = instanceStore.getDataTypeValues(typeKey);
+            if (values == null) {
+                return;
+            }
+            values = readOnly(values);
+        } finally {
+            endRead();
         }
-        for (Object value : valMap.keySet()) {
+        for (Object value : values) {
             processor.process(type, value);
         }
     }
 
-    private void processDirectInstancesInternal(EClass type, IEClassProcessor processor, Object typeKey) {
+    private void collectInstanceSet(Object typeKey, List<Set<EObject>> instanceSets) {
         final Set<EObject> instances = instanceStore.getInstanceSet(typeKey);
         if (instances != null) {
+            instanceSets.add(readOnly(instances));
+        }
+    }
+
+    private void processInstanceSets(EClass type, IEClassProcessor processor, List<Set<EObject>> instanceSets) {
+        for (Set<EObject> instances : instanceSets) {
             for (EObject eObject : instances) {
                 processor.process(type, eObject);
             }
@@ -426,14 +541,18 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public Set<Setting> getInverseReferences(EObject target) {
         Set<Setting> retSet = new HashSet<Setting>();
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(target);
-
-        for (Entry<Object, Collection<EObject>> entry : valMap.entrySet()) {
-            final Collection<EObject> holders = entry.getValue();
-            for (EObject source : EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders)) {
-                EStructuralFeature feature = metaStore.getKnownFeatureForKey(entry.getKey());
-                retSet.add(new NavigationHelperSetting(feature, source, target));
+        beginRead();
+        try {
+            Map<Object, Set<EObject>> valMap = instanceStore.getHoldersByFeature(target);
+
+            for (Entry<Object, Set<EObject>> entry : valMap.entrySet()) {
+                for (EObject source : entry.getValue()) {
+                    EStructuralFeature feature = metaStore.getKnownFeatureForKey(entry.getKey());
+                    retSet.add(new NavigationHelperSetting(feature, source, target));
+                }
             }
+        } finally {
+            endRead();
         }
 
         return retSet;
@@ -442,16 +561,19 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public Set<Setting> getInverseReferences(EObject target, Collection<EReference> references) {
         Set<Setting> retSet = new HashSet<Setting>();
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(target);
-
-        for (EReference ref : references) {
-            Object feature = toKey(ref);
-            final Collection<EObject> holders = valMap.get(feature);
-            if (holders != null) {
-                for (EObject source : EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders)) {
-                    retSet.add(new NavigationHelperSetting(ref, source, target));
+        Map<EReference, Object> featureKeys = toKeys(references);
+        beginRead();
+        try {
+            for (Entry<EReference, Object> entry : featureKeys.entrySet()) {
+                final Set<EObject> holders = instanceStore.getHolders(target, entry.getValue());
+                if (holders != null) {
+                    for (EObject source : holders) {
+                        retSet.add(new NavigationHelperSetting(entry.getKey(), source, target));
+                    }
                 }
             }
+        } finally {
+            endRead();
         }
 
         return retSet;
@@ -460,12 +582,16 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public Set<EObject> getInverseReferences(EObject target, EReference reference) {
         Object feature = toKey(reference);
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(target);
-        final Collection<EObject> holders = valMap.get(feature);
-        if (holders == null) {
-            return Collections.emptySet();
-        } else {
-            return Collections.unmodifiableSet(EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders));
+        beginRead();
+        try {
+            final Set<EObject> holders = instanceStore.getHolders(target, feature);
+            if (holders == null) {
+                return Collections.emptySet();
+            } else {
+                return readOnly(holders);
+            }
+        } finally {
+            endRead();
         }
     }
 
@@ -479,46 +605,112 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public Set<Object> getFeatureTargets(EObject source, EStructuralFeature _feature) {
         Object feature = toKey(_feature);
-        final Set<Object> valSet = instanceStore.getHolderToFeatureToValueMap().get(source, feature);
-        if (valSet == null) {
-            return Collections.emptySet();
-        } else {
-            return Collections.unmodifiableSet(valSet);
+        beginRead();
+        try {
+            final Set<Object> valSet = instanceStore.getValues(source, feature);
+            if (valSet == null) {
+                return Collections.emptySet();
+            } else {
+                return readOnly(valSet);
+            }
+        } finally {
+            endRead();
         }
     }
 
     @Override
     public Map<EObject, Set<Object>> getFeatureInstances(EStructuralFeature _feature) {
         Object feature = toKey(_feature);
-        final Map<EObject, Set<Object>> valMap = instanceStore.getHolderToFeatureToValueMap().column(feature);
-        if (valMap == null) {
-            return Collections.emptyMap();
-        } else {
-            return Collections.unmodifiableMap(valMap);
+        beginRead();
+        try {
+            final Map<EObject, Set<Object>> valMap = instanceStore.getValuesByHolder(feature);
+            if (valMap == null) {
+                return Collections.emptyMap();
+            } else {
+                return readOnly(valMap);
+            }
+        } finally {
+            endRead();
         }
     }
 
     @Override
     public Set<EObject> getDirectInstances(EClass type) {
         Object typeKey = toKey(type);
-        Set<EObject> valSet = instanceStore.getInstanceSet(typeKey);
-        if (valSet == null) {
-            return Collections.emptySet();
-        } else {
-            return Collections.unmodifiableSet(valSet);
+        beginRead();
+        try {
+            Set<EObject> valSet = instanceStore.getInstanceSet(typeKey);
+            if (valSet == null) {
+                return Collections.emptySet();
+            } else {
+                return readOnly(valSet);
+            }
+        } finally {
+            endRead();
         }
     }
 
     private Object toKey(EClassifier eClassifier) {
+        if (needsMetamodelMaintenanceLock()) {
+            beginRead();
+            try {
+                if (metaStore.isKnown(eClassifier)) {
+                    return metaStore.toKey(eClassifier);
+                }
+            } finally {
+                endRead();
+            }
+            // first encounter, metamodel maintenance modifies the index
+            beginWrite();
+            try {
+                return metaStore.toKey(eClassifier);
+            } finally {
+                endWrite();
+            }
+        }
         return metaStore.toKey(eClassifier);
     }
 
     private Object toKey(EStructuralFeature feature) {
+        if (needsMetamodelMaintenanceLock()) {
+            beginRead();
+            try {
+                if (metaStore.isKnown(feature)) {
+                    return metaStore.toKey(feature);
+                }
+            } finally {
+                endRead();
+            }
+            // first encounter, metamodel maintenance modifies the index
+            beginWrite();
+            try {
+                return metaStore.toKey(feature);
+            } finally {
+                endWrite();
+            }
+        }
         return metaStore.toKey(feature);
     }
 
+    private <F extends EStructuralFeature> Map<F, Object> toKeys(Collection<F> features) {
+        Map<F, Object> result = new LinkedHashMap<F, Object>();
+        for (F feature : features) {
+            result.put(feature, toKey(feature));
+        }
+        return result;
+    }
+
     @Override
     public Object toCanonicalValueRepresentation(Object value) {
+        if (value instanceof Enumerator && isInDynamicEMFMode() && needsMetamodelMaintenanceLock()) {
+            // canonical enum literals are appointed on demand
+            beginWrite();
+            try {
+                return metaStore.toInternalValueRepresentation(value);
+            } finally {
+                endWrite();
+            }
+        }
         return metaStore.toInternalValueRepresentation(value);
     }
 
@@ -527,18 +719,23 @@ public class NavigationHelperImpl implements NavigationHelper {
         Set<EObject> retSet = new HashSet<EObject>();
 
         Object typeKey = toKey(type);
-        Set<Object> subTypes = metaStore.getSubTypeMap().get(typeKey);
-        if (subTypes != null) {
-            for (Object subTypeKey : subTypes) {
-                final Set<EObject> instances = instanceStore.getInstanceSet(subTypeKey);
-                if (instances != null) {
-                    retSet.addAll(instances);
+        beginRead();
+        try {
+            Set<Object> subTypes = metaStore.getSubTypeMap().get(typeKey);
+            if (subTypes != null) {
+                for (Object subTypeKey : subTypes) {
+                    final Set<EObject> instances = instanceStore.getInstanceSet(subTypeKey);
+                    if (instances != null) {
+                        retSet.addAll(instances);
+                    }
                 }
             }
-        }
-        final Set<EObject> instances = instanceStore.getInstanceSet(typeKey);
-        if (instances != null) {
-            retSet.addAll(instances);
+            final Set<EObject> instances = instanceStore.getInstanceSet(typeKey);
+            if (instances != null) {
+                retSet.addAll(instances);
+            }
+        } finally {
+            endRead();
         }
 
         return retSet;
@@ -550,10 +747,15 @@ public class NavigationHelperImpl implements NavigationHelper {
         Object typeKey = toKey(object.eClass()); 
         
         if (candidateTypeKey.equals(typeKey)) return true;
-        if (metaStore.getEObjectClassKey().equals(candidateTypeKey)) return true;
-                    
-        Set<Object> superTypes = metaStore.getSuperTypeMap().get(typeKey);
-        return superTypes.contains(candidateTypeKey);            
+        beginRead();
+        try {
+            if (metaStore.getEObjectClassKey().equals(candidateTypeKey)) return true;
+
+            Set<Object> superTypes = metaStore.getSuperTypeMap().get(typeKey);
+            return superTypes.contains(candidateTypeKey);
+        } finally {
+            endRead();
+        }
     }
 
     @Override
@@ -561,10 +763,14 @@ public class NavigationHelperImpl implements NavigationHelper {
         Object value = toCanonicalValueRepresentation(value_);
         Object feature = toKey(_feature);
         Set<EObject> retSet = new HashSet<EObject>();
-        Map<Object, Collection<EObject>> valMap = instanceStore.getValueToFeatureToHolderMap().row(value);
-        final Collection<EObject> holders = valMap.get(feature);
-        if (holders != null) {
-            retSet.addAll(EMFBaseIndexInstanceStore.holderCollectionToUniqueSet(holders));
+        beginRead();
+        try {
+            final Set<EObject> holders = instanceStore.getHolders(value, feature);
+            if (holders != null) {
+                retSet.addAll(holders);
+            }
+        } finally {
+            endRead();
         }
         return retSet;
     }
@@ -572,110 +778,207 @@ public class NavigationHelperImpl implements NavigationHelper {
     @Override
     public Set<EObject> getHoldersOfFeature(EStructuralFeature _feature) {
         Object feature = toKey(_feature);
-        Multiset<EObject> holders = instanceStore.getFeatureToHolderMap().get(feature);
-        if (holders == null) {
-            return Collections.emptySet();
-        } else {
-            return Collections.unmodifiableSet(holders.elementSet());
+        beginRead();
+        try {
+            Set<EObject> holders = instanceStore.getHoldersOfFeature(feature);
+            if (holders == null) {
+                return Collections.emptySet();
+            } else {
+                return readOnly(holders);
+            }
+        } finally {
+            endRead();
+        }
+    }
+
+    private void beginRead() {
+        if (indexLock != null) {
+            indexLock.readLock().lock();
+        }
+    }
+
+    private void endRead() {
+        if (indexLock != null) {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    private void beginWrite() {
+        if (indexLock != null) {
+            // a read lock cannot be upgraded, this would block forever
+            checkState(indexLock.getReadHoldCount() == 0, "Cannot update the index while reading it");
+            indexLock.writeLock().lock();
+        }
+    }
+
+    private void endWrite() {
+        if (indexLock != null) {
+            indexLock.writeLock().unlock();
         }
     }
 
+    /**
+     * Metamodel maintenance on the first encounter of a metamodel element must be guarded by the write lock, unless it
+     * is already held.
+     */
+    private boolean needsMetamodelMaintenanceLock() {
+        return indexLock != null && !indexLock.isWriteLockedByCurrentThread();
+    }
+
+    /**
+     * @return an unmodifiable view of the given set, or of its copy if concurrent read access is allowed; as the
+     *         result may be iterated after the read lock is released
+     */
+    private <T> Set<T> readOnly(Set<T> set) {
+        return Collections.unmodifiableSet(indexLock == null ? set : new HashSet<T>(set));
+    }
+
+    /**
+     * @see #readOnly(Set)
+     */
+    private <K, V> Map<K, Set<V>> readOnly(Map<K, Set<V>> map) {
+        if (indexLock == null) {
+            return Collections.unmodifiableMap(map);
+        }
+        Map<K, Set<V>> copy = new HashMap<K, Set<V>>();
+        for (Entry<K, Set<V>> entry : map.entrySet()) {
+            copy.put(entry.getKey(), readOnly(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
     @Override
     public void addInstanceListener(Collection<EClass> classes, InstanceListener listener) {
-        Set<EClass> registered = this.subscribedInstanceListeners.get(listener);
-        if (registered == null) {
-            registered = new HashSet<EClass>();
-            this.subscribedInstanceListeners.put(listener, registered);
-        }
-        Set<EClass> delta = setMinus(classes, registered);
-        if (!delta.isEmpty()) {
-            registered.addAll(delta);
-            if (instanceListeners != null) { // if already computed
-                for (EClass subscriptionType : delta) {
-                    final Object superElementTypeKey = toKey(subscriptionType);
-                    addInstanceListenerInternal(listener, subscriptionType, superElementTypeKey);
-                    final Set<Object> subTypeKeys = metaStore.getSubTypeMap().get(superElementTypeKey);
-                    if (subTypeKeys != null)
-                        for (Object subTypeKey : subTypeKeys) {
-                            addInstanceListenerInternal(listener, subscriptionType, subTypeKey);
-                        }
+        beginWrite();
+        try {
+            flushBatchedNotifications();
+            Set<EClass> registered = this.subscribedInstanceListeners.get(listener);
+            if (registered == null) {
+                registered = new HashSet<EClass>();
+                this.subscribedInstanceListeners.put(listener, registered);
+            }
+            Set<EClass> delta = setMinus(classes, registered);
+            if (!delta.isEmpty()) {
+                registered.addAll(delta);
+                if (instanceListeners != null) { // if already computed
+                    for (EClass subscriptionType : delta) {
+                        final Object superElementTypeKey = toKey(subscriptionType);
+                        addInstanceListenerInternal(listener, subscriptionType, superElementTypeKey);
+                        final Set<Object> subTypeKeys = metaStore.getSubTypeMap().get(superElementTypeKey);
+                        if (subTypeKeys != null)
+                            for (Object subTypeKey : subTypeKeys) {
+                                addInstanceListenerInternal(listener, subscriptionType, subTypeKey);
+                            }
+                    }
                 }
             }
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public void removeInstanceListener(Collection<EClass> classes, InstanceListener listener) {
-        Set<EClass> restriction = this.subscribedInstanceListeners.get(listener);
-        if (restriction != null) {
-            boolean changed = restriction.removeAll(classes);
-            if (restriction.size() == 0) {
-                this.subscribedInstanceListeners.remove(listener);
+        beginWrite();
+        try {
+            flushBatchedNotifications();
+            Set<EClass> restriction = this.subscribedInstanceListeners.get(listener);
+            if (restriction != null) {
+                boolean changed = restriction.removeAll(classes);
+                if (restriction.size() == 0) {
+                    this.subscribedInstanceListeners.remove(listener);
+                }
+                if (changed)
+                    instanceListeners = null; // recompute later on demand
             }
-            if (changed)
-                instanceListeners = null; // recompute later on demand
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public void addFeatureListener(Collection<? extends EStructuralFeature> features, FeatureListener listener) {
-        Set<EStructuralFeature> registered = this.subscribedFeatureListeners.get(listener);
-        if (registered == null) {
-            registered = new HashSet<EStructuralFeature>();
-            this.subscribedFeatureListeners.put(listener, registered);
-        }
-        Set<EStructuralFeature> delta = setMinus(features, registered);
-        if (!delta.isEmpty()) {
-            registered.addAll(delta);
-            if (featureListeners != null) { // if already computed
-                for (EStructuralFeature subscriptionType : delta) {
-                    addFeatureListenerInternal(listener, subscriptionType, toKey(subscriptionType));
+        beginWrite();
+        try {
+            flushBatchedNotifications();
+            Set<EStructuralFeature> registered = this.subscribedFeatureListeners.get(listener);
+            if (registered == null) {
+                registered = new HashSet<EStructuralFeature>();
+                this.subscribedFeatureListeners.put(listener, registered);
+            }
+            Set<EStructuralFeature> delta = setMinus(features, registered);
+            if (!delta.isEmpty()) {
+                registered.addAll(delta);
+                if (featureListeners != null) { // if already computed
+                    for (EStructuralFeature subscriptionType : delta) {
+                        addFeatureListenerInternal(listener, subscriptionType, toKey(subscriptionType));
+                    }
                 }
             }
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public void removeFeatureListener(Collection<? extends EStructuralFeature> features, FeatureListener listener) {
-        Collection<EStructuralFeature> restriction = this.subscribedFeatureListeners.get(listener);
-        if (restriction != null) {
-            boolean changed = restriction.removeAll(features);
-            if (restriction.size() == 0) {
-                this.subscribedFeatureListeners.remove(listener);
+        beginWrite();
+        try {
+            flushBatchedNotifications();
+            Collection<EStructuralFeature> restriction = this.subscribedFeatureListeners.get(listener);
+            if (restriction != null) {
+                boolean changed = restriction.removeAll(features);
+                if (restriction.size() == 0) {
+                    this.subscribedFeatureListeners.remove(listener);
+                }
+                if (changed)
+                    featureListeners = null; // recompute later on demand
             }
-            if (changed)
-                featureListeners = null; // recompute later on demand
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public void addDataTypeListener(Collection<EDataType> types, DataTypeListener listener) {
-        Set<EDataType> registered = this.subscribedDataTypeListeners.get(listener);
-        if (registered == null) {
-            registered = new HashSet<EDataType>();
-            this.subscribedDataTypeListeners.put(listener, registered);
-        }
-        Set<EDataType> delta = setMinus(types, registered);
-        if (!delta.isEmpty()) {
-            registered.addAll(delta);
-            if (dataTypeListeners != null) { // if already computed
-                for (EDataType subscriptionType : delta) {
-                    addDatatypeListenerInternal(listener, subscriptionType, toKey(subscriptionType));
+        beginWrite();
+        try {
+            flushBatchedNotifications();
+            Set<EDataType> registered = this.subscribedDataTypeListeners.get(listener);
+            if (registered == null) {
+                registered = new HashSet<EDataType>();
+                this.subscribedDataTypeListeners.put(listener, registered);
+            }
+            Set<EDataType> delta = setMinus(types, registered);
+            if (!delta.isEmpty()) {
+                registered.addAll(delta);
+                if (dataTypeListeners != null) { // if already computed
+                    for (EDataType subscriptionType : delta) {
+                        addDatatypeListenerInternal(listener, subscriptionType, toKey(subscriptionType));
+                    }
                 }
             }
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public void removeDataTypeListener(Collection<EDataType> types, DataTypeListener listener) {
-        Collection<EDataType> restriction = this.subscribedDataTypeListeners.get(listener);
-        if (restriction != null) {
-            boolean changed = restriction.removeAll(types);
-            if (restriction.size() == 0) {
-                this.subscribedDataTypeListeners.remove(listener);
+        beginWrite();
+        try {
+            flushBatchedNotifications();
+            Collection<EDataType> restriction = this.subscribedDataTypeListeners.get(listener);
+            if (restriction != null) {
+                boolean changed = restriction.removeAll(types);
+                if (restriction.size() == 0) {
+                    this.subscribedDataTypeListeners.remove(listener);
+                }
+                if (changed)
+                    dataTypeListeners = null; // recompute later on demand
             }
-            if (changed)
-                dataTypeListeners = null; // recompute later on demand
+        } finally {
+            endWrite();
         }
     }
 
@@ -688,25 +991,35 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     @Override
     public boolean addLightweightEObjectObserver(LightweightEObjectObserver observer, EObject observedObject) {
-        Collection<EObject> observedObjects = lightweightObservers.get(observer);
-        if (observedObjects == null) {
-            observedObjects = new HashSet<EObject>();
-            lightweightObservers.put(observer, observedObjects);
+        beginWrite();
+        try {
+            Collection<EObject> observedObjects = lightweightObservers.get(observer);
+            if (observedObjects == null) {
+                observedObjects = new HashSet<EObject>();
+                lightweightObservers.put(observer, observedObjects);
+            }
+            return observedObjects.add(observedObject);
+        } finally {
+            endWrite();
         }
-        return observedObjects.add(observedObject);
     }
 
     @Override
     public boolean removeLightweightEObjectObserver(LightweightEObjectObserver observer, EObject observedObject) {
-        boolean result = false;
-        Collection<EObject> observedObjects = lightweightObservers.get(observer);
-        if (observedObjects != null) {
-            result = observedObjects.remove(observedObject);
-            if (observedObjects.isEmpty()) {
-                lightweightObservers.remove(observer);
+        beginWrite();
+        try {
+            boolean result = false;
+            Collection<EObject> observedObjects = lightweightObservers.get(observer);
+            if (observedObjects != null) {
+                result = observedObjects.remove(observedObject);
+                if (observedObjects.isEmpty()) {
+                    lightweightObservers.remove(observer);
+                }
             }
+            return result;
+        } finally {
+            endWrite();
         }
-        return result;
     }
 
     /**
@@ -717,6 +1030,9 @@ public class NavigationHelperImpl implements NavigationHelper {
     }
 
     public void notifyBaseIndexChangeListeners() {
+        if (batchedNotifications != null || bulkInsertion != null) { // delayed until the end of the batch or bulk insertion
+            return;
+        }
         notifyBaseIndexChangeListeners(instanceStore.isDirty);
         if (instanceStore.isDirty) {
             instanceStore.isDirty = false;
@@ -744,6 +1060,15 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     void notifyDataTypeListeners(final Object typeKey, final Object value, final boolean isInsertion,
             final boolean firstOrLastOccurrence) {
+        if (batchedNotifications != null) {
+            batchedNotifications.dataTypeChanged(typeKey, value, isInsertion, firstOrLastOccurrence);
+        } else {
+            fireDataTypeListeners(typeKey, value, isInsertion, firstOrLastOccurrence);
+        }
+    }
+
+    void fireDataTypeListeners(final Object typeKey, final Object value, final boolean isInsertion,
+            final boolean firstOrLastOccurrence) {
         for (final Entry<DataTypeListener, Set<EDataType>> entry : getDataTypeListeners().row(typeKey).entrySet()) {
             final DataTypeListener listener = entry.getKey();
             for (final EDataType subscriptionType : entry.getValue()) {
@@ -758,6 +1083,36 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     void notifyFeatureListeners(final EObject host, final Object featureKey, final Object value,
             final boolean isInsertion) {
+        if (batchedNotifications != null) {
+            batchedNotifications.featureChanged(host, featureKey, value, isInsertion);
+        } else {
+            fireFeatureListeners(host, featureKey, value, isInsertion);
+        }
+    }
+
+    /**
+     * Notifies the listeners of a feature about the insertion of the given tuples together.
+     */
+    void notifyFeatureListeners(final Object featureKey, final List<EObject> hosts, final List<Object> values) {
+        if (batchedNotifications != null) {
+            for (int i = 0; i < hosts.size(); i++) {
+                batchedNotifications.featureChanged(hosts.get(i), featureKey, values.get(i), true);
+            }
+        } else {
+            for (final Entry<FeatureListener, Set<EStructuralFeature>> entry : getFeatureListeners().row(featureKey)
+                    .entrySet()) {
+                final FeatureListener listener = entry.getKey();
+                for (final EStructuralFeature subscriptionType : entry.getValue()) {
+                    for (int i = 0; i < hosts.size(); i++) {
+                        listener.featureInserted(hosts.get(i), subscriptionType, values.get(i));
+                    }
+                }
+            }
+        }
+    }
+
+    void fireFeatureListeners(final EObject host, final Object featureKey, final Object value,
+            final boolean isInsertion) {
         for (final Entry<FeatureListener, Set<EStructuralFeature>> entry : getFeatureListeners().row(featureKey)
                 .entrySet()) {
             final FeatureListener listener = entry.getKey();
@@ -772,6 +1127,34 @@ public class NavigationHelperImpl implements NavigationHelper {
     }
 
     void notifyInstanceListeners(final Object clazzKey, final EObject instance, final boolean isInsertion) {
+        if (batchedNotifications != null) {
+            batchedNotifications.instanceChanged(clazzKey, instance, isInsertion);
+        } else {
+            fireInstanceListeners(clazzKey, instance, isInsertion);
+        }
+    }
+
+    /**
+     * Notifies the listeners of a class about the insertion of the given instances together.
+     */
+    void notifyInstanceListeners(final Object clazzKey, final Collection<EObject> instances) {
+        if (batchedNotifications != null) {
+            for (EObject instance : instances) {
+                batchedNotifications.instanceChanged(clazzKey, instance, true);
+            }
+        } else {
+            for (final Entry<InstanceListener, Set<EClass>> entry : getInstanceListeners().row(clazzKey).entrySet()) {
+                final InstanceListener listener = entry.getKey();
+                for (final EClass subscriptionType : entry.getValue()) {
+                    for (EObject instance : instances) {
+                        listener.instanceInserted(subscriptionType, instance);
+                    }
+                }
+            }
+        }
+    }
+
+    void fireInstanceListeners(final Object clazzKey, final EObject instance, final boolean isInsertion) {
         for (final Entry<InstanceListener, Set<EClass>> entry : getInstanceListeners().row(clazzKey).entrySet()) {
             final InstanceListener listener = entry.getKey();
             for (final EClass subscriptionType : entry.getValue()) {
@@ -1109,21 +1492,20 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     @Override
     public void unregisterEStructuralFeatures(Set<? extends EStructuralFeature> features) {
-        if (isRegistrationNecessary(IndexingLevel.FULL) && features != null) {
-            final Set<Object> resolved = resolveFeaturesToKey(features);
-            ensureNoListeners(resolved, getFeatureListeners());
-            observedFeatures.keySet().removeAll(resolved);
-            delayedFeatures.keySet().removeAll(resolved);
-            for (Object f : resolved) {
-                instanceStore.getValueToFeatureToHolderMap().column(f).clear();
-                if (instanceStore.peekFeatureToHolderMap() != null) {
-                    instanceStore.peekFeatureToHolderMap().remove(f);
+        beginWrite();
+        try {
+            if (isRegistrationNecessary(IndexingLevel.FULL) && features != null) {
+                final Set<Object> resolved = resolveFeaturesToKey(features);
+                ensureNoListeners(resolved, getFeatureListeners());
+                observedFeatures.keySet().removeAll(resolved);
+                delayedFeatures.keySet().removeAll(resolved);
+                for (Object f : resolved) {
+                    instanceStore.removeFeature(f);
+                    statsStore.removeType(f);
                 }
-                if (instanceStore.peekHolderToFeatureToValueMap() != null) {
-                    instanceStore.peekHolderToFeatureToValueMap().column(f).clear();
-                }
-                statsStore.removeType(f);
             }
+        } finally {
+            endWrite();
         }
     }
 
@@ -1167,16 +1549,21 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     @Override
     public void unregisterEClasses(Set<EClass> classes) {
-        if (isRegistrationNecessary(IndexingLevel.FULL) && classes != null) {
-            final Set<Object> resolved = resolveClassifiersToKey(classes);
-            ensureNoListeners(resolved, getInstanceListeners());
-            directlyObservedClasses.keySet().removeAll(resolved);
-            allObservedClasses = null;
-            delayedClasses.keySet().removeAll(resolved);
-            for (Object c : resolved) {
-                instanceStore.removeInstanceSet(c);
-                statsStore.removeType(c);
+        beginWrite();
+        try {
+            if (isRegistrationNecessary(IndexingLevel.FULL) && classes != null) {
+                final Set<Object> resolved = resolveClassifiersToKey(classes);
+                ensureNoListeners(resolved, getInstanceListeners());
+                directlyObservedClasses.keySet().removeAll(resolved);
+                allObservedClasses = null;
+                delayedClasses.keySet().removeAll(resolved);
+                for (Object c : resolved) {
+                    instanceStore.removeInstanceSet(c);
+                    statsStore.removeType(c);
+                }
             }
+        } finally {
+            endWrite();
         }
     }
 
@@ -1210,25 +1597,97 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     @Override
     public void unregisterEDataTypes(Set<EDataType> dataTypes) {
-        if (isRegistrationNecessary(IndexingLevel.FULL) && dataTypes != null) {
-            final Set<Object> resolved = resolveClassifiersToKey(dataTypes);
-            ensureNoListeners(resolved, getDataTypeListeners());
-            observedDataTypes.keySet().removeAll(resolved);
-            delayedDataTypes.keySet().removeAll(resolved);
-            for (Object dataType : resolved) {
-                instanceStore.removeDataTypeMap(dataType);
-                statsStore.removeType(dataType);
+        beginWrite();
+        try {
+            if (isRegistrationNecessary(IndexingLevel.FULL) && dataTypes != null) {
+                final Set<Object> resolved = resolveClassifiersToKey(dataTypes);
+                ensureNoListeners(resolved, getDataTypeListeners());
+                observedDataTypes.keySet().removeAll(resolved);
+                delayedDataTypes.keySet().removeAll(resolved);
+                for (Object dataType : resolved) {
+                    instanceStore.removeDataTypeMap(dataType);
+                    statsStore.removeType(dataType);
+                }
             }
+        } finally {
+            endWrite();
         }
     }
 
     @Override
     public boolean isCoalescing() {
-        return delayTraversals;
+        // in case of concurrent read access, only the thread performing the traversal is coalescing
+        return delayTraversals && (indexLock == null || indexLock.isWriteLockedByCurrentThread());
+    }
+
+    @Override
+    public void beginBatch() {
+        beginWrite();
+        try {
+            if (batchDepth++ == 0) {
+                batchedNotifications = new BatchedNotifications(this);
+            }
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public void endBatch() {
+        beginWrite();
+        try {
+            checkState(batchDepth > 0, "No batch to end");
+            if (--batchDepth == 0) {
+                BatchedNotifications notifications = batchedNotifications;
+                batchedNotifications = null;
+                notifications.deliver();
+                notifyBaseIndexChangeListeners();
+            }
+        } finally {
+            endWrite();
+        }
+    }
+
+    @Override
+    public boolean isInBatch() {
+        return batchDepth > 0;
+    }
+
+    @Override
+    public void writeIndexSnapshot(Resource resource) throws IOException {
+        ResourceIndexSnapshot.write(resource, baseIndexOptions);
+    }
+
+    /**
+     * Stops using the index snapshot of the given resource (if any), as its contents have changed.
+     */
+    void invalidateIndexSnapshot(Resource resource) {
+        if (comprehension instanceof SnapshotModelComprehension) {
+            ((SnapshotModelComprehension) comprehension).invalidate(resource);
+        }
+    }
+
+    /**
+     * Delivers the notifications accumulated so far in the current batch, if any. Must be called before the set of
+     * listeners changes, so that each listener receives exactly the changes made while it is registered.
+     */
+    private void flushBatchedNotifications() {
+        if (batchedNotifications != null && !batchedNotifications.isEmpty()) {
+            batchedNotifications.deliver();
+        }
     }
 
     @Override
     public <V> V coalesceTraversals(Callable<V> callable) throws InvocationTargetException {
+        beginWrite();
+        try {
+            return coalesceTraversalsInternal(callable);
+        } finally {
+            endWrite();
+        }
+    }
+
+    private <V> V coalesceTraversalsInternal(Callable<V> callable) throws InvocationTargetException {
         V finalResult = null;
 
         if (delayTraversals) { // reentrant case, no special action needed
@@ -1393,17 +1852,62 @@ public class NavigationHelperImpl implements NavigationHelper {
         }
     }
 
+    /**
+     * Returns the worker threads of parallel traversals, sized according to
+     * {@link BaseIndexOptions#getTraversalThreads()}; only called by traversals, which are performed exclusively.
+     */
+    ForkJoinPool getTraversalPool() {
+        if (traversalPool == null) {
+            int threads = baseIndexOptions.getTraversalThreads();
+            traversalPool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        }
+        return traversalPool;
+    }
+
     private void traverse(final NavigationHelperVisitor visitor) {
         // Cloning model roots avoids a concurrent modification exception
-        for (Notifier root : new HashSet<Notifier>(modelRoots)) {
-            comprehension.traverseModel(visitor, root);
+        final Set<Notifier> roots = new HashSet<Notifier>(modelRoots);
+        if (baseIndexOptions.isParallelTraversal()) {
+            new ParallelModelTraversal(this, visitor).traverse(roots);
+        } else {
+            for (Notifier root : roots) {
+                comprehension.traverseModel(visitor, root);
+            }
+        }
+        if (lazyResourceIndexing != null) {
+            lazyResourceIndexing.indexRequiredResources();
         }
         notifyBaseIndexChangeListeners();
     }
 
+    /**
+     * @return true if the instances of the given class are relevant for the index, i.e. the class, one of its
+     *         features or the type of one of its attributes is indexed
+     */
+    boolean isIndexingRequired(EClass clazz) {
+        if (wildcardMode != IndexingLevel.NONE || isObservedInternal(toKey(clazz))) {
+            return true;
+        }
+        for (EStructuralFeature feature : clazz.getEAllStructuralFeatures()) {
+            if (observedFeatures.containsKey(toKey(feature))) {
+                return true;
+            }
+            if (feature instanceof EAttribute
+                    && observedDataTypes.containsKey(toKey(((EAttribute) feature).getEAttributeType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public void addRoot(Notifier emfRoot) throws ViatraBaseException {
-        addRootInternal(emfRoot);
+        beginWrite();
+        try {
+            addRootInternal(emfRoot);
+        } finally {
+            endWrite();
+        }
     }
 
     @Override
@@ -1444,6 +1948,54 @@ public class NavigationHelperImpl implements NavigationHelper {
         }
     }
 
+    @Override
+    public <T extends EObject> void bulkInsert(final EList<T> targetContainmentReferenceList,
+            final Collection<? extends T> elements) {
+        bulkInsertInternal(new Runnable() {
+            @Override
+            public void run() {
+                targetContainmentReferenceList.addAll(elements);
+            }
+        }, "insert en masse the objects: " + elements);
+    }
+
+    @Override
+    public void bulkInsert(final Resource resource, final ResourceSet resourceSet) {
+        bulkInsertInternal(new Runnable() {
+            @Override
+            public void run() {
+                resourceSet.getResources().add(resource);
+            }
+        }, "insert en masse the resource: " + resource.getURI());
+    }
+
+    private void bulkInsertInternal(final Runnable modification, final String task) {
+        checkState(bulkInsertion == null, "Bulk insertions cannot be nested");
+        try {
+            coalesceTraversals(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    bulkInsertion = new BulkInsertion(NavigationHelperImpl.this,
+                            (NavigationHelperVisitor) contentAdapter.getVisitorForChange(true));
+                    try {
+                        modification.run();
+                    } finally {
+                        // the objects observed so far must be indexed even if the modification failed
+                        BulkInsertion insertion = bulkInsertion;
+                        bulkInsertion = null;
+                        insertion.mergeIntoStores();
+                    }
+                    return null;
+                }
+            });
+        } catch (InvocationTargetException ex) {
+            processingFatal(ex.getCause(), task);
+        } catch (Exception ex) {
+            processingFatal(ex, task);
+        }
+        notifyBaseIndexChangeListeners();
+    }
+
     /**
      * @param emfRoot
      * @throws ViatraBaseException
@@ -1457,7 +2009,12 @@ public class NavigationHelperImpl implements NavigationHelper {
 
     @Override
     public Set<EClass> getAllCurrentClasses() {
-        return instanceStore.getAllCurrentClasses();
+        beginRead();
+        try {
+            return instanceStore.getAllCurrentClasses();
+        } finally {
+            endRead();
+        }
     }
     
     private boolean isRegistrationNecessary(IndexingLevel level) {
@@ -1485,36 +2042,41 @@ public class NavigationHelperImpl implements NavigationHelper {
      * Resamples the values of not well-behaving derived features if those features are also indexed.
      */
     public void resampleDerivedFeatures() {
-        // otherwise notifications are delivered anyway
-        if (!baseIndexOptions.isTraverseOnlyWellBehavingDerivedFeatures()) {
-            // get all required classes
-            Set<EClass> allCurrentClasses = instanceStore.getAllCurrentClasses();
-            Set<EStructuralFeature> featuresToSample = Sets.newHashSet();
-            // collect features to sample
-            for (EClass cls : allCurrentClasses) {
-                EList<EStructuralFeature> features = cls.getEAllStructuralFeatures();
-                for (EStructuralFeature f : features) {
-                    // is feature only sampled?
-                    if (comprehension.onlySamplingFeature(f)) {
-                        featuresToSample.add(f);
+        beginWrite();
+        try {
+            // otherwise notifications are delivered anyway
+            if (!baseIndexOptions.isTraverseOnlyWellBehavingDerivedFeatures()) {
+                // get all required classes
+                Set<EClass> allCurrentClasses = instanceStore.getAllCurrentClasses();
+                Set<EStructuralFeature> featuresToSample = Sets.newHashSet();
+                // collect features to sample
+                for (EClass cls : allCurrentClasses) {
+                    EList<EStructuralFeature> features = cls.getEAllStructuralFeatures();
+                    for (EStructuralFeature f : features) {
+                        // is feature only sampled?
+                        if (comprehension.onlySamplingFeature(f)) {
+                            featuresToSample.add(f);
+                        }
                     }
                 }
-            }
 
-            final EMFVisitor removalVisitor = contentAdapter.getVisitorForChange(false);
-            final EMFVisitor insertionVisitor = contentAdapter.getVisitorForChange(true);
+                final EMFVisitor removalVisitor = contentAdapter.getVisitorForChange(false);
+                final EMFVisitor insertionVisitor = contentAdapter.getVisitorForChange(true);
 
-            // iterate on instances
-            for (final EStructuralFeature f : featuresToSample) {
-                EClass containingClass = f.getEContainingClass();
-                processAllInstances(containingClass, new IEClassProcessor() {
-                    @Override
-                    public void process(EClass type, EObject instance) {
-                        resampleFeatureValueForHolder(instance, f, insertionVisitor, removalVisitor);
-                    }
-                });
+                // iterate on instances
+                for (final EStructuralFeature f : featuresToSample) {
+                    EClass containingClass = f.getEContainingClass();
+                    processAllInstances(containingClass, new IEClassProcessor() {
+                        @Override
+                        public void process(EClass type, EObject instance) {
+                            resampleFeatureValueForHolder(instance, f, insertionVisitor, removalVisitor);
+                        }
+                    });
+                }
+                notifyBaseIndexChangeListeners();
             }
-            notifyBaseIndexChangeListeners();
+        } finally {
+            endWrite();
         }
     }
 
@@ -1582,63 +2144,191 @@ public class NavigationHelperImpl implements NavigationHelper {
         int result = 0;
 
         Object typeKey = toKey(type);
-        Set<Object> subTypes = metaStore.getSubTypeMap().get(typeKey);
-        if (subTypes != null) {
-            for (Object subTypeKey : subTypes) {
-                result += statsStore.countInstances(subTypeKey);
+        beginRead();
+        try {
+            Set<Object> subTypes = metaStore.getSubTypeMap().get(typeKey);
+            if (subTypes != null) {
+                for (Object subTypeKey : subTypes) {
+                    result += statsStore.countInstances(subTypeKey);
+                }
             }
+            result += statsStore.countInstances(typeKey);
+        } finally {
+            endRead();
         }
-        result += statsStore.countInstances(typeKey);
 
         return result;
     }
 
     @Override
     public int countDataTypeInstances(EDataType dataType) {
-        return statsStore.countInstances(toKey(dataType));
+        Object typeKey = toKey(dataType);
+        beginRead();
+        try {
+            return statsStore.countInstances(typeKey);
+        } finally {
+            endRead();
+        }
     }
 
     @Override
     public int countFeatureTargets(EObject seedSource, EStructuralFeature feature) {
-        return instanceStore.getHolderToFeatureToValueMap().get(seedSource, toKey(feature)).size();
+        Object featureKey = toKey(feature);
+        beginRead();
+        try {
+            final Set<Object> values = instanceStore.getValues(seedSource, featureKey);
+            return values == null ? 0 : values.size();
+        } finally {
+            endRead();
+        }
     }
 
     @Override
     public int countFeatures(EStructuralFeature feature) {
-        return statsStore.countFeatures(toKey(feature));
+        Object featureKey = toKey(feature);
+        beginRead();
+        try {
+            return statsStore.countFeatures(featureKey);
+        } finally {
+            endRead();
+        }
+    }
+
+    @Override
+    public DegreeStatistics getFeatureDegreeStatistics(EStructuralFeature feature) {
+        Object featureKey = toKey(feature);
+        beginRead();
+        try {
+            return statsStore.getFeatureDegreeStatistics(featureKey);
+        } finally {
+            endRead();
+        }
+    }
+
+    @Override
+    public BaseIndexMemoryUsage getMemoryUsage() {
+        beginRead();
+        try {
+            MemoryUsageCollector collector = new MemoryUsageCollector();
+            instanceStore.collectMemoryUsage(collector);
+            statsStore.collectMemoryUsage(collector);
+            Map<Object, long[]> instanceStoreUsage = collector.getInstanceStoreUsage();
+            Map<Object, long[]> statisticsStoreUsage = collector.getStatisticsStoreUsage();
+
+            Set<Object> keys = new LinkedHashSet<Object>(instanceStoreUsage.keySet());
+            keys.addAll(statisticsStoreUsage.keySet());
+            keys.addAll(directlyObservedClasses.keySet());
+            if (allObservedClasses != null) {
+                keys.addAll(allObservedClasses.keySet());
+            }
+            keys.addAll(observedDataTypes.keySet());
+            keys.addAll(observedFeatures.keySet());
+
+            List<IndexedKeyMemoryUsage> usages = new ArrayList<IndexedKeyMemoryUsage>(keys.size());
+            long[] none = new long[2];
+            for (Object key : keys) {
+                ENamedElement type = getKnownTypeForKey(key);
+                long[] instanceStore = Objects.firstNonNull(instanceStoreUsage.get(key), none);
+                long[] statisticsStore = Objects.firstNonNull(statisticsStoreUsage.get(key), none);
+                usages.add(new IndexedKeyMemoryUsage(key, type, getMemoryUsageName(key, type),
+                        getCurrentIndexingLevel(key, type), instanceStore[0], instanceStore[1], statisticsStore[0],
+                        statisticsStore[1]));
+            }
+            return new BaseIndexMemoryUsage(wildcardMode, usages);
+        } finally {
+            endRead();
+        }
+    }
+
+    /**
+     * @return the class, data type or feature identified by the given key, or null if unknown
+     */
+    private ENamedElement getKnownTypeForKey(Object key) {
+        if (key instanceof String) {
+            EStructuralFeature feature = metaStore.getKnownFeature((String) key);
+            return feature != null ? feature : metaStore.getKnownClassifier((String) key);
+        }
+        return key instanceof ENamedElement ? (ENamedElement) key : null;
+    }
+
+    private IndexingLevel getCurrentIndexingLevel(Object key, ENamedElement type) {
+        IndexingLevel level = wildcardMode;
+        if (type == null || type instanceof EClass) {
+            level = level.merge(directlyObservedClasses.get(key));
+            if (allObservedClasses != null) {
+                level = level.merge(allObservedClasses.get(key));
+            }
+        }
+        if (type == null || type instanceof EDataType) {
+            level = level.merge(observedDataTypes.get(key));
+        }
+        if (type == null || type instanceof EStructuralFeature) {
+            level = level.merge(observedFeatures.get(key));
+        }
+        return level;
+    }
+
+    private static String getMemoryUsageName(Object key, ENamedElement type) {
+        if (key instanceof String || type == null) {
+            return String.valueOf(key);
+        } else if (type instanceof EStructuralFeature) {
+            EStructuralFeature feature = (EStructuralFeature) type;
+            return getMemoryUsageName(feature.getEContainingClass(), feature.getEContainingClass()) + "."
+                    + feature.getName();
+        } else if (type instanceof EClassifier) {
+            EPackage ePackage = ((EClassifier) type).getEPackage();
+            return (ePackage == null ? "" : ePackage.getNsURI() + "#") + type.getName();
+        } else {
+            return type.getName();
+        }
     }
 
     @Override
     public IndexingLevel getIndexingLevel(EClass type) {
         Object key = toKey(type);
-        IndexingLevel level = directlyObservedClasses.get(key);
-        if (level == null) {
-            level = delayedClasses.get(key);
+        beginRead();
+        try {
+            IndexingLevel level = directlyObservedClasses.get(key);
+            if (level == null) {
+                level = delayedClasses.get(key);
+            }
+            // Wildcard mode is never null
+            return wildcardMode.merge(level);
+        } finally {
+            endRead();
         }
-        // Wildcard mode is never null
-        return wildcardMode.merge(level);
     }
 
     @Override
     public IndexingLevel getIndexingLevel(EDataType type) {
         Object key = toKey(type);
-        IndexingLevel level = observedDataTypes.get(key);
-        if (level == null) {
-            level = delayedDataTypes.get(key);
+        beginRead();
+        try {
+            IndexingLevel level = observedDataTypes.get(key);
+            if (level == null) {
+                level = delayedDataTypes.get(key);
+            }
+            // Wildcard mode is never null
+            return wildcardMode.merge(level);
+        } finally {
+            endRead();
         }
-        // Wildcard mode is never null
-        return wildcardMode.merge(level);
     }
 
     @Override
     public IndexingLevel getIndexingLevel(EStructuralFeature feature) {
         Object key = toKey(feature);
-        IndexingLevel level = observedFeatures.get(key);
-        if (level == null) {
-            level = delayedFeatures.get(key);
+        beginRead();
+        try {
+            IndexingLevel level = observedFeatures.get(key);
+            if (level == null) {
+                level = delayedFeatures.get(key);
+            }
+            // Wildcard mode is never null
+            return wildcardMode.merge(level);
+        } finally {
+            endRead();
         }
-        // Wildcard mode is never null
-        return wildcardMode.merge(level);
     }
     
     @Override
@@ -310,10 +310,12 @@ public abstract class NavigationHelperVisitor extends EMFVisitor {
             }
         }
         if (countsFeature(featureKey)){
+            if (internalValueRepresentation == null)
+                internalValueRepresentation = metaStore.toInternalValueRepresentation(target);
             if (isInsertion) {
-                statsStore.addFeature(source, featureKey);
+                statsStore.addFeature(source, internalValueRepresentation, featureKey);
             }else{
-                statsStore.removeFeature(source, featureKey);
+                statsStore.removeFeature(source, internalValueRepresentation, featureKey);
             }
         }
         if (observesDataType(eAttributeType)) {
@@ -359,9 +361,9 @@ public abstract class NavigationHelperVisitor extends EMFVisitor {
         }
         if (countsFeature(featureKey)){
             if (isInsertion){
-                statsStore.addFeature(source, featureKey);
+                statsStore.addFeature(source, target, featureKey);
             } else {
-                statsStore.removeFeature(source, featureKey);
+                statsStore.removeFeature(source, target, featureKey);
             }
         }
     }
@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFModelComprehension;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFVisitor;
+
+/**
+ * Performs a model traversal on behalf of a {@link NavigationHelperVisitor} on multiple threads.
+ *
+ * <p>
+ * The model is split into the objects that are traversed independently (e.g. the top-level objects of resources),
+ * which are then distributed among partial indexes. Each partial index is gathered by a single worker thread, without
+ * touching the stores of the navigation helper; once all of them are complete, they are merged into the stores on the
+ * calling thread, in the order of the model roots.
+ *
+ * <p>
+ * Decisions on what to index (which rely on the metamodel store and the observation state of the navigation helper)
+ * are made by the delegate visitor under a common lock, and cached by each partial index. Workers never resolve
+ * proxies; proxy references and expansion candidates are reported to the navigation helper after the merge.
+ *
+ * @author agent
+ */
+class ParallelModelTraversal {
+
+    /**
+     * The number of partial indexes per worker thread; more than one, so that uneven parts can be balanced.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    private final NavigationHelperImpl navigationHelper;
+    private final NavigationHelperVisitor delegate;
+    private final EMFModelComprehension comprehension;
+    private final boolean expansionAllowed;
+
+    ParallelModelTraversal(NavigationHelperImpl navigationHelper, NavigationHelperVisitor delegate) {
+        this.navigationHelper = navigationHelper;
+        this.delegate = delegate;
+        this.comprehension = navigationHelper.getComprehension();
+        this.expansionAllowed = navigationHelper.isExpansionAllowed();
+    }
+
+    /**
+     * Traverses the given model roots, and updates the index of the navigation helper accordingly.
+     */
+    void traverse(Collection<Notifier> roots) {
+        final List<EObject> units = new ArrayList<EObject>();
+        for (Notifier root : roots) {
+            comprehension.collectTraversalRoots(delegate, root, units);
+        }
+        final ForkJoinPool pool = navigationHelper.getTraversalPool();
+        final int partCount = Math.min(units.size(), pool.getParallelism() * PARTS_PER_THREAD);
+        if (partCount < 2) {
+            for (EObject unit : units) {
+                comprehension.traverseObject(delegate, unit);
+            }
+            return;
+        }
+
+        final List<PartialIndex> parts = new ArrayList<PartialIndex>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            int from = (int) ((long) units.size() * i / partCount);
+            int to = (int) ((long) units.size() * (i + 1) / partCount);
+            parts.add(new PartialIndex(units.subList(from, to)));
+        }
+        pool.invoke(new PartialTraversal(parts));
+
+        for (PartialIndex part : parts) {
+            part.mergeIntoStores();
+        }
+        for (PartialIndex part : parts) {
+            part.reportDeferredReferences();
+        }
+    }
+
+    /**
+     * Gathers the given partial indexes, splitting the work in halves.
+     */
+    private static final class PartialTraversal extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<PartialIndex> parts;
+
+        public PartialTraversal(List<PartialIndex> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        protected void compute() {
+            if (parts.size() == 1) {
+                parts.get(0).gather();
+            } else {
+                int half = parts.size() / 2;
+                invokeAll(new PartialTraversal(parts.subList(0, half)),
+                        new PartialTraversal(parts.subList(half, parts.size())));
+            }
+        }
+    }
+
+    private static final class ClassDecision {
+        Object key;
+        boolean observed;
+        boolean counted;
+    }
+
+    private static final class FeatureDecision {
+        Object key;
+        boolean unique;
+        boolean observed;
+        boolean counted;
+        boolean pruned;
+        Object dataTypeKey;
+        boolean dataTypeObserved;
+        boolean dataTypeCounted;
+    }
+
+    private synchronized ClassDecision decideClass(EClass eClass, EObject source) {
+        // the lazily computed metamodel caches are initialized under the lock, before they are read by traversal
+        eClass.getEAllStructuralFeatures();
+        EClass resolvedClass = eClass.eIsProxy() ? (EClass) EcoreUtil.resolve(eClass, source) : eClass;
+        ClassDecision decision = new ClassDecision();
+        decision.key = delegate.toKey(resolvedClass);
+        decision.observed = delegate.observesClass(decision.key);
+        decision.counted = delegate.countsClass(decision.key);
+        return decision;
+    }
+
+    private synchronized FeatureDecision decideFeature(EStructuralFeature feature) {
+        FeatureDecision decision = new FeatureDecision();
+        decision.key = delegate.toKey(feature);
+        decision.unique = feature.isUnique();
+        decision.observed = delegate.observesFeature(decision.key);
+        decision.counted = delegate.countsFeature(decision.key);
+        decision.pruned = delegate.pruneFeature(feature);
+        if (feature instanceof EAttribute) {
+            decision.dataTypeKey = delegate.toKey(((EAttribute) feature).getEAttributeType());
+            decision.dataTypeObserved = delegate.observesDataType(decision.dataTypeKey);
+            decision.dataTypeCounted = delegate.countsDataType(decision.dataTypeKey);
+        }
+        return decision;
+    }
+
+    /**
+     * The index contents gathered from a part of the model by a single thread, recorded in the order of visitation.
+     * Values are recorded in their external representation.
+     */
+    private final class PartialIndex extends EMFVisitor {
+        private final List<EObject> units;
+        private final Map<EClass, ClassDecision> classDecisions = new HashMap<EClass, ClassDecision>();
+        private final Map<EStructuralFeature, FeatureDecision> featureDecisions = new HashMap<EStructuralFeature, FeatureDecision>();
+
+        private final List<Object> instanceKeys = new ArrayList<Object>();
+        private final List<EObject> instances = new ArrayList<EObject>();
+        private final List<FeatureDecision> tupleFeatures = new ArrayList<FeatureDecision>();
+        private final List<Object> tupleValues = new ArrayList<Object>();
+        private final List<EObject> tupleHolders = new ArrayList<EObject>();
+        private final List<Object> dataTypeKeys = new ArrayList<Object>();
+        private final List<Object> dataTypeValues = new ArrayList<Object>();
+        private final Map<Object, int[]> counts = new HashMap<Object, int[]>();
+        private final List<Object> countedFeatureKeys = new ArrayList<Object>();
+        private final List<Object> countedValues = new ArrayList<Object>();
+        private final List<EObject> countedHolders = new ArrayList<EObject>();
+        private final List<EObject> expansionCandidates = new ArrayList<EObject>();
+        private final List<EObject> proxySources = new ArrayList<EObject>();
+        private final List<EReference> proxyReferences = new ArrayList<EReference>();
+
+        PartialIndex(List<EObject> units) {
+            super(true);
+            this.units = units;
+        }
+
+        void gather() {
+            for (EObject unit : units) {
+                comprehension.traverseObject(this, unit);
+            }
+        }
+
+        /**
+         * Inserts the gathered contents into the stores of the navigation helper; must be called on the thread owning
+         * the navigation helper.
+         */
+        void mergeIntoStores() {
+            final EMFBaseIndexInstanceStore instanceStore = navigationHelper.instanceStore;
+            final EMFBaseIndexMetaStore metaStore = navigationHelper.metaStore;
+            for (int i = 0; i < instances.size(); i++) {
+                instanceStore.insertIntoInstanceSet(instanceKeys.get(i), instances.get(i));
+            }
+            for (int i = 0; i < tupleHolders.size(); i++) {
+                FeatureDecision decision = tupleFeatures.get(i);
+                Object value = metaStore.toInternalValueRepresentation(tupleValues.get(i));
+                instanceStore.insertFeatureTuple(decision.key, decision.unique, value, tupleHolders.get(i));
+            }
+            for (int i = 0; i < dataTypeValues.size(); i++) {
+                Object value = metaStore.toInternalValueRepresentation(dataTypeValues.get(i));
+                instanceStore.insertIntoDataTypeMap(dataTypeKeys.get(i), value);
+            }
+            for (Entry<Object, int[]> entry : counts.entrySet()) {
+                navigationHelper.statsStore.addInstances(entry.getKey(), entry.getValue()[0]);
+            }
+            for (int i = 0; i < countedHolders.size(); i++) {
+                Object value = metaStore.toInternalValueRepresentation(countedValues.get(i));
+                navigationHelper.statsStore.addFeature(countedHolders.get(i), value, countedFeatureKeys.get(i));
+            }
+        }
+
+        /**
+         * Lets the navigation helper expand its scope, and schedules the resolution of the proxies encountered (which
+         * are indexed as they are until resolved).
+         */
+        void reportDeferredReferences() {
+            for (EObject candidate : expansionCandidates) {
+                navigationHelper.considerForExpansion(candidate);
+            }
+            // RESOLVE notifications of newly observed features are ignored during the traversal, but not afterwards
+            for (int i = 0; i < proxySources.size(); i++) {
+                navigationHelper.delayedProxyResolutions.put(proxySources.get(i), proxyReferences.get(i));
+            }
+        }
+
+        private ClassDecision getClassDecision(EObject source) {
+            EClass eClass = source.eClass();
+            ClassDecision decision = classDecisions.get(eClass);
+            if (decision == null) {
+                decision = decideClass(eClass, source);
+                classDecisions.put(eClass, decision);
+            }
+            return decision;
+        }
+
+        private FeatureDecision getFeatureDecision(EStructuralFeature feature) {
+            FeatureDecision decision = featureDecisions.get(feature);
+            if (decision == null) {
+                decision = decideFeature(feature);
+                featureDecisions.put(feature, decision);
+            }
+            return decision;
+        }
+
+        private void count(Object key) {
+            int[] counter = counts.get(key);
+            if (counter == null) {
+                counter = new int[1];
+                counts.put(key, counter);
+            }
+            counter[0]++;
+        }
+
+        @Override
+        public void visitElement(EObject source) {
+            ClassDecision decision = getClassDecision(source);
+            if (decision.observed) {
+                instanceKeys.add(decision.key);
+                instances.add(source);
+            }
+            if (decision.counted) {
+                count(decision.key);
+            }
+        }
+
+        @Override
+        public void visitAttribute(EObject source, EAttribute feature, Object target) {
+            FeatureDecision decision = getFeatureDecision(feature);
+            visitFeature(source, decision, target);
+            if (decision.dataTypeObserved) {
+                dataTypeKeys.add(decision.dataTypeKey);
+                dataTypeValues.add(target);
+            }
+            if (decision.dataTypeCounted) {
+                count(decision.dataTypeKey);
+            }
+        }
+
+        @Override
+        public void visitInternalContainment(EObject source, EReference feature, EObject target) {
+            visitFeature(source, getFeatureDecision(feature), target);
+        }
+
+        @Override
+        public void visitNonContainmentReference(EObject source, EReference feature, EObject target) {
+            visitFeature(source, getFeatureDecision(feature), target);
+            if (expansionAllowed) {
+                expansionCandidates.add(target);
+            }
+        }
+
+        private void visitFeature(EObject source, FeatureDecision decision, Object target) {
+            if (decision.observed) {
+                tupleFeatures.add(decision);
+                tupleValues.add(target);
+                tupleHolders.add(source);
+            }
+            if (decision.counted) {
+                countedFeatureKeys.add(decision.key);
+                countedValues.add(target);
+                countedHolders.add(source);
+            }
+        }
+
+        @Override
+        public void visitProxyReference(EObject source, EReference reference, EObject targetObject, Integer position) {
+            proxySources.add(source);
+            proxyReferences.add(reference);
+        }
+
+        @Override
+        public boolean pruneFeature(EStructuralFeature feature) {
+            return getFeatureDecision(feature).pruned;
+        }
+
+        @Override
+        public boolean pruneSubtrees(EObject source) {
+            return delegate.pruneSubtrees(source);
+        }
+
+        @Override
+        public boolean pruneSubtrees(Resource source) {
+            return delegate.pruneSubtrees(source);
+        }
+
+        @Override
+        public boolean avoidTransientContainmentLink(EObject source, EReference reference, EObject targetObject) {
+            return delegate.avoidTransientContainmentLink(source, reference, targetObject);
+        }
+
+        @Override
+        public boolean attemptProxyResolutions(EObject source, EReference feature) {
+            // resolution may load resources, which must happen on the thread owning the navigation helper
+            return false;
+        }
+
+        @Override
+        public boolean descendAlongCrossResourceContainments() {
+            return delegate.descendAlongCrossResourceContainments();
+        }
+    }
+}
@@ -0,0 +1,757 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.Enumerator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.util.FeatureMap;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFModelComprehension;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFVisitor;
+
+/**
+ * A persisted record of the visits that {@link EMFModelComprehension#traverseObject(EMFVisitor, EObject)} makes when
+ * traversing the objects of a resource, without descending into their contents. Replaying the record to a visitor
+ * (see {@link #replay(EMFModelComprehension, EMFVisitor, EObject)}) is equivalent to traversing the object, but avoids
+ * the reflective access of all its features.
+ *
+ * <p>
+ * The snapshot is stored in a file next to the persisted resource, and read through a memory mapping; the entries of
+ * an object are only decoded when the object is replayed. Objects are identified by their position in the containment
+ * walk of the resource, see {@link EcoreUtil#getAllProperContents(Resource, boolean)}. The snapshot is only used if
+ * the size and modification time of the persisted resource are the ones it was taken of, and the objects of the
+ * resource have the recorded classes.
+ *
+ * <p>
+ * Attribute values of primitive wrapper types, strings and enumeration literals are stored in binary form; values of
+ * other data types are stored as their literal representation. Objects that refer to other resources (except for
+ * registered metamodels), to unresolved proxies, or have attribute values that cannot be restored from their literal
+ * representation are marked so that they are traversed as usual.
+ *
+ * @author agent
+ */
+class ResourceIndexSnapshot {
+
+    static final String FILE_EXTENSION = "vqindex";
+
+    private static final int MAGIC = 0x56514958;
+    private static final int VERSION = 2;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte ATTRIBUTE = 0;
+    private static final byte CONTAINMENT = 1;
+    private static final byte REFERENCE = 2;
+
+    /**
+     * The object must be traversed instead of replayed.
+     */
+    private static final byte TRAVERSE = 1;
+
+    /**
+     * kind (byte), feature, source object, target (object, external object or value)
+     */
+    private static final int ENTRY_SIZE = 13;
+
+    private static final byte STRING_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte DOUBLE_VALUE = 3;
+    private static final byte FLOAT_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+    private static final byte SHORT_VALUE = 6;
+    private static final byte BYTE_VALUE = 7;
+    private static final byte CHAR_VALUE = 8;
+    /**
+     * The value of an enumeration literal, looked up in the enumeration that is the type of the attribute.
+     */
+    private static final byte ENUM_VALUE = 9;
+    /**
+     * A string literal, converted by the data type of the attribute.
+     */
+    private static final byte LITERAL_VALUE = 10;
+
+    /**
+     * kind (byte), payload (long); the payload of strings and literals is the id of the string
+     */
+    private static final int VALUE_SIZE = 9;
+
+    private final ByteBuffer buffer;
+    private final int[] stringOffsets;
+    private final int valuesStart;
+    /**
+     * The decoded attribute values, filled on first use; the values are immutable, so concurrent replays may fill
+     * them without synchronization.
+     */
+    private final Object[] values;
+    private final EStructuralFeature[] features;
+    private final EObject[] objects;
+    private final EObject[] externalObjects;
+    private final Map<EObject, Integer> objectIndex;
+    private final byte[] objectFlags;
+    private final int[] firstEntries;
+    private final int[] entryCounts;
+    private final int entriesStart;
+
+    private ResourceIndexSnapshot(ByteBuffer buffer, int[] stringOffsets, int valuesStart, int valueCount,
+            EStructuralFeature[] features, EObject[] objects, EObject[] externalObjects, byte[] objectFlags,
+            int[] firstEntries, int[] entryCounts, int entriesStart) {
+        this.buffer = buffer;
+        this.stringOffsets = stringOffsets;
+        this.valuesStart = valuesStart;
+        this.values = new Object[valueCount];
+        this.features = features;
+        this.objects = objects;
+        this.externalObjects = externalObjects;
+        this.objectFlags = objectFlags;
+        this.firstEntries = firstEntries;
+        this.entryCounts = entryCounts;
+        this.entriesStart = entriesStart;
+        this.objectIndex = new IdentityHashMap<EObject, Integer>(objects.length);
+        for (int i = 0; i < objects.length; i++) {
+            objectIndex.put(objects[i], i);
+        }
+    }
+
+    /**
+     * @return the snapshot file of the given resource, or null if the resource is not persisted in a file
+     */
+    static File getSnapshotFile(Resource resource) {
+        File resourceFile = getResourceFile(resource);
+        return resourceFile == null ? null : new File(resourceFile.getPath() + "." + FILE_EXTENSION);
+    }
+
+    /**
+     * @return the file the resource is persisted in, or null if the resource is not persisted in a file
+     */
+    private static File getResourceFile(Resource resource) {
+        URI uri = resource.getURI();
+        if (uri == null || !uri.isFile()) {
+            return null;
+        }
+        String fileString = uri.toFileString();
+        return fileString == null ? null : new File(fileString);
+    }
+
+    private static EPackage.Registry getPackageRegistry(Resource resource) {
+        return resource.getResourceSet() == null ? EPackage.Registry.INSTANCE
+                : resource.getResourceSet().getPackageRegistry();
+    }
+
+
+    // START ********* Writing *********
+
+    /**
+     * Records the traversal of the objects of the given resource, and writes it to the snapshot file of the resource.
+     */
+    static void write(Resource resource, BaseIndexOptions options) throws IOException {
+        File resourceFile = getResourceFile(resource);
+        if (resourceFile == null || !resourceFile.isFile()) {
+            throw new IOException("Index snapshots are only supported for resources persisted in files: " + resource.getURI());
+        }
+        Recorder recorder = new Recorder(resource);
+        recorder.record(new EMFModelComprehension(options));
+
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(getSnapshotFile(resource))));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(options.isTraverseOnlyWellBehavingDerivedFeatures());
+            out.writeLong(resourceFile.length());
+            out.writeLong(resourceFile.lastModified());
+            recorder.writeTo(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Records the visits of the objects of a single resource.
+     */
+    private static class Recorder extends EMFVisitor {
+        private final Resource resource;
+        private final EPackage.Registry registry;
+
+        private final List<String> strings = new ArrayList<String>();
+        private final Map<String, Integer> stringIds = new HashMap<String, Integer>();
+        private final Map<EClass, Integer> classIds = new HashMap<EClass, Integer>();
+        private final List<EClass> classes = new ArrayList<EClass>();
+        private final Map<EStructuralFeature, Integer> featureIds = new HashMap<EStructuralFeature, Integer>();
+        private final List<EStructuralFeature> features = new ArrayList<EStructuralFeature>();
+        private final Map<EObject, Integer> objectIds = new IdentityHashMap<EObject, Integer>();
+        private final List<EObject> objects = new ArrayList<EObject>();
+        private final Map<Object, Integer> valueIds = new HashMap<Object, Integer>();
+        private final List<long[]> values = new ArrayList<long[]>();
+        private final List<int[]> entries = new ArrayList<int[]>();
+        private byte[] objectFlags;
+        private int[] firstEntries;
+        private int[] entryCounts;
+
+        private boolean currentTraversed;
+        private IOException failure;
+
+        Recorder(Resource resource) {
+            super(true);
+            this.resource = resource;
+            this.registry = getPackageRegistry(resource);
+        }
+
+        void record(EMFModelComprehension comprehension) throws IOException {
+            for (Iterator<EObject> iterator = EcoreUtil.getAllProperContents(resource, false); iterator.hasNext();) {
+                EObject object = iterator.next();
+                objectIds.put(object, objects.size());
+                objects.add(object);
+            }
+            objectFlags = new byte[objects.size()];
+            firstEntries = new int[objects.size()];
+            entryCounts = new int[objects.size()];
+            for (int i = 0; i < objects.size(); i++) {
+                EObject object = objects.get(i);
+                int first = entries.size();
+                currentTraversed = false;
+                comprehension.traverseObject(this, object);
+                if (failure != null) {
+                    throw failure;
+                }
+                if (currentTraversed) {
+                    // entries of a traversed object are never replayed
+                    entries.subList(first, entries.size()).clear();
+                    objectFlags[i] = TRAVERSE;
+                }
+                firstEntries[i] = first;
+                entryCounts[i] = entries.size() - first;
+            }
+        }
+
+        private int stringId(String string) {
+            Integer id = stringIds.get(string);
+            if (id == null) {
+                id = strings.size();
+                strings.add(string);
+                stringIds.put(string, id);
+            }
+            return id;
+        }
+
+        private int classId(EClass eClass) {
+            Integer id = classIds.get(eClass);
+            if (id == null) {
+                EPackage ePackage = eClass.getEPackage();
+                if (ePackage == null || registry.getEPackage(ePackage.getNsURI()) != ePackage) {
+                    failure = new IOException("The metamodel of " + eClass.getName() + " is not registered");
+                }
+                id = classes.size();
+                classes.add(eClass);
+                classIds.put(eClass, id);
+            }
+            return id;
+        }
+
+        private int featureId(EStructuralFeature feature) {
+            Integer id = featureIds.get(feature);
+            if (id == null) {
+                classId(feature.getEContainingClass());
+                id = features.size();
+                features.add(feature);
+                featureIds.put(feature, id);
+            }
+            return id;
+        }
+
+        /**
+         * @return the id of an object of this resource (non-negative), or of a registered metamodel element
+         *         (negative), or null if the object cannot be referred to in a snapshot
+         */
+        private Integer targetId(EObject target) {
+            Integer id = objectIds.get(target);
+            if (id != null) {
+                return id;
+            }
+            Resource targetResource = target.eIsProxy() ? null : target.eResource();
+            if (targetResource == null) {
+                return null;
+            }
+            EPackage metamodel = registry.getEPackage(targetResource.getURI().toString());
+            if (metamodel == null || metamodel.eResource() != targetResource) {
+                return null;
+            }
+            return -stringId(EcoreUtil.getURI(target).toString()) - 1;
+        }
+
+        @Override
+        public boolean pruneSubtrees(EObject source) {
+            return true;
+        }
+
+        @Override
+        public boolean pruneSubtrees(Resource source) {
+            return true;
+        }
+
+        @Override
+        public boolean attemptProxyResolutions(EObject source, EReference feature) {
+            return false;
+        }
+
+        @Override
+        public void visitAttribute(EObject source, EAttribute feature, Object target) {
+            if (target instanceof FeatureMap.Entry) {
+                currentTraversed = true;
+                return;
+            }
+            Integer valueId = valueId(feature.getEAttributeType(), target);
+            if (valueId == null) {
+                currentTraversed = true;
+            } else {
+                addEntry(ATTRIBUTE, feature, source, valueId);
+            }
+        }
+
+        /**
+         * @return the id of the given attribute value, or null if it cannot be stored in a snapshot
+         */
+        private Integer valueId(EDataType type, Object value) {
+            // values that are not decoded by their class alone are distinguished by their type as well
+            Object key = isPrimitiveValue(value) ? value : Arrays.asList(type, value);
+            Integer id = valueIds.get(key);
+            if (id == null) {
+                long[] encoded = encodeValue(type, value);
+                if (encoded == null) {
+                    return null;
+                }
+                id = values.size();
+                values.add(encoded);
+                valueIds.put(key, id);
+            }
+            return id;
+        }
+
+        private boolean isPrimitiveValue(Object value) {
+            Class<?> valueClass = value.getClass();
+            return valueClass == String.class || valueClass == Integer.class || valueClass == Long.class
+                    || valueClass == Double.class || valueClass == Float.class || valueClass == Boolean.class
+                    || valueClass == Short.class || valueClass == Byte.class || valueClass == Character.class;
+        }
+
+        /**
+         * @return the kind and payload of the value, or null if it cannot be restored
+         */
+        private long[] encodeValue(EDataType type, Object value) {
+            Class<?> valueClass = value.getClass();
+            if (valueClass == String.class) {
+                return new long[] { STRING_VALUE, stringId((String) value) };
+            } else if (valueClass == Integer.class) {
+                return new long[] { INT_VALUE, (Integer) value };
+            } else if (valueClass == Long.class) {
+                return new long[] { LONG_VALUE, (Long) value };
+            } else if (valueClass == Double.class) {
+                return new long[] { DOUBLE_VALUE, Double.doubleToRawLongBits((Double) value) };
+            } else if (valueClass == Float.class) {
+                return new long[] { FLOAT_VALUE, Float.floatToRawIntBits((Float) value) };
+            } else if (valueClass == Boolean.class) {
+                return new long[] { BOOLEAN_VALUE, ((Boolean) value) ? 1 : 0 };
+            } else if (valueClass == Short.class) {
+                return new long[] { SHORT_VALUE, (Short) value };
+            } else if (valueClass == Byte.class) {
+                return new long[] { BYTE_VALUE, (Byte) value };
+            } else if (valueClass == Character.class) {
+                return new long[] { CHAR_VALUE, (Character) value };
+            } else if (value instanceof Enumerator && type instanceof EEnum) {
+                EEnumLiteral literal = ((EEnum) type).getEEnumLiteral(((Enumerator) value).getValue());
+                return literal == null || literal.getInstance() != value ? null
+                        : new long[] { ENUM_VALUE, literal.getValue() };
+            }
+            try {
+                String literal = EcoreUtil.convertToString(type, value);
+                if (literal != null && value.equals(EcoreUtil.createFromString(type, literal))) {
+                    return new long[] { LITERAL_VALUE, stringId(literal) };
+                }
+            } catch (RuntimeException e) {
+                // the value is not restorable
+            }
+            return null;
+        }
+
+        @Override
+        public void visitInternalContainment(EObject source, EReference feature, EObject target) {
+            Integer targetId = objectIds.get(target);
+            if (targetId == null) { // cross-resource containment
+                currentTraversed = true;
+            } else {
+                addEntry(CONTAINMENT, feature, source, targetId);
+            }
+        }
+
+        @Override
+        public void visitNonContainmentReference(EObject source, EReference feature, EObject target) {
+            Integer targetId = targetId(target);
+            if (targetId == null) {
+                currentTraversed = true;
+            } else {
+                addEntry(REFERENCE, feature, source, targetId);
+            }
+        }
+
+        @Override
+        public void visitProxyReference(EObject source, EReference reference, EObject targetObject, Integer position) {
+            currentTraversed = true;
+        }
+
+        private void addEntry(byte kind, EStructuralFeature feature, EObject source, int target) {
+            Integer sourceId = objectIds.get(source);
+            if (sourceId == null) {
+                currentTraversed = true;
+            } else {
+                entries.add(new int[] { kind, featureId(feature), sourceId, target });
+            }
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            // the string table is completed first, so that it can precede the other sections
+            int[] objectClasses = new int[objects.size()];
+            for (int i = 0; i < objects.size(); i++) {
+                objectClasses[i] = classId(objects.get(i).eClass());
+            }
+            int[] classNsURIs = new int[classes.size()];
+            int[] classNames = new int[classes.size()];
+            for (int i = 0; i < classes.size(); i++) {
+                classNsURIs[i] = stringId(classes.get(i).getEPackage().getNsURI());
+                classNames[i] = stringId(classes.get(i).getName());
+            }
+            int[] featureNames = new int[features.size()];
+            for (int i = 0; i < features.size(); i++) {
+                featureNames[i] = stringId(features.get(i).getName());
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(classes.size());
+            for (int i = 0; i < classes.size(); i++) {
+                out.writeInt(classNsURIs[i]);
+                out.writeInt(classNames[i]);
+            }
+            out.writeInt(features.size());
+            for (int i = 0; i < features.size(); i++) {
+                out.writeInt(classIds.get(features.get(i).getEContainingClass()));
+                out.writeInt(featureNames[i]);
+            }
+            out.writeInt(values.size());
+            for (long[] value : values) {
+                out.writeByte((int) value[0]);
+                out.writeLong(value[1]);
+            }
+            out.writeInt(objects.size());
+            for (int i = 0; i < objects.size(); i++) {
+                out.writeInt(objectClasses[i]);
+                out.writeByte(objectFlags[i]);
+                out.writeInt(firstEntries[i]);
+                out.writeInt(entryCounts[i]);
+            }
+            out.writeInt(entries.size());
+            for (int[] entry : entries) {
+                out.writeByte(entry[0]);
+                out.writeInt(entry[1]);
+                out.writeInt(entry[2]);
+                out.writeInt(entry[3]);
+            }
+        }
+    }
+
+    // END ********* Writing *********
+
+    // START ********* Reading *********
+
+    /**
+     * Reads the snapshot of the given resource.
+     *
+     * @return the snapshot, or null if there is no valid snapshot for the current contents of the resource
+     */
+    static ResourceIndexSnapshot read(Resource resource, BaseIndexOptions options, Logger logger) {
+        File file = getSnapshotFile(resource);
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try {
+            ByteBuffer buffer;
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            } finally {
+                channel.close();
+            }
+            return read(buffer, resource, options);
+        } catch (IOException e) {
+            logger.warn("Could not read the index snapshot " + file + ", the resource will be traversed", e);
+            return null;
+        } catch (RuntimeException e) {
+            logger.warn("Invalid index snapshot " + file + ", the resource will be traversed", e);
+            return null;
+        }
+    }
+
+    private static ResourceIndexSnapshot read(ByteBuffer buffer, Resource resource, BaseIndexOptions options) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        boolean wellBehavingOnly = buffer.get() != 0;
+        if (wellBehavingOnly != options.isTraverseOnlyWellBehavingDerivedFeatures()) {
+            return null;
+        }
+        File resourceFile = getResourceFile(resource);
+        if (buffer.getLong() != resourceFile.length() || buffer.getLong() != resourceFile.lastModified()) {
+            return null;
+        }
+
+        int[] stringOffsets = new int[buffer.getInt()];
+        for (int i = 0; i < stringOffsets.length; i++) {
+            stringOffsets[i] = buffer.position();
+            buffer.position(buffer.position() + 4 + buffer.getInt(buffer.position()));
+        }
+
+        EPackage.Registry registry = getPackageRegistry(resource);
+        EClass[] classes = new EClass[buffer.getInt()];
+        for (int i = 0; i < classes.length; i++) {
+            EPackage ePackage = registry.getEPackage(readString(buffer, stringOffsets, buffer.getInt()));
+            String name = readString(buffer, stringOffsets, buffer.getInt());
+            EClassifier classifier = ePackage == null ? null : ePackage.getEClassifier(name);
+            if (!(classifier instanceof EClass)) {
+                return null;
+            }
+            classes[i] = (EClass) classifier;
+        }
+        EStructuralFeature[] features = new EStructuralFeature[buffer.getInt()];
+        for (int i = 0; i < features.length; i++) {
+            EClass eClass = classes[buffer.getInt()];
+            features[i] = eClass.getEStructuralFeature(readString(buffer, stringOffsets, buffer.getInt()));
+            if (features[i] == null) {
+                return null;
+            }
+        }
+
+        int valueCount = buffer.getInt();
+        int valuesStart = buffer.position();
+        buffer.position(valuesStart + valueCount * VALUE_SIZE);
+
+        // the containment walk visits the objects in the same order as when the snapshot was written
+        int objectCount = buffer.getInt();
+        EObject[] objects = new EObject[objectCount];
+        byte[] objectFlags = new byte[objectCount];
+        int[] firstEntries = new int[objectCount];
+        int[] entryCounts = new int[objectCount];
+        Iterator<EObject> iterator = EcoreUtil.getAllProperContents(resource, false);
+        for (int i = 0; i < objectCount; i++) {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            objects[i] = iterator.next();
+            if (objects[i].eClass() != classes[buffer.getInt()]) {
+                return null;
+            }
+            objectFlags[i] = buffer.get();
+            firstEntries[i] = buffer.getInt();
+            entryCounts[i] = buffer.getInt();
+        }
+        if (iterator.hasNext()) {
+            return null;
+        }
+
+        int entryCount = buffer.getInt();
+        int entriesStart = buffer.position();
+        if (buffer.limit() - entriesStart != entryCount * ENTRY_SIZE) {
+            return null;
+        }
+
+        // references to metamodel elements are resolved upfront
+        EObject[] externalObjects = new EObject[stringOffsets.length];
+        for (int i = 0; i < entryCount; i++) {
+            int position = entriesStart + i * ENTRY_SIZE;
+            int target = buffer.getInt(position + 9);
+            if (buffer.get(position) == ATTRIBUTE && (target < 0 || target >= valueCount)) {
+                return null;
+            } else if (buffer.get(position) == REFERENCE && target < 0) {
+                int stringId = -target - 1;
+                if (externalObjects[stringId] == null) {
+                    URI uri = URI.createURI(readString(buffer, stringOffsets, stringId));
+                    EPackage metamodel = registry.getEPackage(uri.trimFragment().toString());
+                    externalObjects[stringId] = metamodel == null || metamodel.eResource() == null ? null
+                            : metamodel.eResource().getEObject(uri.fragment());
+                    if (externalObjects[stringId] == null) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        return new ResourceIndexSnapshot(buffer, stringOffsets, valuesStart, valueCount, features, objects,
+                externalObjects, objectFlags, firstEntries, entryCounts, entriesStart);
+    }
+
+    private static String readString(ByteBuffer buffer, int[] stringOffsets, int stringId) {
+        int offset = stringOffsets[stringId];
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + 4 + i);
+        }
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * @return the attribute value with the given id, decoded as a value of the given attribute
+     */
+    private Object getValue(int valueId, EAttribute attribute) {
+        Object value = values[valueId];
+        if (value == null) {
+            int position = valuesStart + valueId * VALUE_SIZE;
+            long payload = buffer.getLong(position + 1);
+            switch (buffer.get(position)) {
+            case STRING_VALUE:
+                value = readString(buffer, stringOffsets, (int) payload);
+                break;
+            case INT_VALUE:
+                value = Integer.valueOf((int) payload);
+                break;
+            case LONG_VALUE:
+                value = Long.valueOf(payload);
+                break;
+            case DOUBLE_VALUE:
+                value = Double.valueOf(Double.longBitsToDouble(payload));
+                break;
+            case FLOAT_VALUE:
+                value = Float.valueOf(Float.intBitsToFloat((int) payload));
+                break;
+            case BOOLEAN_VALUE:
+                value = Boolean.valueOf(payload != 0);
+                break;
+            case SHORT_VALUE:
+                value = Short.valueOf((short) payload);
+                break;
+            case BYTE_VALUE:
+                value = Byte.valueOf((byte) payload);
+                break;
+            case CHAR_VALUE:
+                value = Character.valueOf((char) payload);
+                break;
+            case ENUM_VALUE:
+                value = ((EEnum) attribute.getEAttributeType()).getEEnumLiteral((int) payload).getInstance();
+                break;
+            default:
+                value = EcoreUtil.createFromString(attribute.getEAttributeType(),
+                        readString(buffer, stringOffsets, (int) payload));
+            }
+            values[valueId] = value;
+        }
+        return value;
+    }
+
+    // END ********* Reading *********
+
+    /**
+     * Delivers the recorded visits of the given object to the visitor, and recursively traverses its contents (unless
+     * pruned by the visitor), the same way as {@link EMFModelComprehension#traverseObject(EMFVisitor, EObject)} would.
+     *
+     * @return false if the object is not replayable, and has to be traversed instead
+     */
+    boolean replay(EMFModelComprehension comprehension, EMFVisitor visitor, EObject source) {
+        Integer index = objectIndex.get(source);
+        if (index == null || objectFlags[index] == TRAVERSE) {
+            return false;
+        }
+        if (visitor.preOrder())
+            visitor.visitElement(source);
+        int end = firstEntries[index] + entryCounts[index];
+        for (int entry = firstEntries[index]; entry < end; entry++) {
+            int position = entriesStart + entry * ENTRY_SIZE;
+            byte kind = buffer.get(position);
+            EStructuralFeature feature = features[buffer.getInt(position + 1)];
+            EObject entrySource = objects[buffer.getInt(position + 5)];
+            int target = buffer.getInt(position + 9);
+            if (kind == ATTRIBUTE) {
+                if (!visitor.pruneFeature(feature)) {
+                    EAttribute attribute = (EAttribute) feature;
+                    visitor.visitAttribute(entrySource, attribute, getValue(target, attribute));
+                }
+            } else if (kind == REFERENCE) {
+                if (!visitor.pruneFeature(feature)) {
+                    EObject targetObject = target >= 0 ? objects[target] : externalObjects[-target - 1];
+                    visitor.visitNonContainmentReference(entrySource, (EReference) feature, targetObject);
+                }
+            } else {
+                EReference reference = (EReference) feature;
+                EObject targetObject = objects[target];
+                if (visitor.avoidTransientContainmentLink(entrySource, reference, targetObject)) {
+                    // the emulated opposite of the link is recorded right after it, and must be skipped as well
+                    if (isEmulatedOpposite(entry + 1, end, reference, entrySource, target)) {
+                        entry++;
+                    }
+                } else {
+                    if (!visitor.pruneFeature(feature))
+                        visitor.visitInternalContainment(entrySource, reference, targetObject);
+                    if (!visitor.pruneSubtrees(entrySource))
+                        comprehension.traverseObjectIfUnfiltered(visitor, targetObject);
+                }
+            }
+        }
+        if (!visitor.preOrder())
+            visitor.visitElement(source);
+        return true;
+    }
+
+    private boolean isEmulatedOpposite(int entry, int end, EReference containment, EObject container, int child) {
+        if (entry >= end || containment.getEOpposite() == null) {
+            return false;
+        }
+        int position = entriesStart + entry * ENTRY_SIZE;
+        int target = buffer.getInt(position + 9);
+        return buffer.get(position) == REFERENCE
+                && features[buffer.getInt(position + 1)] == containment.getEOpposite()
+                && buffer.getInt(position + 5) == child
+                && target >= 0 && objects[target] == container;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.base.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFModelComprehension;
+import org.eclipse.viatra.query.runtime.base.comprehension.EMFVisitor;
+
+/**
+ * A model comprehension that replays the index snapshots of resources (see
+ * {@link BaseIndexOptions#withIndexSnapshots(boolean)}) instead of traversing their objects, as long as the resources
+ * are unchanged since they were loaded.
+ *
+ * @author agent
+ */
+class SnapshotModelComprehension extends EMFModelComprehension {
+
+    private final BaseIndexOptions snapshotOptions;
+    private final Logger logger;
+
+    /**
+     * resource -> snapshot, or null if no (more) snapshot can be used for the resource
+     */
+    private final Map<Resource, ResourceIndexSnapshot> snapshots = Collections
+            .synchronizedMap(new HashMap<Resource, ResourceIndexSnapshot>());
+
+    SnapshotModelComprehension(BaseIndexOptions options, Logger logger) {
+        super(options);
+        this.snapshotOptions = options;
+        this.logger = logger;
+    }
+
+    @Override
+    public void traverseObject(EMFVisitor visitor, EObject source) {
+        if (source == null)
+            return;
+        Resource resource = source.eResource();
+        ResourceIndexSnapshot snapshot = resource == null ? null : getSnapshot(resource);
+        if (snapshot == null || !snapshot.replay(this, visitor, source)) {
+            super.traverseObject(visitor, source);
+        }
+    }
+
+    private ResourceIndexSnapshot getSnapshot(Resource resource) {
+        synchronized (snapshots) {
+            if (snapshots.containsKey(resource)) {
+                return snapshots.get(resource);
+            }
+            if (isLoading(resource) || (resource.isTrackingModification() && resource.isModified())) {
+                // contents may differ from the persisted ones
+                return null;
+            }
+            ResourceIndexSnapshot snapshot = ResourceIndexSnapshot.read(resource, snapshotOptions, logger);
+            snapshots.put(resource, snapshot);
+            return snapshot;
+        }
+    }
+
+    /**
+     * The snapshot of the given resource will no longer be used, as its contents have changed.
+     */
+    void invalidate(Resource resource) {
+        snapshots.put(resource, null);
+    }
+
+}
@@ -49,6 +49,17 @@ public class TransitiveClosureHelperImpl extends EContentAdapter implements Tran
     private boolean disposeBaseIndexWhenDisposed;
     
     public TransitiveClosureHelperImpl(final NavigationHelper navigationHelper, boolean disposeBaseIndexWhenDisposed, Set<EReference> references) {
+        this(navigationHelper, disposeBaseIndexWhenDisposed, references, false);
+    }
+    
+    /**
+     * @param compactReachability
+     *            if true, the reachability between strongly connected components is stored as bitmaps, see
+     *            {@link IncSCCAlg#IncSCCAlg(org.eclipse.viatra.query.runtime.base.itc.igraph.IGraphDataSource, boolean)}
+     * @since 1.7
+     */
+    public TransitiveClosureHelperImpl(final NavigationHelper navigationHelper, boolean disposeBaseIndexWhenDisposed,
+            Set<EReference> references, boolean compactReachability) {
         this.tcObservers = new ArrayList<ITcObserver<EObject>>();
         this.navigationHelper = navigationHelper;
         this.disposeBaseIndexWhenDisposed = disposeBaseIndexWhenDisposed;
@@ -65,7 +76,7 @@ public class TransitiveClosureHelperImpl extends EContentAdapter implements Tran
         
         this.dataSource = new EMFDataSource(navigationHelper, references, classes);
         
-        this.sccAlg = new IncSCCAlg<EObject>(dataSource);
+        this.sccAlg = new IncSCCAlg<EObject>(dataSource, compactReachability);
         this.sccAlg.attachObserver(this);
     }
     
@@ -0,0 +1,461 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.localsearch.matcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHints;
+import org.eclipse.viatra.query.runtime.matchers.backend.IQueryResultProvider;
+import org.eclipse.viatra.query.runtime.matchers.context.IInputKey;
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContextListener;
+import org.eclipse.viatra.query.runtime.matchers.psystem.PBody;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicenumerables.TypeConstraint;
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+
+import com.google.common.base.Objects;
+
+/**
+ * Memoizes the results of pattern calls made by the search operations of a query, see
+ * {@link LocalSearchHints#setCallMemoizationSize(int)}. Results are keyed by the reference of the called pattern and
+ * the arguments of the call; the least recently used result is evicted if the table is full.
+ *
+ * <p>
+ * The table observes the input keys the called patterns (and the patterns called by them) depend on. If one of them
+ * changes, the results of the called patterns depending on it are dropped, while the results of other called patterns
+ * are kept.
+ *
+ * <p>
+ * The table is shared by all executions of the query, so it is thread-safe; the called patterns are evaluated, and the
+ * listeners are registered at the runtime context, outside of its lock. Results computed while a dependency changed
+ * are not stored.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class CallMemoTable {
+
+    private final int maximalSize;
+    private final IQueryRuntimeContext runtimeContext;
+    private final Map<CallKey, CallResult> results;
+    /**
+     * The memoized calls of each called query, so that invalidation does not have to scan all results
+     */
+    private final Map<PQuery, Set<CallKey>> callsOfQuery = new HashMap<>();
+
+    private final Set<PQuery> observedQueries = new HashSet<>();
+    private final Map<IInputKey, Tuple> observedKeys = new HashMap<>();
+    /**
+     * The called queries whose results depend on each observed input key
+     */
+    private final Map<IInputKey, Set<PQuery>> dependentQueries = new HashMap<>();
+    private final IQueryRuntimeContextListener invalidationListener = new IQueryRuntimeContextListener() {
+
+        @Override
+        public void update(IInputKey key, Tuple updateTuple, boolean isInsertion) {
+            invalidate(key);
+        }
+    };
+
+    /**
+     * Incremented on each invalidation, so that results computed meanwhile are not stored
+     */
+    private long generation = 0;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+    private long invalidationCount = 0;
+
+    /**
+     * @param maximalSize
+     *            the maximal number of memoized call results, must be positive
+     */
+    public CallMemoTable(final int maximalSize, IQueryRuntimeContext runtimeContext) {
+        if (maximalSize <= 0) {
+            throw new IllegalArgumentException("Memo table size must be positive: " + maximalSize);
+        }
+        this.maximalSize = maximalSize;
+        this.runtimeContext = runtimeContext;
+        this.results = new LinkedHashMap<CallKey, CallResult>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CallKey, CallResult> eldest) {
+                if (size() > maximalSize) {
+                    evictionCount++;
+                    forget(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns whether the called pattern has a match with the given arguments, computing it with the given matcher
+     * unless memoized.
+     */
+    public boolean hasMatch(MatcherReference reference, IQueryResultProvider matcher, Object[] arguments) {
+        CallKey key = createKey(reference, arguments);
+        long startGeneration;
+        synchronized (this) {
+            CallResult result = results.get(key);
+            if (result != null && result.hasMatch != null) {
+                hitCount++;
+                return result.hasMatch;
+            }
+            missCount++;
+            startGeneration = generation;
+        }
+        boolean hasMatch = matcher.getOneArbitraryMatch(arguments) != null;
+        synchronized (this) {
+            if (startGeneration == generation) {
+                access(key).hasMatch = hasMatch;
+            }
+        }
+        return hasMatch;
+    }
+
+    /**
+     * Returns the number of matches of the called pattern with the given arguments, computing it with the given
+     * matcher unless memoized.
+     */
+    public int countMatches(MatcherReference reference, IQueryResultProvider matcher, Object[] arguments) {
+        CallKey key = createKey(reference, arguments);
+        long startGeneration;
+        synchronized (this) {
+            CallResult result = results.get(key);
+            if (result != null && result.count != null) {
+                hitCount++;
+                return result.count;
+            }
+            missCount++;
+            startGeneration = generation;
+        }
+        int count = matcher.countMatches(arguments);
+        synchronized (this) {
+            if (startGeneration == generation) {
+                CallResult result = access(key);
+                result.count = count;
+                result.hasMatch = count > 0;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the matches of the called pattern with the given arguments, computing them with the given matcher
+     * unless memoized.
+     */
+    public Collection<? extends Tuple> getAllMatches(MatcherReference reference, IQueryResultProvider matcher,
+            Object[] arguments) {
+        CallKey key = createKey(reference, arguments);
+        long startGeneration;
+        synchronized (this) {
+            CallResult result = results.get(key);
+            if (result != null && result.matches != null) {
+                hitCount++;
+                return result.matches;
+            }
+            missCount++;
+            startGeneration = generation;
+        }
+        Collection<? extends Tuple> matches = Collections.unmodifiableCollection(matcher.getAllMatches(arguments));
+        synchronized (this) {
+            if (startGeneration == generation) {
+                CallResult result = access(key);
+                result.matches = matches;
+                result.count = matches.size();
+                result.hasMatch = result.count > 0;
+            }
+        }
+        return matches;
+    }
+
+    private CallKey createKey(MatcherReference reference, Object[] arguments) {
+        observe(reference.getQuery());
+        return new CallKey(reference, Tuples.flatTupleOf(arguments.clone()));
+    }
+
+    /**
+     * Must be called while holding the lock of the table.
+     */
+    private CallResult access(CallKey key) {
+        CallResult result = results.get(key);
+        if (result == null) {
+            result = new CallResult();
+            PQuery query = key.reference.getQuery();
+            Set<CallKey> calls = callsOfQuery.get(query);
+            if (calls == null) {
+                calls = new HashSet<>();
+                callsOfQuery.put(query, calls);
+            }
+            calls.add(key);
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Removes an evicted call from the calls of its query. Must be called while holding the lock of the table.
+     */
+    private void forget(CallKey key) {
+        PQuery query = key.reference.getQuery();
+        Set<CallKey> calls = callsOfQuery.get(query);
+        if (calls != null && calls.remove(key) && calls.isEmpty()) {
+            callsOfQuery.remove(query);
+        }
+    }
+
+    /**
+     * Registers the invalidation listener on the enumerable input keys the given called query depends on.
+     * 
+     * <p>
+     * The listeners are registered without holding the lock of the table, as the runtime context may index the model
+     * and deliver notifications meanwhile. Results of the query stored before its listeners were in place are dropped
+     * afterwards, as they may have missed a change.
+     */
+    private void observe(PQuery query) {
+        synchronized (this) {
+            if (observedQueries.contains(query)) {
+                return;
+            }
+        }
+        Set<IInputKey> keys = getObservedKeys(query);
+        Map<IInputKey, Tuple> newKeys = new HashMap<>();
+        synchronized (this) {
+            if (!observedQueries.add(query)) {
+                return;
+            }
+            for (IInputKey key : keys) {
+                Set<PQuery> queries = dependentQueries.get(key);
+                if (queries == null) {
+                    queries = new HashSet<>();
+                    dependentQueries.put(key, queries);
+                    Tuple seed = Tuples.flatTupleOf(new Object[key.getArity()]);
+                    observedKeys.put(key, seed);
+                    newKeys.put(key, seed);
+                }
+                queries.add(query);
+            }
+        }
+        if (newKeys.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<IInputKey, Tuple> entry : newKeys.entrySet()) {
+            runtimeContext.addUpdateListener(entry.getKey(), entry.getValue(), invalidationListener);
+        }
+        List<Map.Entry<IInputKey, Tuple>> abandoned = new ArrayList<>();
+        synchronized (this) {
+            generation++;
+            for (Map.Entry<IInputKey, Tuple> entry : newKeys.entrySet()) {
+                if (observedKeys.get(entry.getKey()) == entry.getValue()) {
+                    drop(dependentQueries.get(entry.getKey()));
+                } else {
+                    // the table was disposed meanwhile
+                    abandoned.add(entry);
+                }
+            }
+        }
+        for (Map.Entry<IInputKey, Tuple> entry : abandoned) {
+            runtimeContext.removeUpdateListener(entry.getKey(), entry.getValue(), invalidationListener);
+        }
+    }
+
+    /**
+     * @return the enumerable input keys the given query and the queries called by it depend on
+     */
+    private static Set<IInputKey> getObservedKeys(PQuery query) {
+        Set<PQuery> queries = new HashSet<>(query.getAllReferredQueries());
+        queries.add(query);
+        Set<IInputKey> keys = new HashSet<>();
+        for (PQuery dependency : queries) {
+            for (PBody body : dependency.getDisjunctBodies().getBodies()) {
+                for (TypeConstraint constraint : body.getConstraintsOfType(TypeConstraint.class)) {
+                    IInputKey key = constraint.getSupplierKey();
+                    if (key.isEnumerable()) {
+                        keys.add(key);
+                    }
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Drops the memoized results of the called queries depending on the given input key.
+     */
+    private synchronized void invalidate(IInputKey key) {
+        Set<PQuery> queries = dependentQueries.get(key);
+        if (queries == null) {
+            return;
+        }
+        generation++;
+        if (drop(queries)) {
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Drops the memoized results of the given called queries. Must be called while holding the lock of the table.
+     * 
+     * @return true if any result was dropped
+     */
+    private boolean drop(Set<PQuery> queries) {
+        boolean dropped = false;
+        for (PQuery query : queries) {
+            Set<CallKey> calls = callsOfQuery.remove(query);
+            if (calls != null) {
+                for (CallKey call : calls) {
+                    results.remove(call);
+                }
+                dropped = true;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Drops all memoized results.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        callsOfQuery.clear();
+        if (!results.isEmpty()) {
+            results.clear();
+            invalidationCount++;
+        }
+    }
+
+    /**
+     * Drops all memoized results and stops observing the model.
+     */
+    public void dispose() {
+        Map<IInputKey, Tuple> keys;
+        synchronized (this) {
+            generation++;
+            results.clear();
+            callsOfQuery.clear();
+            keys = new HashMap<>(observedKeys);
+            observedKeys.clear();
+            dependentQueries.clear();
+            observedQueries.clear();
+        }
+        for (Map.Entry<IInputKey, Tuple> entry : keys.entrySet()) {
+            runtimeContext.removeUpdateListener(entry.getKey(), entry.getValue(), invalidationListener);
+        }
+    }
+
+    /**
+     * @return the maximal number of memoized call results
+     */
+    public int getMaximalSize() {
+        return maximalSize;
+    }
+
+    /**
+     * @return the number of currently memoized call results
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+
+    /**
+     * @return the number of calls answered from the table
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of calls that had to be computed by the called matcher
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the ratio of calls answered from the table, or 0 if there were no calls
+     */
+    public synchronized double getHitRate() {
+        long calls = hitCount + missCount;
+        return calls == 0 ? 0 : (double) hitCount / calls;
+    }
+
+    /**
+     * @return the number of results evicted to keep the table within its maximal size
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of times memoized results were dropped because the model changed
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("CallMemoTable(size=%d/%d, hits=%d, misses=%d, evictions=%d, invalidations=%d)",
+                results.size(), maximalSize, hitCount, missCount, evictionCount, invalidationCount);
+    }
+
+    private static final class CallKey {
+        private final MatcherReference reference;
+        private final Tuple arguments;
+        private final int hashCode;
+
+        public CallKey(MatcherReference reference, Tuple arguments) {
+            this.reference = reference;
+            this.arguments = arguments;
+            this.hashCode = Objects.hashCode(reference, arguments);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof CallKey))
+                return false;
+            CallKey other = (CallKey) obj;
+            return hashCode == other.hashCode && reference.equals(other.reference)
+                    && arguments.equals(other.arguments);
+        }
+    }
+
+    /**
+     * The known results of a single call; any of them may be missing, as they are computed on demand.
+     */
+    private static final class CallResult {
+        private Boolean hasMatch;
+        private Integer count;
+        private Collection<? extends Tuple> matches;
+    }
+
+}
@@ -74,6 +74,13 @@ public interface ISearchContext {
      */
     <T> T accessBackendLevelCache(Object key, Class<? extends T> clazz, IProvider<T> valueProvider);
     
+    /**
+     * Returns the table memoizing the results of pattern calls, or null if memoization is disabled.
+     * 
+     * @since 1.7
+     */
+    CallMemoTable getCallMemoTable();
+    
     /**
      * @noreference This class is not intended to be referenced by clients.
      * @noimplement This interface is not intended to be implemented by clients.
@@ -87,17 +94,30 @@ public interface ISearchContext {
         private final IQueryRuntimeContext runtimeContext;
         
         private final ICache backendLevelCache;
+        private final CallMemoTable callMemoTable;
         
         /**
          * Initializes a search context using an arbitrary backend context
          */
         public SearchContext(IQueryBackendContext backendContext, QueryEvaluationHint overrideHints, ICache backendLevelCache) {
+            this(backendContext, overrideHints, backendLevelCache, null);
+        }
+        
+        /**
+         * Initializes a search context using an arbitrary backend context, memoizing pattern calls in the given table
+         * 
+         * @param callMemoTable
+         *            the table memoizing the results of pattern calls, or null to disable memoization
+         * @since 1.7
+         */
+        public SearchContext(IQueryBackendContext backendContext, QueryEvaluationHint overrideHints, ICache backendLevelCache, CallMemoTable callMemoTable) {
             this.runtimeContext = backendContext.getRuntimeContext();
             this.navigationHelper = null;
             this.resultProviderAccess = backendContext.getResultProviderAccess();
             this.overrideHints = overrideHints;
             
             this.backendLevelCache = backendLevelCache;
+            this.callMemoTable = callMemoTable;
         }
 
         public void registerObservedTypes(Set<EClass> classes, Set<EDataType> dataTypes, Set<EStructuralFeature> features) {
@@ -142,6 +162,11 @@ public interface ISearchContext {
         public <T> T accessBackendLevelCache(Object key, Class<? extends T> clazz, IProvider<T> valueProvider) {
             return backendLevelCache.getValue(key, clazz, valueProvider);
         }
+        
+        @Override
+        public CallMemoTable getCallMemoTable() {
+            return callMemoTable;
+        }
 
         public IQueryRuntimeContext getRuntimeContext() {
             return runtimeContext;
@@ -11,9 +11,14 @@
  *******************************************************************************/
 package org.eclipse.viatra.query.runtime.localsearch.matcher;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.localsearch.MatchingFrame;
 import org.eclipse.viatra.query.runtime.localsearch.MatchingTable;
@@ -22,8 +27,10 @@ import org.eclipse.viatra.query.runtime.localsearch.plan.IPlanDescriptor;
 import org.eclipse.viatra.query.runtime.localsearch.plan.SearchPlanExecutor;
 import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.UnmodifiableIterator;
@@ -111,6 +118,45 @@ public class LocalSearchMatcher implements ILocalSearchAdaptable {
             return new MatchingFrame(frame);
         }
 
+        /**
+         * Returns the parameter values of the next match, without copying the entire frame.
+         */
+        public Tuple nextMatch() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more matches available.");
+            }
+            frameReturned = true;
+            return Tuples.flatTupleOf(frame.getElements());
+        }
+
+    }
+
+    /**
+     * Yields the distinct matches found by a {@link PlanExecutionIterator} as the search proceeds; only the parameter
+     * values of the already returned matches are retained for duplicate elimination.
+     */
+    private class MatchStreamIterator extends AbstractIterator<Tuple> {
+
+        private final PlanExecutionIterator it;
+        private final Set<Tuple> returnedMatches = new HashSet<Tuple>();
+
+        public MatchStreamIterator(MatchingFrame initialFrame) {
+            matchingStarted();
+            it = new PlanExecutionIterator(plan, initialFrame);
+        }
+
+        @Override
+        protected Tuple computeNext() {
+            while (it.hasNext()) {
+                Tuple match = it.nextMatch();
+                if (returnedMatches.add(match)) {
+                    return match;
+                }
+            }
+            matchingFinished();
+            return endOfData();
+        }
+
     }
 
     /**
@@ -279,6 +325,52 @@ public class LocalSearchMatcher implements ILocalSearchAdaptable {
         matchingFinished();
         return ImmutableList.copyOf(results.iterator());
     }
+
+    /**
+     * Lazily enumerates the distinct matches of the pattern; the search only proceeds as far as the returned iterator
+     * is consumed. Adapters are notified of the end of pattern matching only if the iterator is exhausted.
+     * 
+     * @since 1.7
+     */
+    public Iterator<Tuple> streamAllMatches() {
+        return streamAllMatches(editableMatchingFrame());
+    }
+
+    /**
+     * Lazily enumerates the distinct matches of the pattern that conform to the initial frame; the search only proceeds
+     * as far as the returned iterator is consumed. Adapters are notified of the end of pattern matching only if the
+     * iterator is exhausted.
+     * 
+     * @since 1.7
+     */
+    public Iterator<Tuple> streamAllMatches(final MatchingFrame initialFrame) {
+        return new MatchStreamIterator(initialFrame);
+    }
+
+    /**
+     * Returns the distinct matches of the pattern for each of the given arrays of parameter values in a single
+     * matching session, reusing the executors of the plan and a single initial frame; only the parameter values of
+     * the matches are retained. Each array must bind the same parameters, as the plan depends on the adornment.
+     * 
+     * @return for each array of parameter values, at the same index, the matches conforming to it
+     * @since 1.7
+     */
+    public List<Collection<Tuple>> getAllMatchesForEach(List<Object[]> parameterValues) {
+        matchingStarted();
+        List<Collection<Tuple>> results = new ArrayList<Collection<Tuple>>(parameterValues.size());
+        MatchingFrame initialFrame = editableMatchingFrame();
+        for (Object[] parameters : parameterValues) {
+            initialFrame.setParameterValues(parameters);
+            PlanExecutionIterator it = new PlanExecutionIterator(plan, initialFrame);
+            Set<Tuple> matches = new LinkedHashSet<Tuple>();
+            while (it.hasNext()) {
+                matches.add(it.nextMatch());
+            }
+            results.add(matches);
+        }
+        matchingFinished();
+        return results;
+    }
     
     /**
      * Returns the query specification this matcher used as source for the implementation
@@ -11,11 +11,15 @@
 package org.eclipse.viatra.query.runtime.localsearch.matcher.integration;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.Callable;
@@ -23,6 +27,7 @@ import java.util.concurrent.Callable;
 import org.eclipse.viatra.query.runtime.exception.ViatraQueryException;
 import org.eclipse.viatra.query.runtime.localsearch.MatchingFrame;
 import org.eclipse.viatra.query.runtime.localsearch.exceptions.LocalSearchException;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.CallMemoTable;
 import org.eclipse.viatra.query.runtime.localsearch.matcher.ISearchContext;
 import org.eclipse.viatra.query.runtime.localsearch.matcher.LocalSearchMatcher;
 import org.eclipse.viatra.query.runtime.localsearch.matcher.MatcherReference;
@@ -53,6 +58,7 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.IFlattenCallP
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 
 import com.google.common.base.Function;
+import com.google.common.base.Supplier;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
@@ -72,6 +78,7 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
     protected final QueryEvaluationHint userHints;
     protected final IPlanProvider planProvider;
     protected final ISearchContext searchContext;
+    private final CallMemoTable callMemoTable;
 
     /**
      * @since 1.5
@@ -85,7 +92,9 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
         this.planProvider = planProvider;
         this.userHints = userHints;
         this.runtimeContext = context.getRuntimeContext();
-        this.searchContext = new ISearchContext.SearchContext(backendContext, userHints, backend.getCache());
+        int callMemoizationSize = overrideDefaultHints(query).getCallMemoizationSize();
+        this.callMemoTable = callMemoizationSize > 0 ? new CallMemoTable(callMemoizationSize, runtimeContext) : null;
+        this.searchContext = new ISearchContext.SearchContext(backendContext, userHints, backend.getCache(), callMemoTable);
     }
     
     protected abstract IOperationCompiler getOperationCompiler(IQueryBackendContext backendContext, LocalSearchHints configuration);
@@ -290,15 +299,17 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
     }
 
     public LocalSearchMatcher newLocalSearchMatcher(Object[] parameters) throws ViatraQueryException, QueryProcessingException {
-    
-        final Set<PParameter> adornment = Sets.newHashSet();
-        for (int i = 0; i < parameters.length; i++) {
-            if (parameters[i] != null) {
-                adornment.add(query.getParameters().get(i));
-            }
-        }
-    
-        final MatcherReference reference = new MatcherReference(query, adornment, userHints);
+        IPlanDescriptor plan = preparePlan(parameters);
+        LocalSearchMatcher matcher = createMatcher(plan, searchContext);
+        matcher.addAdapters(backend.getAdapters());
+        return matcher;
+    }
+
+    /**
+     * Returns the plan for the adornment of the given parameters, having indexed its iterated keys
+     */
+    private IPlanDescriptor preparePlan(Object[] parameters) throws ViatraQueryException, QueryProcessingException {
+        final MatcherReference reference = new MatcherReference(query, computeAdornment(parameters), userHints);
         
         IPlanDescriptor plan = createPlan(reference, planProvider);
         if (overrideDefaultHints(reference.getQuery()).isUseBase()){
@@ -308,10 +319,49 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
                 throw new ViatraQueryException("Could not index keys","Could not index keys", e);
             }
         }
-        
-        LocalSearchMatcher matcher = createMatcher(plan, searchContext);
-        matcher.addAdapters(backend.getAdapters());
-        return matcher;
+        return plan;
+    }
+
+    /**
+     * Returns the parameters bound by the given parameter values
+     */
+    private Set<PParameter> computeAdornment(Object[] parameters) {
+        final Set<PParameter> adornment = Sets.newHashSet();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] != null) {
+                adornment.add(query.getParameters().get(i));
+            }
+        }
+        return adornment;
+    }
+
+    /**
+     * Parallel execution is only used if requested and no adapters are present, as they are not prepared for
+     * concurrent notifications
+     */
+    private boolean isParallelExecution() {
+        return overrideDefaultHints(query).isParallelExecution() && backend.getAdapters().isEmpty();
+    }
+
+    private Collection<Tuple> getAllMatchesInParallel(Object[] parameters) {
+        try {
+            return createParallelSearch(parameters).getAllMatches(parameters);
+        } catch (QueryProcessingException | ViatraQueryException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private ParallelLocalSearch createParallelSearch(Object[] parameters)
+            throws ViatraQueryException, QueryProcessingException {
+        final LocalSearchHints configuration = overrideDefaultHints(query);
+        Supplier<IOperationCompiler> compilerSupplier = new Supplier<IOperationCompiler>() {
+            @Override
+            public IOperationCompiler get() {
+                return getOperationCompiler(backendContext, configuration);
+            }
+        };
+        return new ParallelLocalSearch(preparePlan(parameters), searchContext, backend.getSearchPool(),
+                compilerSupplier);
     }
 
     private void indexKeys(final Iterable<IInputKey> keys) throws InvocationTargetException {
@@ -338,6 +388,9 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
 
     @Override
     public int countMatches(Object[] parameters) {
+        if (isParallelExecution()) {
+            return getAllMatchesInParallel(parameters).size();
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameters);
         final MatchingFrame frame = matcher.editableMatchingFrame();
         frame.setParameterValues(parameters);
@@ -346,12 +399,75 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
 
     @Override
     public Collection<? extends Tuple> getAllMatches(Object[] parameters) {
+        if (isParallelExecution()) {
+            return getAllMatchesInParallel(parameters);
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameters);
         final MatchingFrame frame = matcher.editableMatchingFrame();
         frame.setParameterValues(parameters);
         return matcher.getAllMatches(frame);
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The bindings are grouped by adornment; the plan and the matcher of each adornment are prepared once and reused
+     * for all of its bindings. In case of parallel execution, the bindings of an adornment are distributed among
+     * worker threads, unless the query calls other patterns.
+     */
+    @Override
+    public List<Collection<? extends Tuple>> getAllMatchesForEach(List<Object[]> parameters) {
+        List<Collection<? extends Tuple>> results = new ArrayList<>(
+                Collections.<Collection<? extends Tuple>> nCopies(parameters.size(), null));
+        Map<Set<PParameter>, List<Integer>> indicesByAdornment = new LinkedHashMap<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            Set<PParameter> adornment = computeAdornment(parameters.get(i));
+            List<Integer> indices = indicesByAdornment.get(adornment);
+            if (indices == null) {
+                indices = new ArrayList<>();
+                indicesByAdornment.put(adornment, indices);
+            }
+            indices.add(i);
+        }
+        for (List<Integer> indices : indicesByAdornment.values()) {
+            List<Object[]> parameterValues = new ArrayList<>(indices.size());
+            for (Integer index : indices) {
+                parameterValues.add(parameters.get(index));
+            }
+            List<Collection<Tuple>> adornmentResults = getAllMatchesForEachOfAdornment(parameterValues);
+            for (int i = 0; i < indices.size(); i++) {
+                results.set(indices.get(i), adornmentResults.get(i));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the matches for each of the given parameter values, all of which bind the same parameters
+     */
+    private List<Collection<Tuple>> getAllMatchesForEachOfAdornment(List<Object[]> parameterValues) {
+        try {
+            if (parameterValues.size() > 1 && isParallelExecution()) {
+                ParallelLocalSearch search = createParallelSearch(parameterValues.get(0));
+                if (search.canSearchBindingsInParallel()) {
+                    return search.getAllMatchesForEach(parameterValues);
+                }
+            }
+            return newLocalSearchMatcher(parameterValues.get(0)).getAllMatchesForEach(parameterValues);
+        } catch (QueryProcessingException | ViatraQueryException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Iterator<? extends Tuple> streamAllMatches(Object[] parameters) {
+        final LocalSearchMatcher matcher = initializeMatcher(parameters);
+        final MatchingFrame frame = matcher.editableMatchingFrame();
+        frame.setParameterValues(parameters);
+        return matcher.streamAllMatches(frame);
+    }
+
     @Override
     public IQueryBackend getQueryBackend() {
         return backend;
@@ -375,4 +491,25 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
         return configuration;
     }
 
+    /**
+     * Returns the table memoizing the pattern calls of this query, e.g. to inspect its hit rate; null if memoization
+     * is disabled, see {@link LocalSearchHints#setCallMemoizationSize(int)}.
+     * 
+     * @since 1.7
+     */
+    public CallMemoTable getCallMemoTable() {
+        return callMemoTable;
+    }
+
+    /**
+     * Releases the resources held by this result provider, such as the model listeners of the memoized pattern calls.
+     * 
+     * @since 1.7
+     */
+    public void dispose() {
+        if (callMemoTable != null) {
+            callMemoTable.dispose();
+        }
+    }
+
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ package org.eclipse.viatra.query.runtime.localsearch.matcher.integration;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EClass;
@@ -59,6 +60,12 @@ public abstract class LocalSearchBackend implements IQueryBackend {
     
     private final Multimap<PQuery, AbstractLocalSearchResultProvider> resultProviderCache = ArrayListMultimap.create();
     
+    /**
+     * The worker threads of parallel execution; created on first use, see
+     * {@link LocalSearchHints#setParallelExecution(boolean)}
+     */
+    private ForkJoinPool searchPool;
+    
     /**
      * @since 1.5
      */
@@ -108,8 +115,30 @@ public abstract class LocalSearchBackend implements IQueryBackend {
     @Override
     public void dispose() {  
         eAttributesByTypeForEClass.clear();
+        for (AbstractLocalSearchResultProvider resultProvider : resultProviderCache.values()) {
+            resultProvider.dispose();
+        }
         resultProviderCache.clear();
         generalCache.purge();
+        synchronized (this) {
+            if (searchPool != null) {
+                searchPool.shutdown();
+                searchPool = null;
+            }
+        }
+    }
+    
+    /**
+     * Returns the worker threads of parallel execution, sized according to
+     * {@link LocalSearchHintOptions#PARALLEL_EXECUTION_THREADS} among the engine default hints.
+     */
+    synchronized ForkJoinPool getSearchPool() {
+        if (searchPool == null) {
+            int threads = LocalSearchHintOptions.PARALLEL_EXECUTION_THREADS
+                    .getValueOrDefault(getHintProvider().getEngineDefaultHints());
+            searchPool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        }
+        return searchPool;
     }
 
     @Override
@@ -53,6 +53,30 @@ public final class LocalSearchHintOptions {
     public static final QueryHintOption<IAdornmentProvider> ADORNMENT_PROVIDER = 
             hintOption("ADORNMENT_PROVIDER", new AllValidAdornments());
     
+    /**
+     * If true, the search plans of a query are executed on multiple threads where possible, see
+     * {@link LocalSearchHints#setParallelExecution(boolean)}
+     * @since 1.7
+     */
+    public static final QueryHintOption<Boolean> PARALLEL_EXECUTION = 
+            hintOption("PARALLEL_EXECUTION", false);
+    
+    /**
+     * The number of threads used by parallel execution, zero meaning the number of available processors, see
+     * {@link LocalSearchHints#setParallelExecutionThreads(int)}; only read from the engine default hints
+     * @since 1.7
+     */
+    public static final QueryHintOption<Integer> PARALLEL_EXECUTION_THREADS = 
+            hintOption("PARALLEL_EXECUTION_THREADS", 0);
+    
+    /**
+     * The maximal number of memoized results of pattern calls per local search matcher, zero disabling memoization, see
+     * {@link LocalSearchHints#setCallMemoizationSize(int)}
+     * @since 1.7
+     */
+    public static final QueryHintOption<Integer> CALL_MEMOIZATION_SIZE = 
+            hintOption("CALL_MEMOIZATION_SIZE", 0);
+    
     // internal helper for conciseness
     private static <T, V extends T> QueryHintOption<T> hintOption(String hintKeyLocalName, V defaultValue) {
         return new QueryHintOption<>(LocalSearchHintOptions.class, hintKeyLocalName, defaultValue);
@@ -15,10 +15,14 @@ import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.L
 import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHintOptions.PLANNER_TABLE_ROW_COUNT;
 import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHintOptions.USE_BASE_INDEX;
 import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHintOptions.ADORNMENT_PROVIDER;
+import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHintOptions.PARALLEL_EXECUTION;
+import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHintOptions.PARALLEL_EXECUTION_THREADS;
+import static org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHintOptions.CALL_MEMOIZATION_SIZE;
 import static org.eclipse.viatra.query.runtime.matchers.backend.CommonQueryHintOptions.normalizationTraceCollector;
 
 import java.util.Map;
 
+import org.eclipse.viatra.query.runtime.localsearch.matcher.CallMemoTable;
 import org.eclipse.viatra.query.runtime.localsearch.planner.cost.ICostFunction;
 import org.eclipse.viatra.query.runtime.localsearch.planner.cost.impl.IndexerBasedConstraintCostFunction;
 import org.eclipse.viatra.query.runtime.localsearch.planner.cost.impl.VariableBindingBasedCostFunction;
@@ -33,6 +37,7 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.NeverFlattenC
 import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.NopTraceCollector;
 
 import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
 
 /**
@@ -54,6 +59,12 @@ public final class LocalSearchHints implements IMatcherCapability {
     
     private IAdornmentProvider adornmentProvider = null;
     
+    private Boolean parallelExecution = null;
+    
+    private Integer parallelExecutionThreads = null;
+    
+    private Integer callMemoizationSize = null;
+    
     private IRewriterTraceCollector traceCollector = NopTraceCollector.INSTANCE;
     
     private IQueryBackendFactory backendFactory = null;
@@ -77,6 +88,9 @@ public final class LocalSearchHints implements IMatcherCapability {
         result.costFunction = PLANNER_COST_FUNCTION.getDefaultValue();
         result.flattenCallPredicate = FLATTEN_CALL_PREDICATE.getDefaultValue();
         result.adornmentProvider = ADORNMENT_PROVIDER.getDefaultValue();
+        result.parallelExecution = PARALLEL_EXECUTION.getDefaultValue();
+        result.parallelExecutionThreads = PARALLEL_EXECUTION_THREADS.getDefaultValue();
+        result.callMemoizationSize = CALL_MEMOIZATION_SIZE.getDefaultValue();
         result.backendFactory = LocalSearchBackendFactory.INSTANCE;
         return result;
     }
@@ -92,6 +106,9 @@ public final class LocalSearchHints implements IMatcherCapability {
         result.costFunction = new IndexerBasedConstraintCostFunction();
         result.flattenCallPredicate = new DefaultFlattenCallPredicate();
         result.adornmentProvider = ADORNMENT_PROVIDER.getDefaultValue();
+        result.parallelExecution = PARALLEL_EXECUTION.getDefaultValue();
+        result.parallelExecutionThreads = PARALLEL_EXECUTION_THREADS.getDefaultValue();
+        result.callMemoizationSize = CALL_MEMOIZATION_SIZE.getDefaultValue();
         result.backendFactory = LocalSearchBackendFactory.INSTANCE;
         return result;
     }
@@ -106,6 +123,9 @@ public final class LocalSearchHints implements IMatcherCapability {
         result.costFunction = new VariableBindingBasedCostFunction();
         result.flattenCallPredicate = new NeverFlattenCallPredicate();
         result.adornmentProvider = ADORNMENT_PROVIDER.getDefaultValue();
+        result.parallelExecution = PARALLEL_EXECUTION.getDefaultValue();
+        result.parallelExecutionThreads = PARALLEL_EXECUTION_THREADS.getDefaultValue();
+        result.callMemoizationSize = CALL_MEMOIZATION_SIZE.getDefaultValue();
         result.backendFactory = LocalSearchBackendFactory.INSTANCE;
         return result;
     }
@@ -121,6 +141,9 @@ public final class LocalSearchHints implements IMatcherCapability {
         result.costFunction = new IndexerBasedConstraintCostFunction();
         result.flattenCallPredicate = FLATTEN_CALL_PREDICATE.getDefaultValue();
         result.adornmentProvider = ADORNMENT_PROVIDER.getDefaultValue();
+        result.parallelExecution = PARALLEL_EXECUTION.getDefaultValue();
+        result.parallelExecutionThreads = PARALLEL_EXECUTION_THREADS.getDefaultValue();
+        result.callMemoizationSize = CALL_MEMOIZATION_SIZE.getDefaultValue();
         result.backendFactory = LocalSearchGenericBackendFactory.INSTANCE;
         return result;
     }
@@ -133,6 +156,9 @@ public final class LocalSearchHints implements IMatcherCapability {
         result.flattenCallPredicate = FLATTEN_CALL_PREDICATE.getValueOrNull(hint);
         result.costFunction = PLANNER_COST_FUNCTION.getValueOrNull(hint);
         result.adornmentProvider = ADORNMENT_PROVIDER.getValueOrNull(hint);
+        result.parallelExecution = PARALLEL_EXECUTION.getValueOrNull(hint);
+        result.parallelExecutionThreads = PARALLEL_EXECUTION_THREADS.getValueOrNull(hint);
+        result.callMemoizationSize = CALL_MEMOIZATION_SIZE.getValueOrNull(hint);
         result.traceCollector = normalizationTraceCollector.getValueOrDefault(hint);
         
         return result;
@@ -156,6 +182,15 @@ public final class LocalSearchHints implements IMatcherCapability {
         if (adornmentProvider != null){
             ADORNMENT_PROVIDER.insertOverridingValue(map, adornmentProvider);
         }
+        if (parallelExecution != null){
+            PARALLEL_EXECUTION.insertOverridingValue(map, parallelExecution);
+        }
+        if (parallelExecutionThreads != null){
+            PARALLEL_EXECUTION_THREADS.insertOverridingValue(map, parallelExecutionThreads);
+        }
+        if (callMemoizationSize != null){
+            CALL_MEMOIZATION_SIZE.insertOverridingValue(map, callMemoizationSize);
+        }
         if (traceCollector != null){
             normalizationTraceCollector.insertOverridingValue(map, traceCollector);
         }
@@ -193,6 +228,27 @@ public final class LocalSearchHints implements IMatcherCapability {
         return adornmentProvider;
     }
 
+    /**
+     * @since 1.7
+     */
+    public boolean isParallelExecution() {
+        return parallelExecution != null && parallelExecution;
+    }
+
+    /**
+     * @since 1.7
+     */
+    public int getParallelExecutionThreads() {
+        return parallelExecutionThreads == null ? 0 : parallelExecutionThreads;
+    }
+
+    /**
+     * @since 1.7
+     */
+    public int getCallMemoizationSize() {
+        return callMemoizationSize == null ? 0 : callMemoizationSize;
+    }
+
     /**
      * @since 1.6
      */
@@ -244,6 +300,54 @@ public final class LocalSearchHints implements IMatcherCapability {
         return this;
     }
     
+    /**
+     * If enabled, all matches of a query are computed on multiple threads: the candidates of the first operation that
+     * iterates over the instances of a type are split into parts, which are searched concurrently. Bodies calling
+     * other patterns are still searched sequentially, as is the enumeration of a single match or a stream of matches.
+     * The model must not be modified while the search is in progress.
+     * 
+     * <p>
+     * Ignored if {@link LocalSearchBackend#getAdapters() adapters} are registered, as they are not prepared for
+     * concurrent notifications.
+     * 
+     * @since 1.7
+     */
+    public LocalSearchHints setParallelExecution(boolean parallelExecution) {
+        this.parallelExecution = parallelExecution;
+        return this;
+    }
+    
+    /**
+     * The number of threads used by {@link #setParallelExecution(boolean) parallel execution}; zero, the default,
+     * means the number of available processors. The threads are owned by the {@link LocalSearchBackend} of the query
+     * engine and stopped when it is disposed; therefore this setting only takes effect among the default hints of the
+     * engine.
+     * 
+     * @throws IllegalArgumentException
+     *             if the number of threads is negative
+     * @since 1.7
+     */
+    public LocalSearchHints setParallelExecutionThreads(int parallelExecutionThreads) {
+        Preconditions.checkArgument(parallelExecutionThreads >= 0, "Negative number of threads: %s",
+                parallelExecutionThreads);
+        this.parallelExecutionThreads = parallelExecutionThreads;
+        return this;
+    }
+    
+    /**
+     * If positive, the results of positive, negative and counting pattern calls are memoized by the local search
+     * matchers of the query, keyed by the called pattern and the values of its bound parameters, see
+     * {@link CallMemoTable}. At most the given number of results are kept per query, evicting the least recently used
+     * one if necessary; the results of a called pattern are dropped whenever the model elements it depends on change.
+     * Zero, the default, disables memoization.
+     * 
+     * @since 1.7
+     */
+    public LocalSearchHints setCallMemoizationSize(int callMemoizationSize) {
+        this.callMemoizationSize = callMemoizationSize;
+        return this;
+    }
+    
     public static LocalSearchHints customizeUseBase(boolean useBase){
         return new LocalSearchHints().setUseBase(useBase);
     }
@@ -281,15 +385,39 @@ public final class LocalSearchHints implements IMatcherCapability {
     public static LocalSearchHints customizeTraceCollector(IRewriterTraceCollector traceCollector){
         return new LocalSearchHints().setTraceCollector(traceCollector);
     }
+    
+    /**
+     * @since 1.7
+     */
+    public static LocalSearchHints customizeParallelExecution(boolean parallelExecution){
+        return new LocalSearchHints().setParallelExecution(parallelExecution);
+    }
+    
+    /**
+     * @since 1.7
+     */
+    public static LocalSearchHints customizeParallelExecutionThreads(int parallelExecutionThreads){
+        return new LocalSearchHints().setParallelExecutionThreads(parallelExecutionThreads);
+    }
+    
+    /**
+     * @since 1.7
+     */
+    public static LocalSearchHints customizeCallMemoizationSize(int callMemoizationSize){
+        return new LocalSearchHints().setCallMemoizationSize(callMemoizationSize);
+    }
 
     @Override
     public boolean canBeSubstitute(IMatcherCapability capability) {
         if (capability instanceof LocalSearchHints){
             LocalSearchHints other = (LocalSearchHints)capability;
             /*
-             * We allow substitution of matchers if their functionally relevant settings are equal.
+             * We allow substitution of matchers if their functionally relevant settings are equal; the execution mode
+             * is also respected, so that a parallel matcher is not substituted by a sequential one and vice versa, as
+             * is the memoization of pattern calls.
              */
-            return Objects.equal(other.useBase, useBase);
+            return Objects.equal(other.useBase, useBase) && other.isParallelExecution() == isParallelExecution()
+                    && other.getCallMemoizationSize() == getCallMemoizationSize();
         }
         /*
          * For any other cases (e.g. for Rete), we cannot assume
@@ -0,0 +1,372 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.localsearch.matcher.integration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.viatra.query.runtime.localsearch.MatchingFrame;
+import org.eclipse.viatra.query.runtime.localsearch.exceptions.LocalSearchException;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.ISearchContext;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.LocalSearchMatcher;
+import org.eclipse.viatra.query.runtime.localsearch.operations.IIteratingSearchOperation;
+import org.eclipse.viatra.query.runtime.localsearch.operations.ISearchOperation;
+import org.eclipse.viatra.query.runtime.localsearch.plan.IPlanDescriptor;
+import org.eclipse.viatra.query.runtime.localsearch.plan.SearchPlan;
+import org.eclipse.viatra.query.runtime.localsearch.plan.SearchPlanExecutor;
+import org.eclipse.viatra.query.runtime.localsearch.planner.compiler.IOperationCompiler;
+import org.eclipse.viatra.query.runtime.localsearch.planner.util.SearchPlanForBody;
+import org.eclipse.viatra.query.runtime.matchers.planning.QueryProcessingException;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+
+import com.google.common.base.Supplier;
+
+/**
+ * Computes all matches of a search plan on multiple threads, see {@link LocalSearchHints#setParallelExecution(boolean)}.
+ *
+ * <p>
+ * The plan of each body is split after its first operation that iterates over the instances of a type, see
+ * {@link IIteratingSearchOperation}. The operations up to the split yield a partial frame (seed) for each candidate;
+ * they are executed lazily, handing out the seeds in chunks to the parts. Each part is searched by a worker thread
+ * with its own instances of the remaining operations, as search operations are stateful; these are compiled anew from
+ * the plan of the body. The matches of the parts are merged on the calling thread. If all seeds fit into a single
+ * chunk, the body is searched on the calling thread instead.
+ *
+ * <p>
+ * Bodies that call other patterns are searched on the calling thread, as the matchers of called patterns are not
+ * prepared for concurrent use; the same holds for bodies without an iterating operation.
+ *
+ * <p>
+ * When matches are requested for many bindings of the parameters at once, the bindings are distributed among the
+ * parts instead, each searching all bodies with its own operations, see {@link #getAllMatchesForEach(List)}.
+ *
+ * @author agent
+ */
+class ParallelLocalSearch {
+
+    /**
+     * The number of parts per worker thread; more than one, so that uneven parts can be balanced.
+     */
+    private static final int PARTS_PER_THREAD = 4;
+
+    /**
+     * The number of seeds handed out to a part at once.
+     */
+    private static final int CHUNK_SIZE = 64;
+
+    private final IPlanDescriptor plan;
+    private final ISearchContext searchContext;
+    private final ForkJoinPool pool;
+    private final Supplier<IOperationCompiler> compilerSupplier;
+
+    /**
+     * @param pool
+     *            the worker threads, owned by the local search backend
+     * @param compilerSupplier
+     *            creates the operation compilers that produce the operations of the individual parts
+     */
+    ParallelLocalSearch(IPlanDescriptor plan, ISearchContext searchContext, ForkJoinPool pool,
+            Supplier<IOperationCompiler> compilerSupplier) {
+        this.plan = plan;
+        this.searchContext = searchContext;
+        this.pool = pool;
+        this.compilerSupplier = compilerSupplier;
+    }
+
+    /**
+     * Returns the set of all matches of the plan that conform to the given fixed values of some parameters.
+     */
+    Collection<Tuple> getAllMatches(Object[] parameters) throws LocalSearchException, QueryProcessingException {
+        Set<Tuple> matches = new LinkedHashSet<Tuple>();
+        for (SearchPlanForBody body : plan.getPlan()) {
+            MatchingFrame frame = new MatchingFrame(null, body.getBody().getUniqueVariables().size());
+            frame.setParameterValues(parameters);
+            searchBody(body, frame, matches);
+        }
+        return matches;
+    }
+
+    private void searchBody(SearchPlanForBody body, MatchingFrame frame, Set<Tuple> matches)
+            throws LocalSearchException, QueryProcessingException {
+        List<ISearchOperation> operations = body.getCompiledOperations();
+        int splitIndex = getSplitIndex(body);
+        if (splitIndex < 0) {
+            SearchPlanExecutor executor = createExecutor(body, operations);
+            while (executor.execute(frame)) {
+                matches.add(Tuples.flatTupleOf(frame.getElements()));
+            }
+            return;
+        }
+
+        SearchPlanExecutor seedExecutor = createExecutor(body, operations.subList(0, splitIndex + 1));
+        if (splitIndex == operations.size() - 1) {
+            // nothing left to search
+            while (seedExecutor.execute(frame)) {
+                matches.add(Tuples.flatTupleOf(frame.getElements()));
+            }
+            return;
+        }
+
+        SeedSource source = new SeedSource(seedExecutor, frame);
+        SearchPart first = new SearchPart(source, frame);
+        first.fillChunk();
+        if (source.exhausted) {
+            // a single chunk is searched on the calling thread, with the original operations
+            first.executor = createExecutor(body, operations.subList(splitIndex + 1, operations.size()));
+            first.run();
+            matches.addAll(first.matches);
+            return;
+        }
+
+        // the parts take chunks as long as there are seeds left, so a part per thread suffices
+        List<SearchPart> parts = new ArrayList<SearchPart>(pool.getParallelism());
+        parts.add(first);
+        for (int i = 1; i < pool.getParallelism(); i++) {
+            parts.add(new SearchPart(source, frame));
+        }
+        for (SearchPart part : parts) {
+            part.executor = createRemainingExecutor(body, splitIndex);
+        }
+        invokeParts(parts);
+        for (SearchPart part : parts) {
+            matches.addAll(part.matches);
+        }
+    }
+
+    /**
+     * Returns whether {@link #getAllMatchesForEach(List)} can search on multiple threads, i.e. no body calls other
+     * patterns.
+     */
+    boolean canSearchBindingsInParallel() {
+        for (SearchPlanForBody body : plan.getPlan()) {
+            if (!body.getDependencies().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the matches of the plan for each of the given bindings of the parameters of its adornment, distributing
+     * the bindings among worker threads. May only be called if {@link #canSearchBindingsInParallel()}.
+     *
+     * @return for each binding, at the same index, the matches conforming to it
+     */
+    List<Collection<Tuple>> getAllMatchesForEach(List<Object[]> parameterValues) throws QueryProcessingException {
+        int partCount = Math.min(parameterValues.size(), pool.getParallelism() * PARTS_PER_THREAD);
+        List<BindingPart> parts = new ArrayList<BindingPart>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            int from = (int) ((long) parameterValues.size() * i / partCount);
+            int to = (int) ((long) parameterValues.size() * (i + 1) / partCount);
+            parts.add(new BindingPart(parameterValues.subList(from, to), createMatcher()));
+        }
+        invokeParts(parts);
+        List<Collection<Tuple>> results = new ArrayList<Collection<Tuple>>(parameterValues.size());
+        for (BindingPart part : parts) {
+            results.addAll(part.results);
+        }
+        return results;
+    }
+
+    private void invokeParts(List<? extends Runnable> parts) {
+        if (parts.size() == 1) {
+            parts.get(0).run();
+        } else if (parts.size() > 1) {
+            pool.invoke(new PartialSearch(parts));
+        }
+    }
+
+    /**
+     * @return the index of the operation of the body after which its plan is split, or -1 if it is searched on the
+     *         calling thread
+     */
+    private int getSplitIndex(SearchPlanForBody body) {
+        if (!body.getDependencies().isEmpty()) {
+            return -1;
+        }
+        List<ISearchOperation> operations = body.getCompiledOperations();
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) instanceof IIteratingSearchOperation) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private SearchPlanExecutor createExecutor(SearchPlanForBody body, List<ISearchOperation> operations) {
+        SearchPlan searchPlan = new SearchPlan();
+        searchPlan.addOperations(operations);
+        return new SearchPlanExecutor(searchPlan, searchContext, body.getVariableKeys());
+    }
+
+    /**
+     * Creates an executor of the operations after the split with their own state; variable positions agree with those
+     * of the original plan, as variables are mapped deterministically by the compiler.
+     */
+    private SearchPlanExecutor createRemainingExecutor(SearchPlanForBody body, int splitIndex)
+            throws QueryProcessingException {
+        SearchPlanForBody copy = recompile(body);
+        List<ISearchOperation> operations = copy.getCompiledOperations();
+        return createExecutor(copy, operations.subList(splitIndex + 1, operations.size()));
+    }
+
+    /**
+     * Creates a matcher of all bodies with their own operations.
+     */
+    private LocalSearchMatcher createMatcher() throws QueryProcessingException {
+        List<SearchPlanExecutor> executors = new ArrayList<SearchPlanExecutor>();
+        int frameSize = 0;
+        for (SearchPlanForBody body : plan.getPlan()) {
+            SearchPlanForBody copy = recompile(body);
+            executors.add(createExecutor(copy, copy.getCompiledOperations()));
+            frameSize = Math.max(frameSize, body.getBody().getUniqueVariables().size());
+        }
+        return new LocalSearchMatcher(plan, executors, frameSize);
+    }
+
+    /**
+     * Compiles the plan of the body anew, yielding operations with their own state.
+     */
+    private SearchPlanForBody recompile(SearchPlanForBody body) throws QueryProcessingException {
+        IOperationCompiler compiler = compilerSupplier.get();
+        List<ISearchOperation> compiledOperations = compiler.compile(body.getPlan(), plan.getAdornment());
+        return new SearchPlanForBody(body.getBody(), compiler.getVariableMappings(), body.getPlan(),
+                compiledOperations, compiler.getDependencies());
+    }
+
+    /**
+     * Computes the seeds of a body on demand by executing the operations up to the split; shared by the parts, which
+     * take turns in advancing it.
+     */
+    private static final class SeedSource {
+        private final SearchPlanExecutor executor;
+        private final MatchingFrame frame;
+        boolean exhausted = false;
+
+        public SeedSource(SearchPlanExecutor executor, MatchingFrame frame) {
+            this.executor = executor;
+            this.frame = frame;
+        }
+
+        /**
+         * Copies the next seeds into the given frames.
+         *
+         * @return the number of frames filled; less than their number only if no seeds are left
+         */
+        synchronized int fill(List<MatchingFrame> chunk) throws LocalSearchException {
+            int count = 0;
+            while (!exhausted && count < chunk.size()) {
+                if (executor.execute(frame)) {
+                    MatchingFrame seed = chunk.get(count++);
+                    for (int i = 0; i < frame.getSize(); i++) {
+                        seed.setValue(i, frame.getValue(i));
+                    }
+                } else {
+                    exhausted = true;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Searches chunks of seeds taken from a {@link SeedSource} on a single worker thread, reusing the frames of its
+     * chunk.
+     */
+    private static final class SearchPart implements Runnable {
+        private final SeedSource source;
+        private final List<MatchingFrame> chunk;
+        private final List<Tuple> matches = new ArrayList<Tuple>();
+        private int chunkSize = 0;
+        SearchPlanExecutor executor;
+
+        public SearchPart(SeedSource source, MatchingFrame frame) {
+            this.source = source;
+            this.chunk = new ArrayList<MatchingFrame>(CHUNK_SIZE);
+            for (int i = 0; i < CHUNK_SIZE; i++) {
+                chunk.add(new MatchingFrame(frame));
+            }
+        }
+
+        void fillChunk() throws LocalSearchException {
+            chunkSize = source.fill(chunk);
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (chunkSize == 0) {
+                    fillChunk();
+                }
+                while (chunkSize > 0) {
+                    for (MatchingFrame seed : chunk.subList(0, chunkSize)) {
+                        executor.resetPlan();
+                        while (executor.execute(seed)) {
+                            matches.add(Tuples.flatTupleOf(seed.getElements()));
+                        }
+                    }
+                    fillChunk();
+                }
+            } catch (LocalSearchException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * A set of parameter bindings searched by a single worker thread.
+     */
+    private static final class BindingPart implements Runnable {
+        private final List<Object[]> parameterValues;
+        private final LocalSearchMatcher matcher;
+        private List<Collection<Tuple>> results;
+
+        public BindingPart(List<Object[]> parameterValues, LocalSearchMatcher matcher) {
+            this.parameterValues = parameterValues;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public void run() {
+            results = matcher.getAllMatchesForEach(parameterValues);
+        }
+    }
+
+    /**
+     * Searches the given parts, splitting the work in halves.
+     */
+    private static final class PartialSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<? extends Runnable> parts;
+
+        public PartialSearch(List<? extends Runnable> parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        protected void compute() {
+            if (parts.size() == 1) {
+                parts.get(0).run();
+            } else {
+                int half = parts.size() / 2;
+                invokeAll(new PartialSearch(parts.subList(0, half)),
+                        new PartialSearch(parts.subList(half, parts.size())));
+            }
+        }
+    }
+
+}
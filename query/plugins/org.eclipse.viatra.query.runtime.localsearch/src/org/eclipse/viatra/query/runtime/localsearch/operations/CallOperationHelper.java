@@ -12,6 +12,7 @@ package org.eclipse.viatra.query.runtime.localsearch.operations;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -19,6 +20,7 @@ import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.localsearch.MatchingFrame;
 import org.eclipse.viatra.query.runtime.localsearch.exceptions.LocalSearchException;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.CallMemoTable;
 import org.eclipse.viatra.query.runtime.localsearch.matcher.ISearchContext;
 import org.eclipse.viatra.query.runtime.localsearch.matcher.MatcherReference;
 import org.eclipse.viatra.query.runtime.matchers.backend.IQueryResultProvider;
@@ -74,6 +76,8 @@ public class CallOperationHelper {
         IQueryResultProvider matcher;
         Set<PParameter> adornment;
         Set<Integer> filledVariables;
+        MatcherReference reference;
+        CallMemoTable memoTable;
         
         public boolean fillInResult(MatchingFrame frame, Tuple result){
             filledVariables = Sets.newHashSet();
@@ -107,7 +111,9 @@ public class CallOperationHelper {
         
         private PatternCall(Set<PParameter> adornment, ISearchContext context) throws LocalSearchException{
             this.adornment = adornment;
-            matcher = context.getMatcher(new MatcherReference(calledQuery, this.adornment));
+            reference = new MatcherReference(calledQuery, this.adornment);
+            matcher = context.getMatcher(reference);
+            memoTable = context.getCallMemoTable();
         }
         
         private Object[] mapFrame(MatchingFrame frameInCaller){
@@ -119,30 +125,43 @@ public class CallOperationHelper {
         }
         
         public boolean has(MatchingFrame frame) {
-            return matcher.getOneArbitraryMatch(mapFrame(frame)) != null;
+            Object[] parameterValues = mapFrame(frame);
+            if (memoTable != null) {
+                return memoTable.hasMatch(reference, matcher, parameterValues);
+            }
+            return matcher.getOneArbitraryMatch(parameterValues) != null;
         }
         
         public int count(MatchingFrame frame){
-            return matcher.countMatches(mapFrame(frame));
+            Object[] parameterValues = mapFrame(frame);
+            if (memoTable != null) {
+                return memoTable.countMatches(reference, matcher, parameterValues);
+            }
+            return matcher.countMatches(parameterValues);
         }
         
         public <Domain, Accumulator, AggregateResult> AggregateResult aggregate(IMultisetAggregationOperator<Domain, Accumulator, AggregateResult> operator, int aggregatedColumn, MatchingFrame initialFrame) {
             Object[] frame = mapFrame(initialFrame);
             Accumulator accumulator = operator.createNeutral();
-            for(Tuple match : matcher.getAllMatches(frame)){
+            // matches are folded into the accumulator as they are found, without collecting them first
+            Iterator<? extends Tuple> matches = matcher.streamAllMatches(frame);
+            while (matches.hasNext()) {
                 @SuppressWarnings("unchecked")
-                Domain column = (Domain) match.get(aggregatedColumn);
+                Domain column = (Domain) matches.next().get(aggregatedColumn);
                 accumulator = operator.update(accumulator, column, true);
             }
             return operator.getAggregate(accumulator);
         }
 
         public Collection<? extends Tuple> getAllMatches(Object[] mappedFrame) {
+            if (memoTable != null) {
+                return memoTable.getAllMatches(reference, matcher, mappedFrame);
+            }
             return matcher.getAllMatches(mappedFrame);
         }
         
         public Collection<? extends Tuple> getAllMatches(MatchingFrame frameInCaller) {
-            return matcher.getAllMatches(mapFrame(frameInCaller));
+            return getAllMatches(mapFrame(frameInCaller));
         }
         
         /**
@@ -10,6 +10,7 @@
 package org.eclipse.viatra.query.runtime.localsearch.planner.cost.impl;
 
 import org.eclipse.viatra.query.runtime.localsearch.planner.cost.IConstraintEvaluationContext;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
 import org.eclipse.viatra.query.runtime.matchers.context.IInputKey;
 
 /**
@@ -26,5 +27,15 @@ public class IndexerBasedConstraintCostFunction extends StatisticsBasedConstrain
             ? input.getRuntimeContext().countTuples(supplierKey, null)
             : Math.round(DEFAULT_COST);
     }
+
+    /**
+     * @since 1.7
+     */
+    @Override
+    protected DegreeStatistics getDegreeStatistics(IConstraintEvaluationContext input, IInputKey supplierKey) {
+        return (supplierKey.isEnumerable()) 
+            ? input.getRuntimeContext().getDegreeStatistics(supplierKey)
+            : null;
+    }
     
 }
@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Set;
 import org.eclipse.viatra.query.runtime.localsearch.planner.cost.IConstraintEvaluationContext;
 import org.eclipse.viatra.query.runtime.localsearch.planner.cost.ICostFunction;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
 import org.eclipse.viatra.query.runtime.matchers.context.IInputKey;
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryMetaContext;
 import org.eclipse.viatra.query.runtime.matchers.context.InputKeyImplication;
@@ -54,6 +55,16 @@ public abstract class StatisticsBasedConstraintCostFunction implements ICostFunc
 
     public abstract long countTuples(final IConstraintEvaluationContext input, final IInputKey supplierKey);
 
+    /**
+     * Returns the distribution of the tuples of the given binary input key among their sources and targets, if known.
+     * 
+     * @return the degree statistics, or null if not available
+     * @since 1.7
+     */
+    protected DegreeStatistics getDegreeStatistics(final IConstraintEvaluationContext input, final IInputKey supplierKey) {
+        return null;
+    }
+
     @Override
     public double apply(final IConstraintEvaluationContext input) {
         try {
@@ -129,14 +140,21 @@ public abstract class StatisticsBasedConstraintCostFunction implements ICostFunc
         } else {
             double srcNodeCount = (isInverse) ? dstCount : srcCount;
             double dstNodeCount = (isInverse) ? srcCount : dstCount;
+            // On skewed models, a bound node reached through other edges tends to have more than the average number
+            // of adjacent edges; the skew is 1 if all nodes have the same degree
+            DegreeStatistics degrees = getDegreeStatistics(input, supplierKey);
+            double skew = (degrees == null) ? 1.0 : (isInverse) ? degrees.getInDegreeSkew() : degrees.getOutDegreeSkew();
 
             if (srcNodeCount > -1 && edgeCount > -1) {
                 // The end nodes had implied (type) constraint and both nodes and adjacent edges are indexed
                 if ((srcNodeCount == 0)) {
                     return 0;
                 } else {
-                    return ((double) edgeCount) / srcNodeCount;
+                    return skew * ((double) edgeCount) / srcNodeCount;
                 }
+            } else if (degrees != null) {
+                // The bound end node had no implied (type) constraint, but the distribution of edges is known
+                return skew * ((isInverse) ? degrees.getAverageInDegree() : degrees.getAverageOutDegree());
             } else if (srcCount > -1 && dstCount > -1) {
                 // Both of the end nodes had implied (type) constraint
                 if ((srcCount != 0)) {
@@ -31,4 +31,12 @@ public interface IQueryBackendHintProvider {
      */
     QueryEvaluationHint getQueryEvaluationHint(PQuery query);
     
+    /**
+     * Returns the default hints of the query engine, without the hints of any specific query. Settings that concern the
+     * entire engine instead of a single query should be read from these.
+     * 
+     * @since 1.7
+     */
+    QueryEvaluationHint getEngineDefaultHints();
+    
 }
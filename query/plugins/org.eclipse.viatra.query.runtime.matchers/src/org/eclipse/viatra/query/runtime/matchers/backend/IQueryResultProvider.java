@@ -11,6 +11,8 @@
 package org.eclipse.viatra.query.runtime.matchers.backend;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 
@@ -52,6 +54,37 @@ public interface IQueryResultProvider {
      */
     public Collection<? extends Tuple> getAllMatches(Object[] parameters); 
     
+    /**
+     * Lazily enumerates the matches of the pattern that conform to the given fixed values of some parameters. Unlike
+     * {@link #getAllMatches(Object[])}, backends that compute matches on demand yield each match as soon as it is
+     * found, without storing the complete result; the caller may stop the enumeration at any time (e.g. by
+     * {@link com.google.common.collect.Iterators#limit(Iterator, int)}).
+     * 
+     * <p>
+     * Each match is returned exactly once. The model must not be modified while the iterator is in use.
+     *
+     * @param parameters
+     *            array where each non-null element binds the corresponding pattern parameter to a fixed value.
+     * @pre size of input array must be equal to the number of parameters.
+     * @return an iterator over the matches represented in the internal {@link Tuple} representation.
+     * @since 1.7
+     */
+    public Iterator<? extends Tuple> streamAllMatches(Object[] parameters);
+    
+    /**
+     * Returns the matches of the pattern for each of the given bindings of some parameters. The result is the same as
+     * calling {@link #getAllMatches(Object[])} for each binding, but backends may share work among the bindings, e.g.
+     * by preparing the evaluation only once for all bindings of the same parameters.
+     * 
+     * @param parameters
+     *            a list of arrays, each binding the parameters with non-null elements to fixed values.
+     * @pre size of each input array must be equal to the number of parameters.
+     * @return for each array of the input, at the same index, the matches conforming to it represented in the internal
+     *         {@link Tuple} representation.
+     * @since 1.7
+     */
+    public List<? extends Collection<? extends Tuple>> getAllMatchesForEach(List<Object[]> parameters);
+    
     
     /**
      * The underlying query evaluator backend.
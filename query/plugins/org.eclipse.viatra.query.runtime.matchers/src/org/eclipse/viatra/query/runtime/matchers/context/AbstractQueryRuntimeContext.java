@@ -31,5 +31,15 @@ public abstract class AbstractQueryRuntimeContext implements IQueryRuntimeContex
     public boolean isIndexed(IInputKey key, IndexingService service) {
        return isIndexed(key);
     }
+
+   /**
+    * By default, no degree statistics is available.
+    * 
+    * @since 1.7
+    */
+   @Override
+   public DegreeStatistics getDegreeStatistics(IInputKey key) {
+       return null;
+   }
    
 }
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.context;
+
+import java.util.Arrays;
+
+/**
+ * Data object describing the distribution of the tuples of a binary extensional relation (e.g. the edges of a
+ * feature) among their sources and targets, for the purposes of query planning.
+ *
+ * <p>
+ * The <i>out-degree</i> of a source is the number of tuples it appears in as the first element, while the
+ * <i>in-degree</i> of a target is the number of tuples it appears in as the second element. Elements with zero degree
+ * are not taken into account.
+ *
+ * <p>
+ * Degree histograms are coarse: bucket <code>i</code> counts the elements whose degree is between
+ * <code>2<sup>i</sup></code> (inclusive) and <code>2<sup>i+1</sup></code> (exclusive).
+ *
+ * <p>
+ * The statistics is an immutable data object.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public final class DegreeStatistics {
+
+    private final int tupleCount;
+    private final int distinctSources;
+    private final int distinctTargets;
+    private final int maxOutDegree;
+    private final int maxInDegree;
+    private final long sumOfSquaredOutDegrees;
+    private final long sumOfSquaredInDegrees;
+    private final int[] outDegreeHistogram;
+    private final int[] inDegreeHistogram;
+
+    /**
+     * @param tupleCount
+     *            the total number of tuples
+     * @param distinctSources
+     *            the number of distinct first elements
+     * @param distinctTargets
+     *            the number of distinct second elements
+     * @param maxOutDegree
+     *            the largest out-degree
+     * @param maxInDegree
+     *            the largest in-degree
+     * @param sumOfSquaredOutDegrees
+     *            the sum of the squares of the out-degrees of the sources
+     * @param sumOfSquaredInDegrees
+     *            the sum of the squares of the in-degrees of the targets
+     * @param outDegreeHistogram
+     *            the coarse histogram of out-degrees, see the class description
+     * @param inDegreeHistogram
+     *            the coarse histogram of in-degrees, see the class description
+     */
+    public DegreeStatistics(int tupleCount, int distinctSources, int distinctTargets, int maxOutDegree,
+            int maxInDegree, long sumOfSquaredOutDegrees, long sumOfSquaredInDegrees, int[] outDegreeHistogram,
+            int[] inDegreeHistogram) {
+        this.tupleCount = tupleCount;
+        this.distinctSources = distinctSources;
+        this.distinctTargets = distinctTargets;
+        this.maxOutDegree = maxOutDegree;
+        this.maxInDegree = maxInDegree;
+        this.sumOfSquaredOutDegrees = sumOfSquaredOutDegrees;
+        this.sumOfSquaredInDegrees = sumOfSquaredInDegrees;
+        this.outDegreeHistogram = outDegreeHistogram.clone();
+        this.inDegreeHistogram = inDegreeHistogram.clone();
+    }
+
+    /**
+     * @return the index of the histogram bucket the given (positive) degree belongs to
+     */
+    public static int getHistogramBucket(int degree) {
+        return 31 - Integer.numberOfLeadingZeros(degree);
+    }
+
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    public int getDistinctSources() {
+        return distinctSources;
+    }
+
+    public int getDistinctTargets() {
+        return distinctTargets;
+    }
+
+    public int getMaxOutDegree() {
+        return maxOutDegree;
+    }
+
+    public int getMaxInDegree() {
+        return maxInDegree;
+    }
+
+    /**
+     * @return the average out-degree of sources, or 0 if there are no tuples
+     */
+    public double getAverageOutDegree() {
+        return distinctSources == 0 ? 0 : ((double) tupleCount) / distinctSources;
+    }
+
+    /**
+     * @return the average in-degree of targets, or 0 if there are no tuples
+     */
+    public double getAverageInDegree() {
+        return distinctTargets == 0 ? 0 : ((double) tupleCount) / distinctTargets;
+    }
+
+    /**
+     * The ratio of the average out-degree of the source of a randomly chosen tuple and the average out-degree of
+     * sources. It is 1 if all sources have the same out-degree, and grows as a few sources hold most tuples; the
+     * expected fan-out of a source reached through another tuple is the average out-degree multiplied by the skew.
+     *
+     * @return the out-degree skew, at least 1
+     */
+    public double getOutDegreeSkew() {
+        return skew(sumOfSquaredOutDegrees, distinctSources);
+    }
+
+    /**
+     * The in-degree counterpart of {@link #getOutDegreeSkew()}.
+     *
+     * @return the in-degree skew, at least 1
+     */
+    public double getInDegreeSkew() {
+        return skew(sumOfSquaredInDegrees, distinctTargets);
+    }
+
+    private double skew(long sumOfSquares, int distinct) {
+        if (tupleCount == 0) {
+            return 1.0;
+        }
+        // (sum d^2 / sum d) / (sum d / n)
+        return Math.max(1.0, ((double) sumOfSquares) * distinct / ((double) tupleCount * tupleCount));
+    }
+
+    /**
+     * @return the coarse histogram of out-degrees, see the class description
+     */
+    public int[] getOutDegreeHistogram() {
+        return outDegreeHistogram.clone();
+    }
+
+    /**
+     * @return the coarse histogram of in-degrees, see the class description
+     */
+    public int[] getInDegreeHistogram() {
+        return inDegreeHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DegreeStatistics[tuples=%d, sources=%d, targets=%d, maxOut=%d, maxIn=%d, out=%s, in=%s]",
+                tupleCount, distinctSources, distinctTargets, maxOutDegree, maxInDegree,
+                Arrays.toString(outDegreeHistogram), Arrays.toString(inDegreeHistogram));
+    }
+
+}
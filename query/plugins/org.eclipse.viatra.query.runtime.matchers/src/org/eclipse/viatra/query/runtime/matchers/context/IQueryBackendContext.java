@@ -13,6 +13,7 @@ package org.eclipse.viatra.query.runtime.matchers.context;
 import org.apache.log4j.Logger;
 import org.eclipse.viatra.query.runtime.matchers.backend.IQueryBackendHintProvider;
 import org.eclipse.viatra.query.runtime.matchers.psystem.analysis.QueryAnalyzer;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 
 /**
  * This interface is a collector which holds every API that is provided by the engine to control
@@ -40,4 +41,10 @@ public interface IQueryBackendContext {
      */
     boolean areUpdatesDelayed();
     
+    /**
+     * The collections implementation the backend should use for its internal data structures.
+     * @since 1.7
+     */
+    ICollectionsFramework getCollectionsFramework();
+    
 }
@@ -107,6 +107,18 @@ public interface IQueryRuntimeContext {
      * @throws IllegalArgumentException if key is not enumerable, see {@link IQueryMetaContext#isEnumerable(IInputKey)}.
      */
     public int countTuples(IInputKey key, Tuple seed);
+
+    /**
+     * Returns the distribution of the tuples of a binary extensional relation among their sources and targets, if
+     * available. Unlike {@link #countTuples(IInputKey, Tuple)}, this method does not start indexing the key; the
+     * statistics is only available if the key is already indexed with {@link IndexingService#STATISTICS}, see
+     * {@link #ensureIndexed(IInputKey, IndexingService)}.
+     * 
+     * @param key an input key of arity 2
+     * @return the degree statistics of the relation, or null if not available
+     * @since 1.7
+     */
+    public DegreeStatistics getDegreeStatistics(IInputKey key);
     
     /**
      * Returns the tuples in the extensional relation identified by the input key, optionally seeded with the given tuple.
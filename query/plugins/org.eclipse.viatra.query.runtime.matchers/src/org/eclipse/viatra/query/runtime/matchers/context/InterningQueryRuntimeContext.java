@@ -0,0 +1,459 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.context;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.IdTuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+
+/**
+ * A runtime context that decorates another one by interning elements: the internal representation of each distinct
+ * element (as wrapped by the decorated context) is a dense integer ID. Tuples enumerated or reported to listeners by
+ * the decorated context are translated to IDs, and seeds are translated back before they are passed to it.
+ *
+ * <p>
+ * Equal elements receive the same ID. Translated tuples are {@link IdTuple}s, which store the IDs as primitive
+ * <code>int</code>s and are hashed and compared without accessing the elements or any boxed value; where an ID is
+ * returned as an object, the canonical {@link Integer} instance of {@link IdTuple#box(int)} is used.
+ *
+ * <p>
+ * IDs are reclaimed when the elements they represent disappear from the input: for each registered update listener,
+ * the context counts the references of the tuples enumerated at registration and reported to the listener since, and
+ * an element is released when its reference count drops to zero. Elements that are interned without being part of
+ * a listened input tuple (e.g. by {@link #wrapElement(Object)}, which is used for constants, computed values and
+ * seeds) or enumerated as values are pinned, and keep their IDs until the context is discarded; tuples enumerated
+ * without a listener to the same input are not referenced, thus their IDs may be reclaimed. Released IDs are only reused after
+ * {@link #recycleReleasedIds()} is called by the client, at a point where it no longer holds any tuple containing
+ * them.
+ *
+ * <p>
+ * The context is thread-safe. Translating known elements and IDs does not lock; assigning, counting and reclaiming
+ * IDs is synchronized on the context.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class InterningQueryRuntimeContext extends AbstractQueryRuntimeContext {
+
+    /**
+     * The reference count of pinned IDs, which are never released.
+     */
+    private static final int PINNED = -1;
+
+    private final IQueryRuntimeContext delegate;
+    private final ConcurrentMap<Object, Integer> idOfElement = new ConcurrentHashMap<>();
+    /**
+     * Written only while holding the lock of the context; the array is republished after each assignment, so that IDs
+     * obtained from {@link #idOfElement} can be resolved without locking.
+     */
+    private volatile Object[] elementOfId = new Object[16];
+    /**
+     * The number of references to each assigned ID, or {@link #PINNED}; guarded by the context.
+     */
+    private int[] referenceCounts = new int[16];
+    /**
+     * The smallest ID never assigned so far; guarded by the context.
+     */
+    private int nextId;
+    /**
+     * Reclaimed IDs available for reuse; guarded by the context.
+     */
+    private int[] freeIds = new int[16];
+    private int freeIdCount;
+    /**
+     * IDs whose reference count has dropped to zero since the last recycling; guarded by the context.
+     */
+    private int[] releasedIds = new int[16];
+    private volatile int releasedIdCount;
+
+    private final Function<Object, Object> internFunction = new Function<Object, Object>() {
+        @Override
+        public Object apply(Object element) {
+            int id = intern(element, true);
+            return id == IdTuple.NULL_ID ? null : IdTuple.box(id);
+        }
+    };
+    private final Function<Tuple, Tuple> internTupleFunction = new Function<Tuple, Tuple>() {
+        @Override
+        public Tuple apply(Tuple tuple) {
+            return internTuple(tuple, false);
+        }
+    };
+
+    public InterningQueryRuntimeContext(IQueryRuntimeContext delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the decorated runtime context
+     */
+    public IQueryRuntimeContext getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of distinct elements that currently have an ID
+     */
+    public int getInternedElementCount() {
+        return idOfElement.size();
+    }
+
+    /**
+     * @param pin
+     *            whether the ID should be kept even if the element is not referenced by any listened input tuple
+     * @return the ID of the given element (in the representation of the decorated context), newly assigned if needed;
+     *         {@link IdTuple#NULL_ID} for null
+     */
+    protected int intern(Object element, boolean pin) {
+        if (element == null) {
+            return IdTuple.NULL_ID;
+        }
+        Integer id = idOfElement.get(element);
+        if (id != null && (!pin || isPinned(id))) {
+            return id;
+        }
+        return assign(element, pin);
+    }
+
+    /**
+     * Reads the reference count without locking; a stale value can only make a pinned ID appear unpinned, as pinned
+     * IDs are never released.
+     */
+    private boolean isPinned(int id) {
+        int[] counts = referenceCounts;
+        return id < counts.length && counts[id] == PINNED;
+    }
+
+    private synchronized int assign(Object element, boolean pin) {
+        Integer id = idOfElement.get(element);
+        int index;
+        if (id != null) {
+            index = id;
+        } else {
+            index = freeIdCount > 0 ? freeIds[--freeIdCount] : nextId++;
+            Object[] elements = elementOfId;
+            if (index >= elements.length) {
+                elements = Arrays.copyOf(elements, 2 * elements.length);
+                referenceCounts = Arrays.copyOf(referenceCounts, elements.length);
+            }
+            elements[index] = element;
+            referenceCounts[index] = 0;
+            elementOfId = elements;
+            idOfElement.put(element, IdTuple.box(index));
+            if (!pin) {
+                // until referenced by a listened tuple
+                release(index);
+            }
+        }
+        if (pin) {
+            referenceCounts[index] = PINNED;
+        }
+        return index;
+    }
+
+    /**
+     * @return the element (in the representation of the decorated context) with the given ID; null for
+     *         {@link IdTuple#NULL_ID}
+     * @throws IllegalArgumentException
+     *             if the given ID is not currently assigned by this context
+     */
+    protected Object resolve(int id) {
+        if (id == IdTuple.NULL_ID) {
+            return null;
+        }
+        Object[] elements = elementOfId;
+        Object element = 0 <= id && id < elements.length ? elements[id] : null;
+        if (element == null) {
+            throw new IllegalArgumentException("Not an element ID of this context: " + id);
+        }
+        return element;
+    }
+
+    /**
+     * @return the element (in the representation of the decorated context) with the given ID; null for null
+     * @throws IllegalArgumentException
+     *             if the given object is not an ID currently assigned by this context
+     */
+    protected Object resolve(Object id) {
+        if (id == null) {
+            return null;
+        }
+        if (!(id instanceof Integer)) {
+            throw new IllegalArgumentException("Not an element ID of this context: " + id);
+        }
+        return resolve(((Integer) id).intValue());
+    }
+
+    protected IdTuple internTuple(Tuple tuple, boolean pin) {
+        if (tuple == null) {
+            return null;
+        }
+        int[] ids = new int[tuple.getSize()];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = intern(tuple.get(i), pin);
+        }
+        return IdTuple.of(ids);
+    }
+
+    protected Tuple resolveTuple(Tuple tuple) {
+        if (tuple == null) {
+            return null;
+        }
+        Object[] elements = new Object[tuple.getSize()];
+        if (tuple instanceof IdTuple) {
+            IdTuple ids = (IdTuple) tuple;
+            for (int i = 0; i < elements.length; ++i) {
+                elements[i] = resolve(ids.getId(i));
+            }
+        } else {
+            for (int i = 0; i < elements.length; ++i) {
+                elements[i] = resolve(tuple.get(i));
+            }
+        }
+        return Tuples.flatTupleOf(elements);
+    }
+
+    /**
+     * Adds the given amount to the reference counts of the IDs of the given tuple, which were interned without
+     * pinning.
+     */
+    private synchronized void reference(IdTuple tuple, int delta) {
+        for (int i = 0; i < tuple.getSize(); ++i) {
+            int id = tuple.getId(i);
+            if (id != IdTuple.NULL_ID) {
+                updateReferenceCount(id, delta);
+            }
+        }
+    }
+
+    /**
+     * Removes one reference from each of the known elements of the given tuples, in the representation of the
+     * decorated context.
+     */
+    private synchronized void unreference(Iterable<Tuple> tuples) {
+        for (Tuple tuple : tuples) {
+            for (int i = 0; i < tuple.getSize(); ++i) {
+                Object element = tuple.get(i);
+                Integer id = element == null ? null : idOfElement.get(element);
+                if (id != null) {
+                    updateReferenceCount(id, -1);
+                }
+            }
+        }
+    }
+
+    private void updateReferenceCount(int id, int delta) {
+        int count = referenceCounts[id];
+        if (count != PINNED) {
+            count = Math.max(0, count + delta);
+            referenceCounts[id] = count;
+            if (count == 0) {
+                release(id);
+            }
+        }
+    }
+
+    private void release(int id) {
+        if (releasedIdCount == releasedIds.length) {
+            releasedIds = Arrays.copyOf(releasedIds, 2 * releasedIdCount);
+        }
+        releasedIds[releasedIdCount++] = id;
+    }
+
+    /**
+     * Reclaims the IDs of the elements that are no longer referenced by any listened input tuple, making them
+     * available for other elements. As a reclaimed ID may be reused at any time afterwards, the method may only be
+     * called when the client does not hold any tuple containing the IDs of the elements that disappeared from the
+     * input, e.g. after it has fully processed the updates reported so far.
+     *
+     * @return the number of reclaimed IDs
+     */
+    public synchronized int recycleReleasedIds() {
+        int reclaimed = 0;
+        Object[] elements = elementOfId;
+        for (int i = 0; i < releasedIdCount; ++i) {
+            int id = releasedIds[i];
+            // the count may have risen again, and an ID may be released more than once
+            if (referenceCounts[id] == 0 && elements[id] != null) {
+                idOfElement.remove(elements[id]);
+                elements[id] = null;
+                if (freeIdCount == freeIds.length) {
+                    freeIds = Arrays.copyOf(freeIds, 2 * freeIdCount);
+                }
+                freeIds[freeIdCount++] = id;
+                reclaimed++;
+            }
+        }
+        releasedIdCount = 0;
+        if (releasedIds.length > 16) {
+            releasedIds = new int[16];
+        }
+        return reclaimed;
+    }
+
+    /**
+     * @return whether there are released IDs that {@link #recycleReleasedIds()} could reclaim
+     */
+    public synchronized boolean hasReleasedIds() {
+        return releasedIdCount > 0;
+    }
+
+    @Override
+    public IQueryMetaContext getMetaContext() {
+        return delegate.getMetaContext();
+    }
+
+    @Override
+    public <V> V coalesceTraversals(Callable<V> callable) throws InvocationTargetException {
+        return delegate.coalesceTraversals(callable);
+    }
+
+    @Override
+    public boolean isCoalescing() {
+        return delegate.isCoalescing();
+    }
+
+    @Override
+    public boolean isIndexed(IInputKey key, IndexingService service) {
+        return delegate.isIndexed(key, service);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public boolean isIndexed(IInputKey key) {
+        return delegate.isIndexed(key);
+    }
+
+    @Override
+    public void ensureIndexed(IInputKey key, IndexingService service) {
+        delegate.ensureIndexed(key, service);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void ensureIndexed(IInputKey key) {
+        delegate.ensureIndexed(key);
+    }
+
+    @Override
+    public int countTuples(IInputKey key, Tuple seed) {
+        return delegate.countTuples(key, resolveTuple(seed));
+    }
+
+    @Override
+    public DegreeStatistics getDegreeStatistics(IInputKey key) {
+        return delegate.getDegreeStatistics(key);
+    }
+
+    @Override
+    public Iterable<Tuple> enumerateTuples(IInputKey key, Tuple seed) {
+        return Iterables.transform(delegate.enumerateTuples(key, resolveTuple(seed)), internTupleFunction);
+    }
+
+    @Override
+    public Iterable<? extends Object> enumerateValues(IInputKey key, Tuple seed) {
+        return Iterables.transform(delegate.enumerateValues(key, resolveTuple(seed)), internFunction);
+    }
+
+    @Override
+    public boolean containsTuple(IInputKey key, Tuple seed) {
+        return delegate.containsTuple(key, resolveTuple(seed));
+    }
+
+    /**
+     * The current tuples of the key are referenced on behalf of the listener, as they may be retained by it.
+     */
+    @Override
+    public void addUpdateListener(IInputKey key, Tuple seed, IQueryRuntimeContextListener listener) {
+        Tuple resolvedSeed = resolveTuple(seed);
+        delegate.addUpdateListener(key, resolvedSeed, new InterningListener(listener));
+        for (Tuple tuple : delegate.enumerateTuples(key, resolvedSeed)) {
+            reference(internTuple(tuple, false), 1);
+        }
+    }
+
+    @Override
+    public void removeUpdateListener(IInputKey key, Tuple seed, IQueryRuntimeContextListener listener) {
+        Tuple resolvedSeed = resolveTuple(seed);
+        delegate.removeUpdateListener(key, resolvedSeed, new InterningListener(listener));
+        unreference(delegate.enumerateTuples(key, resolvedSeed));
+    }
+
+    @Override
+    public Object wrapElement(Object externalElement) {
+        int id = intern(delegate.wrapElement(externalElement), true);
+        return id == IdTuple.NULL_ID ? null : IdTuple.box(id);
+    }
+
+    @Override
+    public Object unwrapElement(Object internalElement) {
+        return delegate.unwrapElement(resolve(internalElement));
+    }
+
+    @Override
+    public Tuple wrapTuple(Tuple externalElements) {
+        return internTuple(delegate.wrapTuple(externalElements), true);
+    }
+
+    @Override
+    public Tuple unwrapTuple(Tuple internalElements) {
+        return delegate.unwrapTuple(resolveTuple(internalElements));
+    }
+
+    @Override
+    public void ensureWildcardIndexing(IndexingService service) {
+        delegate.ensureWildcardIndexing(service);
+    }
+
+    @Override
+    public void executeAfterTraversal(Runnable runnable) throws InvocationTargetException {
+        delegate.executeAfterTraversal(runnable);
+    }
+
+    /**
+     * Translates the updates of the decorated context and counts the references of the reported tuples; equal to any
+     * other instance decorating the same listener, so that it can be unregistered.
+     */
+    private final class InterningListener implements IQueryRuntimeContextListener {
+        private final IQueryRuntimeContextListener listener;
+
+        InterningListener(IQueryRuntimeContextListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void update(IInputKey key, Tuple updateTuple, boolean isInsertion) {
+            IdTuple interned = internTuple(updateTuple, false);
+            reference(interned, isInsertion ? 1 : -1);
+            listener.update(key, interned, isInsertion);
+        }
+
+        @Override
+        public int hashCode() {
+            return listener.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof InterningListener && listener.equals(((InterningListener) obj).listener);
+        }
+    }
+
+}
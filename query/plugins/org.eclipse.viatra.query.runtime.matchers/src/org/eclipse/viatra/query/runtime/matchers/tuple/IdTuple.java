@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.tuple;
+
+import java.util.Arrays;
+
+/**
+ * Flat tuple of non-negative integer IDs, such as the element IDs of an
+ * {@link org.eclipse.viatra.query.runtime.matchers.context.InterningQueryRuntimeContext}, stored as primitive
+ * <code>int</code>s. Low-arity tuples store their IDs in fields, wider ones in an <code>int</code> array.
+ *
+ * <p>
+ * The tuple is equal to, and has the same hash code as, any other tuple holding the same IDs as {@link Integer}s;
+ * {@link #get(int)} returns canonical {@link Integer} instances shared by all ID tuples (see {@link #box(int)}). Tuples
+ * of IDs are hashed and compared without accessing any boxed value. A null element is represented by
+ * {@link #NULL_ID}.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public abstract class IdTuple extends BaseFlatTuple {
+
+    /**
+     * The ID representing a null element.
+     */
+    public static final int NULL_ID = -1;
+
+    private static final Object BOX_LOCK = new Object();
+    private static volatile Integer[] boxes = new Integer[1024];
+
+    /**
+     * Creates a tuple of the given IDs; each one must be non-negative or {@link #NULL_ID}.
+     */
+    public static IdTuple of(int... ids) {
+        switch (ids.length) {
+        case 1:
+            return new IdTuple1(ids[0]);
+        case 2:
+            return new IdTuple2(ids[0], ids[1]);
+        case 3:
+            return new IdTuple3(ids[0], ids[1], ids[2]);
+        default:
+            return new WideIdTuple(ids.clone());
+        }
+    }
+
+    /**
+     * Returns the canonical {@link Integer} instance of the given non-negative ID. The instances are cached in a table
+     * shared by all ID tuples, which grows up to the greatest ID boxed so far.
+     */
+    public static Integer box(int id) {
+        Integer[] cache = boxes;
+        if (id >= 0 && id < cache.length) {
+            // Integer is immutable, a racy read of a cached instance is safe
+            Integer boxed = cache[id];
+            if (boxed != null) {
+                return boxed;
+            }
+        }
+        return boxSlowly(id);
+    }
+
+    private static Integer boxSlowly(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Negative ID: " + id);
+        }
+        synchronized (BOX_LOCK) {
+            Integer[] cache = boxes;
+            if (id >= cache.length) {
+                cache = Arrays.copyOf(cache, Math.max(2 * cache.length, id + 1));
+            }
+            Integer boxed = cache[id];
+            if (boxed == null) {
+                boxed = Integer.valueOf(id);
+                cache[id] = boxed;
+            }
+            boxes = cache;
+            return boxed;
+        }
+    }
+
+    /**
+     * @pre: 0 <= index < getSize()
+     *
+     * @return the ID at the specified index, or {@link #NULL_ID} for null
+     */
+    public abstract int getId(int index);
+
+    @Override
+    public Object get(int index) {
+        int id = getId(index);
+        return id == NULL_ID ? null : box(id);
+    }
+
+    /**
+     * @return the tuple of the IDs at the given indices
+     */
+    public IdTuple project(int[] indices) {
+        int[] ids = new int[indices.length];
+        for (int i = 0; i < indices.length; ++i) {
+            ids[i] = getId(indices[i]);
+        }
+        return ids.length > 3 ? new WideIdTuple(ids) : of(ids);
+    }
+
+    /**
+     * Same value as {@link Tuple#calcHash()}, as the hash code of an {@link Integer} is its value.
+     */
+    @Override
+    void calcHash() {
+        final int PRIME = 31;
+        int hash = 1;
+        for (int i = 0; i < getSize(); i++) {
+            int id = getId(i);
+            hash = PRIME * hash + (id == NULL_ID ? 0 : id);
+        }
+        cachedHash = hash;
+    }
+
+    @Override
+    protected boolean internalEquals(Tuple other) {
+        if (!(other instanceof IdTuple)) {
+            return super.internalEquals(other);
+        }
+        IdTuple otherIds = (IdTuple) other;
+        if (getSize() != otherIds.getSize()) {
+            return false;
+        }
+        for (int i = 0; i < getSize(); ++i) {
+            if (getId(i) != otherIds.getId(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class IdTuple1 extends IdTuple {
+        private final int id0;
+
+        IdTuple1(int id0) {
+            this.id0 = id0;
+            calcHash();
+        }
+
+        @Override
+        public int getSize() {
+            return 1;
+        }
+
+        @Override
+        public int getId(int index) {
+            if (index == 0) return id0;
+            throw raiseIndexingError(index);
+        }
+    }
+
+    private static final class IdTuple2 extends IdTuple {
+        private final int id0;
+        private final int id1;
+
+        IdTuple2(int id0, int id1) {
+            this.id0 = id0;
+            this.id1 = id1;
+            calcHash();
+        }
+
+        @Override
+        public int getSize() {
+            return 2;
+        }
+
+        @Override
+        public int getId(int index) {
+            if (index == 0) return id0;
+            if (index == 1) return id1;
+            throw raiseIndexingError(index);
+        }
+    }
+
+    private static final class IdTuple3 extends IdTuple {
+        private final int id0;
+        private final int id1;
+        private final int id2;
+
+        IdTuple3(int id0, int id1, int id2) {
+            this.id0 = id0;
+            this.id1 = id1;
+            this.id2 = id2;
+            calcHash();
+        }
+
+        @Override
+        public int getSize() {
+            return 3;
+        }
+
+        @Override
+        public int getId(int index) {
+            if (index == 0) return id0;
+            if (index == 1) return id1;
+            if (index == 2) return id2;
+            throw raiseIndexingError(index);
+        }
+    }
+
+    private static final class WideIdTuple extends IdTuple {
+        private final int[] ids;
+
+        WideIdTuple(int[] ids) {
+            this.ids = ids;
+            calcHash();
+        }
+
+        @Override
+        public int getSize() {
+            return ids.length;
+        }
+
+        @Override
+        public int getId(int index) {
+            if (index < 0 || index >= ids.length) {
+                throw raiseIndexingError(index);
+            }
+            return ids[index];
+        }
+    }
+
+}
@@ -229,6 +229,9 @@ public class TupleMask {
      * Generates a masked view of the original tuple.
      */
     public Tuple transform(Tuple original) {
+        if (original instanceof IdTuple) {
+            return ((IdTuple) original).project(indices);
+        }
         Object signature[] = new Object[indices.length];
         for (int i = 0; i < indices.length; ++i)
             signature[i] = original.get(indices[i]);
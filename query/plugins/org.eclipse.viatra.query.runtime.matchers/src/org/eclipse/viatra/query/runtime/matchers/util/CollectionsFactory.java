@@ -10,35 +10,31 @@
  *******************************************************************************/
 package org.eclipse.viatra.query.runtime.matchers.util;
 
-//import gnu.trove.map.hash.THashMap;
-//import gnu.trove.set.hash.THashSet;
-//import it.unimi.dsi.fastutil.objects.Object2ReferenceOpenHashMap;
-//import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
-
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
-//import javolution.util.FastMap;
-//import javolution.util.FastSet;
-
-//import org.apache.commons.collections.map.HashedMap;
-//import org.apache.commons.collections.set.MapBackedSet;
-//import org.eclipse.incquery.runtime.rete.collections.hppc.HPPCHashMap;
-//import org.eclipse.incquery.runtime.rete.collections.hppc.HPPCHashSet;
-
-//import com.gs.collections.impl.map.mutable.UnifiedMap;
-//import com.gs.collections.impl.set.mutable.UnifiedSet;
-
 /**
  * @author istvanrath
  * Factory class used as an accessor to Collections implementations.
+ * 
+ * <p> Since 1.7, the actual collections implementation is pluggable via {@link ICollectionsFramework}; 
+ * the static accessors without a framework parameter use {@link #DEFAULT_FRAMEWORK}.
+ * Engine-specific frameworks can be selected for the query engine and the base index, 
+ * see <code>ViatraQueryEngineOptions</code> and <code>BaseIndexOptions</code>.  
  */
 public class CollectionsFactory
 {
 
+    /**
+     * @deprecated alternative collection libraries are no longer selected through this enum; 
+     *  implement {@link ICollectionsFramework} instead.
+     */
+    @Deprecated
     public enum CollectionsFramework {
         Java,
         HPPC,
@@ -49,34 +45,122 @@ public class CollectionsFactory
         Javolution
     }
     
+    /**
+     * @deprecated has no effect; select an {@link ICollectionsFramework} per engine instead.
+     */
+    @Deprecated
     public static CollectionsFramework mode = CollectionsFramework.Java;
     
-    public static <K,V> Map<K,V> getMap() {
-        switch (mode) {
-        default:
-        case Java: return new HashMap<K, V>();
-//        case HPPC: return new HPPCHashMap<K, V>(); // non-thread-safe
-//        case GS: return new UnifiedMap<K,V>();
-//        case FastUtil: return new Object2ReferenceOpenHashMap<K,V>();
-//        case Trove: return new THashMap<K, V>();
-//        case Apache: 
-//            return new HashedMap(); // non-thread-safe
-//            //return new StaticBucketMap(100000); // non-thread-safe
-//        case Javolution: return new FastMap<K, V>();
+    /**
+     * Hash-based collections of the Java Collections Framework.
+     * @since 1.7
+     */
+    public static final ICollectionsFramework JAVA_FRAMEWORK = new ICollectionsFramework() {
+        @Override
+        public <K, V> Map<K, V> createMap() {
+            return new HashMap<K, V>();
+        }
+
+        @Override
+        public <E> Set<E> createSet() {
+            return new HashSet<E>();
+        }
+
+        @Override
+        public <K, V> Map<K, V> createMap(int expectedSize) {
+            return new HashMap<K, V>(capacityFor(expectedSize));
+        }
+
+        @Override
+        public <E> Set<E> createSet(int expectedSize) {
+            return new HashSet<E>(capacityFor(expectedSize));
+        }
+        
+        @Override
+        public String toString() {
+            return "Java";
         }
+    };
+    
+    /**
+     * Linked hash-based collections of the Java Collections Framework. 
+     * Spends an additional pair of references per entry in exchange for deterministic (insertion-ordered) iteration, 
+     * which makes engine behaviour reproducible between runs, e.g. for debugging and testing.
+     * @since 1.7
+     */
+    public static final ICollectionsFramework LINKED_FRAMEWORK = new ICollectionsFramework() {
+        @Override
+        public <K, V> Map<K, V> createMap() {
+            return new LinkedHashMap<K, V>();
+        }
+
+        @Override
+        public <E> Set<E> createSet() {
+            return new LinkedHashSet<E>();
+        }
+
+        @Override
+        public <K, V> Map<K, V> createMap(int expectedSize) {
+            return new LinkedHashMap<K, V>(capacityFor(expectedSize));
+        }
+
+        @Override
+        public <E> Set<E> createSet(int expectedSize) {
+            return new LinkedHashSet<E>(capacityFor(expectedSize));
+        }
+        
+        @Override
+        public String toString() {
+            return "Linked";
+        }
+    };
+    
+    /**
+     * Open-addressing hash collections that store keys and values in flat arrays, with the hash codes of the keys in a
+     * primitive <code>int</code> array. Unlike the Java Collections Framework, no entry object is allocated per
+     * mapping, which reduces the footprint of the many small maps and sets of the Rete network and the base index. Null
+     * keys and elements are not supported.
+     * @since 1.7
+     */
+    public static final ICollectionsFramework OPEN_ADDRESSING_FRAMEWORK = new ICollectionsFramework() {
+        @Override
+        public <K, V> Map<K, V> createMap() {
+            return new OpenHashMap<K, V>(0);
+        }
+
+        @Override
+        public <E> Set<E> createSet() {
+            return new OpenHashSet<E>(0);
+        }
+
+        @Override
+        public <K, V> Map<K, V> createMap(int expectedSize) {
+            return new OpenHashMap<K, V>(expectedSize);
+        }
+
+        @Override
+        public <E> Set<E> createSet(int expectedSize) {
+            return new OpenHashSet<E>(expectedSize);
+        }
+        
+        @Override
+        public String toString() {
+            return "OpenAddressing";
+        }
+    };
+    
+    /**
+     * The framework used if no other framework is selected.
+     * @since 1.7
+     */
+    public static final ICollectionsFramework DEFAULT_FRAMEWORK = JAVA_FRAMEWORK;
+    
+    public static <K,V> Map<K,V> getMap() {
+        return DEFAULT_FRAMEWORK.createMap();
     }
     
     public static <E> Set<E> getSet() {
-        switch (mode) {
-        default:
-        case Java: return new HashSet<E>();
-//        case GS: return new UnifiedSet<E>();
-//        case FastUtil: return new ObjectOpenHashSet<E>();
-//        case Trove: return new THashSet<E>();
-//        case Apache: return MapBackedSet.decorate(getMap());
-//        case Javolution: return new FastSet<E>();
-        //  case HPPC: return new HPPCHashSet<E>();
-        }
+        return DEFAULT_FRAMEWORK.createSet();
     }
  
     public static <E> Set<E> getSet(Collection<E> initial) {
@@ -85,4 +169,49 @@ public class CollectionsFactory
         return r;
     }
     
-}
\ No newline at end of file
+    /**
+     * @param framework the collections framework to use; if null, {@link #DEFAULT_FRAMEWORK} is used
+     * @since 1.7
+     */
+    public static <K,V> Map<K,V> getMap(ICollectionsFramework framework) {
+        return orDefault(framework).createMap();
+    }
+    
+    /**
+     * @param framework the collections framework to use; if null, {@link #DEFAULT_FRAMEWORK} is used
+     * @since 1.7
+     */
+    public static <E> Set<E> getSet(ICollectionsFramework framework) {
+        return orDefault(framework).createSet();
+    }
+    
+    /**
+     * @param framework the collections framework to use; if null, {@link #DEFAULT_FRAMEWORK} is used
+     * @since 1.7
+     */
+    public static <E> Set<E> getSet(ICollectionsFramework framework, Collection<E> initial) {
+        Set<E> r = getSet(framework);
+        r.addAll(initial);
+        return r;
+    }
+    
+    /**
+     * @return the given framework, or {@link #DEFAULT_FRAMEWORK} if null
+     * @since 1.7
+     */
+    public static ICollectionsFramework orDefault(ICollectionsFramework framework) {
+        return framework == null ? DEFAULT_FRAMEWORK : framework;
+    }
+
+    /**
+     * @return the initial capacity of a hash-based collection of the Java Collections Framework that holds the given
+     *         number of entries without rehashing, at the default load factor
+     */
+    private static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        return expectedSize < 3 ? expectedSize + 1 : (int) Math.min(expectedSize / 0.75 + 1, Integer.MAX_VALUE);
+    }
+    
+}
@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.util;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service provider interface for the collections implementation used by the Rete network and the base index to store
+ * their internal state.
+ * 
+ * <p>
+ * Implementations may trade memory for speed (e.g. by relying on open-addressing or primitive-specialized collection
+ * libraries), but must adhere to the contracts of {@link Map} and {@link Set}, including null-free operation with
+ * equality defined by {@link Object#equals(Object)}. Iteration order is not specified.
+ * 
+ * <p>
+ * Built-in implementations are available from {@link CollectionsFactory}.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface ICollectionsFramework {
+
+    /**
+     * @return a new, empty, mutable map
+     */
+    <K, V> Map<K, V> createMap();
+
+    /**
+     * @return a new, empty, mutable set
+     */
+    <E> Set<E> createSet();
+
+    /**
+     * @param expectedSize
+     *            the number of entries the map is expected to hold; the map may be sized accordingly to avoid growing
+     *            while it is filled, but must accept any number of entries
+     * @return a new, empty, mutable map
+     */
+    <K, V> Map<K, V> createMap(int expectedSize);
+
+    /**
+     * @param expectedSize
+     *            the number of elements the set is expected to hold; the set may be sized accordingly to avoid growing
+     *            while it is filled, but must accept any number of elements
+     * @return a new, empty, mutable set
+     */
+    <E> Set<E> createSet(int expectedSize);
+
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Hash map that stores its keys and values in an {@link OpenHashTable}, without an entry object per mapping. Null keys
+ * are not supported.
+ *
+ * @author agent
+ * @since 1.7
+ * @see CollectionsFactory#OPEN_ADDRESSING_FRAMEWORK
+ */
+final class OpenHashMap<K, V> extends AbstractMap<K, V> {
+
+    private final OpenHashTable table;
+
+    OpenHashMap(int expectedSize) {
+        table = new OpenHashTable(2, expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return table.find(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int slot = table.find(key);
+        return slot < 0 ? null : (V) table.valueAt(slot);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int slot = table.find(key);
+        if (slot >= 0) {
+            V oldValue = (V) table.valueAt(slot);
+            table.setValueAt(slot, value);
+            return oldValue;
+        }
+        table.setValueAt(table.insert(key), value);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int slot = table.find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V oldValue = (V) table.valueAt(slot);
+        table.removeAt(slot);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return table.size();
+            }
+
+            @Override
+            public void clear() {
+                table.clear();
+            }
+        };
+    }
+
+    /**
+     * Entry of a slot, reading and writing the table directly.
+     */
+    private final class SlotEntry implements Map.Entry<K, V> {
+        private final int slot;
+        private final K key;
+
+        SlotEntry(int slot, K key) {
+            this.slot = slot;
+            this.key = key;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return table.keyAt(slot) == key ? (V) table.valueAt(slot) : OpenHashMap.this.get(key);
+        }
+
+        @Override
+        public V setValue(V value) {
+            if (table.keyAt(slot) != key) {
+                throw new IllegalStateException("The entry was removed from the map");
+            }
+            V oldValue = getValue();
+            table.setValueAt(slot, value);
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            V value = getValue();
+            return key.equals(other.getKey())
+                    && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            V value = getValue();
+            return key.hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        int nextSlot = table.nextSlot(0);
+        int lastSlot = -1;
+        int expectedModCount = table.modCount;
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot >= 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (expectedModCount != table.modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextSlot < 0) {
+                throw new NoSuchElementException();
+            }
+            lastSlot = nextSlot;
+            nextSlot = table.nextSlot(nextSlot + 1);
+            return new SlotEntry(lastSlot, (K) table.keyAt(lastSlot));
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot < 0) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != table.modCount) {
+                throw new ConcurrentModificationException();
+            }
+            table.removeAt(lastSlot);
+            lastSlot = -1;
+            expectedModCount = table.modCount;
+        }
+    }
+
+}
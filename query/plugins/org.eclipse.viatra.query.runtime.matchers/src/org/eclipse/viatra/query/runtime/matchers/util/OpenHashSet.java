@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.util;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash set that stores its elements in an {@link OpenHashTable}, without an entry object per element. Null elements
+ * are not supported.
+ *
+ * @author agent
+ * @since 1.7
+ * @see CollectionsFactory#OPEN_ADDRESSING_FRAMEWORK
+ */
+final class OpenHashSet<E> extends AbstractSet<E> {
+
+    private final OpenHashTable table;
+
+    OpenHashSet(int expectedSize) {
+        table = new OpenHashTable(1, expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return table.find(o) >= 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (table.find(e) >= 0) {
+            return false;
+        }
+        table.insert(e);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int slot = table.find(o);
+        if (slot < 0) {
+            return false;
+        }
+        table.removeAt(slot);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            int nextSlot = table.nextSlot(0);
+            int lastSlot = -1;
+            int expectedModCount = table.modCount;
+
+            @Override
+            public boolean hasNext() {
+                return nextSlot >= 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (expectedModCount != table.modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (nextSlot < 0) {
+                    throw new NoSuchElementException();
+                }
+                lastSlot = nextSlot;
+                nextSlot = table.nextSlot(nextSlot + 1);
+                return (E) table.keyAt(lastSlot);
+            }
+
+            @Override
+            public void remove() {
+                if (lastSlot < 0) {
+                    throw new IllegalStateException();
+                }
+                if (expectedModCount != table.modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                table.removeAt(lastSlot);
+                lastSlot = -1;
+                expectedModCount = table.modCount;
+            }
+        };
+    }
+
+}
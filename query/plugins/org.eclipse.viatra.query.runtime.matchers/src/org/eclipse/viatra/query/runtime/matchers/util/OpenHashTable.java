@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.matchers.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table with linear probing, shared by {@link OpenHashMap} and {@link OpenHashSet}.
+ *
+ * <p>
+ * Each slot occupies <code>stride</code> consecutive cells of a single object array: the key, followed by the value
+ * for maps. The spread hash codes of the keys are kept in a parallel <code>int</code> array, so that probing and
+ * rehashing do not dereference the keys. No objects are allocated per entry. Removed keys are replaced by a tombstone,
+ * which keeps the other entries in place while they are iterated; tombstones are purged when the table is rehashed.
+ *
+ * @author agent
+ * @since 1.7
+ */
+final class OpenHashTable {
+
+    private static final Object REMOVED = new Object();
+    private static final int MIN_CAPACITY = 4;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final int stride;
+    private Object[] cells;
+    private int[] hashes;
+    /**
+     * Number of live keys.
+     */
+    private int size;
+    /**
+     * Number of slots that are not empty, i.e. live keys and tombstones.
+     */
+    private int occupied;
+    private int threshold;
+    /**
+     * Incremented on each structural change; used to detect concurrent modification by iterators.
+     */
+    int modCount;
+
+    /**
+     * @param stride
+     *            the number of cells per slot: 1 for sets, 2 for maps
+     */
+    OpenHashTable(int stride, int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+        this.stride = stride;
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int required = (int) Math.min(Math.ceil(expectedSize / LOAD_FACTOR) + 1, 1 << 30);
+        int capacity = MIN_CAPACITY;
+        while (capacity < required) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        cells = new Object[capacity * stride];
+        hashes = new int[capacity];
+        threshold = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+        occupied = size;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the slot of the given key, or -1 if it is not present
+     */
+    int find(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        final int hash = spread(key.hashCode());
+        final int mask = hashes.length - 1;
+        int slot = hash & mask;
+        Object current;
+        while ((current = cells[slot * stride]) != null) {
+            if (current == key || (current != REMOVED && hashes[slot] == hash && current.equals(key))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts a key known not to be present.
+     *
+     * @return the slot of the inserted key
+     * @throws NullPointerException
+     *             if the key is null
+     */
+    int insert(Object key) {
+        if (key == null) {
+            throw new NullPointerException("Null keys are not supported");
+        }
+        if (occupied >= threshold) {
+            // grow if mostly live keys, otherwise only purge the tombstones
+            rehash(size >= threshold / 2 ? hashes.length << 1 : hashes.length);
+        }
+        final int hash = spread(key.hashCode());
+        final int mask = hashes.length - 1;
+        int slot = hash & mask;
+        Object current;
+        while ((current = cells[slot * stride]) != null && current != REMOVED) {
+            slot = (slot + 1) & mask;
+        }
+        if (current == null) {
+            occupied++;
+        }
+        cells[slot * stride] = key;
+        hashes[slot] = hash;
+        size++;
+        modCount++;
+        return slot;
+    }
+
+    private void rehash(int newCapacity) {
+        Object[] oldCells = cells;
+        int[] oldHashes = hashes;
+        allocate(newCapacity);
+        final int mask = newCapacity - 1;
+        for (int oldSlot = 0; oldSlot < oldHashes.length; oldSlot++) {
+            Object key = oldCells[oldSlot * stride];
+            if (key != null && key != REMOVED) {
+                int slot = oldHashes[oldSlot] & mask;
+                while (cells[slot * stride] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                System.arraycopy(oldCells, oldSlot * stride, cells, slot * stride, stride);
+                hashes[slot] = oldHashes[oldSlot];
+            }
+        }
+    }
+
+    /**
+     * Removes the key (and value) at the given slot, leaving a tombstone.
+     */
+    void removeAt(int slot) {
+        cells[slot * stride] = REMOVED;
+        for (int i = 1; i < stride; i++) {
+            cells[slot * stride + i] = null;
+        }
+        size--;
+        modCount++;
+    }
+
+    void clear() {
+        if (occupied > 0) {
+            Arrays.fill(cells, null);
+            size = 0;
+            occupied = 0;
+            modCount++;
+        }
+    }
+
+    Object keyAt(int slot) {
+        return cells[slot * stride];
+    }
+
+    Object valueAt(int slot) {
+        return cells[slot * stride + 1];
+    }
+
+    void setValueAt(int slot, Object value) {
+        cells[slot * stride + 1] = value;
+    }
+
+    /**
+     * @return the first slot holding a live key at or after the given one, or -1 if there is none
+     */
+    int nextSlot(int from) {
+        for (int slot = from; slot < hashes.length; slot++) {
+            Object key = cells[slot * stride];
+            if (key != null && key != REMOVED) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -118,6 +118,24 @@ public class RecipeRecognizer {
         return knownRecipe;
     }
 
+    /**
+     * Forgets the given recipe if it is a canonical recipe, e.g. because the node built for it has been discarded.
+     * Equivalent recipes encountered later will be made canonical instead.
+     * 
+     * @since 1.7
+     */
+    public void forgetCanonicalRecipe(final ReteNodeRecipe recipe) {
+        for (Long classID : recipe.getEquivalenceClassIDs()) {
+            if (canonicalRecipeByEquivalenceClassID.get(classID) == recipe) {
+                canonicalRecipeByEquivalenceClassID.remove(classID);
+            }
+        }
+        Set<ReteNodeRecipe> sameClassRecipes = canonicalRecipesByClass.get(recipe.eClass());
+        if (sameClassRecipes != null) {
+            sameClassRecipes.remove(recipe);
+        }
+    }
+
     /**
      * @return true iff recipe is a canonical recipe
      */
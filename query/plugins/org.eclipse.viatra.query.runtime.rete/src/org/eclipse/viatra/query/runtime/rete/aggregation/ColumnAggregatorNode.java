@@ -22,7 +22,6 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.aggregations.IMultisetA
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.index.Indexer;
 import org.eclipse.viatra.query.runtime.rete.index.StandardIndexer;
 import org.eclipse.viatra.query.runtime.rete.network.DefaultMailbox;
@@ -34,8 +33,10 @@ import org.eclipse.viatra.query.runtime.rete.network.Node;
 import org.eclipse.viatra.query.runtime.rete.network.Receiver;
 import org.eclipse.viatra.query.runtime.rete.network.RederivableNode;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.StatefulNode;
 import org.eclipse.viatra.query.runtime.rete.single.SingleInputNode;
 import org.eclipse.viatra.query.runtime.rete.tuple.Clearable;
+import org.eclipse.viatra.query.runtime.rete.util.MemoryEstimates;
 
 /**
  * Groups incoming tuples by the given mask, and aggregates values at a specific index in each group.
@@ -49,7 +50,7 @@ import org.eclipse.viatra.query.runtime.rete.tuple.Clearable;
  * @since 1.4
  */
 public class ColumnAggregatorNode<Domain, Accumulator, AggregateResult> extends SingleInputNode
-        implements Clearable, IAggregatorNode, RederivableNode, MonotonicityAwareReceiver {
+        implements Clearable, IAggregatorNode, RederivableNode, MonotonicityAwareReceiver, StatefulNode {
 
     /**
      * @since 1.6
@@ -121,8 +122,8 @@ public class ColumnAggregatorNode<Domain, Accumulator, AggregateResult> extends
         this.operator = operator;
         this.groupMask = groupMask;
         this.columnMask = columnMask;
-        this.memory = CollectionsFactory.getMap();
-        this.rederivableMemory = CollectionsFactory.getMap();
+        this.memory = reteContainer.getCollectionsFramework().createMap();
+        this.rederivableMemory = reteContainer.getCollectionsFramework().createMap();
         this.deleteRederiveEvaluation = deleteRederiveEvaluation;
         this.posetComparator = posetComparator;
         this.mailbox = instantiateMailbox();
@@ -174,6 +175,30 @@ public class ColumnAggregatorNode<Domain, Accumulator, AggregateResult> extends
         return posetComparator;
     }
 
+    /**
+     * @since 1.7
+     */
+    @Override
+    public int getStoredTupleCount() {
+        return memory.size() + rederivableMemory.size();
+    }
+
+    /**
+     * Estimates the memory of the node based on the number of groups, assuming small accumulators.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public long getEstimatedMemory() {
+        int groups = getStoredTupleCount();
+        if (groups == 0) {
+            return 0;
+        }
+        Tuple sample = memory.isEmpty() ? rederivableMemory.keySet().iterator().next()
+                : memory.keySet().iterator().next();
+        return groups * (MemoryEstimates.HASH_MAP_ENTRY + MemoryEstimates.tuple(sample) + MemoryEstimates.object(8));
+    }
+
     @Override
     public void pullInto(Collection<Tuple> collector) {
         // DIRECT CHILDREN NOT SUPPORTED
@@ -16,10 +16,10 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.index.DefaultIndexerListener;
 import org.eclipse.viatra.query.runtime.rete.index.Indexer;
 import org.eclipse.viatra.query.runtime.rete.index.ProjectionIndexer;
@@ -43,6 +43,8 @@ public abstract class IndexerBasedAggregatorNode extends StandardNode implements
     IndexerBasedAggregatorNode me;
     int sourceWidth;
     Map<Tuple, Object> mainAggregates;
+    // aggregates are stored as computed, and wrapped when packed into result tuples
+    private final IQueryRuntimeContext runtimeContext;
 
     AggregatorOuterIndexer aggregatorOuterIndexer = null;
     AggregatorOuterIdentityIndexer[] aggregatorOuterIdentityIndexers = null;
@@ -53,8 +55,9 @@ public abstract class IndexerBasedAggregatorNode extends StandardNode implements
     public IndexerBasedAggregatorNode(ReteContainer reteContainer) {
         super(reteContainer);
         this.me = this;
+        this.runtimeContext = reteContainer.getNetwork().getEngine().getRuntimeContext();
         mainAggregates = //new HashMap<Tuple, Object>();
-                CollectionsFactory.getMap();
+                reteContainer.getCollectionsFramework().createMap();
     }
     
     /**
@@ -126,7 +129,7 @@ public abstract class IndexerBasedAggregatorNode extends StandardNode implements
     }
 
     protected Tuple packResult(Tuple signature, Object result) {
-        return Tuples.staticArityLeftInheritanceTupleOf(signature, result);
+        return Tuples.staticArityLeftInheritanceTupleOf(signature, runtimeContext.wrapElement(result));
     }
 
     protected void aggregateUpdate(Direction direction, Tuple updateElement, Tuple signature, boolean change) {
@@ -264,7 +267,7 @@ public abstract class IndexerBasedAggregatorNode extends StandardNode implements
         public Collection<Tuple> get(Tuple signatureWithResult) {
             Tuple prunedSignature = pruneResult.transform(signatureWithResult);
             Object result = getAggregate(prunedSignature);
-            if (signatureWithResult.get(resultPositionInSignature).equals(result))
+            if (signatureWithResult.get(resultPositionInSignature).equals(runtimeContext.wrapElement(result)))
                 return Collections.singleton(signatureWithResult);
             else
                 return null;
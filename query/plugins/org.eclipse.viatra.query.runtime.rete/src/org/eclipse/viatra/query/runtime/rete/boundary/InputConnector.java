@@ -39,17 +39,17 @@ public final class InputConnector {
 //     * arity:1 used as simple entity constraints label is the object representing the type null label means all entities
 //     * regardless of type (global supertype), if allowed
 //     */
-//    protected Map<Object, Address<? extends Tunnel>> unaryRoots = CollectionsFactory.getMap();
+//    protected Map<Object, Address<? extends Tunnel>> unaryRoots = network.getCollectionsFramework().createMap();
 //    /*
 //     * arity:3 (rel, from, to) used as VPM relation constraints null label means all relations regardless of type
 //     * (global supertype)
 //     */
-//    protected Map<Object, Address<? extends Tunnel>> ternaryEdgeRoots = CollectionsFactory.getMap();
+//    protected Map<Object, Address<? extends Tunnel>> ternaryEdgeRoots = network.getCollectionsFramework().createMap();
 //    /*
 //     * arity:2 (from, to) not used over VPM; can be used as EMF references for instance label is the object representing
 //     * the type null label means all entities regardless of type if allowed (global supertype), if allowed
 //     */
-//    protected Map<Object, Address<? extends Tunnel>> binaryEdgeRoots = CollectionsFactory.getMap();
+//    protected Map<Object, Address<? extends Tunnel>> binaryEdgeRoots = network.getCollectionsFramework().createMap();
 //	
 //    protected Address<? extends Tunnel> containmentRoot = null;
 //    protected Address<? extends Supplier> containmentTransitiveRoot = null;
@@ -200,6 +200,16 @@ public final class InputConnector {
         return externalInputRoots.get(inputKey, seed);
     }
 
+    /**
+     * Forgets the given input node, so that a new one is created the next time its input is requested. The node is
+     * not disconnected from the query runtime context.
+     * 
+     * @since 1.7
+     */
+    public void removeExternalInputNode(ExternalInputEnumeratorNode inputNode) {
+        externalInputRoots.remove(inputNode.getInputKey(), inputNode.getGlobalSeed());
+    }
+
 
     Tuple nopSeed(IInputKey inputKey) {
         return Tuples.flatTupleOf(new Object[inputKey.getArity()]);
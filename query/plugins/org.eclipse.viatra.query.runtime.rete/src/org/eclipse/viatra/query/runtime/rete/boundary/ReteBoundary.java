@@ -19,7 +19,6 @@ import org.eclipse.viatra.query.runtime.matchers.planning.QueryProcessingExcepti
 import org.eclipse.viatra.query.runtime.matchers.planning.SubPlan;
 import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.matcher.ReteEngine;
 import org.eclipse.viatra.query.runtime.rete.network.Direction;
 import org.eclipse.viatra.query.runtime.rete.network.Network;
@@ -72,10 +71,10 @@ public class ReteBoundary /*implements IPatternMatcherRuntimeContextListener*/ {
         this.headContainer = network.getHeadContainer();
         inputConnector = network.getInputConnector();
 
-        this.parentPlansOfReceiver = CollectionsFactory.getMap();//new HashMap<Address<? extends Receiver>, Set<SubPlan<Address<? extends Supplier>>>>();
+        this.parentPlansOfReceiver = network.getCollectionsFramework().createMap();//new HashMap<Address<? extends Receiver>, Set<SubPlan<Address<? extends Supplier>>>>();
 
         // productionsScoped = new HashMap<GTPattern, Map<Map<Integer,Scope>,Address<? extends Production>>>();
-        subplanToAddressMapping = CollectionsFactory.getMap();
+        subplanToAddressMapping = network.getCollectionsFramework().createMap();
 
     }
 
@@ -74,13 +74,13 @@ public class BasicLinearLayout implements IQueryPlannerStrategy {
             // STARTING THE LINE
             SubPlan plan = planFactory.createSubPlan(new PStart());
 
-            Set<PConstraint> pQueue = CollectionsFactory.getSet(pSystem.getConstraints());//new HashSet<PConstraint>(pSystem.getConstraints()); // TreeSet<PConstraint>(new
+            Set<PConstraint> pQueue = CollectionsFactory.getSet(bContext.getCollectionsFramework(), pSystem.getConstraints());//new HashSet<PConstraint>(pSystem.getConstraints()); // TreeSet<PConstraint>(new
                                                                                           // OrderingHeuristics());
 
             // MAIN LOOP
             while (!pQueue.isEmpty()) {
                 PConstraint pConstraint = Collections.min(pQueue,
-                        new OrderingHeuristics(plan, context)); // pQueue.iterator().next();
+                        new OrderingHeuristics(plan, context, bContext.getCollectionsFramework())); // pQueue.iterator().next();
                 pQueue.remove(pConstraint);
 
                 // if we have no better option than an unready deferred constraint, raise error
@@ -162,7 +162,7 @@ public class BasicLinearLayout implements IQueryPlannerStrategy {
         }
     }
     private void raiseForeverDeferredError(VariableDeferredPConstraint constraint, SubPlan plan) throws RetePatternBuildException {
-        Set<PVariable> missing = CollectionsFactory.getSet(constraint.getDeferringVariables());//new HashSet<PVariable>(getDeferringVariables());
+        Set<PVariable> missing = CollectionsFactory.getSet(bContext.getCollectionsFramework(), constraint.getDeferringVariables());//new HashSet<PVariable>(getDeferringVariables());
         missing.removeAll(plan.getVisibleVariables());
         String[] args = { toString(), Arrays.toString(missing.toArray()) };
         String msg = "The checking of pattern constraint {1} requires the values of variables {2}, but it cannot be deferred further. "
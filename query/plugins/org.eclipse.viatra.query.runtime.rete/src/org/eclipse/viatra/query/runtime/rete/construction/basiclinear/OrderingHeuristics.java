@@ -22,6 +22,7 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.PConstraint;
 import org.eclipse.viatra.query.runtime.matchers.psystem.PVariable;
 import org.eclipse.viatra.query.runtime.matchers.psystem.basicenumerables.ConstantValue;
 import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 import org.eclipse.viatra.query.runtime.rete.util.OrderingCompareAgent;
 
 /**
@@ -31,14 +32,24 @@ import org.eclipse.viatra.query.runtime.rete.util.OrderingCompareAgent;
 public class OrderingHeuristics implements Comparator<PConstraint> {
     private SubPlan plan;
     private IQueryMetaContext context;
+    private ICollectionsFramework collections;
 
     /**
      * @param plan
      */
     public OrderingHeuristics(SubPlan plan, IQueryMetaContext context) {
+        this(plan, context, null);
+    }
+
+    /**
+     * @param collections the collections framework of the engine; if null, the default framework is used
+     * @since 1.7
+     */
+    public OrderingHeuristics(SubPlan plan, IQueryMetaContext context, ICollectionsFramework collections) {
         super();
         this.plan = plan;
         this.context = context;
+        this.collections = collections;
     }
 
     @Override
@@ -75,7 +86,7 @@ public class OrderingHeuristics implements Comparator<PConstraint> {
     }
 
     Set<PVariable> boundVariables(PConstraint o) {
-        Set<PVariable> boundVariables = CollectionsFactory.getSet(o.getAffectedVariables());//new HashSet<PVariable>(o.getAffectedVariables());
+        Set<PVariable> boundVariables = CollectionsFactory.getSet(collections, o.getAffectedVariables());//new HashSet<PVariable>(o.getAffectedVariables());
         boundVariables.retainAll(plan.getVisibleVariables());
         return boundVariables;
     }
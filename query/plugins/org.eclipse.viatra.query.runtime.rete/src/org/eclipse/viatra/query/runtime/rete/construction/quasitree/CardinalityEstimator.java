@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.construction.quasitree;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
+import org.eclipse.viatra.query.runtime.matchers.context.IInputKey;
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.context.IndexingService;
+import org.eclipse.viatra.query.runtime.matchers.planning.SubPlan;
+import org.eclipse.viatra.query.runtime.matchers.planning.operations.PEnumerate;
+import org.eclipse.viatra.query.runtime.matchers.planning.operations.PJoin;
+import org.eclipse.viatra.query.runtime.matchers.psystem.EnumerablePConstraint;
+import org.eclipse.viatra.query.runtime.matchers.psystem.PVariable;
+import org.eclipse.viatra.query.runtime.matchers.psystem.basicenumerables.TypeConstraint;
+
+/**
+ * Estimates the number of tuples produced by subplans, based on the statistics of input keys that are already indexed
+ * by the runtime context. Estimates are not available (null) if any of the involved input keys are not indexed yet;
+ * this estimator never initiates indexing.
+ *
+ * <p>
+ * Joins along an edge (a binary input key) are estimated using its degree statistics (see
+ * {@link IQueryRuntimeContext#getDegreeStatistics(IInputKey)}); other joins are estimated by the smaller of the two
+ * operands.
+ *
+ * @author agent
+ */
+class CardinalityEstimator {
+
+    private final IQueryRuntimeContext runtimeContext;
+    private final Map<SubPlan, Double> estimates = new HashMap<SubPlan, Double>();
+
+    CardinalityEstimator(IQueryRuntimeContext runtimeContext) {
+        this.runtimeContext = runtimeContext;
+    }
+
+    /**
+     * @return the estimated number of tuples of the plan, or null if unknown
+     */
+    Double estimate(SubPlan plan) {
+        if (estimates.containsKey(plan)) {
+            return estimates.get(plan);
+        }
+        Double estimate = null;
+        if (plan.getOperation() instanceof PEnumerate) {
+            TypeConstraint edge = getTypeConstraint(plan);
+            if (edge != null && isIndexed(edge.getSupplierKey())) {
+                estimate = (double) runtimeContext.countTuples(edge.getSupplierKey(), null);
+            }
+        } else if (plan.getOperation() instanceof PJoin) {
+            estimate = estimateJoin(plan.getParentPlans().get(0), plan.getParentPlans().get(1));
+        } else if (plan.getParentPlans().size() == 1) {
+            // filtering, projection, trimming
+            estimate = estimate(plan.getParentPlans().get(0));
+        }
+        estimates.put(plan, estimate);
+        return estimate;
+    }
+
+    /**
+     * @return the estimated number of tuples of joining the two plans, or null if unknown
+     */
+    Double estimateJoin(SubPlan primary, SubPlan secondary) {
+        Double primaryEstimate = estimate(primary);
+        Double secondaryEstimate = estimate(secondary);
+        if (primaryEstimate == null || secondaryEstimate == null) {
+            return null;
+        }
+        Set<PVariable> common = new HashSet<PVariable>(primary.getVisibleVariables());
+        common.retainAll(secondary.getVisibleVariables());
+        if (common.isEmpty()) {
+            return primaryEstimate * secondaryEstimate;
+        }
+        Double fanOut = estimateFanOut(secondary, common);
+        if (fanOut != null) {
+            return primaryEstimate * fanOut;
+        }
+        fanOut = estimateFanOut(primary, common);
+        if (fanOut != null) {
+            return secondaryEstimate * fanOut;
+        }
+        return Math.min(primaryEstimate, secondaryEstimate);
+    }
+
+    /**
+     * @return the expected number of edges adjacent to a tuple of the other operand, if the plan is a single edge
+     *         joined at one of its ends; null otherwise
+     */
+    private Double estimateFanOut(SubPlan edgePlan, Set<PVariable> common) {
+        SubPlan leaf = edgePlan;
+        while (!(leaf.getOperation() instanceof PEnumerate) && leaf.getParentPlans().size() == 1) {
+            leaf = leaf.getParentPlans().get(0);
+        }
+        TypeConstraint edge = getTypeConstraint(leaf);
+        if (edge == null || edge.getSupplierKey().getArity() != 2) {
+            return null;
+        }
+        PVariable source = edge.getVariableInTuple(0);
+        PVariable target = edge.getVariableInTuple(1);
+        if (source.equals(target) || common.size() != 1) {
+            return null;
+        }
+        DegreeStatistics degrees = runtimeContext.getDegreeStatistics(edge.getSupplierKey());
+        if (degrees == null) {
+            return null;
+        } else if (common.equals(Collections.singleton(source))) {
+            return degrees.getAverageOutDegree() * degrees.getOutDegreeSkew();
+        } else if (common.equals(Collections.singleton(target))) {
+            return degrees.getAverageInDegree() * degrees.getInDegreeSkew();
+        } else {
+            return null;
+        }
+    }
+
+    private TypeConstraint getTypeConstraint(SubPlan plan) {
+        if (plan.getOperation() instanceof PEnumerate) {
+            EnumerablePConstraint constraint = ((PEnumerate) plan.getOperation()).getEnumerablePConstraint();
+            if (constraint instanceof TypeConstraint && ((TypeConstraint) constraint).getSupplierKey().isEnumerable()) {
+                return (TypeConstraint) constraint;
+            }
+        }
+        return null;
+    }
+
+    private boolean isIndexed(IInputKey key) {
+        return runtimeContext.isIndexed(key, IndexingService.STATISTICS)
+                || runtimeContext.isIndexed(key, IndexingService.INSTANCES);
+    }
+
+}
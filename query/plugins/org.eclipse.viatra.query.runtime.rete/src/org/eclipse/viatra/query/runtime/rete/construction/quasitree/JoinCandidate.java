@@ -25,6 +25,7 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.PConstraint;
 import org.eclipse.viatra.query.runtime.matchers.psystem.PVariable;
 import org.eclipse.viatra.query.runtime.matchers.psystem.analysis.QueryAnalyzer;
 import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 
 import com.google.common.collect.Sets;
 
@@ -46,15 +47,21 @@ class JoinCandidate {
     List<PConstraint> consSecondary;
     
 
-    JoinCandidate(SubPlan primary, SubPlan secondary, QueryAnalyzer analyzer) {
+    private CardinalityEstimator estimator;
+    private Double estimatedSize;
+    private boolean estimated;
+
+    JoinCandidate(SubPlan primary, SubPlan secondary, QueryAnalyzer analyzer, CardinalityEstimator estimator,
+            ICollectionsFramework collections) {
         super();
         this.primary = primary;
         this.secondary = secondary;
         this.analyzer = analyzer;
+        this.estimator = estimator;
 
         varPrimary = getPrimary().getVisibleVariables();
         varSecondary = getSecondary().getVisibleVariables();
-        varCommon = CollectionsFactory.getSet(varPrimary);
+        varCommon = CollectionsFactory.getSet(collections, varPrimary);
         varCommon.retainAll(varSecondary);
         
         consPrimary = new ArrayList<PConstraint>(primary.getAllEnforcedConstraints());
@@ -142,6 +149,17 @@ class JoinCandidate {
         return Collections.disjoint(varPrimary, varSecondary);
     }
 
+    /**
+     * @return the estimated number of tuples produced by the join, or null if unknown
+     */
+    public Double getEstimatedSize() {
+        if (!estimated) {
+            estimatedSize = (estimator == null) ? null : estimator.estimateJoin(primary, secondary);
+            estimated = true;
+        }
+        return estimatedSize;
+    }
+
     private Boolean heath;
 
     // it is a Heath-join iff common variables functionally determine either all primary or all secondary variables
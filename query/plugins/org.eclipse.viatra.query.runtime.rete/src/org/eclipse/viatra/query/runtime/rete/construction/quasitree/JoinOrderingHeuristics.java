@@ -38,6 +38,7 @@ public class JoinOrderingHeuristics implements Comparator<JoinCandidate> {
                         && consider(preferFalse(a.isDescartes(), b.isDescartes()))
 
                         // TODO main heuristic decisions
+                        && consider(preferSmallerEstimate(a.getEstimatedSize(), b.getEstimatedSize()))
 
                         // tie breaking
                         && consider(preferLess(a.getConsPrimary(), b.getConsPrimary(), TieBreaker.CONSTRAINT_LIST_COMPARATOR))
@@ -48,4 +49,14 @@ public class JoinOrderingHeuristics implements Comparator<JoinCandidate> {
 
     }
 
+    /**
+     * Size estimates are only compared if both are known, see {@link CardinalityEstimator}.
+     */
+    private static int preferSmallerEstimate(Double estimate1, Double estimate2) {
+        if (estimate1 == null || estimate2 == null) {
+            return 0;
+        }
+        return Double.compare(estimate1, estimate2);
+    }
+
 }
\ No newline at end of file
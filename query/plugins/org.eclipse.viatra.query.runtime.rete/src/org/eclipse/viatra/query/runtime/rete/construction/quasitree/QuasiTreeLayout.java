@@ -86,6 +86,7 @@ public class QuasiTreeLayout implements IQueryPlannerStrategy {
         Set<ConstantValue> constantConstraints = null;
         Set<SubPlan> forefront = new LinkedHashSet<SubPlan>();
         Logger logger;
+        CardinalityEstimator estimator = new CardinalityEstimator(backendContext.getRuntimeContext());
 
         Scaffold(PBody pSystem, Logger logger, /*IOperationCompiler compiler,*/ IQueryMetaContext context) {
             this.pSystem = pSystem;
@@ -159,7 +160,8 @@ public class QuasiTreeLayout implements IQueryPlannerStrategy {
                 for (SubPlan a : forefront) {
                     if (aIndex++ >= bIndex)
                         break;
-                    candidates.add(new JoinCandidate(a, b, queryAnalyzer));
+                    candidates.add(new JoinCandidate(a, b, queryAnalyzer, estimator,
+                            backendContext.getCollectionsFramework()));
                 }
                 bIndex++;
             }
@@ -16,7 +16,6 @@ import java.util.Map;
 import org.apache.log4j.Logger;
 import org.eclipse.viatra.query.runtime.matchers.psystem.IExpressionEvaluator;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.network.Direction;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
 import org.eclipse.viatra.query.runtime.rete.tuple.Clearable;
@@ -49,7 +48,7 @@ public class OutputCachingEvaluatorNode extends AbstractEvaluatorNode implements
 
 
 
-    Map<Tuple, Tuple> outputCache = CollectionsFactory.getMap();
+    Map<Tuple, Tuple> outputCache = reteContainer.getCollectionsFramework().createMap();
     //Map<Tuple, SoftReference<Object>> opportunisticCacheResults = new WeakHashMap<Tuple, SoftReference<Object>>();
     
     @Override
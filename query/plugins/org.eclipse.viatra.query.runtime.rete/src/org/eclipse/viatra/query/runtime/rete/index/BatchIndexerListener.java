@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.index;
+
+import java.util.Collection;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.rete.network.Direction;
+
+/**
+ * An {@link IndexerListener} that can be notified of several updates sharing the same signature at once.
+ * 
+ * <p>
+ * Batch notification is only used by an indexer if all of its listeners support it. In that case, the indexer already
+ * reflects the state after all updates of the batch at the time of the notification; therefore a listener may only
+ * implement this interface if it does not rely on the intermediate states of the notifying indexer.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface BatchIndexerListener extends IndexerListener {
+
+    /**
+     * Notifies recipient that the indexer has just received a batch of updates of the same direction and the same
+     * signature. Contract: indexer already reflects the updated state.
+     * 
+     * @param direction
+     *            the direction of the updates.
+     * @param updateElements
+     *            the tuples that were updated.
+     * @param signature
+     *            the common signature of the tuples according to the indexer's mask.
+     * @param change
+     *            whether the signature was absent before the inserted batch / is absent after the revoked batch.
+     */
+    void notifyIndexerBatchUpdate(Direction direction, Collection<Tuple> updateElements, Tuple signature,
+            boolean change);
+
+}
@@ -109,28 +109,8 @@ public abstract class DualInputNode extends StandardNode /* implements Pullable
         coincidence = primarySlot.equals(secondarySlot); 
         final DualInputNode me = this;
         if (!coincidence) { // regular case
-            primarySlot.attachListener(new DefaultIndexerListener(this) {
-                public void notifyIndexerUpdate(Direction direction, Tuple updateElement, Tuple signature,
-                        boolean change) {
-                    notifyUpdate(Side.PRIMARY, direction, updateElement, signature, change);
-                }
-
-                @Override
-                public String toString() {
-                    return "primary@" + me;
-                }
-            });
-            secondarySlot.attachListener(new DefaultIndexerListener(this) {
-                public void notifyIndexerUpdate(Direction direction, Tuple updateElement, Tuple signature,
-                        boolean change) {
-                    notifyUpdate(Side.SECONDARY, direction, updateElement, signature, change);
-                }
-
-                @Override
-                public String toString() {
-                    return "secondary@" + me;
-                }
-            });
+            primarySlot.attachListener(new SlotListener(Side.PRIMARY));
+            secondarySlot.attachListener(new SlotListener(Side.SECONDARY));
         } else { // if the two slots are the same, updates have to be handéed carefully
             primarySlot.attachListener(new DefaultIndexerListener(this) {
                 public void notifyIndexerUpdate(Direction direction, Tuple updateElement, Tuple signature,
@@ -235,6 +215,39 @@ public abstract class DualInputNode extends StandardNode /* implements Pullable
     public abstract void notifyUpdate(Side side, Direction direction, Tuple updateElement, Tuple signature,
             boolean change);
 
+    /**
+     * Handler for a batch of update events of the same direction and signature on a single side. Defaults to invoking
+     * {@link #notifyUpdate(Side, Direction, Tuple, Tuple, boolean)} for each update element, reporting the change of the
+     * signature at the first inserted / last revoked element; override to share lookups between the elements.
+     * 
+     * <p>
+     * Only called if the slots do not coincide; the slot of the given side already reflects the state after the batch.
+     * 
+     * @param side
+     *            The side on which the events occured, either {@link Side#PRIMARY} or {@link Side#SECONDARY}.
+     * @param direction
+     *            The direction of the updates.
+     * @param updateElements
+     *            The partial matchings that are inserted or revoked.
+     * @param signature
+     *            Common masked signature of the update elements.
+     * @param change
+     *            Indicates whether the signature was absent before the inserted batch / is absent after the revoked
+     *            batch in the slot.
+     * @since 1.7
+     */
+    public void notifyBatchUpdate(Side side, Direction direction, Collection<Tuple> updateElements, Tuple signature,
+            boolean change) {
+        int remaining = updateElements.size();
+        boolean first = true;
+        for (Tuple updateElement : updateElements) {
+            remaining--;
+            boolean changeReported = change && (direction == Direction.INSERT ? first : remaining == 0);
+            notifyUpdate(side, direction, updateElement, signature, changeReported);
+            first = false;
+        }
+    }
+
     /**
      * Simulates the behaviour of the node for calibration purposes only.
      */
@@ -258,6 +271,34 @@ public abstract class DualInputNode extends StandardNode /* implements Pullable
             return primarySlot;
     }
     
+    /**
+     * Listens to the primary or secondary slot, if they do not coincide.
+     */
+    private final class SlotListener extends DefaultIndexerListener implements BatchIndexerListener {
+        private final Side side;
+
+        public SlotListener(Side side) {
+            super(DualInputNode.this);
+            this.side = side;
+        }
+
+        @Override
+        public void notifyIndexerUpdate(Direction direction, Tuple updateElement, Tuple signature, boolean change) {
+            notifyUpdate(side, direction, updateElement, signature, change);
+        }
+
+        @Override
+        public void notifyIndexerBatchUpdate(Direction direction, Collection<Tuple> updateElements, Tuple signature,
+                boolean change) {
+            notifyBatchUpdate(side, direction, updateElements, signature, change);
+        }
+
+        @Override
+        public String toString() {
+            return (side == Side.PRIMARY ? "primary@" : "secondary@") + DualInputNode.this;
+        }
+    }
+
     @Override
     public void assignTraceInfo(TraceInfo traceInfo) {
         super.assignTraceInfo(traceInfo);
@@ -53,13 +53,7 @@ public class ExistenceNode extends DualInputNode {
                 propagateUpdate(direction, updateElement);
             break;
         case SECONDARY:
-            if (change) {
-                Collection<Tuple> opposites = retrieveOpposites(side, signature);
-                if (opposites != null)
-                    for (Tuple opposite : opposites) {
-                        propagateUpdate((negative ? direction.opposite() : direction), opposite);
-                    }
-            }
+            propagateSecondaryChange(direction, signature, change);
             break;
         case BOTH:
             // in case the slots coincide,
@@ -72,6 +66,44 @@ public class ExistenceNode extends DualInputNode {
         }
     }
 
+    /**
+     * Checks the existence of opposite substitutions only once for the entire batch.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void notifyBatchUpdate(Side side, Direction direction, Collection<Tuple> updateElements, Tuple signature,
+            boolean change) {
+        switch (side) {
+        case PRIMARY:
+            if ((retrieveOpposites(side, signature) != null) ^ negative)
+                for (Tuple updateElement : updateElements) {
+                    propagateUpdate(direction, updateElement);
+                }
+            break;
+        case SECONDARY:
+            // only the first insertion / last revocation of the signature matters
+            propagateSecondaryChange(direction, signature, change);
+            break;
+        default:
+            super.notifyBatchUpdate(side, direction, updateElements, signature, change);
+        }
+    }
+
+    /**
+     * Propagates the existence change of the given signature on the secondary slot to the matching primary tuples;
+     * the individual secondary tuples are irrelevant.
+     */
+    private void propagateSecondaryChange(Direction direction, Tuple signature, boolean change) {
+        if (change) {
+            Collection<Tuple> opposites = retrieveOpposites(Side.SECONDARY, signature);
+            if (opposites != null)
+                for (Tuple opposite : opposites) {
+                    propagateUpdate((negative ? direction.opposite() : direction), opposite);
+                }
+        }
+    }
+
     @Override
     public void pullInto(Collection<Tuple> collector) {
         if (primarySlot == null || secondarySlot == null) return;
@@ -11,23 +11,34 @@
 
 package org.eclipse.viatra.query.runtime.rete.index;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.rete.network.BatchReceiver;
 import org.eclipse.viatra.query.runtime.rete.network.Direction;
 import org.eclipse.viatra.query.runtime.rete.network.Receiver;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.SnapshotableNode;
 
 /**
  * A generic Indexer capable of indexing along any valid TupleMask. Does not keep track of parents, because will not
  * ever pull parents.
  * 
+ * <p> Batches of updates are grouped by signature, so that listeners are notified once per signature group, 
+ * if possible (see {@link #canPropagateBatches()}). 
+ * 
  * @author Gabor Bergmann
  * 
  */
-public class GenericProjectionIndexer extends IndexerWithMemory implements ProjectionIndexer {
+public class GenericProjectionIndexer extends IndexerWithMemory
+        implements ProjectionIndexer, BatchReceiver, SnapshotableNode {
 
     public GenericProjectionIndexer(ReteContainer reteContainer, TupleMask mask) {
         super(reteContainer, mask);
@@ -38,6 +49,55 @@ public class GenericProjectionIndexer extends IndexerWithMemory implements Proje
         propagate(direction, updateElement, signature, change);
     }
 
+    /**
+     * @since 1.7
+     */
+    @Override
+    public void batchUpdate(Direction direction, Collection<Tuple> updateElements) {
+        if (updateElements.size() == 1 || !canPropagateBatches()) {
+            for (Tuple updateElement : updateElements) {
+                update(direction, updateElement);
+            }
+            return;
+        }
+
+        Map<Tuple, List<Tuple>> signatureGroups = new LinkedHashMap<Tuple, List<Tuple>>();
+        for (Tuple updateElement : updateElements) {
+            Tuple signature = mask.transform(updateElement);
+            List<Tuple> group = signatureGroups.get(signature);
+            if (group == null) {
+                group = new ArrayList<Tuple>();
+                signatureGroups.put(signature, group);
+            }
+            group.add(updateElement);
+        }
+
+        for (Entry<Tuple, List<Tuple>> entry : signatureGroups.entrySet()) {
+            Tuple signature = entry.getKey();
+            List<Tuple> group = entry.getValue();
+            boolean change = false;
+            for (Tuple updateElement : group) {
+                change |= (direction == Direction.INSERT) ? memory.add(updateElement, signature)
+                        : memory.remove(updateElement, signature);
+            }
+            propagateBatch(direction, group, signature, change);
+        }
+    }
+
+    /**
+     * As the memory of a generic indexer is filled by pulling the parent, which is expensive if the parent is a beta
+     * node, the contents are saved in network snapshots.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public boolean captureContents(Collection<Tuple> collector) {
+        for (Tuple tuple : memory) {
+            collector.add(tuple);
+        }
+        return true;
+    }
+
     @Override
     public Collection<Tuple> get(Tuple signature) {
         return memory.get(signature);
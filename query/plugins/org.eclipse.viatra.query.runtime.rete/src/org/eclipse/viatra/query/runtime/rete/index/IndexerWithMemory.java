@@ -21,6 +21,7 @@ import org.eclipse.viatra.query.runtime.rete.network.Direction;
 import org.eclipse.viatra.query.runtime.rete.network.Mailbox;
 import org.eclipse.viatra.query.runtime.rete.network.Receiver;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.StatefulNode;
 import org.eclipse.viatra.query.runtime.rete.network.Supplier;
 import org.eclipse.viatra.query.runtime.rete.tuple.MaskedTupleMemory;
 
@@ -28,7 +29,7 @@ import org.eclipse.viatra.query.runtime.rete.tuple.MaskedTupleMemory;
  * @author Gabor Bergmann
  * 
  */
-public abstract class IndexerWithMemory extends StandardIndexer implements Receiver {
+public abstract class IndexerWithMemory extends StandardIndexer implements Receiver, StatefulNode {
 
     protected MaskedTupleMemory memory;
     /**
@@ -68,6 +69,22 @@ public abstract class IndexerWithMemory extends StandardIndexer implements Recei
         return memory;
     }
 
+    /**
+     * @since 1.7
+     */
+    @Override
+    public int getStoredTupleCount() {
+        return memory.getTotalSize();
+    }
+
+    /**
+     * @since 1.7
+     */
+    @Override
+    public long getEstimatedMemory() {
+        return memory.getEstimatedMemory();
+    }
+
     @Override
     public void update(Direction direction, Tuple updateElement) {
         Tuple signature = mask.transform(updateElement);
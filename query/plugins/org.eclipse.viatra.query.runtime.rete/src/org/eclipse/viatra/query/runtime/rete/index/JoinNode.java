@@ -76,6 +76,25 @@ public class JoinNode extends DualInputNode {
         }
     }
 
+    /**
+     * Retrieves the opposite substitutions only once for the entire batch.
+     * 
+     * @since 1.7
+     */
+    @Override
+    public void notifyBatchUpdate(Side side, Direction direction, Collection<Tuple> updateElements, Tuple signature,
+            boolean change) {
+        Collection<Tuple> opposites = retrieveOpposites(side, signature);
+
+        if (opposites != null) {
+            for (Tuple updateElement : updateElements) {
+                for (Tuple opposite : opposites) {
+                    propagateUpdate(direction, unify(side, updateElement, opposite));
+                }
+            }
+        }
+    }
+
     @Override
     public void pullInto(Collection<Tuple> collector) {
         if (primarySlot == null || secondarySlot == null) return;
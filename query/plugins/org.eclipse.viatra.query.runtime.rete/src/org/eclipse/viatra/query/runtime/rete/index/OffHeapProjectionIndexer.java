@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.index;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.rete.network.DefaultMailbox;
+import org.eclipse.viatra.query.runtime.rete.network.Direction;
+import org.eclipse.viatra.query.runtime.rete.network.Mailbox;
+import org.eclipse.viatra.query.runtime.rete.network.Receiver;
+import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.SnapshotableNode;
+import org.eclipse.viatra.query.runtime.rete.network.StatefulNode;
+import org.eclipse.viatra.query.runtime.rete.network.Supplier;
+import org.eclipse.viatra.query.runtime.rete.tuple.OffHeapTupleMemory;
+
+/**
+ * A projection indexer that stores its contents outside of the Java heap, in an {@link OffHeapTupleMemory}. Can only be
+ * used in Rete networks that represent elements by integer IDs, see
+ * {@link org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions#offHeapIndexers}.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public class OffHeapProjectionIndexer extends StandardIndexer
+        implements ProjectionIndexer, Receiver, StatefulNode, SnapshotableNode {
+
+    private final OffHeapTupleMemory memory;
+    private final Mailbox mailbox;
+
+    public OffHeapProjectionIndexer(ReteContainer reteContainer, TupleMask mask) {
+        super(reteContainer, mask);
+        memory = new OffHeapTupleMemory(mask, this);
+        reteContainer.registerClearable(memory);
+        mailbox = new DefaultMailbox(this, reteContainer);
+        reteContainer.registerClearable(mailbox);
+    }
+
+    public OffHeapTupleMemory getMemory() {
+        return memory;
+    }
+
+    @Override
+    public Mailbox getMailbox() {
+        return mailbox;
+    }
+
+    @Override
+    public void update(Direction direction, Tuple updateElement) {
+        Tuple signature = mask.transform(updateElement);
+        boolean change = (direction == Direction.INSERT) ? memory.add(updateElement, signature)
+                : memory.remove(updateElement, signature);
+        propagate(direction, updateElement, signature, change);
+    }
+
+    @Override
+    public Collection<Tuple> get(Tuple signature) {
+        return memory.get(signature);
+    }
+
+    @Override
+    public Iterator<Tuple> iterator() {
+        return memory.iterator();
+    }
+
+    @Override
+    public Collection<Tuple> getSignatures() {
+        return memory.getSignatures();
+    }
+
+    @Override
+    public Receiver getActiveNode() {
+        return this;
+    }
+
+    @Override
+    public int getStoredTupleCount() {
+        return memory.getTotalSize();
+    }
+
+    /**
+     * The contents of the off-heap buffers are not included, see {@link OffHeapTupleMemory#getOffHeapMemory()}.
+     */
+    @Override
+    public long getEstimatedMemory() {
+        return memory.getEstimatedMemory();
+    }
+
+    @Override
+    public boolean captureContents(Collection<Tuple> collector) {
+        for (Tuple tuple : memory) {
+            collector.add(tuple);
+        }
+        return true;
+    }
+
+    @Override
+    public void appendParent(Supplier supplier) {
+        if (parent == null)
+            parent = supplier;
+        else
+            throw new UnsupportedOperationException("Illegal RETE edge: " + this + " already has a parent (" + parent
+                    + ") and cannot connect to additional parent (" + supplier + "). ");
+    }
+
+    @Override
+    public void removeParent(Supplier supplier) {
+        if (parent == supplier)
+            parent = null;
+        else
+            throw new IllegalArgumentException(
+                    "Illegal RETE edge removal: the parent of " + this + " is not " + supplier);
+    }
+
+    @Override
+    public Collection<Supplier> getParents() {
+        return Collections.singleton(parent);
+    }
+
+}
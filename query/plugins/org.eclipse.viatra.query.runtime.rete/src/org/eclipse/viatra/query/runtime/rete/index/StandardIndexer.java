@@ -18,6 +18,7 @@ import java.util.List;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.rete.network.BaseNode;
+import org.eclipse.viatra.query.runtime.rete.network.CommunicationTracker;
 import org.eclipse.viatra.query.runtime.rete.network.Direction;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
 import org.eclipse.viatra.query.runtime.rete.network.Supplier;
@@ -48,6 +49,37 @@ public abstract class StandardIndexer extends BaseNode implements Indexer {
         }
     }
 
+    /**
+     * Notifies all listeners of a batch of updates sharing the same signature.
+     * 
+     * @pre {@link #canPropagateBatches()}
+     * @since 1.7
+     */
+    protected void propagateBatch(Direction direction, Collection<Tuple> updateElements, Tuple signature,
+            boolean change) {
+        for (IndexerListener listener : listeners) {
+            ((BatchIndexerListener) listener).notifyIndexerBatchUpdate(direction, updateElements, signature, change);
+        }
+    }
+
+    /**
+     * Batch notification is only possible if all listeners support it (see {@link BatchIndexerListener}), and none of
+     * them belongs to a recursive communication group, as updates propagated by such a listener might be fed back to
+     * it before it has processed the entire batch.
+     * 
+     * @return true if listeners can be notified of batches of updates
+     * @since 1.7
+     */
+    protected boolean canPropagateBatches() {
+        CommunicationTracker tracker = reteContainer.getTracker();
+        for (IndexerListener listener : listeners) {
+            if (!(listener instanceof BatchIndexerListener) || tracker.isInRecursiveGroup(listener.getOwner())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * @return the mask
      */
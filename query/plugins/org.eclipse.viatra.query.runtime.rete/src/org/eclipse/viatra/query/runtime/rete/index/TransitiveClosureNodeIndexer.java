@@ -19,7 +19,6 @@ import org.eclipse.viatra.query.runtime.base.itc.alg.incscc.IncSCCAlg;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.network.Direction;
 import org.eclipse.viatra.query.runtime.rete.network.Receiver;
 import org.eclipse.viatra.query.runtime.rete.single.TransitiveClosureNode;
@@ -45,7 +44,7 @@ public class TransitiveClosureNodeIndexer extends StandardIndexer implements Ite
                 // mask ()/2
                 return getSignatures();
             } else if (mask.indices.length == 1) {
-                Set<Tuple> retSet = CollectionsFactory.getSet();//new HashSet<Tuple>();
+                Set<Tuple> retSet = reteContainer.getCollectionsFramework().createSet();//new HashSet<Tuple>();
 
                 // mask (0)/2
                 if (mask.indices[0] == 0) {
@@ -93,7 +92,7 @@ public class TransitiveClosureNodeIndexer extends StandardIndexer implements Ite
 
     private Collection<Tuple> asTupleCollection(
             Collection<org.eclipse.viatra.query.runtime.base.itc.alg.misc.Tuple<Object>> tuples) {
-        Set<Tuple> retSet = CollectionsFactory.getSet();//new HashSet<Tuple>();
+        Set<Tuple> retSet = reteContainer.getCollectionsFramework().createSet();//new HashSet<Tuple>();
         for (org.eclipse.viatra.query.runtime.base.itc.alg.misc.Tuple<Object> tuple : tuples) {
             retSet.add(Tuples.staticArityFlatTupleOf(tuple.getSource(), tuple.getTarget()));
         }
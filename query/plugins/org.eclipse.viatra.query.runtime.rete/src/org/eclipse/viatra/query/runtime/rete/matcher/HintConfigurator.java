@@ -37,6 +37,11 @@ class HintConfigurator implements IQueryBackendHintProvider {
         return defaultHintProvider.getQueryEvaluationHint(query).overrideBy(storedHints.get(query));
     }
     
+    @Override
+    public QueryEvaluationHint getEngineDefaultHints() {
+        return defaultHintProvider.getEngineDefaultHints();
+    }
+    
     public void storeHint(PQuery query, QueryEvaluationHint hint) {
         QueryEvaluationHint oldHint = storedHints.get(query);
         if (oldHint == null)
@@ -12,10 +12,15 @@
 package org.eclipse.viatra.query.runtime.rete.matcher;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 import org.eclipse.viatra.query.runtime.matchers.backend.IQueryBackend;
@@ -24,19 +29,26 @@ import org.eclipse.viatra.query.runtime.matchers.backend.IQueryResultProvider;
 import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryBackendContext;
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.context.InterningQueryRuntimeContext;
 import org.eclipse.viatra.query.runtime.matchers.planning.QueryProcessingException;
 import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 import org.eclipse.viatra.query.runtime.rete.boundary.Disconnectable;
 import org.eclipse.viatra.query.runtime.rete.boundary.ReteBoundary;
 import org.eclipse.viatra.query.runtime.rete.construction.RetePatternBuildException;
 import org.eclipse.viatra.query.runtime.rete.construction.plancompiler.ReteRecipeCompiler;
 import org.eclipse.viatra.query.runtime.rete.index.Indexer;
+import org.eclipse.viatra.query.runtime.rete.metrics.ReteMetrics;
+import org.eclipse.viatra.query.runtime.rete.network.ISnapshotElementCodec;
 import org.eclipse.viatra.query.runtime.rete.network.Network;
+import org.eclipse.viatra.query.runtime.rete.network.Node;
 import org.eclipse.viatra.query.runtime.rete.network.NodeProvisioner;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.ReteNetworkSnapshot;
 import org.eclipse.viatra.query.runtime.rete.traceability.RecipeTraceInfo;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
 
 /**
  * @author Gabor Bergmann
@@ -68,6 +80,16 @@ public class ReteEngine implements IQueryBackend {
     
     private HintConfigurator hintConfigurator;
 
+    private final AtomicLong matcherAccessClock = new AtomicLong();
+
+    /**
+     * True if any of the {@link ReteHintOptions#matcherEvictionLimit} and {@link ReteHintOptions#matcherMemoryBudget}
+     * engine default hints is set; otherwise matcher accesses are not tracked at all.
+     */
+    private volatile boolean matcherLimitsEnabled;
+
+    private boolean elementRepresentationFixed;
+
     // while RETE does its job.
 
     // protected BlockingQueue<Throwable> caughtExceptions;
@@ -83,7 +105,6 @@ public class ReteEngine implements IQueryBackend {
         super();
         this.context = context;
         this.logger = context.getLogger();
-        this.runtimeContext = context.getRuntimeContext();
         this.reteThreads = reteThreads;
         this.parallelExecutionEnabled = reteThreads > 0;
         // this.framework = new WeakReference<IFramework>(context.getFramework());
@@ -100,22 +121,35 @@ public class ReteEngine implements IQueryBackend {
         return context;
     }
 
+    /**
+     * The collections implementation to be used for the internal data structures of the Rete network.
+     * @since 1.7
+     */
+    public ICollectionsFramework getCollectionsFramework() {
+        return CollectionsFactory.orDefault(context.getCollectionsFramework());
+    }
+
     /**
      * initializes engine components
      */
     private synchronized void initEngine() {
         this.disposedOrUninitialized = false;
+        this.runtimeContext = context.getRuntimeContext();
+        this.elementRepresentationFixed = false;
         this.disconnectables = new LinkedList<Disconnectable>();
         // this.caughtExceptions = new LinkedBlockingQueue<Throwable>();
 
         
         this.hintConfigurator = new HintConfigurator(context.getHintProvider());
+        final QueryEvaluationHint engineHints = hintConfigurator.getEngineDefaultHints();
+        this.matcherLimitsEnabled = ReteHintOptions.matcherEvictionLimit.getValueOrDefault(engineHints) > 0
+                || ReteHintOptions.matcherMemoryBudget.getValueOrDefault(engineHints) > 0;
         
         this.reteNet = new Network(reteThreads, this);
         this.boundary = new ReteBoundary(this); // prerequisite: network
 
         this.matchers = //new HashMap<PatternDescription, RetePatternMatcher>();
-                CollectionsFactory.getMap();
+                getCollectionsFramework().createMap();
         /* this.matchersScoped = new HashMap<PatternDescription, Map<Map<Integer,Scope>,RetePatternMatcher>>(); */
 
         // prerequisite: network, framework, boundary, disconnectables
@@ -200,6 +234,7 @@ public class ReteEngine implements IQueryBackend {
         // String fqn = namespace + "." + name;
         matcher = matchers.get(query);
         if (matcher == null) {
+            configureNetwork();
             constructionWrapper(new Callable<Void>() {
                 @Override
                 public Void call() throws QueryProcessingException {
@@ -214,6 +249,10 @@ public class ReteEngine implements IQueryBackend {
                 }
             });
             matcher = matchers.get(query);
+            if (matcherLimitsEnabled) {
+                matcher.setLastAccess(matcherAccessClock.incrementAndGet());
+                enforceMatcherLimits(matcher);
+            }
         }
 
         return matcher;
@@ -234,6 +273,7 @@ public class ReteEngine implements IQueryBackend {
     public synchronized void buildMatchersCoalesced(final Collection<PQuery> specifications)
             throws QueryProcessingException {
         ensureInitialized();
+        configureNetwork();
         constructionWrapper(new Callable<Void>() {
             @Override
             public Void call() throws QueryProcessingException {
@@ -245,6 +285,140 @@ public class ReteEngine implements IQueryBackend {
         });
     }
 
+    /**
+     * If no query has been built yet, determines the representation of elements in the network, the propagation mode
+     * and whether delivery time is measured. These are read from the engine default hints, as they apply to the entire
+     * network.
+     */
+    private void configureNetwork() {
+        if (!elementRepresentationFixed) {
+            elementRepresentationFixed = true;
+            QueryEvaluationHint engineHints = hintConfigurator.getEngineDefaultHints();
+            reteNet.setDeliveryTimeMeasured(ReteHintOptions.measureDeliveryTime.getValueOrDefault(engineHints));
+            boolean offHeapIndexing = ReteHintOptions.offHeapIndexers.getValueOrDefault(engineHints);
+            if (offHeapIndexing || ReteHintOptions.internElements.getValueOrDefault(engineHints)) {
+                InterningQueryRuntimeContext interningContext = new InterningQueryRuntimeContext(
+                        context.getRuntimeContext());
+                runtimeContext = interningContext;
+                reteNet.setInterningContext(interningContext);
+                reteNet.setOffHeapIndexing(offHeapIndexing);
+            }
+            if (ReteHintOptions.parallelUpdatePropagation.getValueOrDefault(engineHints)) {
+                reteNet.enableParallelPropagation(
+                        ReteHintOptions.parallelPropagationThreads.getValueOrDefault(engineHints));
+            }
+        }
+    }
+
+    /**
+     * Records an access to the given matcher for the eviction policy, and rebuilds its Rete subnetwork if it has been
+     * evicted. Returns immediately, without locking, if matcher eviction is not enabled.
+     * 
+     * @throws IllegalStateException
+     *             if the rebuilding fails
+     */
+    void notifyMatcherAccess(final RetePatternMatcher matcher) {
+        if (!matcherLimitsEnabled) {
+            return;
+        }
+        matcher.setLastAccess(matcherAccessClock.incrementAndGet());
+        if (matcher.isEvicted()) {
+            rebuildEvictedMatcher(matcher);
+        }
+    }
+
+    private synchronized void rebuildEvictedMatcher(final RetePatternMatcher matcher) {
+        ensureInitialized();
+        if (matcher.isEvicted()) {
+            try {
+                constructionWrapper(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        matcher.rebuild();
+                        return null;
+                    }
+                });
+            } catch (RetePatternBuildException e) {
+                throw new IllegalStateException("Failed to rebuild evicted matcher " + matcher.getTag(), e);
+            }
+            enforceMatcherLimits(matcher);
+        }
+    }
+
+    /**
+     * Evicts the least recently accessed unpinned matchers, as requested by the
+     * {@link ReteHintOptions#matcherEvictionLimit} and {@link ReteHintOptions#matcherMemoryBudget} engine default
+     * hints.
+     * 
+     * @param current
+     *            the matcher just accessed, that must not be evicted
+     */
+    private void enforceMatcherLimits(RetePatternMatcher current) {
+        final QueryEvaluationHint hint = hintConfigurator.getEngineDefaultHints();
+        final int limit = ReteHintOptions.matcherEvictionLimit.getValueOrDefault(hint);
+        final long budget = ReteHintOptions.matcherMemoryBudget.getValueOrDefault(hint);
+        if (limit <= 0 && budget <= 0) {
+            return;
+        }
+
+        final List<RetePatternMatcher> candidates = new ArrayList<RetePatternMatcher>();
+        for (RetePatternMatcher matcher : matchers.values()) {
+            if (matcher != current && !matcher.isEvicted() && !matcher.isPinned()) {
+                candidates.add(matcher);
+            }
+        }
+        Collections.sort(candidates, new Comparator<RetePatternMatcher>() {
+            @Override
+            public int compare(RetePatternMatcher left, RetePatternMatcher right) {
+                return Long.compare(left.getLastAccess(), right.getLastAccess());
+            }
+        });
+
+        int excess = 0;
+        if (limit > 0) {
+            final int kept = current.isPinned() ? candidates.size() : candidates.size() + 1;
+            excess = Math.max(0, Math.min(candidates.size(), kept - limit));
+            evictMatchers(candidates.subList(0, excess));
+        }
+        if (budget > 0) {
+            long totalMemory = ReteMetrics.getTotalEstimatedMemory(getMetrics().getNodeMetrics());
+            for (RetePatternMatcher matcher : candidates.subList(excess, candidates.size())) {
+                if (totalMemory <= budget) {
+                    break;
+                }
+                totalMemory -= evictMatcher(matcher);
+            }
+        }
+    }
+
+    /**
+     * @return the estimated memory released by evicting the given matcher
+     */
+    private long evictMatcher(RetePatternMatcher evicted) {
+        return evictMatchers(Collections.singletonList(evicted));
+    }
+
+    /**
+     * @return the estimated memory released by evicting the given matchers
+     */
+    private long evictMatchers(Collection<RetePatternMatcher> evicted) {
+        if (evicted.isEmpty()) {
+            return 0;
+        }
+        if (parallelExecutionEnabled)
+            reteNet.getStructuralChangeLock().lock();
+        try {
+            final List<Node> productions = new ArrayList<Node>();
+            for (RetePatternMatcher matcher : evicted) {
+                productions.add(matcher.evict());
+            }
+            return reteNet.discardUnneededNodes(productions);
+        } finally {
+            if (parallelExecutionEnabled)
+                reteNet.getStructuralChangeLock().unlock();
+        }
+    }
+
     private void constructionWrapper(final Callable<Void> payload)
             throws RetePatternBuildException {
 //		context.modelReadLock();
@@ -414,6 +588,42 @@ public class ReteEngine implements IQueryBackend {
        return reteNet;
     }
 
+    /**
+     * Takes a snapshot of the runtime metrics of the nodes of the Rete network, such as the number of stored tuples,
+     * estimated memory, and message counts.
+     * 
+     * @see ReteMetrics
+     * @since 1.7
+     */
+    public ReteMetrics getMetrics() {
+        return ReteMetrics.capture(getReteNet());
+    }
+
+    /**
+     * Captures the current contents of the stateful nodes of the Rete network, so that an engine created later for
+     * the same model can skip the initial computation of the same queries.
+     * 
+     * @param codec
+     *            identifies the model elements in the fingerprint of the model recorded in the snapshot
+     * @see ReteNetworkSnapshot
+     * @since 1.7
+     */
+    public ReteNetworkSnapshot captureSnapshot(ISnapshotElementCodec codec) {
+        return ReteNetworkSnapshot.capture(getReteNet(), codec);
+    }
+
+    /**
+     * Initializes the Rete nodes that are built from now on from the given snapshot instead of computing their
+     * contents. Should be invoked before any matchers are requested from the engine. The snapshot is rejected if it
+     * was captured over a different model, see {@link Network#restoreFrom(ReteNetworkSnapshot, ISnapshotElementCodec)}.
+     * 
+     * @see ReteNetworkSnapshot
+     * @since 1.7
+     */
+    public void restoreFrom(ReteNetworkSnapshot snapshot, ISnapshotElementCodec codec) {
+        getReteNet().restoreFrom(snapshot, codec);
+    }
+
     /**
      * @return the boundary
      */
@@ -463,6 +673,17 @@ public class ReteEngine implements IQueryBackend {
         disconnectables.add(disc);
     }
 
+    /**
+     * @param disc
+     *            a Disconnectable adapter that has already been disconnected.
+     * @since 1.7
+     */
+    public void removeDisconnectable(Disconnectable disc) {
+        if (disconnectables != null) {
+            disconnectables.remove(disc);
+        }
+    }
+
     /**
      * @return the parallelExecutionEnabled
      */
@@ -13,6 +13,8 @@ package org.eclipse.viatra.query.runtime.rete.matcher;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.viatra.query.runtime.matchers.backend.IQueryBackend;
@@ -22,7 +24,6 @@ import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.index.Indexer;
 import org.eclipse.viatra.query.runtime.rete.network.Node;
 import org.eclipse.viatra.query.runtime.rete.network.Production;
@@ -31,6 +32,7 @@ import org.eclipse.viatra.query.runtime.rete.remote.Address;
 import org.eclipse.viatra.query.runtime.rete.single.CallbackNode;
 import org.eclipse.viatra.query.runtime.rete.single.TransformerNode;
 import org.eclipse.viatra.query.runtime.rete.traceability.RecipeTraceInfo;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
 
 /**
  * @author Gabor Bergmann
@@ -44,9 +46,10 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
     protected RecipeTraceInfo productionNodeTrace;
     protected Map<String, Integer> posMapping;
     protected Map<Object, Receiver> taggedChildren = // new HashMap<Object, Receiver>();
-            CollectionsFactory.getMap();
+            reteContainer.getCollectionsFramework().createMap();
     protected boolean connected = false; // is rete-wise connected to the
                                          // production node?
+    private volatile long lastAccess = 0; // access stamp for the eviction policy of the engine
 
     /**
      * @param productionNode
@@ -58,22 +61,82 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
         this.engine = engine;
         this.context = engine.getRuntimeContext();
         this.productionNodeTrace = productionNodeTrace;
+        attachProductionNode();
+        this.posMapping = this.productionNode.getPosMapping();
+    }
+
+    private void attachProductionNode() {
         final Address<? extends Node> productionAddress = reteContainer.getProvisioner()
                 .getOrCreateNodeByRecipe(productionNodeTrace);
         if (!reteContainer.isLocal(productionAddress))
             throw new IllegalArgumentException("@pre: Production must be local to the head container");
         this.productionNode = (Production) reteContainer.resolveLocal(productionAddress);
-        this.posMapping = this.productionNode.getPosMapping();
         this.reteContainer.getTracker().registerDependency(this.productionNode, this);
     }
 
     /**
+     * Does not count as an access for the eviction policy, see {@link ReteHintOptions#matcherEvictionLimit}.
+     * 
+     * @return the production node of the matcher, or null if the matcher is evicted
      * @since 1.6
      */
     public Production getProductionNode() {
         return productionNode;
     }
 
+    /**
+     * A matcher is pinned if it has external receivers, e.g. registered update listeners; pinned matchers are never
+     * evicted.
+     * 
+     * @since 1.7
+     */
+    public boolean isPinned() {
+        return !getReceivers().isEmpty();
+    }
+
+    /**
+     * An evicted matcher has released its Rete subnetwork; it is rebuilt transparently upon the next access.
+     * 
+     * @since 1.7
+     */
+    public boolean isEvicted() {
+        return productionNode == null;
+    }
+
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    void setLastAccess(long lastAccess) {
+        this.lastAccess = lastAccess;
+    }
+
+    /**
+     * Detaches this matcher from its production node. To be called by the engine only.
+     * 
+     * @pre !isPinned() && !isEvicted()
+     * @return the production node that was released
+     */
+    Production evict() {
+        final Production released = productionNode;
+        if (connected) {
+            reteContainer.disconnect(released, this);
+            connected = false;
+        }
+        reteContainer.getTracker().unregisterDependency(released, this);
+        productionNode = null;
+        return released;
+    }
+
+    /**
+     * Reattaches an evicted matcher to its (rebuilt) production node. To be called by the engine only.
+     * 
+     * @pre isEvicted()
+     */
+    void rebuild() {
+        attachProductionNode();
+    }
+
     public Tuple matchOneRandomly(Object[] inputMapping, boolean[] fixed) {
         ArrayList<Tuple> allMatches = matchAll(inputMapping, fixed);
         if (allMatches == null || allMatches.isEmpty())
@@ -83,6 +146,7 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
     }
 
     public ArrayList<Tuple> matchAll(Object[] inputMapping, boolean[] fixed) {
+        engine.notifyMatcherAccess(this);
         // retrieving the projection
         TupleMask mask = TupleMask.fromKeepIndicators(fixed);
         Tuple inputSignature = mask.transform(Tuples.flatTupleOf(inputMapping));
@@ -101,6 +165,7 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
     }
 
     public Tuple matchOne(Object[] inputMapping, boolean[] fixed) {
+        engine.notifyMatcherAccess(this);
         // retrieving the projection
         TupleMask mask = TupleMask.fromKeepIndicators(fixed);
         Tuple inputSignature = mask.transform(Tuples.flatTupleOf(inputMapping));
@@ -117,6 +182,7 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
      * @return the number of occurrences
      */
     public int count(Object[] inputMapping, boolean[] fixed) {
+        engine.notifyMatcherAccess(this);
         TupleMask mask = TupleMask.fromKeepIndicators(fixed);
         Tuple inputSignature = mask.transform(Tuples.flatTupleOf(inputMapping));
 
@@ -136,6 +202,7 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
      *            is established.
      */
     public synchronized void connect(Receiver receiver, boolean synchronize) {
+        engine.notifyMatcherAccess(this);
         if (!connected) { // connect to the production node as a RETE-child
             reteContainer.connect(productionNode, this);
             connected = true;
@@ -338,6 +405,22 @@ public class RetePatternMatcher extends TransformerNode implements IQueryResultP
         return matchAll(parameters, notNull(parameters));
     }
 
+    @Override
+    public Iterator<? extends Tuple> streamAllMatches(Object[] parameters) {
+        // matches are already cached in the network, only a copy of the requested slice is made
+        return matchAll(parameters, notNull(parameters)).iterator();
+    }
+
+    @Override
+    public List<? extends Collection<? extends Tuple>> getAllMatchesForEach(List<Object[]> parameters) {
+        // matches are already cached in the network, there is nothing to share among the lookups
+        List<Collection<Tuple>> results = new ArrayList<Collection<Tuple>>(parameters.size());
+        for (Object[] parameterValues : parameters) {
+            results.add(matchAll(parameterValues, notNull(parameterValues)));
+        }
+        return results;
+    }
+
     @Override
     public IQueryBackend getQueryBackend() {
         return engine;
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.metrics;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
+import org.eclipse.viatra.query.runtime.rete.network.MonitoredMailbox;
+import org.eclipse.viatra.query.runtime.rete.network.StatefulNode;
+
+/**
+ * Runtime metrics of a single Rete node at the time a {@link ReteMetrics} snapshot was taken.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public final class NodeMetrics {
+
+    private final long nodeId;
+    private final String nodeType;
+    private final String description;
+    private final Set<PQuery> queries;
+    private final boolean stateful;
+    private final int tupleCount;
+    private final long estimatedMemory;
+    private final long insertCount;
+    private final long revokeCount;
+    private final long deliveryTime;
+
+    NodeMetrics(long nodeId, String nodeType, String description, Set<PQuery> queries, boolean stateful,
+            int tupleCount, long estimatedMemory, long insertCount, long revokeCount, long deliveryTime) {
+        this.nodeId = nodeId;
+        this.nodeType = nodeType;
+        this.description = description;
+        this.queries = Collections.unmodifiableSet(queries);
+        this.stateful = stateful;
+        this.tupleCount = tupleCount;
+        this.estimatedMemory = estimatedMemory;
+        this.insertCount = insertCount;
+        this.revokeCount = revokeCount;
+        this.deliveryTime = deliveryTime;
+    }
+
+    /**
+     * @return the identifier of the node within its container
+     */
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return the simple name of the class of the node
+     */
+    public String getNodeType() {
+        return nodeType;
+    }
+
+    /**
+     * @return the textual representation of the node
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return the queries the node has been constructed for; empty if the node cannot be attributed to a query
+     */
+    public Set<PQuery> getQueries() {
+        return queries;
+    }
+
+    /**
+     * @return true if the node stores tuples, see {@link StatefulNode}
+     */
+    public boolean isStateful() {
+        return stateful;
+    }
+
+    /**
+     * @return the number of distinct tuples stored by the node; 0 for stateless nodes
+     */
+    public int getTupleCount() {
+        return tupleCount;
+    }
+
+    /**
+     * @return the estimated memory occupied by the node in bytes, see {@link StatefulNode#getEstimatedMemory()}; 0
+     *         for stateless nodes
+     */
+    public long getEstimatedMemory() {
+        return estimatedMemory;
+    }
+
+    /**
+     * @return the number of insertions delivered to the node, see {@link MonitoredMailbox}; 0 for nodes without a
+     *         mailbox, which are notified directly by their parents
+     */
+    public long getInsertCount() {
+        return insertCount;
+    }
+
+    /**
+     * @return the number of revocations delivered to the node, see {@link MonitoredMailbox}; 0 for nodes without a
+     *         mailbox, which are notified directly by their parents
+     */
+    public long getRevokeCount() {
+        return revokeCount;
+    }
+
+    /**
+     * @return the cumulative time spent delivering messages to the node in nanoseconds, see
+     *         {@link MonitoredMailbox#getDeliveryTime()}
+     */
+    public long getDeliveryTime() {
+        return deliveryTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d tuples, ~%d bytes, %d inserts, %d revokes, %d ns", description, tupleCount,
+                estimatedMemory, insertCount, revokeCount, deliveryTime);
+    }
+
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
+import org.eclipse.viatra.query.runtime.rete.network.Mailbox;
+import org.eclipse.viatra.query.runtime.rete.network.MonitoredMailbox;
+import org.eclipse.viatra.query.runtime.rete.network.Network;
+import org.eclipse.viatra.query.runtime.rete.network.Node;
+import org.eclipse.viatra.query.runtime.rete.network.Receiver;
+import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.StatefulNode;
+import org.eclipse.viatra.query.runtime.rete.traceability.CompiledQuery;
+import org.eclipse.viatra.query.runtime.rete.traceability.PlanningTrace;
+import org.eclipse.viatra.query.runtime.rete.traceability.RecipeTraceInfo;
+import org.eclipse.viatra.query.runtime.rete.traceability.TraceInfo;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
+
+/**
+ * A snapshot of the runtime metrics of the nodes of a Rete network, see {@link NodeMetrics}. Taking the snapshot is
+ * proportional to the number of nodes and stored signatures; the message counters it reports are maintained at all
+ * times at negligible cost, while delivery times are only measured if requested by
+ * {@link ReteHintOptions#measureDeliveryTime}.
+ * 
+ * <p>
+ * Nodes are attributed to the queries they have been built for based on their {@link RecipeTraceInfo}s; as nodes may
+ * be shared, a node may be attributed to several queries.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public final class ReteMetrics {
+
+    private final List<NodeMetrics> nodeMetrics;
+
+    private ReteMetrics(List<NodeMetrics> nodeMetrics) {
+        this.nodeMetrics = Collections.unmodifiableList(nodeMetrics);
+    }
+
+    /**
+     * Collects the current metrics of all nodes of the given network.
+     */
+    public static ReteMetrics capture(Network network) {
+        List<NodeMetrics> result = new ArrayList<NodeMetrics>();
+        for (ReteContainer container : network.getContainers()) {
+            for (Node node : new ArrayList<Node>(container.getAllNodes())) {
+                result.add(measure(node));
+            }
+        }
+        return new ReteMetrics(result);
+    }
+
+    private static NodeMetrics measure(Node node) {
+        boolean stateful = node instanceof StatefulNode;
+        int tupleCount = stateful ? ((StatefulNode) node).getStoredTupleCount() : 0;
+        long estimatedMemory = stateful ? ((StatefulNode) node).getEstimatedMemory() : 0;
+        long insertCount = 0;
+        long revokeCount = 0;
+        long deliveryTime = 0;
+        if (node instanceof Receiver) {
+            Mailbox mailbox = ((Receiver) node).getMailbox();
+            if (mailbox instanceof MonitoredMailbox) {
+                MonitoredMailbox monitored = (MonitoredMailbox) mailbox;
+                insertCount = monitored.getDeliveredInsertCount();
+                revokeCount = monitored.getDeliveredRevokeCount();
+                deliveryTime = monitored.getDeliveryTime();
+            }
+        }
+        return new NodeMetrics(node.getNodeId(), node.getClass().getSimpleName(), node.toString(),
+                getQueries(node), stateful, tupleCount, estimatedMemory, insertCount, revokeCount, deliveryTime);
+    }
+
+    private static Set<PQuery> getQueries(Node node) {
+        Set<PQuery> queries = new LinkedHashSet<PQuery>();
+        Set<RecipeTraceInfo> visited = new HashSet<RecipeTraceInfo>();
+        for (TraceInfo traceInfo : node.getTraceInfos()) {
+            if (traceInfo instanceof RecipeTraceInfo) {
+                collectQueries((RecipeTraceInfo) traceInfo, queries, visited);
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Auxiliary traces (e.g. indexers requested by users) are attributed to the queries of their parent traces.
+     */
+    private static void collectQueries(RecipeTraceInfo trace, Set<PQuery> queries, Set<RecipeTraceInfo> visited) {
+        if (!visited.add(trace)) {
+            return;
+        }
+        if (trace instanceof CompiledQuery) {
+            queries.add(((CompiledQuery) trace).getQuery());
+        } else if (trace instanceof PlanningTrace) {
+            queries.add(((PlanningTrace) trace).getSubPlan().getBody().getPattern());
+        } else {
+            for (RecipeTraceInfo parentTrace : trace.getParentRecipeTraces()) {
+                collectQueries(parentTrace, queries, visited);
+            }
+        }
+    }
+
+    /**
+     * @return the metrics of all nodes of the network
+     */
+    public List<NodeMetrics> getNodeMetrics() {
+        return nodeMetrics;
+    }
+
+    /**
+     * @return the metrics of the nodes attributed to the given query
+     */
+    public List<NodeMetrics> getNodeMetrics(PQuery query) {
+        List<NodeMetrics> result = new ArrayList<NodeMetrics>();
+        for (NodeMetrics metrics : nodeMetrics) {
+            if (metrics.getQueries().contains(query)) {
+                result.add(metrics);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the queries that nodes are attributed to
+     */
+    public Set<PQuery> getQueries() {
+        Set<PQuery> result = new LinkedHashSet<PQuery>();
+        for (NodeMetrics metrics : nodeMetrics) {
+            result.addAll(metrics.getQueries());
+        }
+        return result;
+    }
+
+    /**
+     * @return the total number of tuples stored by the given nodes
+     */
+    public static long getTotalTupleCount(Iterable<NodeMetrics> nodes) {
+        long result = 0;
+        for (NodeMetrics metrics : nodes) {
+            result += metrics.getTupleCount();
+        }
+        return result;
+    }
+
+    /**
+     * @return the total estimated memory of the given nodes in bytes
+     */
+    public static long getTotalEstimatedMemory(Iterable<NodeMetrics> nodes) {
+        long result = 0;
+        for (NodeMetrics metrics : nodes) {
+            result += metrics.getEstimatedMemory();
+        }
+        return result;
+    }
+
+    /**
+     * @return the total number of insertions and revocations delivered to the given nodes
+     */
+    public static long getTotalMessageCount(Iterable<NodeMetrics> nodes) {
+        long result = 0;
+        for (NodeMetrics metrics : nodes) {
+            result += metrics.getInsertCount() + metrics.getRevokeCount();
+        }
+        return result;
+    }
+
+    /**
+     * @return the total time spent delivering messages to the given nodes in nanoseconds
+     */
+    public static long getTotalDeliveryTime(Iterable<NodeMetrics> nodes) {
+        long result = 0;
+        for (NodeMetrics metrics : nodes) {
+            result += metrics.getDeliveryTime();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
+import org.eclipse.viatra.query.runtime.rete.network.Network;
+
+/**
+ * Exports the metrics of a Rete network as an MXBean, see {@link ReteMetricsMXBean}.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public class ReteMetricsExporter implements ReteMetricsMXBean {
+
+    /**
+     * The domain of the object names the exporter registers under, unless specified otherwise.
+     */
+    public static final String DEFAULT_DOMAIN = "org.eclipse.viatra.query.runtime.rete";
+
+    private final Network network;
+    private ObjectName registeredName;
+
+    public ReteMetricsExporter(Network network) {
+        this.network = network;
+    }
+
+    /**
+     * Registers the exporter in the platform MBean server under the given name, e.g.
+     * <code>org.eclipse.viatra.query.runtime.rete:type=ReteMetrics,name=myEngine</code>.
+     * 
+     * @throws JMException
+     *             if the registration fails
+     */
+    public synchronized void register(ObjectName name) throws JMException {
+        unregister();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, name);
+        registeredName = name;
+    }
+
+    /**
+     * Registers the exporter in the platform MBean server under a name in the {@link #DEFAULT_DOMAIN} with the given
+     * name key.
+     */
+    public void register(String name) throws JMException {
+        register(new ObjectName(DEFAULT_DOMAIN + ":type=ReteMetrics,name=" + ObjectName.quote(name)));
+    }
+
+    /**
+     * Removes the exporter from the platform MBean server, if registered.
+     */
+    public synchronized void unregister() throws JMException {
+        if (registeredName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+            registeredName = null;
+        }
+    }
+
+    private ReteMetrics capture() {
+        return ReteMetrics.capture(network);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return capture().getNodeMetrics().size();
+    }
+
+    @Override
+    public long getTotalTupleCount() {
+        return ReteMetrics.getTotalTupleCount(capture().getNodeMetrics());
+    }
+
+    @Override
+    public long getTotalEstimatedMemory() {
+        return ReteMetrics.getTotalEstimatedMemory(capture().getNodeMetrics());
+    }
+
+    @Override
+    public long getTotalMessageCount() {
+        return ReteMetrics.getTotalMessageCount(capture().getNodeMetrics());
+    }
+
+    @Override
+    public long getTotalDeliveryTime() {
+        return ReteMetrics.getTotalDeliveryTime(capture().getNodeMetrics());
+    }
+
+    @Override
+    public Map<String, Long> getTupleCountByQuery() {
+        ReteMetrics metrics = capture();
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (PQuery query : metrics.getQueries()) {
+            result.put(query.getFullyQualifiedName(), ReteMetrics.getTotalTupleCount(metrics.getNodeMetrics(query)));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getEstimatedMemoryByQuery() {
+        ReteMetrics metrics = capture();
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (PQuery query : metrics.getQueries()) {
+            List<NodeMetrics> nodes = metrics.getNodeMetrics(query);
+            result.put(query.getFullyQualifiedName(), ReteMetrics.getTotalEstimatedMemory(nodes));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getMessageCountByQuery() {
+        ReteMetrics metrics = capture();
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (PQuery query : metrics.getQueries()) {
+            List<NodeMetrics> nodes = metrics.getNodeMetrics(query);
+            result.put(query.getFullyQualifiedName(), ReteMetrics.getTotalMessageCount(nodes));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getDeliveryTimeByQuery() {
+        ReteMetrics metrics = capture();
+        Map<String, Long> result = new TreeMap<String, Long>();
+        for (PQuery query : metrics.getQueries()) {
+            List<NodeMetrics> nodes = metrics.getNodeMetrics(query);
+            result.put(query.getFullyQualifiedName(), ReteMetrics.getTotalDeliveryTime(nodes));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing the {@link ReteMetrics} of a Rete network via JMX. Each attribute access takes a new
+ * snapshot of the metrics; per-query values are keyed by the fully qualified names of the queries.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface ReteMetricsMXBean {
+
+    public int getNodeCount();
+
+    public long getTotalTupleCount();
+
+    public long getTotalEstimatedMemory();
+
+    public long getTotalMessageCount();
+
+    public long getTotalDeliveryTime();
+
+    public Map<String, Long> getTupleCountByQuery();
+
+    public Map<String, Long> getEstimatedMemoryByQuery();
+
+    public Map<String, Long> getMessageCountByQuery();
+
+    public Map<String, Long> getDeliveryTimeByQuery();
+
+}
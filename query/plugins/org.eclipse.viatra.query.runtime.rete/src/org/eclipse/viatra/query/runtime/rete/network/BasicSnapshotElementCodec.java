@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+/**
+ * Encodes strings, boxed primitives and characters. Subclasses may support further kinds of elements by overriding
+ * {@link #encodeOther(Object)} and {@link #decodeOther(String)}.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public class BasicSnapshotElementCodec implements ISnapshotElementCodec {
+
+    @Override
+    public String encode(Object element) {
+        if (element instanceof String) {
+            return "s:" + element;
+        } else if (element instanceof Integer) {
+            return "i:" + element;
+        } else if (element instanceof Long) {
+            return "l:" + element;
+        } else if (element instanceof Boolean) {
+            return "b:" + element;
+        } else if (element instanceof Double) {
+            return "d:" + element;
+        } else if (element instanceof Float) {
+            return "f:" + element;
+        } else if (element instanceof Short) {
+            return "h:" + element;
+        } else if (element instanceof Byte) {
+            return "y:" + element;
+        } else if (element instanceof Character) {
+            return "c:" + element;
+        } else if (element != null) {
+            String other = encodeOther(element);
+            return other == null ? null : "x:" + other;
+        } else {
+            return null;
+        }
+    }
+
+    @Override
+    public Object decode(String identifier) {
+        if (identifier.length() < 2 || identifier.charAt(1) != ':') {
+            return null;
+        }
+        String value = identifier.substring(2);
+        try {
+            switch (identifier.charAt(0)) {
+            case 's':
+                return value;
+            case 'i':
+                return Integer.valueOf(value);
+            case 'l':
+                return Long.valueOf(value);
+            case 'b':
+                return Boolean.valueOf(value);
+            case 'd':
+                return Double.valueOf(value);
+            case 'f':
+                return Float.valueOf(value);
+            case 'h':
+                return Short.valueOf(value);
+            case 'y':
+                return Byte.valueOf(value);
+            case 'c':
+                return value.length() == 1 ? Character.valueOf(value.charAt(0)) : null;
+            case 'x':
+                return decodeOther(value);
+            default:
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Encodes an element that is not a string or a boxed primitive. The default implementation does not support any
+     * such elements.
+     * 
+     * @return the identifier of the element, or null if not supported
+     */
+    protected String encodeOther(Object element) {
+        return null;
+    }
+
+    /**
+     * Resolves an identifier produced by {@link #encodeOther(Object)}.
+     * 
+     * @return the identified element, or null if it cannot be resolved
+     */
+    protected Object decodeOther(String identifier) {
+        return null;
+    }
+
+}
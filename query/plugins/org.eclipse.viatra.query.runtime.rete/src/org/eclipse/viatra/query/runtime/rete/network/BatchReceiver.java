@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+import java.util.Collection;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+
+/**
+ * A {@link Receiver} that is able to process several updates of the same direction at once, e.g. in order to share
+ * index lookups between them. {@link DefaultMailbox} delivers its contents to such receivers as batches, grouped by
+ * direction.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface BatchReceiver extends Receiver {
+
+    /**
+     * Updates the receiver with a batch of newly found or lost partial matchings. The effect must be the same as
+     * invoking {@link #update(Direction, Tuple)} for each element in the order of iteration; an element may occur
+     * multiple times.
+     * 
+     * @param direction
+     *            the direction of all updates in the batch
+     * @param updateElements
+     *            the updated tuples
+     */
+    public void batchUpdate(Direction direction, Collection<Tuple> updateElements);
+
+}
@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.eclipse.viatra.query.runtime.rete.network;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -31,6 +35,7 @@ import org.eclipse.viatra.query.runtime.rete.index.ExistenceNode;
 import org.eclipse.viatra.query.runtime.rete.index.Indexer;
 import org.eclipse.viatra.query.runtime.rete.index.IterableIndexer;
 import org.eclipse.viatra.query.runtime.rete.network.CommunicationGroup.Recursive;
+import org.eclipse.viatra.query.runtime.rete.single.CallbackNode;
 import org.eclipse.viatra.query.runtime.rete.single.DefaultProductionNode;
 import org.eclipse.viatra.query.runtime.rete.single.TransitiveClosureNode;
 import org.eclipse.viatra.query.runtime.rete.single.TrimmerNode;
@@ -45,6 +50,11 @@ import org.eclipse.viatra.query.runtime.rete.single.TrimmerNode;
  * governed by the strongly connected components in the dependency network and follows a topological sorting scheme;
  * those mailboxes will be emptied first whose owner nodes do not depend on other undelivered messages.
  * 
+ * <p>
+ * Since 1.7, the tracker can also operate in parallel propagation mode, where it schedules waves of mutually independent
+ * communication groups that may deliver their messages concurrently, see {@link #getAndRemoveNextWave()}. The
+ * messaging methods of the tracker are synchronized so that they can be invoked from multiple threads.
+ * 
  * @author Tamas Szabo
  * @since 1.6
  *
@@ -84,15 +94,33 @@ public final class CommunicationTracker {
     // groups should have a simple integer flag which represents its position in a priority queue
     // priority queue only contains the ACTIVE groups
 
+    /**
+     * Whether groups are scheduled for concurrent delivery
+     */
+    private boolean parallelPropagation = false;
+
+    /**
+     * Group -> length of the longest path leading to the group in the reduced dependency graph; null if outdated
+     */
+    private Map<CommunicationGroup, Integer> groupLevels;
+
+    /**
+     * Group -> nodes that may be updated or invoked during the delivery of the messages of the group; computed on
+     * demand, cleared if the dependencies change
+     */
+    private final Map<CommunicationGroup, Set<Node>> groupFootprints;
+
     public CommunicationTracker() {
         this.dependencyGraph = new Graph<Node>();
         this.sccInformationProvider = new IncSCCAlg<Node>(this.dependencyGraph);
         this.groupQueue = new PriorityQueue<CommunicationGroup>();
         this.groupMap = new HashMap<Node, CommunicationGroup>();
+        this.groupFootprints = new HashMap<CommunicationGroup, Set<Node>>();
     }
 
     private void precomputeGroups() {
         groupMap.clear();
+        invalidateSchedule();
         
         // reconstruct group map from dependency graph
         final Graph<Node> reducedGraph = sccInformationProvider.getReducedGraph();
@@ -166,7 +194,9 @@ public final class CommunicationTracker {
                                     directParents.size() == 1 && trueTrimming(directParents.iterator().next()) 
                                ))) &&  
                             // disallow fallthrough: external updates should be stored (if updates are delayed)
-                            (!(node instanceof ExternalInputEnumeratorNode)); 
+                            (!(node instanceof ExternalInputEnumeratorNode)) &&
+                            // disallow fallthrough: in parallel mode, receivers must only be invoked by their own group
+                            !parallelPropagation; 
                     // do additional checks
                     if (fallThrough) {
                         // recursive parent groups generate excess updates that should be cancelled after delete&rederive phases
@@ -239,13 +269,13 @@ public final class CommunicationTracker {
         group.isEnqueued = false;
     }
 
-    public void addRederivable(final RederivableNode node) {
+    public synchronized void addRederivable(final RederivableNode node) {
         final CommunicationGroup group = this.groupMap.get(node);
         group.addRederivable(node);
         activate(group);
     }
 
-    public void removeRederivable(final RederivableNode node) {
+    public synchronized void removeRederivable(final RederivableNode node) {
         final CommunicationGroup group = this.groupMap.get(node);
         group.removeRederivable(node);
         if (group.isEmpty()) {
@@ -253,7 +283,7 @@ public final class CommunicationTracker {
         }
     }
 
-    public void notifyHasMessage(final Mailbox mailbox, final MessageKind kind) {
+    public synchronized void notifyHasMessage(final Mailbox mailbox, final MessageKind kind) {
         final Receiver receiver = mailbox.getReceiver();
         final CommunicationGroup group = this.groupMap.get(receiver);
 
@@ -262,7 +292,7 @@ public final class CommunicationTracker {
         activate(group);
     }
 
-    public void notifyLostAllMessages(final Mailbox mailbox, final MessageKind kind) {
+    public synchronized void notifyLostAllMessages(final Mailbox mailbox, final MessageKind kind) {
         final Receiver receiver = mailbox.getReceiver();
         final CommunicationGroup group = this.groupMap.get(receiver);
 
@@ -273,15 +303,152 @@ public final class CommunicationTracker {
         }
     }
 
-    public CommunicationGroup getAndRemoveFirstGroup() {
+    public synchronized CommunicationGroup getAndRemoveFirstGroup() {
         final CommunicationGroup group = groupQueue.poll();
         group.isEnqueued = false;
         return group;
     }
 
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return groupQueue.isEmpty();
     }
+
+    /**
+     * @return true if the given node belongs to a recursive communication group
+     * @since 1.7
+     */
+    public synchronized boolean isInRecursiveGroup(final Node node) {
+        return groupMap.get(node) instanceof Recursive;
+    }
+
+    /**
+     * @return true if the tracker schedules independent groups for concurrent delivery
+     * @since 1.7
+     */
+    public boolean isParallelPropagation() {
+        return parallelPropagation;
+    }
+
+    /**
+     * Enables or disables parallel propagation mode. In parallel mode, fall-through delivery is disabled in order to
+     * make sure that each node is only ever updated by the delivery of its own group.
+     * 
+     * @since 1.7
+     */
+    public synchronized void setParallelPropagation(final boolean parallelPropagation) {
+        if (this.parallelPropagation != parallelPropagation) {
+            this.parallelPropagation = parallelPropagation;
+            for (final Node node : dependencyGraph.getAllNodes()) {
+                precomputeFallThroughFlag(node);
+            }
+            invalidateSchedule();
+        }
+    }
+
+    /**
+     * Removes and returns a wave of active groups that can deliver their messages concurrently. The wave consists of
+     * active groups at the lowest level (i.e. no other active group may send messages to them), whose footprints are
+     * pairwise disjoint, so that no node is updated or invoked by more than one group of the wave. A group that
+     * notifies external callbacks is always returned as a wave on its own.
+     * 
+     * <p>
+     * Groups of a wave may only send messages to groups of higher levels, so the next wave can be requested once all
+     * groups of the current wave have delivered their messages.
+     * 
+     * @return the non-empty list of groups in the wave; groups not included remain active
+     * @pre !{@link #isEmpty()}
+     * @since 1.7
+     */
+    public synchronized List<CommunicationGroup> getAndRemoveNextWave() {
+        if (groupLevels == null) {
+            precomputeLevels();
+        }
+
+        int lowestLevel = Integer.MAX_VALUE;
+        for (final CommunicationGroup group : groupQueue) {
+            lowestLevel = Math.min(lowestLevel, groupLevels.get(group));
+        }
+
+        final List<CommunicationGroup> candidates = new ArrayList<CommunicationGroup>();
+        for (final CommunicationGroup group : groupQueue) {
+            if (groupLevels.get(group) == lowestLevel) {
+                candidates.add(group);
+            }
+        }
+        Collections.sort(candidates);
+
+        final List<CommunicationGroup> wave = new ArrayList<CommunicationGroup>();
+        final Set<Node> touchedNodes = new HashSet<Node>();
+        for (final CommunicationGroup group : candidates) {
+            final Set<Node> footprint = getFootprint(group);
+            if (footprint == null) { // exclusive group
+                if (wave.isEmpty()) {
+                    wave.add(group);
+                    break;
+                }
+            } else if (Collections.disjoint(touchedNodes, footprint)) {
+                touchedNodes.addAll(footprint);
+                wave.add(group);
+            }
+        }
+
+        for (final CommunicationGroup group : wave) {
+            deactivate(group);
+        }
+        return wave;
+    }
+
+    private void invalidateSchedule() {
+        groupLevels = null;
+        groupFootprints.clear();
+    }
+
+    private void precomputeLevels() {
+        groupLevels = new HashMap<CommunicationGroup, Integer>();
+        final Graph<Node> reducedGraph = sccInformationProvider.getReducedGraph();
+        for (final Node representative : TopologicalSorting.compute(reducedGraph)) {
+            int level = 0;
+            for (final Node sourceRepresentative : reducedGraph.getSourceNodes(representative).keySet()) {
+                if (sourceRepresentative != representative) {
+                    level = Math.max(level, groupLevels.get(groupMap.get(sourceRepresentative)) + 1);
+                }
+            }
+            groupLevels.put(groupMap.get(representative), level);
+        }
+    }
+
+    /**
+     * The footprint of a group consists of its own nodes, the nodes that are invoked synchronously (without a
+     * mailbox) by them, transitively, and the receivers that these nodes may post messages to.
+     * 
+     * @return the footprint, or null if the group notifies external callbacks and therefore must be delivered
+     *         exclusively
+     */
+    private Set<Node> getFootprint(final CommunicationGroup group) {
+        if (groupFootprints.containsKey(group)) {
+            return groupFootprints.get(group);
+        }
+
+        Set<Node> footprint = new HashSet<Node>();
+        final Deque<Node> invokedNodes = new ArrayDeque<Node>(
+                sccInformationProvider.sccs.getPartition(group.getRepresentative()));
+        footprint.addAll(invokedNodes);
+        while (!invokedNodes.isEmpty()) {
+            final Node node = invokedNodes.poll();
+            if (node instanceof CallbackNode) {
+                footprint = null;
+                break;
+            }
+            for (final Node target : dependencyGraph.getTargetNodes(node).keySet()) {
+                if (footprint.add(target) && !(target instanceof Receiver)) {
+                    invokedNodes.add(target);
+                }
+            }
+        }
+
+        groupFootprints.put(group, footprint);
+        return footprint;
+    }
     
     protected CommunicationGroup createAndStoreGroup(final Node representative, final int index) {
         final boolean isSingleton = sccInformationProvider.sccs.getPartition(representative).size() == 1;
@@ -319,6 +486,7 @@ public final class CommunicationTracker {
         final boolean hadOutgoingEdges = sccInformationProvider.hasOutgoingEdges(targetRepresentative);
         
         dependencyGraph.insertEdge(source, target);
+        invalidateSchedule();
         
         // create groups if they do not yet exist
         CommunicationGroup sourceGroup = groupMap.get(sourceRepresentative);
@@ -366,6 +534,7 @@ public final class CommunicationTracker {
     public void unregisterDependency(final Node source, final Node target) {
         // delete the edge first, and then query the SCC info provider
         this.dependencyGraph.deleteEdge(source, target);
+        invalidateSchedule();
 
         final Node sourceRepresentative = sccInformationProvider.getRepresentative(source);
         final Node targetRepresentative = sccInformationProvider.getRepresentative(target);
@@ -381,6 +550,37 @@ public final class CommunicationTracker {
         }
     }
     
+    /**
+     * Unregisters the given nodes along with all dependencies they take part in. The communication groups are only
+     * recomputed once, therefore this is preferable to unregistering the dependencies one by one when a part of the
+     * network is discarded.
+     * 
+     * @pre the given nodes have no undelivered messages
+     * @since 1.7
+     */
+    public synchronized void unregisterNodes(final Collection<? extends Node> nodes) {
+        for (final Node node : nodes) {
+            dependencyGraph.deleteNode(node);
+        }
+        precomputeGroups();
+    }
+
+    /**
+     * @return the nodes that the given node directly depends on, i.e. that may send messages to it
+     * @since 1.7
+     */
+    public synchronized Set<Node> getDependencies(final Node node) {
+        return Collections.unmodifiableSet(dependencyGraph.getSourceNodes(node).keySet());
+    }
+
+    /**
+     * @return the nodes that directly depend on the given node, i.e. that it may send messages to
+     * @since 1.7
+     */
+    public synchronized Set<Node> getDependents(final Node node) {
+        return Collections.unmodifiableSet(dependencyGraph.getTargetNodes(node).keySet());
+    }
+
     /**
      * Refresh fall-through flags if dependencies change for given target, but no SCC change
      */
@@ -12,6 +12,7 @@ package org.eclipse.viatra.query.runtime.rete.network;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
@@ -79,12 +80,16 @@ class ConnectionFactory {
         } else if (recipe instanceof SingleParentNodeRecipe) {
             final Receiver receiver = (Receiver) freshNode;
             ReteNodeRecipe parentRecipe = ((SingleParentNodeRecipe) recipe).getParent();
-            connectToParent(recipe, receiver, parentRecipe);
+            if (!restoreFromSnapshot(recipe, receiver, Collections.singletonList(parentRecipe))) {
+                connectToParent(recipe, receiver, parentRecipe);
+            }
         } else if (recipe instanceof MultiParentNodeRecipe) {
             final Receiver receiver = (Receiver) freshNode;
             List<ReteNodeRecipe> parentRecipes = ((MultiParentNodeRecipe) recipe).getParents();
-            for (ReteNodeRecipe parentRecipe : parentRecipes) {
-                connectToParent(recipe, receiver, parentRecipe);				
+            if (!restoreFromSnapshot(recipe, receiver, parentRecipes)) {
+                for (ReteNodeRecipe parentRecipe : parentRecipes) {
+                    connectToParent(recipe, receiver, parentRecipe);
+                }
             }
         } else if (recipe instanceof BetaRecipe) {
             final DualInputNode beta = (DualInputNode) freshNode;
@@ -108,9 +113,38 @@ class ConnectionFactory {
         return (Indexer) reteContainer.resolveLocal(address);
     }
     
+    private Supplier resolveSupplier(ReteNodeRecipe recipe) {
+        final Address<? extends Supplier> address = (Address<? extends Supplier>) reteContainer.getNetwork().getExistingNodeByRecipe(recipe);
+        return reteContainer.getProvisioner().asSupplier(address);
+    }
+
+    /**
+     * If contents for the fresh node are available from a {@link ReteNetworkSnapshot}, connects the node to its
+     * parents without synchronization, and initializes it with the saved contents instead.
+     * 
+     * @return true if the node was restored from a snapshot
+     */
+    private boolean restoreFromSnapshot(ReteNodeRecipe recipe, Receiver freshNode, List<ReteNodeRecipe> parentRecipes) {
+        // nodes that already have children (recursive corner case) are not restored
+        if (!(freshNode instanceof SnapshotableNode) || !(freshNode instanceof Supplier)
+                || !((Supplier) freshNode).getReceivers().isEmpty()) {
+            return false;
+        }
+        Collection<Tuple> contents = reteContainer.getNetwork().consumeSnapshotContents(recipe);
+        if (contents == null) {
+            return false;
+        }
+        reteContainer.flushUpdates();
+        for (ReteNodeRecipe parentRecipe : parentRecipes) {
+            reteContainer.connect(resolveSupplier(parentRecipe), freshNode);
+        }
+        reteContainer.sendConstructionUpdates(freshNode, Direction.INSERT, contents);
+        reteContainer.flushUpdates();
+        return true;
+    }
+
     private void connectToParent(ReteNodeRecipe recipe, Receiver freshNode, ReteNodeRecipe parentRecipe) {
-        final Address<? extends Supplier> parentAddress = (Address<? extends Supplier>) reteContainer.getNetwork().getExistingNodeByRecipe(parentRecipe);
-        final Supplier parentSupplier = reteContainer.getProvisioner().asSupplier(parentAddress);
+        final Supplier parentSupplier = resolveSupplier(parentRecipe);
         
         // special synch
         if (freshNode instanceof TransitiveClosureNode) {
@@ -10,23 +10,28 @@
  *******************************************************************************/
 package org.eclipse.viatra.query.runtime.rete.network;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 
 /**
  * Default mailbox implementation. 
  * <p> Usually, the mailbox performs counting of messages so that they can cancel each other out.
  * However, if marked as a fall-through mailbox, than update messages are delivered directly to the receiver node to reduce overhead. 
+ * <p> Since 1.7, the contents of the mailbox are delivered as batches to {@link BatchReceiver}s, and delivered messages 
+ * are counted (see {@link MonitoredMailbox}). 
  * 
  * 
  * @author Tamas Szabo
  * @since 1.6
  */
-public class DefaultMailbox implements Mailbox {
+public class DefaultMailbox implements MonitoredMailbox {
 
     protected Map<Tuple, Integer> queue;
     protected Map<Tuple, Integer> buffer;
@@ -35,6 +40,20 @@ public class DefaultMailbox implements Mailbox {
     protected boolean delivering;
     protected final CommunicationTracker tracker;
     protected boolean fallThrough = false;
+    /**
+     * Plain counters written only by the propagating thread; they are published to other threads by the end of each
+     * delivery round of the container, see {@link ReteContainer#getDeliveryRound()}.
+     * @since 1.7
+     */
+    protected long insertCount;
+    /**
+     * @since 1.7
+     */
+    protected long revokeCount;
+    /**
+     * @since 1.7
+     */
+    protected long deliveryTime;
 
     public DefaultMailbox() {
         this(null, null);
@@ -44,8 +63,9 @@ public class DefaultMailbox implements Mailbox {
         this.receiver = receiver;
         this.container = container;
         this.tracker = container == null ? null : container.getTracker();
-        this.queue = new LinkedHashMap<Tuple, Integer>();
-        this.buffer = new LinkedHashMap<Tuple, Integer>();
+        ICollectionsFramework collections = container == null ? null : container.getCollectionsFramework();
+        this.queue = CollectionsFactory.getMap(collections);
+        this.buffer = CollectionsFactory.getMap(collections);
     }
 
     protected Map<Tuple, Integer> getActiveQueue() {
@@ -71,6 +91,11 @@ public class DefaultMailbox implements Mailbox {
     @Override
     public void postMessage(Direction direction, Tuple update) {
         if (fallThrough) {
+            if (direction == Direction.REVOKE) {
+                revokeCount++;
+            } else {
+                insertCount++;
+            }
             receiver.update(direction, update);
         } else {
             Map<Tuple, Integer> activeQueue = getActiveQueue();
@@ -104,31 +129,66 @@ public class DefaultMailbox implements Mailbox {
 
     @Override
     public void deliverAll(MessageKind kind) {
+        boolean timed = container != null && container.getNetwork().isDeliveryTimeMeasured();
+        long start = timed ? System.nanoTime() : 0;
         // use the buffer during delivering so that there is a clear separation between the stages
         this.delivering = true;
 
-        for (Entry<Tuple, Integer> entry : this.queue.entrySet()) {
-            int count = entry.getValue();
-            
-            Direction direction;
-            if (count < 0) {
-                direction = Direction.REVOKE;
-                count = -count;
-            } else {
-                direction = Direction.INSERT;
-            }
-            
-            for (int i = 0; i < count; i++) {
-                this.receiver.update(direction, entry.getKey());
+        if (this.receiver instanceof BatchReceiver) {
+            deliverAllAsBatches((BatchReceiver) this.receiver);
+        } else {
+            for (Entry<Tuple, Integer> entry : this.queue.entrySet()) {
+                int count = entry.getValue();
+                
+                Direction direction;
+                if (count < 0) {
+                    direction = Direction.REVOKE;
+                    count = -count;
+                    revokeCount += count;
+                } else {
+                    direction = Direction.INSERT;
+                    insertCount += count;
+                }
+                
+                for (int i = 0; i < count; i++) {
+                    this.receiver.update(direction, entry.getKey());
+                }
             }
         }
         
         this.delivering = false;
 
+        // the delivered queue is recycled as the new buffer
         Map<Tuple, Integer> tmpQueue = this.queue;
         this.queue = this.buffer;
         this.buffer = tmpQueue;
-        this.buffer = new LinkedHashMap<>();
+        this.buffer.clear();
+        if (timed) {
+            deliveryTime += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Delivers the queue contents in two batches, first the revocations, then the insertions.
+     */
+    private void deliverAllAsBatches(BatchReceiver batchReceiver) {
+        List<Tuple> revoked = new ArrayList<Tuple>();
+        List<Tuple> inserted = new ArrayList<Tuple>(this.queue.size());
+        for (Entry<Tuple, Integer> entry : this.queue.entrySet()) {
+            int count = entry.getValue();
+            List<Tuple> batch = count < 0 ? revoked : inserted;
+            for (int i = Math.abs(count); i > 0; i--) {
+                batch.add(entry.getKey());
+            }
+        }
+        revokeCount += revoked.size();
+        insertCount += inserted.size();
+        if (!revoked.isEmpty()) {
+            batchReceiver.batchUpdate(Direction.REVOKE, revoked);
+        }
+        if (!inserted.isEmpty()) {
+            batchReceiver.batchUpdate(Direction.INSERT, inserted);
+        }
     }
 
     @Override
@@ -147,6 +207,33 @@ public class DefaultMailbox implements Mailbox {
         this.buffer.clear();
     }
 
+    @Override
+    public long getDeliveredInsertCount() {
+        synchronizeCounters();
+        return insertCount;
+    }
+
+    @Override
+    public long getDeliveredRevokeCount() {
+        synchronizeCounters();
+        return revokeCount;
+    }
+
+    @Override
+    public long getDeliveryTime() {
+        synchronizeCounters();
+        return deliveryTime;
+    }
+
+    /**
+     * Reads the delivery round of the container, which makes the counter updates of completed rounds visible.
+     */
+    private void synchronizeCounters() {
+        if (container != null) {
+            container.getDeliveryRound();
+        }
+    }
+
     public boolean isFallThrough() {
         return fallThrough;
     }
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+/**
+ * Maps the elements of Rete tuples to stable, string-based identifiers and back, so that a
+ * {@link ReteNetworkSnapshot} can be persisted and loaded in a different session.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface ISnapshotElementCodec {
+
+    /**
+     * @return the identifier of the given element, or null if the element cannot be identified
+     */
+    public String encode(Object element);
+
+    /**
+     * @return the element identified by the given string, or null if it cannot be resolved
+     */
+    public Object decode(String identifier);
+
+}
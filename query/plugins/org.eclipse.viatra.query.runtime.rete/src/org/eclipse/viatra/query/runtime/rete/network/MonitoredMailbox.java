@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
+
+/**
+ * A {@link Mailbox} that keeps count of the messages delivered to its receiver, and of the time spent delivering them.
+ * The counters are safe to read concurrently with update propagation, e.g. from a monitoring thread, but they only
+ * reflect the messages delivered up to the end of the last delivery round of the container (see
+ * {@link ReteContainer#getDeliveryRound()}), so that counting does not require synchronization on each message. The
+ * delivery time is only measured if requested by {@link ReteHintOptions#measureDeliveryTime}.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface MonitoredMailbox extends Mailbox {
+
+    /**
+     * @return the number of insertions delivered to the receiver so far
+     */
+    public long getDeliveredInsertCount();
+
+    /**
+     * @return the number of revocations delivered to the receiver so far
+     */
+    public long getDeliveredRevokeCount();
+
+    /**
+     * @return the cumulative time spent in {@link #deliverAll(MessageKind)} in nanoseconds, including the processing of
+     *         messages that fall through to the descendants of the receiver; 0 if delivery time is not measured
+     */
+    public long getDeliveryTime();
+
+}
@@ -30,7 +30,7 @@ import org.eclipse.viatra.query.runtime.rete.tuple.Clearable;
  * @author Tamas Szabo
  * @since 1.6
  */
-public class MonotonicityAwareMailbox implements Mailbox {
+public class MonotonicityAwareMailbox implements MonitoredMailbox {
 
     protected MessageIndexer monotoneQueue;
     protected MessageIndexer antiMonotoneQueue;
@@ -42,6 +42,20 @@ public class MonotonicityAwareMailbox implements Mailbox {
     protected final ReteContainer container;
     protected final CommunicationTracker tracker;
     protected final TupleMask groupMask;
+    /**
+     * Plain counters written only by the propagating thread; they are published to other threads by the end of each
+     * delivery round of the container, see {@link ReteContainer#getDeliveryRound()}.
+     * @since 1.7
+     */
+    protected long insertCount;
+    /**
+     * @since 1.7
+     */
+    protected long revokeCount;
+    /**
+     * @since 1.7
+     */
+    protected long deliveryTime;
 
     public MonotonicityAwareMailbox(final MonotonicityAwareReceiver receiver, final ReteContainer container) {
         this.receiver = receiver;
@@ -199,6 +213,8 @@ public class MonotonicityAwareMailbox implements Mailbox {
 
     @Override
     public void deliverAll(final MessageKind kind) {
+        final boolean timed = container.getNetwork().isDeliveryTimeMeasured();
+        final long start = timed ? System.nanoTime() : 0;
         if (kind == MessageKind.ANTI_MONOTONE) {
             // use the buffer during delivering so that there is a clear separation between the stages
             this.deliveringAntiMonotone = true;
@@ -208,6 +224,7 @@ public class MonotonicityAwareMailbox implements Mailbox {
                     final Tuple update = entry.getKey();
                     final int count = entry.getValue();
                     assert count < 0;
+                    revokeCount += Math.abs(count);
                     for (int i = 0; i < Math.abs(count); i++) {
                         this.receiver.update(Direction.REVOKE, update, false);
                     }
@@ -229,6 +246,11 @@ public class MonotonicityAwareMailbox implements Mailbox {
                     final int count = entry.getValue();
                     assert count != 0;
                     final Direction direction = count < 0 ? Direction.REVOKE : Direction.INSERT;
+                    if (count < 0) {
+                        revokeCount -= count;
+                    } else {
+                        insertCount += count;
+                    }
                     for (int i = 0; i < Math.abs(count); i++) {
                         this.receiver.update(direction, update, true);
                     }
@@ -241,6 +263,27 @@ public class MonotonicityAwareMailbox implements Mailbox {
             monotoneBuffer = tmp;
             monotoneBuffer.clear();
         }
+        if (timed) {
+            deliveryTime += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public long getDeliveredInsertCount() {
+        container.getDeliveryRound();
+        return insertCount;
+    }
+
+    @Override
+    public long getDeliveredRevokeCount() {
+        container.getDeliveryRound();
+        return revokeCount;
+    }
+
+    @Override
+    public long getDeliveryTime() {
+        container.getDeliveryRound();
+        return deliveryTime;
     }
 
     @Override
@@ -11,26 +11,41 @@
 
 package org.eclipse.viatra.query.runtime.rete.network;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.context.InterningQueryRuntimeContext;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
+import org.eclipse.viatra.query.runtime.rete.boundary.Disconnectable;
+import org.eclipse.viatra.query.runtime.rete.boundary.ExternalInputEnumeratorNode;
 import org.eclipse.viatra.query.runtime.rete.boundary.InputConnector;
+import org.eclipse.viatra.query.runtime.rete.index.Indexer;
 import org.eclipse.viatra.query.runtime.rete.matcher.ReteEngine;
+import org.eclipse.viatra.query.runtime.rete.recipes.InputRecipe;
 import org.eclipse.viatra.query.runtime.rete.recipes.ReteNodeRecipe;
 import org.eclipse.viatra.query.runtime.rete.remote.Address;
 import org.eclipse.viatra.query.runtime.rete.traceability.RecipeTraceInfo;
+import org.eclipse.viatra.query.runtime.rete.traceability.TraceInfo;
 import org.eclipse.viatra.query.runtime.rete.util.Options;
 
+import com.google.common.collect.Multiset;
+
 /**
  * @author Gabor Bergmann
  * 
@@ -59,8 +74,24 @@ public class Network {
     // Node and recipe administration
     // incl. addresses for existing nodes by recipe (where available)
     // Maintained by NodeProvisioner of each container
-    Map<ReteNodeRecipe, Address<? extends Node>> nodesByRecipe = CollectionsFactory.getMap();
-    Set<RecipeTraceInfo> recipeTraces = CollectionsFactory.getSet();
+    Map<ReteNodeRecipe, Address<? extends Node>> nodesByRecipe;
+    Set<RecipeTraceInfo> recipeTraces;
+    
+    private final ICollectionsFramework collections;
+
+    // exists only if parallel update propagation is enabled
+    private ForkJoinPool propagationPool;
+
+    private volatile boolean deliveryTimeMeasured = false;
+    private InterningQueryRuntimeContext interningContext;
+    private boolean offHeapIndexing;
+
+    // contents of nodes to be restored from a snapshot, if any
+    private Map<String, Multiset<Tuple>> snapshotContents;
+    private RecipeKeyProvider snapshotKeys;
+    private ReteNetworkSnapshot snapshot;
+    private ISnapshotElementCodec snapshotCodec;
+    private Set<String> verifiedSnapshotInputs;
 
     /**
      * @throws IllegalStateException
@@ -90,6 +121,9 @@ public class Network {
         super();
         this.threads = threads;
         this.engine = engine;
+        this.collections = engine.getCollectionsFramework();
+        this.nodesByRecipe = collections.createMap();
+        this.recipeTraces = collections.createSet();
         this.inputConnector = new InputConnector(this);
         this.nodeFactory = new NodeFactory(engine.getLogger());
 
@@ -98,10 +132,10 @@ public class Network {
         nextContainer = firstContainer;
 
         if (threads > 0) {
-            globalTerminationCriteria = CollectionsFactory.getMap();// new
+            globalTerminationCriteria = collections.createMap();// new
                                                                     // HashMap<ReteContainer,
                                                                     // Long>();
-            reportedClocks = CollectionsFactory.getMap();// new
+            reportedClocks = collections.createMap();// new
                                                          // HashMap<ReteContainer,
                                                          // Long>();
             ReadWriteLock rwl = new ReentrantReadWriteLock();
@@ -123,6 +157,12 @@ public class Network {
             container.kill();
         }
         containers.clear();
+        synchronized (this) {
+            if (propagationPool != null) {
+                propagationPool.shutdown();
+                propagationPool = null;
+            }
+        }
     }
 
     /**
@@ -348,8 +388,10 @@ public class Network {
                     }
                 }
             }
-        } else
+        } else {
             headContainer.deliverMessagesSingleThreaded();
+            recycleInternedElements();
+        }
     }
 
     /**
@@ -376,6 +418,7 @@ public class Network {
             }
         } else {
             headContainer.deliverMessagesSingleThreaded();
+            recycleInternedElements();
             action.run();
         }
 
@@ -410,5 +453,346 @@ public class Network {
     public ReteEngine getEngine() {
         return engine;
     }
+    
+    /**
+     * The collections implementation to be used for the internal data structures of the network.
+     * @since 1.7
+     */
+    public ICollectionsFramework getCollectionsFramework() {
+        return collections;
+    }
+
+    /**
+     * Switches the containers of the network to parallel update propagation, see
+     * {@link CommunicationTracker#getAndRemoveNextWave()}. The messages are delivered on a fork-join pool owned by this
+     * network, which is shut down when the network is killed. Has no effect if parallel propagation is already enabled,
+     * or if the network is operated by dedicated Rete threads.
+     * 
+     * @param parallelism
+     *            the number of worker threads of the pool; if not positive, the number of available processors
+     * @since 1.7
+     */
+    public synchronized void enableParallelPropagation(int parallelism) {
+        if (threads == 0 && propagationPool == null) {
+            propagationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+            for (ReteContainer container : containers) {
+                container.getTracker().setParallelPropagation(true);
+            }
+        }
+    }
+
+    /**
+     * @return the pool delivering the messages in parallel propagation mode, or null if parallel propagation is not
+     *         enabled
+     * @since 1.7
+     */
+    public synchronized ForkJoinPool getPropagationPool() {
+        return propagationPool;
+    }
+
+    /**
+     * @return true if the mailboxes of the network measure the time spent delivering messages, see
+     *         {@link MonitoredMailbox#getDeliveryTime()}
+     * @since 1.7
+     */
+    public boolean isDeliveryTimeMeasured() {
+        return deliveryTimeMeasured;
+    }
+
+    /**
+     * Switches the measurement of delivery time in the mailboxes of the network on or off.
+     * 
+     * @since 1.7
+     */
+    public void setDeliveryTimeMeasured(boolean deliveryTimeMeasured) {
+        this.deliveryTimeMeasured = deliveryTimeMeasured;
+    }
+
+    /**
+     * Sets the runtime context that interns the elements of the network, see
+     * {@link org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions#internElements}. The element IDs it releases
+     * are reclaimed whenever a single-threaded network has delivered all pending messages.
+     * 
+     * @since 1.7
+     */
+    public void setInterningContext(InterningQueryRuntimeContext interningContext) {
+        this.interningContext = interningContext;
+    }
+
+    /**
+     * @return true if the projection indexers constructed by the nodes of the network store their contents off-heap,
+     *         see {@link org.eclipse.viatra.query.runtime.rete.index.OffHeapProjectionIndexer}
+     * @since 1.7
+     */
+    public boolean isOffHeapIndexing() {
+        return offHeapIndexing;
+    }
+
+    /**
+     * Determines whether projection indexers constructed from now on store their contents off-heap; requires an
+     * interning context (see {@link #setInterningContext(InterningQueryRuntimeContext)}).
+     * 
+     * @since 1.7
+     */
+    public void setOffHeapIndexing(boolean offHeapIndexing) {
+        if (offHeapIndexing && interningContext == null) {
+            throw new IllegalStateException("Off-heap indexing requires the elements of the network to be interned");
+        }
+        this.offHeapIndexing = offHeapIndexing;
+    }
+
+    /**
+     * Reclaims the element IDs released by the interning context, if any. Only called by a single-threaded network
+     * once all pending messages are delivered, so that no node holds a tuple of the elements that disappeared from the
+     * input.
+     */
+    private void recycleInternedElements() {
+        if (interningContext != null && interningContext.hasReleasedIds()
+                && !engine.getBackendContext().areUpdatesDelayed() && headContainer.getTracker().isEmpty()) {
+            interningContext.recycleReleasedIds();
+        }
+    }
+
+    /**
+     * Discards those nodes of the network that are no longer needed, starting from the given nodes (typically
+     * production nodes of evicted matchers). A node is still needed if a pattern matcher is connected to it directly or
+     * indirectly, or if it is embedded in a needed node. Discarded nodes are forgotten by the network, and are rebuilt
+     * from their recipes on demand.
+     * 
+     * @return the estimated memory of the discarded nodes in bytes, as reported by
+     *         {@link StatefulNode#getEstimatedMemory()} before they were discarded
+     * @since 1.7
+     */
+    public synchronized long discardUnneededNodes(Collection<? extends Node> roots) {
+        waitForReteTermination();
+        long discarded = 0;
+        for (ReteContainer container : containers) {
+            Set<Node> localRoots = new HashSet<Node>();
+            for (Node root : roots) {
+                if (root.getContainer() == container) {
+                    localRoots.add(root);
+                }
+            }
+            if (!localRoots.isEmpty()) {
+                discarded += discardUnneededNodes(container, localRoots);
+            }
+        }
+        return discarded;
+    }
+
+    private long discardUnneededNodes(ReteContainer container, Set<Node> roots) {
+        CommunicationTracker tracker = container.getTracker();
+
+        // candidates: the ancestors of the roots, and everything depending on them
+        Set<Node> ancestors = collectClosure(tracker, roots, true);
+        Set<Node> candidates = collectClosure(tracker, ancestors, false);
+
+        Set<Node> needed = new HashSet<Node>();
+        Deque<Node> toMark = new ArrayDeque<Node>();
+        for (Node node : candidates) {
+            if (tracker.getDependents(node).isEmpty() && !(node instanceof Indexer)
+                    && !(node instanceof Production)) {
+                toMark.add(node);
+            }
+        }
+        while (!toMark.isEmpty()) {
+            Node node = toMark.poll();
+            if (needed.add(node)) {
+                toMark.addAll(tracker.getDependencies(node));
+                for (Node dependent : tracker.getDependents(node)) {
+                    // embedded indexers are referenced by their owners
+                    if (dependent instanceof Indexer && !(dependent instanceof Receiver)) {
+                        toMark.add(dependent);
+                    }
+                }
+            }
+        }
+
+        Set<Node> dead = new HashSet<Node>(candidates);
+        dead.removeAll(needed);
+        if (dead.isEmpty()) {
+            return 0;
+        }
+
+        for (Iterator<Entry<ReteNodeRecipe, Address<? extends Node>>> iterator = nodesByRecipe.entrySet()
+                .iterator(); iterator.hasNext();) {
+            Entry<ReteNodeRecipe, Address<? extends Node>> entry = iterator.next();
+            Address<? extends Node> address = entry.getValue();
+            if (address.getContainer() == container && dead.contains(container.resolveLocal(address))) {
+                iterator.remove();
+                container.getProvisioner().forgetRecipe(entry.getKey());
+            }
+        }
+        for (Iterator<RecipeTraceInfo> iterator = recipeTraces.iterator(); iterator.hasNext();) {
+            if (dead.contains(iterator.next().getNode())) {
+                iterator.remove();
+            }
+        }
+        for (Node node : dead) {
+            if (node instanceof ExternalInputEnumeratorNode) {
+                inputConnector.removeExternalInputNode((ExternalInputEnumeratorNode) node);
+            }
+            if (node instanceof Disconnectable) {
+                ((Disconnectable) node).disconnect();
+                engine.removeDisconnectable((Disconnectable) node);
+            }
+        }
+        long releasedMemory = 0;
+        for (Node node : dead) {
+            if (node instanceof StatefulNode) {
+                releasedMemory += ((StatefulNode) node).getEstimatedMemory();
+            }
+        }
+        container.discardNodes(dead);
+        return releasedMemory;
+    }
+
+    private static Set<Node> collectClosure(CommunicationTracker tracker, Set<Node> start, boolean upwards) {
+        Set<Node> result = new HashSet<Node>();
+        Deque<Node> toVisit = new ArrayDeque<Node>(start);
+        while (!toVisit.isEmpty()) {
+            Node node = toVisit.poll();
+            if (result.add(node)) {
+                toVisit.addAll(upwards ? tracker.getDependencies(node) : tracker.getDependents(node));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Initializes snapshotable nodes that are constructed from now on with their contents saved in the given
+     * snapshot, instead of synchronizing them with their parents. Each saved node content is used at most once.
+     * 
+     * <p>
+     * Before the saved contents of a node are used, the current contents of the input nodes it depends on are compared
+     * with the fingerprints recorded in the snapshot (see {@link ReteNetworkSnapshot#getInputFingerprints()}). If any
+     * of them differs, the snapshot is rejected: the rest of it is discarded, and nodes are synchronized with their
+     * parents as usual.
+     * 
+     * @param codec
+     *            identifies the elements of the model when computing the fingerprints of the input nodes; it must be
+     *            equivalent to the one the snapshot was captured with
+     * @since 1.7
+     */
+    public synchronized void restoreFrom(ReteNetworkSnapshot snapshot, ISnapshotElementCodec codec) {
+        this.snapshotContents = snapshot.copyContents();
+        this.snapshotKeys = new RecipeKeyProvider();
+        this.snapshot = snapshot;
+        this.snapshotCodec = codec;
+        this.verifiedSnapshotInputs = new HashSet<String>();
+    }
+
+    /**
+     * @return true if the network is being built from a snapshot that has not been used up or rejected yet
+     * @since 1.7
+     */
+    public synchronized boolean isRestoringSnapshot() {
+        return snapshotContents != null;
+    }
+
+    private void discardSnapshot() {
+        snapshotContents = null;
+        snapshotKeys = null;
+        snapshot = null;
+        snapshotCodec = null;
+        verifiedSnapshotInputs = null;
+    }
+
+    /**
+     * @return the contents saved for the given snapshotable node with one of the given recipe traces, or null if it is
+     *         not to be restored from a snapshot
+     */
+    synchronized Collection<Tuple> consumeSnapshotContents(Node node, TraceInfo... traces) {
+        if (snapshotContents == null || !(node instanceof SnapshotableNode)) {
+            return null;
+        }
+        for (TraceInfo traceInfo : traces) {
+            if (traceInfo instanceof RecipeTraceInfo) {
+                Collection<Tuple> result = consumeSnapshotContents(((RecipeTraceInfo) traceInfo).getRecipe());
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the contents saved for the node of the given recipe, or null if it is not to be restored from a snapshot
+     */
+    synchronized Collection<Tuple> consumeSnapshotContents(ReteNodeRecipe recipe) {
+        if (snapshotContents == null) {
+            return null;
+        }
+        String key = snapshotKeys.getKey(recipe);
+        Collection<Tuple> savedContents = key == null ? null : snapshotContents.remove(key);
+        if (savedContents != null && !inputsMatchSnapshot(recipe)) {
+            engine.getLogger().warn(
+                    "Rete network snapshot rejected, as it was captured from a different model; node contents are computed instead");
+            discardSnapshot();
+            return null;
+        }
+        if (snapshotContents.isEmpty()) {
+            discardSnapshot();
+        }
+        if (savedContents == null) {
+            return null;
+        }
+        IQueryRuntimeContext context = engine.getRuntimeContext();
+        List<Tuple> result = new ArrayList<Tuple>(savedContents.size());
+        for (Tuple tuple : savedContents) {
+            result.add(context.wrapTuple(tuple));
+        }
+        return result;
+    }
+
+    /**
+     * Checks the current contents of the input nodes the given recipe depends on against the fingerprints recorded in
+     * the snapshot being restored.
+     */
+    private boolean inputsMatchSnapshot(ReteNodeRecipe recipe) {
+        Map<String, String> fingerprints = snapshot.getInputFingerprints();
+        for (InputRecipe inputRecipe : collectInputRecipes(recipe)) {
+            String keyID = inputRecipe.getKeyID();
+            if (verifiedSnapshotInputs.contains(keyID)) {
+                continue;
+            }
+            Address<? extends Node> address = nodesByRecipe.get(inputRecipe);
+            String savedFingerprint = fingerprints.get(keyID);
+            if (address == null || savedFingerprint == null) {
+                return false;
+            }
+            Supplier inputNode = (Supplier) address.getContainer().resolveLocal(address);
+            List<Tuple> contents = new ArrayList<Tuple>();
+            inputNode.pullInto(contents);
+            if (!savedFingerprint.equals(
+                    ReteNetworkSnapshot.computeFingerprint(contents, engine.getRuntimeContext(), snapshotCodec))) {
+                return false;
+            }
+            verifiedSnapshotInputs.add(keyID);
+        }
+        return true;
+    }
+
+    /**
+     * @return the input recipes among the given recipe and the recipe objects it (transitively) refers to
+     */
+    private static Set<InputRecipe> collectInputRecipes(ReteNodeRecipe recipe) {
+        Set<InputRecipe> result = new HashSet<InputRecipe>();
+        Set<EObject> visited = new HashSet<EObject>();
+        Deque<EObject> toVisit = new ArrayDeque<EObject>();
+        toVisit.add(recipe);
+        while (!toVisit.isEmpty()) {
+            EObject current = toVisit.poll();
+            if (visited.add(current)) {
+                if (current instanceof InputRecipe) {
+                    result.add((InputRecipe) current);
+                }
+                toVisit.addAll(current.eCrossReferences());
+                toVisit.addAll(current.eContents());
+            }
+        }
+        return result;
+    }
 
 }
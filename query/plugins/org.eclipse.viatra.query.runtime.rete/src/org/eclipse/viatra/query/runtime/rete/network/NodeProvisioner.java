@@ -16,7 +16,6 @@ import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.boundary.InputConnector;
 import org.eclipse.viatra.query.runtime.rete.construction.plancompiler.CompilerHelper;
 import org.eclipse.viatra.query.runtime.rete.index.Indexer;
@@ -58,14 +57,8 @@ public class NodeProvisioner {
     IQueryRuntimeContext runtimeContext;
 
     // TODO as recipe?
-    Map<Supplier, RemoteReceiver> remoteReceivers = CollectionsFactory.getMap();// new
-                                                                                // HashMap<Supplier,
-                                                                                // RemoteReceiver>();
-    Map<Address<? extends Supplier>, RemoteSupplier> remoteSuppliers = CollectionsFactory.getMap();// new
-                                                                                                   // HashMap<Address<?
-                                                                                                   // extends
-                                                                                                   // Supplier>,
-                                                                                                   // RemoteSupplier>();
+    Map<Supplier, RemoteReceiver> remoteReceivers;
+    Map<Address<? extends Supplier>, RemoteSupplier> remoteSuppliers;
 
     private RecipeRecognizer recognizer;
 
@@ -78,6 +71,8 @@ public class NodeProvisioner {
     public NodeProvisioner(ReteContainer reteContainer) {
         super();
         this.reteContainer = reteContainer;
+        this.remoteReceivers = reteContainer.getCollectionsFramework().createMap();
+        this.remoteSuppliers = reteContainer.getCollectionsFramework().createMap();
         this.nodeFactory = reteContainer.getNodeFactory();
         this.connectionFactory = reteContainer.getConnectionFactory();
         this.inputConnector = reteContainer.getInputConnectionFactory();
@@ -192,6 +187,13 @@ public class NodeProvisioner {
         }
     }
 
+    /**
+     * Forgets the given recipe after the node built for it has been discarded.
+     */
+    synchronized void forgetRecipe(ReteNodeRecipe recipe) {
+        recognizer.forgetCanonicalRecipe(recipe);
+    }
+
     //// Remoting - TODO eliminate?
 
     synchronized RemoteReceiver accessRemoteReceiver(Address<? extends Supplier> address) {
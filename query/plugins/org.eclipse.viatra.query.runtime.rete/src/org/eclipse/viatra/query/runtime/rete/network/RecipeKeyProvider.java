@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.viatra.query.runtime.rete.recipes.RecipesPackage;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Computes keys for recipes that identify them across engines and sessions, based on the structure of the recipe and
+ * its ancestors. Structurally equivalent recipes receive the same key.
+ * 
+ * <p>
+ * Only value-typed attributes (strings, numbers, booleans, characters and enum constants) and references to other
+ * recipe model objects contribute to the key. Trace information is omitted, and so are the query and input key objects,
+ * as queries and input keys are identified by their names instead. Recipes with any other attribute value (e.g.
+ * expression evaluators, aggregation operators or model elements as constants) have no identity that is stable across
+ * sessions, so they are not assigned a key, and neither are the recipes depending on them. Recipes that depend on
+ * themselves (i.e. recursive queries) are not assigned a key either.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+class RecipeKeyProvider {
+
+    // the query and input key objects are represented by the patternFQN and keyID attributes, respectively
+    private static final Set<String> IGNORED_FEATURES = ImmutableSet.of("traceInfo", "equivalenceClassIDs",
+            "pattern", "inputKey");
+    private static final Set<Class<?>> VALUE_TYPES = ImmutableSet.<Class<?>> of(String.class, Boolean.class,
+            Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class);
+
+    private final Map<EObject, String> keys = new IdentityHashMap<EObject, String>();
+    private final Set<EObject> inProgress = Collections.newSetFromMap(new IdentityHashMap<EObject, Boolean>());
+
+    /**
+     * @return the key of the recipe, or null if the recipe cannot be assigned a stable key
+     */
+    public String getKey(EObject recipe) {
+        if (keys.containsKey(recipe)) {
+            return keys.get(recipe);
+        }
+        if (!inProgress.add(recipe)) {
+            // recursive dependency
+            return null;
+        }
+        String key;
+        try {
+            key = computeKey(recipe);
+        } finally {
+            inProgress.remove(recipe);
+        }
+        keys.put(recipe, key);
+        return key;
+    }
+
+    private String computeKey(EObject recipe) {
+        StringBuilder builder = new StringBuilder(recipe.eClass().getName());
+        for (EStructuralFeature feature : recipe.eClass().getEAllStructuralFeatures()) {
+            if (IGNORED_FEATURES.contains(feature.getName())) {
+                continue;
+            }
+            builder.append('|').append(feature.getName()).append('=');
+            Object value = recipe.eGet(feature);
+            Collection<?> values = feature.isMany() ? (Collection<?>) value : Collections.singleton(value);
+            for (Object element : values) {
+                builder.append(',');
+                if (element == null) {
+                    continue;
+                }
+                String description = describe(element);
+                if (description == null) {
+                    return null;
+                }
+                builder.append(description);
+            }
+        }
+        return digest(builder.toString());
+    }
+
+    /**
+     * @return the description of an attribute value or referenced object, or null if it has no stable identity
+     */
+    private String describe(Object element) {
+        if (element instanceof EObject) {
+            EObject object = (EObject) element;
+            return object.eClass().getEPackage() == RecipesPackage.eINSTANCE ? getKey(object) : null;
+        } else if (VALUE_TYPES.contains(element.getClass())) {
+            return element.getClass().getSimpleName() + ':' + element;
+        } else if (element instanceof Enum<?>) {
+            Enum<?> literal = (Enum<?>) element;
+            return literal.getDeclaringClass().getName() + ':' + literal.name();
+        } else {
+            return null;
+        }
+    }
+
+    static String digest(String description) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8));
+            StringBuilder result = new StringBuilder(2 * hash.length);
+            for (byte b : hash) {
+                result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
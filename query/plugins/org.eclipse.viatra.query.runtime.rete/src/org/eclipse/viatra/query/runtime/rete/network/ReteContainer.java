@@ -12,21 +12,30 @@
 package org.eclipse.viatra.query.runtime.rete.network;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.log4j.Logger;
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryBackendContext;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 import org.eclipse.viatra.query.runtime.rete.boundary.InputConnector;
+import org.eclipse.viatra.query.runtime.rete.index.Indexer;
+import org.eclipse.viatra.query.runtime.rete.index.IndexerListener;
 import org.eclipse.viatra.query.runtime.rete.remote.Address;
 import org.eclipse.viatra.query.runtime.rete.single.SingleInputNode;
+import org.eclipse.viatra.query.runtime.rete.single.UniquenessEnforcerNode;
+import org.eclipse.viatra.query.runtime.rete.traceability.TraceInfo;
 import org.eclipse.viatra.query.runtime.rete.tuple.Clearable;
+import org.eclipse.viatra.query.runtime.rete.tuple.MaskedTupleMemory;
 import org.eclipse.viatra.query.runtime.rete.util.Options;
 
 import com.google.common.base.Function;
@@ -58,6 +67,10 @@ public final class ReteContainer {
     protected Map<ReteContainer, Long> terminationCriteria = null;
     protected final Logger logger;
     protected final CommunicationTracker tracker;
+    /**
+     * @see #getDeliveryRound()
+     */
+    private volatile long deliveryRound;
 
     protected final IQueryBackendContext backendContext;
 
@@ -70,7 +83,7 @@ public final class ReteContainer {
         this.network = network;
         this.backendContext = network.getEngine().getBackendContext();
         this.tracker = new CommunicationTracker();
-        this.nodesById = CollectionsFactory.getMap();
+        this.nodesById = network.getCollectionsFramework().createMap();
         this.clearables = new LinkedList<Clearable>();
         this.logger = network.getEngine().getLogger();
 
@@ -78,7 +91,7 @@ public final class ReteContainer {
         this.nodeProvisioner = new NodeProvisioner(this);
 
         if (threaded) {
-            this.terminationCriteria = CollectionsFactory.getMap();// new HashMap<ReteContainer, Long>();
+            this.terminationCriteria = network.getCollectionsFramework().createMap();// new HashMap<ReteContainer, Long>();
             this.consumerThread = new Thread("Rete thread of " + ReteContainer.super.toString()) {
                 @Override
                 public void run() {
@@ -89,6 +102,14 @@ public final class ReteContainer {
         }
     }
 
+    /**
+     * The collections implementation to be used for the internal data structures of nodes within this container.
+     * @since 1.7
+     */
+    public ICollectionsFramework getCollectionsFramework() {
+        return network.getCollectionsFramework();
+    }
+
     /**
      * @since 1.6
      * @return the communication graph of the nodes, incl. messgae scheduling
@@ -203,6 +224,27 @@ public final class ReteContainer {
         flushUpdates(); // deliver the positive updates
     }
 
+    /**
+     * Connects a fresh receiver to a supplier, and initializes it with the contents saved for it in the
+     * {@link ReteNetworkSnapshot} being restored, if any; otherwise synchronises it to the current contents of the
+     * supplier.
+     * 
+     * @param traces
+     *            the traces of the receiver, identifying its recipe in the snapshot
+     * @since 1.7
+     */
+    public void connectAndRestore(Supplier supplier, Receiver receiver, TraceInfo... traces) {
+        Collection<Tuple> savedContents = network.consumeSnapshotContents(receiver, traces);
+        if (savedContents == null) {
+            connectAndSynchronize(supplier, receiver);
+        } else {
+            flushUpdates();
+            connect(supplier, receiver);
+            sendConstructionUpdates(receiver, Direction.INSERT, savedContents);
+            flushUpdates();
+        }
+    }
+
     /**
      * Disconnects a receiver from a supplier
      */
@@ -291,11 +333,10 @@ public final class ReteContainer {
 
         long timestamp;
         Receiver receiver = resolveLocal(address);
-        // UpdateMessage message = new UpdateMessage(receiver, direction,
-        // updateElement);
+        // the elements travel in a single message, so that batch receivers process them at once
+        UpdateMessage message = new UpdateMessage(receiver, direction, new ArrayList<Tuple>(updateElements));
         synchronized (externalMessageLock) {
-            for (Tuple ps : updateElements)
-                externalMessageQueue.add(new UpdateMessage(receiver, direction, ps));
+            externalMessageQueue.add(message);
             // messageQueue.add(new UpdateMessage(resolveLocal(address),
             // direction, updateElement));
             // this.sendUpdateInternal(resolveLocal(address), direction,
@@ -329,8 +370,7 @@ public final class ReteContainer {
     void sendUpdatesToLocalAddressSingleThreaded(Address<? extends Receiver> address, Direction direction,
             Collection<Tuple> updateElements) {
         Receiver receiver = resolveLocal(address);
-        for (Tuple ps : updateElements)
-            internalMessageQueue.add(new UpdateMessage(receiver, direction, ps));
+        internalMessageQueue.add(new UpdateMessage(receiver, direction, new ArrayList<Tuple>(updateElements)));
     }
 
     /**
@@ -463,7 +503,7 @@ public final class ReteContainer {
             }
 
             // now we have a message to deliver
-            message.receiver.update(message.direction, message.updateElement);
+            message.deliver();
         }
     }
 
@@ -480,6 +520,9 @@ public final class ReteContainer {
     
     /**
      * Sends out all pending messages to their receivers. The delivery is governed by the communication tracker.
+     * 
+     * <p> If the tracker operates in parallel propagation mode, independent communication groups deliver their messages
+     * concurrently on the propagation pool of the network; the method returns only after all messages are delivered.
      * @since 1.6
      */
     public void deliverMessagesSingleThreaded() {
@@ -513,14 +556,58 @@ public final class ReteContainer {
                     lastGroup = group;
                 }
                 
+            } else if (tracker.isParallelPropagation()) {
+                while (!tracker.isEmpty()) {
+                    final List<CommunicationGroup> wave = tracker.getAndRemoveNextWave();
+                    if (wave.size() == 1) {
+                        wave.get(0).deliverMessages();
+                    } else {
+                        network.getPropagationPool().invoke(new WaveDelivery(wave));
+                    }
+                }
             } else {
                 while (!tracker.isEmpty()) {
                     final CommunicationGroup group = tracker.getAndRemoveFirstGroup();
                     group.deliverMessages();
                 }
             }
-            
-            
+            // publishes the mailbox counters updated during the round
+            deliveryRound++;
+        }
+    }
+
+    /**
+     * Returns the number of completed rounds of {@link #deliverMessagesSingleThreaded()}. The field is volatile and is
+     * written after each round, so reading it makes the plain delivery counters of the mailboxes (see
+     * {@link MonitoredMailbox}) that were updated up to the end of the last completed round visible to the reading
+     * thread.
+     * 
+     * @since 1.7
+     */
+    public long getDeliveryRound() {
+        return deliveryRound;
+    }
+
+    /**
+     * Delivers the messages of a wave of independent communication groups concurrently, see
+     * {@link CommunicationTracker#getAndRemoveNextWave()}.
+     */
+    private static final class WaveDelivery extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<CommunicationGroup> wave;
+
+        public WaveDelivery(List<CommunicationGroup> wave) {
+            this.wave = wave;
+        }
+
+        @Override
+        protected void compute() {
+            if (wave.size() == 1) {
+                wave.get(0).deliverMessages();
+            } else {
+                int half = wave.size() / 2;
+                invokeAll(new WaveDelivery(wave.subList(0, half)), new WaveDelivery(wave.subList(half, wave.size())));
+            }
         }
     }
 
@@ -602,6 +689,68 @@ public final class ReteContainer {
         nodesById.remove(n.getNodeId());
     }
 
+    /**
+     * Removes the given nodes from this container. Nodes are detached from those nodes they depend on that are not
+     * removed, their memories are released, and they are unregistered. Nodes that are not removed must not depend
+     * on the removed ones.
+     * 
+     * @pre there are no undelivered messages in this container, see {@link #flushUpdates()}
+     * @since 1.7
+     */
+    public void discardNodes(Set<? extends Node> nodes) {
+        for (Node node : nodes) {
+            for (Node dependency : new ArrayList<Node>(tracker.getDependencies(node))) {
+                if (!nodes.contains(dependency)) {
+                    detach(dependency, node);
+                }
+            }
+        }
+        for (Iterator<Clearable> iterator = clearables.iterator(); iterator.hasNext();) {
+            final Clearable clearable = iterator.next();
+            if (isOwnedByAny(clearable, nodes)) {
+                clearable.clear();
+                iterator.remove();
+            }
+        }
+        for (Node node : nodes) {
+            nodesById.remove(node.getNodeId());
+        }
+        tracker.unregisterNodes(nodes);
+    }
+
+    private void detach(Node dependency, Node node) {
+        if (dependency instanceof Supplier && ((Supplier) dependency).getReceivers().contains(node)) {
+            ((Supplier) dependency).removeChild((Receiver) node);
+        }
+        if (dependency instanceof Indexer) {
+            final Indexer indexer = (Indexer) dependency;
+            for (IndexerListener listener : new ArrayList<IndexerListener>(indexer.getListeners())) {
+                if (listener.getOwner() == node) {
+                    indexer.detachListener(listener);
+                }
+            }
+        }
+    }
+
+    private boolean isOwnedByAny(Clearable clearable, Set<? extends Node> nodes) {
+        if (clearable instanceof Node) {
+            return nodes.contains(clearable);
+        } else if (clearable instanceof Mailbox) {
+            return nodes.contains(((Mailbox) clearable).getReceiver());
+        } else if (clearable instanceof MaskedTupleMemory) {
+            return nodes.contains(((MaskedTupleMemory) clearable).getOwner());
+        } else {
+            for (Node node : nodes) {
+                if (node instanceof UniquenessEnforcerNode
+                        && (((UniquenessEnforcerNode) node).getMemory() == clearable
+                                || ((UniquenessEnforcerNode) node).getRederivableMemory() == clearable)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
     /**
      * Registers a pattern memory into the rete network. Every memory MUST be registered by its owner node.
      */
@@ -0,0 +1,343 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.recipes.InputRecipe;
+import org.eclipse.viatra.query.runtime.rete.recipes.ReteNodeRecipe;
+import org.eclipse.viatra.query.runtime.rete.remote.Address;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+
+/**
+ * The saved contents of the stateful nodes of a Rete network, used to skip the costly initial computation of query
+ * results when the same queries are evaluated again over the same model, e.g. in a later session.
+ * 
+ * <p>
+ * Contents of {@link SnapshotableNode}s are keyed by a stable identifier computed from the structure of their recipes,
+ * and elements of the tuples are identified by an {@link ISnapshotElementCodec} when the snapshot is written or read.
+ * Nodes that cannot be identified or encoded are simply left out; such nodes are synchronized with their parents as
+ * usual when the network is built again.
+ * 
+ * <p>
+ * The snapshot also records a fingerprint of the contents of each input node, i.e. of the model as seen by the
+ * network. When the network is built again, saved contents are only used if the inputs they depend on have the same
+ * fingerprint; otherwise the snapshot is rejected.
+ * 
+ * <p>
+ * Usage: {@link #capture(Network, ISnapshotElementCodec)} the snapshot and
+ * {@link #writeTo(OutputStream, ISnapshotElementCodec)} it; in the new session,
+ * {@link #readFrom(InputStream, ISnapshotElementCodec)} it and pass it to
+ * {@link Network#restoreFrom(ReteNetworkSnapshot, ISnapshotElementCodec)} before the matchers are built. After the
+ * network is built, it is maintained incrementally as usual.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public final class ReteNetworkSnapshot {
+
+    private static final int MAGIC = 0x52455445;
+    private static final int VERSION = 2;
+
+    private final Map<String, Multiset<Tuple>> contents;
+    private final Map<String, String> inputFingerprints;
+
+    private ReteNetworkSnapshot(Map<String, Multiset<Tuple>> contents, Map<String, String> inputFingerprints) {
+        this.contents = contents;
+        this.inputFingerprints = inputFingerprints;
+    }
+
+    /**
+     * Captures the current contents of the snapshotable nodes of the given network, and the fingerprints of its input
+     * nodes.
+     * 
+     * @param codec
+     *            identifies the elements of the input tuples in the fingerprints; input nodes with elements it cannot
+     *            identify get no fingerprint, so nodes depending on them are not restored from the snapshot
+     */
+    public static ReteNetworkSnapshot capture(Network network, ISnapshotElementCodec codec) {
+        network.waitForReteTermination();
+        RecipeKeyProvider keys = new RecipeKeyProvider();
+        // contents are saved in their external representation, regardless of the element representation of the network
+        IQueryRuntimeContext context = network.getEngine().getRuntimeContext();
+        Map<String, Multiset<Tuple>> contents = new TreeMap<String, Multiset<Tuple>>();
+        Map<String, String> inputFingerprints = new TreeMap<String, String>();
+        synchronized (network) {
+            for (Entry<ReteNodeRecipe, Address<? extends Node>> entry : network.nodesByRecipe.entrySet()) {
+                Address<? extends Node> address = entry.getValue();
+                Node node = address.getContainer().resolveLocal(address);
+                if (entry.getKey() instanceof InputRecipe) {
+                    String keyID = ((InputRecipe) entry.getKey()).getKeyID();
+                    if (!inputFingerprints.containsKey(keyID)) {
+                        List<Tuple> collector = new ArrayList<Tuple>();
+                        ((Supplier) node).pullInto(collector);
+                        String fingerprint = computeFingerprint(collector, context, codec);
+                        if (fingerprint != null) {
+                            inputFingerprints.put(keyID, fingerprint);
+                        }
+                    }
+                } else if (node instanceof SnapshotableNode) {
+                    String key = keys.getKey(entry.getKey());
+                    if (key != null && !contents.containsKey(key)) {
+                        List<Tuple> collector = new ArrayList<Tuple>();
+                        if (((SnapshotableNode) node).captureContents(collector)) {
+                            Multiset<Tuple> nodeContents = HashMultiset.create();
+                            for (Tuple tuple : collector) {
+                                nodeContents.add(context.unwrapTuple(tuple));
+                            }
+                            contents.put(key, nodeContents);
+                        }
+                    }
+                }
+            }
+        }
+        return new ReteNetworkSnapshot(contents, inputFingerprints);
+    }
+
+    /**
+     * Computes a fingerprint of the given tuples that does not depend on their order, identifying their elements with
+     * the given codec.
+     * 
+     * @return the fingerprint, or null if some element cannot be identified
+     */
+    static String computeFingerprint(Collection<Tuple> tuples, IQueryRuntimeContext context,
+            ISnapshotElementCodec codec) {
+        List<String> encodedTuples = new ArrayList<String>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Tuple unwrapped = context.unwrapTuple(tuple);
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < unwrapped.getSize(); ++i) {
+                String identifier = codec.encode(unwrapped.get(i));
+                if (identifier == null) {
+                    return null;
+                }
+                builder.append(identifier.length()).append(':').append(identifier);
+            }
+            encodedTuples.add(builder.toString());
+        }
+        Collections.sort(encodedTuples);
+        StringBuilder description = new StringBuilder();
+        for (String encodedTuple : encodedTuples) {
+            description.append(encodedTuple).append('\n');
+        }
+        return RecipeKeyProvider.digest(description.toString());
+    }
+
+    /**
+     * Reads a snapshot written by {@link #writeTo(OutputStream, ISnapshotElementCodec)}. Node contents with elements
+     * that cannot be resolved by the codec are dropped. The stream is not closed.
+     * 
+     * @throws IOException
+     *             if the stream cannot be read or does not contain a snapshot
+     */
+    public static ReteNetworkSnapshot readFrom(InputStream in, ISnapshotElementCodec codec) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IOException("Stream does not contain a supported Rete network snapshot");
+        }
+        Map<String, String> inputFingerprints = new TreeMap<String, String>();
+        int inputCount = data.readInt();
+        for (int input = 0; input < inputCount; ++input) {
+            String keyID = readString(data);
+            inputFingerprints.put(keyID, readString(data));
+        }
+        Map<String, Multiset<Tuple>> contents = new TreeMap<String, Multiset<Tuple>>();
+        int entryCount = data.readInt();
+        for (int entry = 0; entry < entryCount; ++entry) {
+            String key = readString(data);
+            Multiset<Tuple> tuples = HashMultiset.create();
+            boolean resolved = true;
+            int tupleCount = data.readInt();
+            for (int t = 0; t < tupleCount; ++t) {
+                Object[] elements = new Object[data.readInt()];
+                for (int i = 0; i < elements.length; ++i) {
+                    String identifier = readString(data);
+                    elements[i] = resolved ? codec.decode(identifier) : null;
+                    resolved &= elements[i] != null;
+                }
+                int count = data.readInt();
+                if (resolved) {
+                    tuples.add(Tuples.flatTupleOf(elements), count);
+                }
+            }
+            if (resolved) {
+                contents.put(key, tuples);
+            }
+        }
+        return new ReteNetworkSnapshot(contents, inputFingerprints);
+    }
+
+    /**
+     * Writes the snapshot to the given stream. Node contents with elements that cannot be encoded by the codec are
+     * omitted. The stream is flushed but not closed.
+     */
+    public void writeTo(OutputStream out, ISnapshotElementCodec codec) throws IOException {
+        Map<String, List<String[]>> encodedContents = new TreeMap<String, List<String[]>>();
+        for (Entry<String, Multiset<Tuple>> entry : contents.entrySet()) {
+            List<String[]> encodedTuples = encode(entry.getValue(), codec);
+            if (encodedTuples != null) {
+                encodedContents.put(entry.getKey(), encodedTuples);
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(inputFingerprints.size());
+        for (Entry<String, String> entry : inputFingerprints.entrySet()) {
+            writeString(data, entry.getKey());
+            writeString(data, entry.getValue());
+        }
+        data.writeInt(encodedContents.size());
+        for (Entry<String, List<String[]>> entry : encodedContents.entrySet()) {
+            writeString(data, entry.getKey());
+            Multiset<Tuple> tuples = contents.get(entry.getKey());
+            data.writeInt(entry.getValue().size());
+            int index = 0;
+            for (Tuple tuple : tuples.elementSet()) {
+                String[] encodedTuple = entry.getValue().get(index++);
+                data.writeInt(encodedTuple.length);
+                for (String identifier : encodedTuple) {
+                    writeString(data, identifier);
+                }
+                data.writeInt(tuples.count(tuple));
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * @return the encoded distinct tuples, in the iteration order of {@link Multiset#elementSet()}; or null if some
+     *         element cannot be encoded
+     */
+    private static List<String[]> encode(Multiset<Tuple> tuples, ISnapshotElementCodec codec) {
+        List<String[]> result = new ArrayList<String[]>(tuples.elementSet().size());
+        for (Tuple tuple : tuples.elementSet()) {
+            String[] encodedTuple = new String[tuple.getSize()];
+            for (int i = 0; i < encodedTuple.length; ++i) {
+                encodedTuple[i] = codec.encode(tuple.get(i));
+                if (encodedTuple[i] == null) {
+                    return null;
+                }
+            }
+            result.add(encodedTuple);
+        }
+        return result;
+    }
+
+    private static void writeString(DataOutputStream data, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the keys of the nodes whose contents are saved in this snapshot
+     */
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(contents.keySet());
+    }
+
+    /**
+     * @return the saved contents of the node with the given key, with multiplicities; or null if not saved
+     */
+    public Multiset<Tuple> getContents(String key) {
+        Multiset<Tuple> tuples = contents.get(key);
+        return tuples == null ? null : Multisets.unmodifiableMultiset(tuples);
+    }
+
+    /**
+     * @return the fingerprints of the contents of the input nodes, keyed by the identifiers of their input keys
+     */
+    public Map<String, String> getInputFingerprints() {
+        return Collections.unmodifiableMap(inputFingerprints);
+    }
+
+    /**
+     * Compares the snapshot with another one, e.g. to verify that a network restored from a snapshot agrees with a
+     * freshly built one.
+     * 
+     * @return the keys of nodes that are saved in only one of the snapshots, or with different contents
+     */
+    public Set<String> getDifferingKeys(ReteNetworkSnapshot other) {
+        Set<String> result = new TreeSet<String>();
+        for (Entry<String, Multiset<Tuple>> entry : contents.entrySet()) {
+            if (!entry.getValue().equals(other.contents.get(entry.getKey()))) {
+                result.add(entry.getKey());
+            }
+        }
+        for (String key : other.contents.keySet()) {
+            if (!contents.containsKey(key)) {
+                result.add(key);
+            }
+        }
+        return result;
+    }
+
+    Map<String, Multiset<Tuple>> copyContents() {
+        Map<String, Multiset<Tuple>> result = new TreeMap<String, Multiset<Tuple>>();
+        for (Entry<String, Multiset<Tuple>> entry : contents.entrySet()) {
+            result.put(entry.getKey(), HashMultiset.create(entry.getValue()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ReteNetworkSnapshot)) {
+            return false;
+        }
+        ReteNetworkSnapshot other = (ReteNetworkSnapshot) obj;
+        return contents.equals(other.contents) && inputFingerprints.equals(other.inputFingerprints);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * contents.hashCode() + inputFingerprints.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s with %d nodes", getClass().getSimpleName(), contents.size());
+    }
+
+}
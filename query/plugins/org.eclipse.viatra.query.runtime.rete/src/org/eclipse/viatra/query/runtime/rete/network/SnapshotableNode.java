@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+import java.util.Collection;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+
+/**
+ * A stateful node whose contents can be saved into a {@link ReteNetworkSnapshot}. When a network is built from a
+ * snapshot, such a node is initialized with the saved contents instead of being synchronized with its parents.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface SnapshotableNode extends Node {
+
+    /**
+     * Collects the current contents of the node; each tuple is added as many times as its multiplicity.
+     * 
+     * @return false if the node is currently in a state that cannot be restored by simply inserting its contents, in
+     *         which case the collector must be ignored
+     */
+    public boolean captureContents(Collection<Tuple> collector);
+
+}
@@ -20,6 +20,7 @@ import java.util.Set;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
 import org.eclipse.viatra.query.runtime.rete.index.GenericProjectionIndexer;
+import org.eclipse.viatra.query.runtime.rete.index.OffHeapProjectionIndexer;
 import org.eclipse.viatra.query.runtime.rete.index.ProjectionIndexer;
 import org.eclipse.viatra.query.runtime.rete.traceability.TraceInfo;
 
@@ -63,11 +64,21 @@ public abstract class StandardNode extends BaseNode implements Supplier {
         return results;
     }
 
+    /**
+     * Since 1.7, the indexer stores its contents off-heap if the network is configured so, see
+     * {@link Network#isOffHeapIndexing()}.
+     */
     @Override
     public ProjectionIndexer constructIndex(TupleMask mask, TraceInfo... traces) {
+        if (reteContainer.getNetwork().isOffHeapIndexing()) {
+            final OffHeapProjectionIndexer indexer = new OffHeapProjectionIndexer(reteContainer, mask);
+            for (TraceInfo traceInfo : traces) indexer.assignTraceInfo(traceInfo);
+            reteContainer.connectAndRestore(this, indexer, traces);
+            return indexer;
+        }
         final GenericProjectionIndexer indexer = new GenericProjectionIndexer(reteContainer, mask);
         for (TraceInfo traceInfo : traces) indexer.assignTraceInfo(traceInfo);
-        reteContainer.connectAndSynchronize(this, indexer);
+        reteContainer.connectAndRestore(this, indexer, traces);
         return indexer;
     }
     
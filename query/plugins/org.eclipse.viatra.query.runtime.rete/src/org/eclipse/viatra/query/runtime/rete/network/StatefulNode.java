@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.network;
+
+/**
+ * A node that stores tuples, and can report the size of its memory.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public interface StatefulNode extends Node {
+
+    /**
+     * @return the number of distinct tuples (or groups, in case of aggregators) currently stored by the node
+     */
+    public int getStoredTupleCount();
+
+    /**
+     * @return a rough estimate of the heap space occupied by the memory of the node in bytes; tuples shared with other
+     *         nodes are counted at each node, while the elements of the tuples are not counted
+     */
+    public long getEstimatedMemory();
+
+}
@@ -11,12 +11,19 @@
 
 package org.eclipse.viatra.query.runtime.rete.network;
 
+import java.util.Collection;
+
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 
 class UpdateMessage {
     public Receiver receiver;
     public Direction direction;
     public Tuple updateElement;
+    /**
+     * If not null, the message carries all of these update elements instead of {@link #updateElement}.
+     * @since 1.7
+     */
+    public Collection<Tuple> updateElements;
 
     public UpdateMessage(Receiver receiver, Direction direction, Tuple updateElement) {
         this.receiver = receiver;
@@ -24,9 +31,35 @@ class UpdateMessage {
         this.updateElement = updateElement;
     }
 
+    /**
+     * @since 1.7
+     */
+    public UpdateMessage(Receiver receiver, Direction direction, Collection<Tuple> updateElements) {
+        this.receiver = receiver;
+        this.direction = direction;
+        this.updateElements = updateElements;
+    }
+
+    /**
+     * Delivers the message to its receiver; a batch message is delivered at once to a {@link BatchReceiver}.
+     * @since 1.7
+     */
+    public void deliver() {
+        if (updateElements == null) {
+            receiver.update(direction, updateElement);
+        } else if (receiver instanceof BatchReceiver) {
+            ((BatchReceiver) receiver).batchUpdate(direction, updateElements);
+        } else {
+            for (Tuple element : updateElements) {
+                receiver.update(direction, element);
+            }
+        }
+    }
+
     @Override
     public String toString() {
-        return "M." + direction + ": " + updateElement + " -> " + receiver;
+        return "M." + direction + ": " + (updateElements == null ? updateElement : updateElements) + " -> "
+                + receiver;
     }
 
 }
@@ -11,6 +11,7 @@
 package org.eclipse.viatra.query.runtime.rete.single;
 
 import org.eclipse.viatra.query.runtime.matchers.backend.IUpdateable;
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.rete.misc.SimpleReceiver;
 import org.eclipse.viatra.query.runtime.rete.network.Direction;
@@ -23,16 +24,18 @@ import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
 public class CallbackNode extends SimpleReceiver {
 
     IUpdateable updateable;
+    private final IQueryRuntimeContext runtimeContext;
 
     public CallbackNode(ReteContainer reteContainer, IUpdateable updateable) 
     {
         super(reteContainer);
         this.updateable = updateable;
+        this.runtimeContext = reteContainer.getNetwork().getEngine().getRuntimeContext();
     }
 
     @Override
     public void update(Direction direction, Tuple updateElement) {
-        updateable.update(updateElement, direction == Direction.INSERT);
+        updateable.update(runtimeContext.unwrapTuple(updateElement), direction == Direction.INSERT);
     }
 
 }
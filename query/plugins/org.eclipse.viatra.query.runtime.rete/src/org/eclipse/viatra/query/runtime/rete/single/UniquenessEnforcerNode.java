@@ -30,7 +30,9 @@ import org.eclipse.viatra.query.runtime.rete.network.MonotonicityAwareMailbox;
 import org.eclipse.viatra.query.runtime.rete.network.MonotonicityAwareReceiver;
 import org.eclipse.viatra.query.runtime.rete.network.RederivableNode;
 import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.SnapshotableNode;
 import org.eclipse.viatra.query.runtime.rete.network.StandardNode;
+import org.eclipse.viatra.query.runtime.rete.network.StatefulNode;
 import org.eclipse.viatra.query.runtime.rete.network.Supplier;
 import org.eclipse.viatra.query.runtime.rete.network.Tunnel;
 import org.eclipse.viatra.query.runtime.rete.traceability.TraceInfo;
@@ -51,7 +53,7 @@ import org.eclipse.viatra.query.runtime.rete.util.Options;
  * @noextend This class is not intended to be subclassed by clients. 
  */
 public class UniquenessEnforcerNode extends StandardNode
-        implements Tunnel, RederivableNode, MonotonicityAwareReceiver {
+        implements Tunnel, RederivableNode, MonotonicityAwareReceiver, SnapshotableNode, StatefulNode {
 
     protected Collection<Supplier> parents;
     protected TupleMemory memory;
@@ -158,6 +160,29 @@ public class UniquenessEnforcerNode extends StandardNode
         return memory;
     }
 
+    /**
+     * @since 1.7
+     */
+    public TupleMemory getRederivableMemory() {
+        return rederivableMemory;
+    }
+
+    /**
+     * @since 1.7
+     */
+    @Override
+    public int getStoredTupleCount() {
+        return memory.size() + rederivableMemory.size();
+    }
+
+    /**
+     * @since 1.7
+     */
+    @Override
+    public long getEstimatedMemory() {
+        return memory.getEstimatedMemory() + rederivableMemory.getEstimatedMemory();
+    }
+
     @Override
     public Mailbox getMailbox() {
         return mailbox;
@@ -325,6 +350,22 @@ public class UniquenessEnforcerNode extends StandardNode
         collector.addAll(memory);
     }
 
+    /**
+     * @since 1.7
+     */
+    @Override
+    public boolean captureContents(Collection<Tuple> collector) {
+        if (posetComparator != null || !rederivableMemory.isEmpty()) {
+            return false;
+        }
+        for (Tuple tuple : memory) {
+            for (int count = memory.get(tuple); count > 0; --count) {
+                collector.add(tuple);
+            }
+        }
+        return true;
+    }
+
     public MemoryNullIndexer getNullIndexer() {
         if (memoryNullIndexer == null) {
             memoryNullIndexer = new MemoryNullIndexer(reteContainer, tupleWidth, memory, this, this, specializedListeners);
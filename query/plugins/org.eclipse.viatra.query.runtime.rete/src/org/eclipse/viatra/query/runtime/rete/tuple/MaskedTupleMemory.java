@@ -11,8 +11,10 @@
 
 package org.eclipse.viatra.query.runtime.rete.tuple;
 
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -20,21 +22,49 @@ import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
 import org.eclipse.viatra.query.runtime.rete.network.Node;
+import org.eclipse.viatra.query.runtime.rete.util.MemoryEstimates;
 
 /**
  * @author Gabor Bergmann
  * 
  *         Indexes a collection of Tuples according to their masks.
+ *         <p>
+ *         Since 1.7, signatures are stored in an open-addressing hash table with linear probing instead of a map, with
+ *         each signature associated to a compact {@link TupleMemory} bucket.
  * @noextend This class is not intended to be subclassed by clients.
  */
 public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    
     /**
-     * Counts the number of occurences of each pattern. Element is deleted if # of occurences drops to 0.
+     * Hash table of signatures, with null marking empty slots; length is always a power of two.
      */
-    protected Map<Tuple, Collection<Tuple>> matchings;
+    private Tuple[] signatures;
+    /**
+     * The tuples indexed by the signature in the same slot of {@link #signatures}. 
+     * Bucket is deleted if it becomes empty.
+     */
+    private TupleMemory[] buckets;
+    /**
+     * Hash codes of signatures in the same slot of {@link #signatures}, to avoid dereferencing them while probing.
+     */
+    private int[] hashes;
+    private int signatureCount;
+    private int threshold;
 
+    /**
+     * A read-only view of the tuples indexed by each signature.
+     * 
+     * @deprecated The tuples are no longer stored in a map; this field only provides a view of the contents for
+     *             subclasses compiled against earlier versions. Use {@link #get(Tuple)} and {@link #getSignatures()}
+     *             instead; assigning the field has no effect on the memory.
+     */
+    @Deprecated
+    protected Map<Tuple, Collection<Tuple>> matchings = new MatchingsView();
+    
     /**
      * The mask used to index the matchings
      */
@@ -63,7 +93,100 @@ public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
     public MaskedTupleMemory(TupleMask mask, Node owner) {
         this.mask = mask;
         this.owner = owner;
-        matchings = CollectionsFactory.getMap();//new HashMap<Tuple, Collection<Tuple>>();
+        allocate(DEFAULT_CAPACITY);
+    }
+    
+    private void allocate(int capacity) {
+        signatures = new Tuple[capacity];
+        buckets = new TupleMemory[capacity];
+        hashes = new int[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    private static int slotOf(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+    
+    /**
+     * @return the slot index of the given signature, or -1 if not found
+     */
+    private int find(Tuple signature) {
+        final Tuple[] table = signatures;
+        final int mask = table.length - 1;
+        final int hash = signature.hashCode();
+        int slot = slotOf(hash, mask);
+        Tuple current;
+        while ((current = table[slot]) != null) {
+            if (current == signature || (hashes[slot] == hash && current.equals(signature))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private TupleMemory insertNewBucket(Tuple signature) {
+        if (signatureCount >= threshold) {
+            rehash(signatures.length << 1);
+        }
+        final int mask = signatures.length - 1;
+        final int hash = signature.hashCode();
+        int slot = slotOf(hash, mask);
+        while (signatures[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        TupleMemory bucket = new TupleMemory(1, false);
+        signatures[slot] = signature;
+        buckets[slot] = bucket;
+        hashes[slot] = hash;
+        signatureCount++;
+        return bucket;
+    }
+    
+    private void rehash(int newCapacity) {
+        Tuple[] oldSignatures = signatures;
+        TupleMemory[] oldBuckets = buckets;
+        int[] oldHashes = hashes;
+        allocate(newCapacity);
+        final int mask = newCapacity - 1;
+        for (int i = 0; i < oldSignatures.length; ++i) {
+            Tuple signature = oldSignatures[i];
+            if (signature != null) {
+                int slot = slotOf(oldHashes[i], mask);
+                while (signatures[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                signatures[slot] = signature;
+                buckets[slot] = oldBuckets[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+    
+    /**
+     * Removes the bucket at the given slot, shifting back subsequent entries of the probe sequence.
+     */
+    private void removeSlot(int slot) {
+        final Tuple[] table = signatures;
+        final int mask = table.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        Tuple current;
+        while ((current = table[next]) != null) {
+            int ideal = slotOf(hashes[next], mask);
+            boolean movable = (gap <= next) ? (ideal <= gap || ideal > next) : (ideal <= gap && ideal > next);
+            if (movable) {
+                table[gap] = current;
+                buckets[gap] = buckets[next];
+                hashes[gap] = hashes[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = null;
+        buckets[gap] = null;
+        signatureCount--;
     }
 
     /**
@@ -87,13 +210,10 @@ public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
      * @return true if new signature encountered
      */
     public boolean add(Tuple ps, Tuple signature) {
-        Collection<Tuple> coll = matchings.get(signature);
-        boolean change = (coll == null);
-
-        if (change) {
-            coll = new TupleMemory();
-            matchings.put(signature, coll);
-        }
+        int slot = find(signature);
+        boolean change = (slot < 0);
+        TupleMemory coll = change ? insertNewBucket(signature) : buckets[slot];
+        
         if (!coll.add(ps)) {
             throw new IllegalStateException(
                     String.format(
@@ -120,17 +240,19 @@ public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
      * @return true if this was the the last occurence of the signature
      */
     public boolean remove(Tuple ps, Tuple signature) {
-        Collection<Tuple> coll = matchings.get(signature);
-        if (!coll.remove(ps)) {
+        int slot = find(signature);
+        TupleMemory coll = (slot < 0) ? null : buckets[slot];
+        if (coll == null || !coll.contains(ps)) {
             throw new IllegalStateException(
                     String.format(
                             "Duplicate deletion of tuple %s from node %s", 
                             ps, owner));
         }
+        coll.clear(ps);
 
         boolean change = coll.isEmpty();
         if (change)
-            matchings.remove(signature);
+            removeSlot(slot);
 
         return change;
     }
@@ -141,11 +263,34 @@ public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
      * @return collection of matchings found
      */
     public Collection<Tuple> get(Tuple signature) {
-        return matchings.get(signature);
+        int slot = find(signature);
+        return slot < 0 ? null : buckets[slot];
     }
 
     public void clear() {
-        matchings.clear();
+        if (signatureCount > 0) {
+            allocate(DEFAULT_CAPACITY);
+            signatureCount = 0;
+        }
+    }
+
+    /**
+     * @return a rough estimate of the heap space occupied by this memory in bytes, including the stored tuples and
+     *         signatures but not their elements
+     * @since 1.7
+     */
+    public long getEstimatedMemory() {
+        long estimate = MemoryEstimates.object(6 * MemoryEstimates.REFERENCE + 2 * 4)
+                + MemoryEstimates.object(MemoryEstimates.REFERENCE)
+                + MemoryEstimates.array(signatures.length, MemoryEstimates.REFERENCE)
+                + MemoryEstimates.array(buckets.length, MemoryEstimates.REFERENCE)
+                + MemoryEstimates.array(hashes.length, 4);
+        for (int slot = 0; slot < signatures.length; ++slot) {
+            if (signatures[slot] != null) {
+                estimate += MemoryEstimates.tuple(signatures[slot]) + buckets[slot].getEstimatedMemory();
+            }
+        }
+        return estimate;
     }
 
     /**
@@ -154,31 +299,135 @@ public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
      * @return collection of significant signatures
      */
     public Collection<Tuple> getSignatures() {
-        return matchings.keySet();
+        return new AbstractCollection<Tuple>() {
+            @Override
+            public Iterator<Tuple> iterator() {
+                return new SlotIterator<Tuple>() {
+                    @Override
+                    protected Tuple get(int slot) {
+                        return signatures[slot];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return (o instanceof Tuple) && find((Tuple) o) >= 0;
+            }
+            
+            @Override
+            public int size() {
+                return signatureCount;
+            }
+        };
     }
 
     public Iterator<Tuple> iterator() {
         return new MaskedPatternIterator(this);
     }
+    
+    /**
+     * Iterates over the occupied slots of the current hash table.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        final Tuple[] table = signatures;
+        int nextSlot = advance(0);
+        
+        private int advance(int from) {
+            int slot = from;
+            while (slot < table.length && table[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+        
+        protected abstract T get(int slot);
+        
+        @Override
+        public boolean hasNext() {
+            return nextSlot < table.length;
+        }
+        
+        @Override
+        public T next() {
+            if (nextSlot >= table.length)
+                throw new NoSuchElementException();
+            T result = get(nextSlot);
+            nextSlot = advance(nextSlot + 1);
+            return result;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Presents the memory as a map from signatures to the tuples indexed by them.
+     */
+    private class MatchingsView extends AbstractMap<Tuple, Collection<Tuple>> {
+
+        @Override
+        public Collection<Tuple> get(Object key) {
+            return (key instanceof Tuple) ? MaskedTupleMemory.this.get((Tuple) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return signatureCount;
+        }
+
+        @Override
+        public Set<Map.Entry<Tuple, Collection<Tuple>>> entrySet() {
+            return new AbstractSet<Map.Entry<Tuple, Collection<Tuple>>>() {
+                @Override
+                public Iterator<Map.Entry<Tuple, Collection<Tuple>>> iterator() {
+                    final Tuple[] signatureTable = signatures;
+                    final TupleMemory[] bucketTable = buckets;
+                    return new SlotIterator<Map.Entry<Tuple, Collection<Tuple>>>() {
+                        @Override
+                        protected Map.Entry<Tuple, Collection<Tuple>> get(int slot) {
+                            return new AbstractMap.SimpleImmutableEntry<Tuple, Collection<Tuple>>(
+                                    signatureTable[slot], bucketTable[slot]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return signatureCount;
+                }
+            };
+        }
+    }
 
     class MaskedPatternIterator implements Iterator<Tuple> {
-        // private MaskedTupleMemory memory;
-        Iterator<Collection<Tuple>> signatureGroup;
+        Iterator<TupleMemory> signatureGroup;
         Iterator<Tuple> element;
 
-        public MaskedPatternIterator(MaskedTupleMemory memory) {
-            // this.memory = memory;
-            signatureGroup = memory.matchings.values().iterator();
-            Set<Tuple> emptySet = Collections.emptySet();
-            element = emptySet.iterator();
+        public MaskedPatternIterator(final MaskedTupleMemory memory) {
+            final TupleMemory[] bucketTable = memory.buckets;
+            signatureGroup = memory.new SlotIterator<TupleMemory>() {
+                @Override
+                protected TupleMemory get(int slot) {
+                    return bucketTable[slot];
+                }
+            };
+            element = null;
         }
 
         public boolean hasNext() {
-            return (element.hasNext() || signatureGroup.hasNext());
+            return (element != null && element.hasNext()) || signatureGroup.hasNext();
         }
 
         public Tuple next() throws NoSuchElementException {
-            if (element.hasNext())
+            if (element != null && element.hasNext())
                 return element.next();
             else if (signatureGroup.hasNext()) {
                 element = signatureGroup.next().iterator();
@@ -198,21 +447,30 @@ public class MaskedTupleMemory implements Clearable, Iterable<Tuple> {
 
     @Override
     public String toString() {
-        return "MTM<" + mask + "|" + matchings + ">";
+        StringBuilder sb = new StringBuilder("MTM<").append(mask).append("|{");
+        boolean first = true;
+        for (int i = 0; i < signatures.length; ++i) {
+            if (signatures[i] != null) {
+                if (!first)
+                    sb.append(", ");
+                first = false;
+                sb.append(signatures[i]).append('=').append(buckets[i]);
+            }
+        }
+        return sb.append("}>").toString();
     }
 
     public int getTotalSize() {
-        // return matchings.values().size(); // return the number of values (collections of tuples)
-        // instead, flatten 
         int i = 0;
-        for (Collection<Tuple> v : matchings.values()) {
-            i+=v.size();
+        for (TupleMemory bucket : buckets) {
+            if (bucket != null)
+                i += bucket.size();
         }
         return i;
     }
     
     public int getKeysetSize() {
-        return matchings.keySet().size();
+        return signatureCount;
     }
 
     /**
@@ -0,0 +1,692 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.tuple;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.IdTuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.rete.network.Node;
+import org.eclipse.viatra.query.runtime.rete.util.MemoryEstimates;
+
+/**
+ * Indexes tuples according to a mask like {@link MaskedTupleMemory}, but stores them outside of the Java heap, in
+ * direct buffers. All tuple elements must be null or non-negative {@link Integer} IDs, as assigned by an interning
+ * runtime context; tuples are stored as rows of int values, and are only materialized when they are retrieved, as
+ * {@link IdTuple}s that do not box their elements.
+ *
+ * <p>
+ * The memory consists of three direct buffers: the rows of the stored tuples, each of which also links the previous
+ * and next row with the same signature; an open-addressing hash table of the rows, used to detect duplicates and to
+ * find removed tuples; and an open-addressing hash table of the signature groups, each entry holding the first row of
+ * the group and the size of the group. Row references are stored as row index + 1, so that zero-initialized buffer
+ * contents mean empty references.
+ *
+ * <p>
+ * The collections returned by {@link #get(Tuple)} and {@link #getSignatures()} are live views; they must not be
+ * iterated while the memory is modified.
+ *
+ * @author agent
+ * @since 1.7
+ */
+public final class OffHeapTupleMemory implements Clearable, Iterable<Tuple> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int NONE = 0;
+
+    private static final int PREVIOUS = 0;
+    private static final int NEXT = 1;
+    private static final int HEADER = 2;
+
+    private static final int GROUP_HEAD = 0;
+    private static final int GROUP_SIZE = 1;
+    private static final int GROUP_ENTRY = 2;
+
+    /**
+     * The mask used to index the tuples.
+     */
+    private final TupleMask mask;
+    /**
+     * The node owning this memory; used for error messages only.
+     */
+    private final Node owner;
+    /**
+     * The arity of the stored tuples.
+     */
+    private final int arity;
+    /**
+     * The number of ints in a row: the links of the signature group followed by the tuple elements.
+     */
+    private final int rowWidth;
+    private final int[] tuplePositions;
+
+    private IntBuffer rows;
+    private int rowCapacity;
+    /**
+     * Rows below this index have been used, and are either occupied or on the free list.
+     */
+    private int usedRows;
+    /**
+     * The head of the list of released rows, linked through {@link #NEXT}.
+     */
+    private int freeRows;
+
+    /**
+     * Hash table of row references; length is always a power of two.
+     */
+    private IntBuffer tupleSlots;
+    private int tupleCount;
+    private int tupleThreshold;
+
+    /**
+     * Hash table of {@link #GROUP_ENTRY}-wide group entries; the number of entries is always a power of two.
+     */
+    private IntBuffer groupSlots;
+    private int groupCapacity;
+    private int groupCount;
+    private int groupThreshold;
+
+    /**
+     * @param mask
+     *            The mask used to index the matchings
+     * @param owner
+     *            the node that owns this memory, or null
+     */
+    public OffHeapTupleMemory(TupleMask mask, Node owner) {
+        this.mask = mask;
+        this.owner = owner;
+        this.arity = mask.sourceWidth;
+        this.rowWidth = HEADER + arity;
+        this.tuplePositions = new int[arity];
+        for (int i = 0; i < arity; ++i) {
+            tuplePositions[i] = i;
+        }
+        allocateAll();
+    }
+
+    private void allocateAll() {
+        rowCapacity = DEFAULT_CAPACITY;
+        rows = allocateInts((long) rowCapacity * rowWidth);
+        usedRows = 0;
+        freeRows = NONE;
+        allocateTupleSlots(DEFAULT_CAPACITY);
+        tupleCount = 0;
+        allocateGroupSlots(DEFAULT_CAPACITY);
+        groupCount = 0;
+    }
+
+    private void allocateTupleSlots(int capacity) {
+        tupleSlots = allocateInts(capacity);
+        tupleThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void allocateGroupSlots(int capacity) {
+        groupSlots = allocateInts((long) capacity * GROUP_ENTRY);
+        groupCapacity = capacity;
+        groupThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private IntBuffer allocateInts(long size) {
+        if (size > Integer.MAX_VALUE / 4) {
+            throw new IllegalStateException(String.format(
+                    "Off-heap memory of node %s exceeds the maximum buffer size", owner));
+        }
+        return ByteBuffer.allocateDirect((int) size * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(int[] ids) {
+        int h = 1;
+        for (int id : ids) {
+            h = 31 * h + id;
+        }
+        return spread(h);
+    }
+
+    private int hashOfRow(int row, int[] positions) {
+        final int base = row * rowWidth + HEADER;
+        int h = 1;
+        for (int position : positions) {
+            h = 31 * h + rows.get(base + position);
+        }
+        return spread(h);
+    }
+
+    private boolean rowEquals(int row, int[] positions, int[] ids) {
+        final int base = row * rowWidth + HEADER;
+        for (int i = 0; i < positions.length; ++i) {
+            if (rows.get(base + positions[i]) != ids[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int toId(Object element) {
+        if (element == null) {
+            return IdTuple.NULL_ID;
+        }
+        if (element instanceof Integer && (Integer) element >= 0) {
+            return (Integer) element;
+        }
+        throw new IllegalArgumentException(String.format(
+                "Off-heap memory of node %s can only store element IDs, got %s", owner, element));
+    }
+
+    private int[] toIds(Tuple tuple) {
+        int[] ids = new int[tuple.getSize()];
+        if (tuple instanceof IdTuple) {
+            IdTuple idTuple = (IdTuple) tuple;
+            for (int i = 0; i < ids.length; ++i) {
+                ids[i] = idTuple.getId(i);
+            }
+        } else {
+            for (int i = 0; i < ids.length; ++i) {
+                ids[i] = toId(tuple.get(i));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * @return the given tuple as IDs, or null if it cannot be stored in this memory
+     */
+    private int[] toIdsOrNull(Object object, int size) {
+        if (!(object instanceof Tuple) || ((Tuple) object).getSize() != size) {
+            return null;
+        }
+        Tuple tuple = (Tuple) object;
+        if (tuple instanceof IdTuple) {
+            return toIds(tuple);
+        }
+        int[] ids = new int[size];
+        for (int i = 0; i < size; ++i) {
+            Object element = tuple.get(i);
+            if (element == null) {
+                ids[i] = IdTuple.NULL_ID;
+            } else if (element instanceof Integer && (Integer) element >= 0) {
+                ids[i] = (Integer) element;
+            } else {
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    private Tuple materialize(int row, int[] positions) {
+        final int base = row * rowWidth + HEADER;
+        int[] ids = new int[positions.length];
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = rows.get(base + positions[i]);
+        }
+        return IdTuple.of(ids);
+    }
+
+    /**
+     * @return the slot of the tuple table holding the given tuple, or the empty slot where it would be inserted
+     */
+    private int probeTuple(int[] ids, int hash) {
+        final int slotMask = tupleSlots.capacity() - 1;
+        int slot = hash & slotMask;
+        int ref;
+        while ((ref = tupleSlots.get(slot)) != NONE) {
+            if (rowEquals(ref - 1, tuplePositions, ids)) {
+                return slot;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    /**
+     * @return the entry of the group table holding the given signature, or the empty entry where it would be inserted
+     */
+    private int probeGroup(int[] signatureIds, int hash) {
+        final int entryMask = groupCapacity - 1;
+        int entry = hash & entryMask;
+        int head;
+        while ((head = groupSlots.get(entry * GROUP_ENTRY + GROUP_HEAD)) != NONE) {
+            if (rowEquals(head - 1, mask.indices, signatureIds)) {
+                return entry;
+            }
+            entry = (entry + 1) & entryMask;
+        }
+        return entry;
+    }
+
+    private int allocateRow(int[] ids) {
+        int row;
+        if (freeRows != NONE) {
+            row = freeRows - 1;
+            freeRows = rows.get(row * rowWidth + NEXT);
+        } else {
+            if (usedRows == rowCapacity) {
+                IntBuffer oldRows = rows;
+                rows = allocateInts((long) rowCapacity * 2 * rowWidth);
+                rowCapacity *= 2;
+                oldRows.clear();
+                rows.put(oldRows);
+            }
+            row = usedRows++;
+        }
+        final int base = row * rowWidth;
+        rows.put(base + PREVIOUS, NONE);
+        rows.put(base + NEXT, NONE);
+        for (int i = 0; i < arity; ++i) {
+            rows.put(base + HEADER + i, ids[i]);
+        }
+        return row;
+    }
+
+    private void releaseRow(int row) {
+        rows.put(row * rowWidth + NEXT, freeRows);
+        freeRows = row + 1;
+    }
+
+    private void rehashTuples(int newCapacity) {
+        IntBuffer oldSlots = tupleSlots;
+        allocateTupleSlots(newCapacity);
+        final int slotMask = newCapacity - 1;
+        for (int i = 0; i < oldSlots.capacity(); ++i) {
+            int ref = oldSlots.get(i);
+            if (ref != NONE) {
+                int slot = hashOfRow(ref - 1, tuplePositions) & slotMask;
+                while (tupleSlots.get(slot) != NONE) {
+                    slot = (slot + 1) & slotMask;
+                }
+                tupleSlots.put(slot, ref);
+            }
+        }
+    }
+
+    private void rehashGroups(int newCapacity) {
+        IntBuffer oldSlots = groupSlots;
+        int oldCapacity = groupCapacity;
+        allocateGroupSlots(newCapacity);
+        final int entryMask = newCapacity - 1;
+        for (int i = 0; i < oldCapacity; ++i) {
+            int head = oldSlots.get(i * GROUP_ENTRY + GROUP_HEAD);
+            if (head != NONE) {
+                int entry = hashOfRow(head - 1, mask.indices) & entryMask;
+                while (groupSlots.get(entry * GROUP_ENTRY + GROUP_HEAD) != NONE) {
+                    entry = (entry + 1) & entryMask;
+                }
+                groupSlots.put(entry * GROUP_ENTRY + GROUP_HEAD, head);
+                groupSlots.put(entry * GROUP_ENTRY + GROUP_SIZE, oldSlots.get(i * GROUP_ENTRY + GROUP_SIZE));
+            }
+        }
+    }
+
+    /**
+     * Empties the given slot of the tuple table, shifting back subsequent entries of the probe sequence.
+     */
+    private void removeTupleSlot(int slot) {
+        final int slotMask = tupleSlots.capacity() - 1;
+        int gap = slot;
+        int next = (gap + 1) & slotMask;
+        int ref;
+        while ((ref = tupleSlots.get(next)) != NONE) {
+            int ideal = hashOfRow(ref - 1, tuplePositions) & slotMask;
+            if (isMovable(gap, next, ideal)) {
+                tupleSlots.put(gap, ref);
+                gap = next;
+            }
+            next = (next + 1) & slotMask;
+        }
+        tupleSlots.put(gap, NONE);
+    }
+
+    /**
+     * Empties the given entry of the group table, shifting back subsequent entries of the probe sequence.
+     */
+    private void removeGroupEntry(int entry) {
+        final int entryMask = groupCapacity - 1;
+        int gap = entry;
+        int next = (gap + 1) & entryMask;
+        int head;
+        while ((head = groupSlots.get(next * GROUP_ENTRY + GROUP_HEAD)) != NONE) {
+            int ideal = hashOfRow(head - 1, mask.indices) & entryMask;
+            if (isMovable(gap, next, ideal)) {
+                groupSlots.put(gap * GROUP_ENTRY + GROUP_HEAD, head);
+                groupSlots.put(gap * GROUP_ENTRY + GROUP_SIZE, groupSlots.get(next * GROUP_ENTRY + GROUP_SIZE));
+                gap = next;
+            }
+            next = (next + 1) & entryMask;
+        }
+        groupSlots.put(gap * GROUP_ENTRY + GROUP_HEAD, NONE);
+        groupSlots.put(gap * GROUP_ENTRY + GROUP_SIZE, 0);
+    }
+
+    private static boolean isMovable(int gap, int next, int ideal) {
+        return (gap <= next) ? (ideal <= gap || ideal > next) : (ideal <= gap && ideal > next);
+    }
+
+    /**
+     * Adds a tuple occurrence to the memory.
+     * 
+     * @return true if a new signature group was created
+     * @throws IllegalStateException
+     *             if the tuple is already stored
+     */
+    public boolean add(Tuple ps) {
+        return add(ps, mask.transform(ps));
+    }
+
+    /**
+     * Adds a tuple occurrence to the memory with the given signature.
+     * 
+     * @return true if a new signature group was created
+     * @throws IllegalStateException
+     *             if the tuple is already stored
+     */
+    public boolean add(Tuple ps, Tuple signature) {
+        if (tupleCount >= tupleThreshold) {
+            rehashTuples(tupleSlots.capacity() << 1);
+        }
+        if (groupCount >= groupThreshold) {
+            rehashGroups(groupCapacity << 1);
+        }
+        int[] ids = toIds(ps);
+        int slot = probeTuple(ids, hash(ids));
+        if (tupleSlots.get(slot) != NONE) {
+            throw new IllegalStateException(
+                    String.format("Duplicate insertion of tuple %s into node %s", ps, owner));
+        }
+        int[] signatureIds = toIds(signature);
+        int entry = probeGroup(signatureIds, hash(signatureIds));
+
+        int row = allocateRow(ids);
+        tupleSlots.put(slot, row + 1);
+        tupleCount++;
+
+        final int head = groupSlots.get(entry * GROUP_ENTRY + GROUP_HEAD);
+        boolean change = (head == NONE);
+        if (change) {
+            groupCount++;
+        } else {
+            rows.put(row * rowWidth + NEXT, head);
+            rows.put((head - 1) * rowWidth + PREVIOUS, row + 1);
+        }
+        groupSlots.put(entry * GROUP_ENTRY + GROUP_HEAD, row + 1);
+        groupSlots.put(entry * GROUP_ENTRY + GROUP_SIZE, groupSlots.get(entry * GROUP_ENTRY + GROUP_SIZE) + 1);
+        return change;
+    }
+
+    /**
+     * Removes a tuple occurrence from the memory.
+     * 
+     * @return true if its signature group became empty
+     * @throws IllegalStateException
+     *             if the tuple is not stored
+     */
+    public boolean remove(Tuple ps) {
+        return remove(ps, mask.transform(ps));
+    }
+
+    /**
+     * Removes a tuple occurrence with the given signature from the memory.
+     * 
+     * @return true if its signature group became empty
+     * @throws IllegalStateException
+     *             if the tuple is not stored
+     */
+    public boolean remove(Tuple ps, Tuple signature) {
+        int[] ids = toIds(ps);
+        int slot = probeTuple(ids, hash(ids));
+        final int ref = tupleSlots.get(slot);
+        if (ref == NONE) {
+            throw new IllegalStateException(
+                    String.format("Duplicate deletion of tuple %s from node %s", ps, owner));
+        }
+        int row = ref - 1;
+        removeTupleSlot(slot);
+        tupleCount--;
+
+        int[] signatureIds = toIds(signature);
+        int entry = probeGroup(signatureIds, hash(signatureIds));
+        final int previous = rows.get(row * rowWidth + PREVIOUS);
+        final int next = rows.get(row * rowWidth + NEXT);
+        if (previous != NONE) {
+            rows.put((previous - 1) * rowWidth + NEXT, next);
+        } else {
+            groupSlots.put(entry * GROUP_ENTRY + GROUP_HEAD, next);
+        }
+        if (next != NONE) {
+            rows.put((next - 1) * rowWidth + PREVIOUS, previous);
+        }
+        int size = groupSlots.get(entry * GROUP_ENTRY + GROUP_SIZE) - 1;
+        groupSlots.put(entry * GROUP_ENTRY + GROUP_SIZE, size);
+        releaseRow(row);
+
+        boolean change = (size == 0);
+        if (change) {
+            removeGroupEntry(entry);
+            groupCount--;
+        }
+        return change;
+    }
+
+    /**
+     * @return the live view of the tuples with the given signature, or null if there are none
+     */
+    public Collection<Tuple> get(Tuple signature) {
+        int[] signatureIds = toIdsOrNull(signature, mask.indices.length);
+        if (signatureIds == null) {
+            return null;
+        }
+        int entry = probeGroup(signatureIds, hash(signatureIds));
+        return groupSlots.get(entry * GROUP_ENTRY + GROUP_HEAD) == NONE ? null : new SignatureGroup(signatureIds);
+    }
+
+    @Override
+    public void clear() {
+        if (tupleCount > 0 || rowCapacity > DEFAULT_CAPACITY) {
+            allocateAll();
+        }
+    }
+
+    /**
+     * @return a rough estimate of the heap space occupied by this memory in bytes, i.e. the memory object and the
+     *         buffer objects, excluding the off-heap contents of the buffers (see {@link #getOffHeapMemory()})
+     */
+    public long getEstimatedMemory() {
+        return MemoryEstimates.object(6 * MemoryEstimates.REFERENCE + 10 * 4) + MemoryEstimates.array(arity, 4)
+                + 3 * MemoryEstimates.object(8 * 4 + MemoryEstimates.REFERENCE);
+    }
+
+    /**
+     * @return the space currently allocated by this memory outside of the Java heap, in bytes
+     */
+    public long getOffHeapMemory() {
+        return 4L * (rows.capacity() + tupleSlots.capacity() + groupSlots.capacity());
+    }
+
+    /**
+     * @return the live view of the signatures for which at least one tuple is stored
+     */
+    public Collection<Tuple> getSignatures() {
+        return new AbstractCollection<Tuple>() {
+            @Override
+            public Iterator<Tuple> iterator() {
+                return new Iterator<Tuple>() {
+                    int nextEntry = advance(0);
+
+                    private int advance(int from) {
+                        int entry = from;
+                        while (entry < groupCapacity && groupSlots.get(entry * GROUP_ENTRY + GROUP_HEAD) == NONE) {
+                            entry++;
+                        }
+                        return entry;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return nextEntry < groupCapacity;
+                    }
+
+                    @Override
+                    public Tuple next() {
+                        if (nextEntry >= groupCapacity)
+                            throw new NoSuchElementException();
+                        int head = groupSlots.get(nextEntry * GROUP_ENTRY + GROUP_HEAD);
+                        nextEntry = advance(nextEntry + 1);
+                        return materialize(head - 1, mask.indices);
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return (o instanceof Tuple) && get((Tuple) o) != null;
+            }
+
+            @Override
+            public int size() {
+                return groupCount;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Tuple> iterator() {
+        return new Iterator<Tuple>() {
+            int nextSlot = advance(0);
+
+            private int advance(int from) {
+                int slot = from;
+                while (slot < tupleSlots.capacity() && tupleSlots.get(slot) == NONE) {
+                    slot++;
+                }
+                return slot;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextSlot < tupleSlots.capacity();
+            }
+
+            @Override
+            public Tuple next() {
+                if (nextSlot >= tupleSlots.capacity())
+                    throw new NoSuchElementException();
+                int ref = tupleSlots.get(nextSlot);
+                nextSlot = advance(nextSlot + 1);
+                return materialize(ref - 1, tuplePositions);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * @return the number of stored tuples
+     */
+    public int getTotalSize() {
+        return tupleCount;
+    }
+
+    /**
+     * @return the number of distinct signatures
+     */
+    public int getKeysetSize() {
+        return groupCount;
+    }
+
+    /**
+     * @return the node owning this memory, or null
+     */
+    public Node getOwner() {
+        return owner;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapMTM<" + mask + "|" + tupleCount + " tuples in " + groupCount + " groups>";
+    }
+
+    /**
+     * A live view of the tuples with a given signature, linked from the group entry of the signature.
+     */
+    private final class SignatureGroup extends AbstractCollection<Tuple> {
+        private final int[] signatureIds;
+        private final int hash;
+
+        SignatureGroup(int[] signatureIds) {
+            this.signatureIds = signatureIds;
+            this.hash = hash(signatureIds);
+        }
+
+        @Override
+        public int size() {
+            int entry = probeGroup(signatureIds, hash);
+            return groupSlots.get(entry * GROUP_ENTRY + GROUP_SIZE);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int[] ids = toIdsOrNull(o, arity);
+            if (ids == null) {
+                return false;
+            }
+            int ref = tupleSlots.get(probeTuple(ids, hash(ids)));
+            return ref != NONE && rowEquals(ref - 1, mask.indices, signatureIds);
+        }
+
+        @Override
+        public Iterator<Tuple> iterator() {
+            int entry = probeGroup(signatureIds, hash);
+            final int head = groupSlots.get(entry * GROUP_ENTRY + GROUP_HEAD);
+            return new Iterator<Tuple>() {
+                int nextRef = head;
+
+                @Override
+                public boolean hasNext() {
+                    return nextRef != NONE;
+                }
+
+                @Override
+                public Tuple next() {
+                    if (nextRef == NONE)
+                        throw new NoSuchElementException();
+                    int row = nextRef - 1;
+                    nextRef = rows.get(row * rowWidth + NEXT);
+                    return materialize(row, tuplePositions);
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+}
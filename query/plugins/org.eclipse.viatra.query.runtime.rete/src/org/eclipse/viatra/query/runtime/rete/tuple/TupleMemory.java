@@ -11,31 +11,224 @@
 
 package org.eclipse.viatra.query.runtime.rete.tuple;
 
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
-import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.rete.util.MemoryEstimates;
 
 /**
  * Multiset for tuples. Can contain duplicate occurrences of the same matching.
  * 
+ * <p>
+ * Since 1.7, the memory is implemented as an open-addressing hash table with linear probing, where the tuples and
+ * their multiplicities are stored in parallel arrays. Compared to a {@link java.util.HashMap} with boxed counters,
+ * this saves the map entry and the {@link Integer} object per stored tuple, and lookups do not have to chase the
+ * pointers of hash chains.
+ * 
  * @author Gabor Bergmann.
  * 
  */
-public class TupleMemory implements Clearable, Collection<Tuple> {
+public class TupleMemory extends AbstractCollection<Tuple> implements Clearable {
+    
+    /**
+     * Minimal capacity; sufficient to accommodate a single tuple without rehashing, as the buckets of masked memories
+     * are typically small.
+     */
+    private static final int DEFAULT_CAPACITY = 2;
+    private static final float LOAD_FACTOR = 0.75f;
+    
+    /**
+     * Hash table of stored tuples, with null marking empty slots; length is always a power of two.
+     */
+    private Tuple[] keys;
+    /**
+     * For each slot of {@link #keys}, the hash code of the tuple in the upper 32 bits, and its number of occurrences
+     * in the lower 32 bits. Storing the hash code here avoids dereferencing the tuples during probing and
+     * rehashing. Element is deleted if # of occurrences drops to 0.
+     */
+    private long[] hashAndCount;
+    /**
+     * Number of distinct tuples stored.
+     */
+    private int size;
+    /**
+     * Number of distinct tuples at which the table must be grown.
+     */
+    private int threshold;
     /**
-     * Counts the number of occurrences of each pattern. Element is deleted if # of occurences drops to 0.
+     * Incremented on each structural change; used to detect concurrent modification by iterators.
      */
+    private int modCount;
+
+    /**
+     * A read-only view of the number of occurrences of each stored tuple.
+     * 
+     * @deprecated The occurrences are no longer stored in a map; this field only provides a view of the contents for
+     *             subclasses compiled against earlier versions. Use {@link #get(Tuple)} and {@link #iterator()} instead;
+     *             assigning the field has no effect on the memory.
+     */
+    @Deprecated
     protected Map<Tuple, Integer> occurrences;
 
     /**
      * 
      */
     public TupleMemory() {
+        this(1);
+    }
+    
+    /**
+     * @param expectedSize the number of distinct tuples that the memory should be able to hold without rehashing
+     * @since 1.7
+     */
+    public TupleMemory(int expectedSize) {
+        this(expectedSize, true);
+    }
+
+    /**
+     * @param legacyView
+     *            whether to provide the deprecated {@link #occurrences} view; not needed for the buckets of masked
+     *            memories, which are never subclassed
+     */
+    TupleMemory(int expectedSize, boolean legacyView) {
         super();
-        occurrences = CollectionsFactory.getMap();
+        allocate(tableSizeFor(expectedSize));
+        occurrences = legacyView ? new OccurrencesView() : null;
+    }
+    
+    private static int tableSizeFor(int expectedSize) {
+        int required = (int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR);
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < required) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+    
+    private void allocate(int capacity) {
+        keys = new Tuple[capacity];
+        hashAndCount = new long[capacity];
+        threshold = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+    
+    private static long pack(int hash, int count) {
+        return ((long) hash << 32) | (count & 0xFFFFFFFFL);
+    }
+    
+    private static int hashOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+    
+    private static int countOf(long packed) {
+        return (int) packed;
+    }
+    
+    /**
+     * Spreads the (cached) hash code of tuples so that lower bits are also influenced by higher ones.
+     */
+    private static int slotOf(int hash, int mask) {
+        int h = hash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * @return the slot index of the given tuple, or -1 if not found
+     */
+    private int find(Object ps) {
+        final Tuple[] table = keys;
+        final int mask = table.length - 1;
+        final int hash = ps.hashCode();
+        int slot = slotOf(hash, mask);
+        Tuple current;
+        while ((current = table[slot]) != null) {
+            if (current == ps || (hashOf(hashAndCount[slot]) == hash && current.equals(ps))) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    /**
+     * Inserts a tuple known not to be present yet.
+     */
+    private void insertNew(Tuple ps, int count) {
+        if (size >= threshold) {
+            rehash(keys.length << 1);
+        }
+        final int mask = keys.length - 1;
+        final int hash = ps.hashCode();
+        int slot = slotOf(hash, mask);
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = ps;
+        hashAndCount[slot] = pack(hash, count);
+        size++;
+        modCount++;
+    }
+    
+    private void rehash(int newCapacity) {
+        Tuple[] oldKeys = keys;
+        long[] oldHashAndCount = hashAndCount;
+        allocate(newCapacity);
+        final int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            Tuple key = oldKeys[i];
+            if (key != null) {
+                int slot = slotOf(hashOf(oldHashAndCount[i]), mask);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                hashAndCount[slot] = oldHashAndCount[i];
+            }
+        }
+    }
+    
+    /**
+     * Removes the entry at the given slot, shifting back subsequent entries of the probe sequence so that no
+     * tombstones are needed.
+     * 
+     * @return the index of an entry that was moved from a slot before the given one (after wrap-around) to a slot
+     *         after it, or -1 if no such wrap-around move happened; used by iterators to avoid skipping entries
+     */
+    private int removeSlot(int slot) {
+        final Tuple[] table = keys;
+        final int mask = table.length - 1;
+        int wrappedSlot = -1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        Tuple current;
+        while ((current = table[next]) != null) {
+            int ideal = slotOf(hashOf(hashAndCount[next]), mask);
+            // move current into the gap if its ideal slot is not cyclically within (gap, next]
+            boolean movable = (gap <= next) ? (ideal <= gap || ideal > next) : (ideal <= gap && ideal > next);
+            if (movable) {
+                table[gap] = current;
+                hashAndCount[gap] = hashAndCount[next];
+                if (next < gap) {
+                    wrappedSlot = gap;
+                }
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = null;
+        hashAndCount[gap] = 0;
+        size--;
+        modCount++;
+        return wrappedSlot;
     }
 
     /**
@@ -47,12 +240,8 @@ public class TupleMemory implements Clearable, Collection<Tuple> {
      * @since 1.6
      */
     public int get(Tuple ps) {
-        Integer count = occurrences.get(ps);
-        if (count == null) {
-            return 0;
-        } else {
-            return count;
-        }
+        int slot = find(ps);
+        return slot < 0 ? 0 : countOf(hashAndCount[slot]);
     }
 
     /**
@@ -82,15 +271,14 @@ public class TupleMemory implements Clearable, Collection<Tuple> {
             throw new IllegalArgumentException("The count value must be positive!");
         }
 
-        Integer oldCount = occurrences.get(ps);
-
-        if (oldCount != null) {
-            occurrences.put(ps, oldCount + count);
+        int slot = find(ps);
+        if (slot >= 0) {
+            hashAndCount[slot] += count;
+            return false;
         } else {
-            occurrences.put(ps, count);
+            insertNew(ps, count);
+            return true;
         }
-
-        return oldCount == null;
     }
     
     /**
@@ -121,28 +309,32 @@ public class TupleMemory implements Clearable, Collection<Tuple> {
             throw new IllegalArgumentException("The count value must be positive!");
         }
 
-        Integer oldCount = occurrences.get(ps);
-
-        if (oldCount != null) {
-            occurrences.put(ps, oldCount + count);
+        int slot = find(ps);
+        if (slot >= 0) {
+            hashAndCount[slot] += count;
         }
 
-        return oldCount != null;
+        return slot >= 0;
     }
 
     /**
      * Removes one occurrence of the given tuple from the memory
      * 
      * @return true if this was the the last occurrence of the tuple
+     * @throws NullPointerException
+     *             if the tuple was not present in the memory; kept for compatibility with the original map-based
+     *             implementation, as callers rely on it to detect duplicate deletions
      */
     public boolean remove(Tuple ps) {
-        int rest = occurrences.get(ps) - 1;
+        int slot = find(ps);
+        if (slot < 0) {
+            throw new NullPointerException(String.format("Tuple %s is not present in memory", ps));
+        }
+        int rest = countOf(--hashAndCount[slot]);
         boolean empty = rest == 0;
 
-        if (!empty) {
-            occurrences.put(ps, rest);
-        } else {
-            occurrences.remove(ps);
+        if (empty) {
+            removeSlot(slot);
         }
 
         return empty;
@@ -156,42 +348,106 @@ public class TupleMemory implements Clearable, Collection<Tuple> {
      * @since 1.6
      */
     public void clear(Tuple ps) {
-        occurrences.remove(ps);
+        int slot = find(ps);
+        if (slot >= 0) {
+            removeSlot(slot);
+        }
     }
 
     @Override
     public void clear() {
-        occurrences.clear();
-
+        if (size > 0) {
+            allocate(DEFAULT_CAPACITY);
+            size = 0;
+            modCount++;
+        }
     }
 
     @Override
     public Iterator<Tuple> iterator() {
-        return occurrences.keySet().iterator();
+        return new TupleMemoryIterator();
     }
 
-    @Override
-    public boolean addAll(Collection<? extends Tuple> arg0) {
-        boolean change = false;
-        for (Tuple ps : arg0) {
-            change |= add(ps);
+    /**
+     * Iterates the hash table backwards, so that entries moved by backward shifting during {@link #remove()} are
+     * already visited, except for those wrapping around the end of the table, which are collected separately.
+     */
+    private class TupleMemoryIterator implements Iterator<Tuple> {
+        int nextSlot = keys.length;
+        int lastSlot = -1;
+        int expectedModCount = modCount;
+        List<Tuple> wrapped;
+        Tuple lastWrapped;
+        
+        @Override
+        public boolean hasNext() {
+            return seek() >= 0 || (wrapped != null && !wrapped.isEmpty());
+        }
+        
+        private int seek() {
+            int slot = nextSlot - 1;
+            while (slot >= 0 && keys[slot] == null) {
+                slot--;
+            }
+            nextSlot = slot + 1;
+            return slot;
         }
-        return change;
-    }
 
-    @Override
-    public boolean contains(Object arg) {
-        return occurrences.containsKey(arg);
+        @Override
+        public Tuple next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            int slot = seek();
+            if (slot >= 0) {
+                nextSlot = slot;
+                lastSlot = slot;
+                lastWrapped = null;
+                return keys[slot];
+            }
+            if (wrapped != null && !wrapped.isEmpty()) {
+                lastSlot = -1;
+                lastWrapped = wrapped.remove(wrapped.size() - 1);
+                return lastWrapped;
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (lastSlot >= 0) {
+                int wrappedSlot = removeSlot(lastSlot);
+                if (wrappedSlot >= 0) {
+                    // an unvisited entry from the start of the table got shifted behind the cursor
+                    if (wrapped == null) {
+                        wrapped = new ArrayList<Tuple>(2);
+                    }
+                    wrapped.add(keys[wrappedSlot]);
+                }
+                // the slot may now contain an already visited entry shifted back; skip it
+                nextSlot = lastSlot;
+                lastSlot = -1;
+            } else if (lastWrapped != null) {
+                clear(lastWrapped);
+                lastWrapped = null;
+            } else {
+                throw new IllegalStateException();
+            }
+            expectedModCount = modCount;
+        }
     }
 
     @Override
-    public boolean containsAll(Collection<?> arg0) {
-        return occurrences.keySet().containsAll(arg0);
+    public boolean contains(Object arg) {
+        return arg != null && find(arg) >= 0;
     }
 
     @Override
     public boolean isEmpty() {
-        return occurrences.isEmpty();
+        return size == 0;
     }
 
     @Override
@@ -208,29 +464,90 @@ public class TupleMemory implements Clearable, Collection<Tuple> {
         return change;
     }
 
-    @Override
-    public boolean retainAll(Collection<?> arg0) {
-        return occurrences.keySet().retainAll(arg0);
-    }
-
     @Override
     public int size() {
-        return occurrences.size();
+        return size;
     }
 
-    @Override
-    public Object[] toArray() {
-        return toArray(new Object[occurrences.size()]);
+    /**
+     * @return a rough estimate of the heap space occupied by this memory in bytes, including the stored tuples but not
+     *         their elements
+     * @since 1.7
+     */
+    public long getEstimatedMemory() {
+        long estimate = MemoryEstimates.object(3 * MemoryEstimates.REFERENCE + 3 * 4)
+                + (occurrences == null ? 0 : MemoryEstimates.object(MemoryEstimates.REFERENCE))
+                + MemoryEstimates.array(keys.length, MemoryEstimates.REFERENCE)
+                + MemoryEstimates.array(hashAndCount.length, 8);
+        if (size > 0) {
+            // tuples of a memory are expected to be of the same kind
+            for (Tuple key : keys) {
+                if (key != null) {
+                    estimate += size * MemoryEstimates.tuple(key);
+                    break;
+                }
+            }
+        }
+        return estimate;
     }
 
     @Override
-    public <T> T[] toArray(T[] arg0) {
-        return occurrences.keySet().toArray(arg0);
+    public String toString() {
+        return "TM" + super.toString();
     }
 
-    @Override
-    public String toString() {
-        return "TM" + occurrences.keySet();
+    /**
+     * Presents the memory as a map from tuples to their number of occurrences; entries can be removed, but not added.
+     */
+    private class OccurrencesView extends AbstractMap<Tuple, Integer> {
+
+        @Override
+        public Integer get(Object key) {
+            int slot = key == null ? -1 : find(key);
+            return slot < 0 ? null : countOf(hashAndCount[slot]);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return contains(key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Map.Entry<Tuple, Integer>> entrySet() {
+            return new AbstractSet<Map.Entry<Tuple, Integer>>() {
+                @Override
+                public Iterator<Map.Entry<Tuple, Integer>> iterator() {
+                    final Iterator<Tuple> tuples = TupleMemory.this.iterator();
+                    return new Iterator<Map.Entry<Tuple, Integer>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return tuples.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<Tuple, Integer> next() {
+                            Tuple tuple = tuples.next();
+                            return new AbstractMap.SimpleImmutableEntry<Tuple, Integer>(tuple, TupleMemory.this.get(tuple));
+                        }
+
+                        @Override
+                        public void remove() {
+                            tuples.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
     }
 
 }
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.rete.util;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.FlatTuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+
+/**
+ * Rough estimates of the heap space occupied by the data structures of Rete nodes, assuming a 64-bit JVM with
+ * compressed object references.
+ * 
+ * @author agent
+ * @since 1.7
+ * @noreference This class is not intended to be referenced by clients.
+ */
+public final class MemoryEstimates {
+
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+    /**
+     * Estimated size of an entry of a {@link java.util.HashMap}, incl. its slot in the table.
+     */
+    public static final int HASH_MAP_ENTRY = 40;
+
+    private MemoryEstimates() {
+    }
+
+    /**
+     * @return the estimated size of an array with the given number of elements of the given size
+     */
+    public static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    /**
+     * @return the estimated size of an object with the given fields, incl. its header
+     */
+    public static long object(int fieldBytes) {
+        return align(OBJECT_HEADER + (long) fieldBytes);
+    }
+
+    /**
+     * @return the estimated size of the given tuple, not counting its elements
+     */
+    public static long tuple(Tuple tuple) {
+        if (tuple instanceof FlatTuple) {
+            // cached hash code and element array
+            return object(4 + REFERENCE) + array(tuple.getSize(), REFERENCE);
+        } else {
+            return object(4 + tuple.getSize() * REFERENCE);
+        }
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
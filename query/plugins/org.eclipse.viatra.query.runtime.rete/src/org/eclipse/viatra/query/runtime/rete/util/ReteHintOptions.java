@@ -12,6 +12,8 @@ package org.eclipse.viatra.query.runtime.rete.util;
 
 import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
 import org.eclipse.viatra.query.runtime.matchers.backend.QueryHintOption;
+import org.eclipse.viatra.query.runtime.matchers.context.InterningQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.rete.network.MonitoredMailbox;
 
 /**
  * Provides key objects (of type {@link QueryHintOption}) for {@link QueryEvaluationHint}s.
@@ -55,7 +57,102 @@ public final class ReteHintOptions {
      */
     public static final QueryHintOption<Boolean> expandWeakenedAlternativeConstraints =
             hintOption("expandWeakenedAlternativeConstraints", true);
-   
+
+    /**
+     * This hint enables parallel update propagation: communication groups of the Rete network that are independent
+     * of each other deliver their messages concurrently on a fork-join pool owned by the Rete network of the engine
+     * (see {@link #parallelPropagationThreads}), while the results are the same as in single-threaded mode. Match update callbacks are still invoked one at a time. </p>
+     * 
+     * The propagation mode applies to the entire Rete network of the query engine, therefore it is only read from the
+     * engine default hints; specifying it for individual queries has no effect. Query evaluation must not rely on
+     * thread-unsafe expression evaluators if this hint is set.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Boolean> parallelUpdatePropagation =
+            hintOption("parallelUpdatePropagation", false);
+
+    /**
+     * The number of worker threads used for parallel update propagation (see {@link #parallelUpdatePropagation}); 0
+     * means the number of available processors. The threads are started when parallel propagation is switched on, and
+     * stopped when the query engine is disposed or wiped. </p>
+     * 
+     * This is an engine-wide setting, so it is only read from the engine default hints.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Integer> parallelPropagationThreads =
+            hintOption("parallelPropagationThreads", 0);
+
+    /**
+     * This hint limits the number of pattern matchers whose Rete subnetworks are kept alive while they are not in use.
+     * Matchers with registered update listeners are pinned and never evicted; among the rest, the least recently
+     * accessed ones are evicted first. The subnetwork of an evicted matcher is discarded, except for the parts shared
+     * with other live matchers, and it is transparently rebuilt the next time the matcher is accessed. </p>
+     * 
+     * The limit applies to the entire Rete network of the query engine and is checked whenever a matcher is built or
+     * rebuilt. This is an engine-wide setting, so it is only read from the engine default hints. A non-positive value
+     * means no limit.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Integer> matcherEvictionLimit =
+            hintOption("matcherEvictionLimit", 0);
+
+    /**
+     * This hint evicts the least recently accessed unpinned pattern matchers (see {@link #matcherEvictionLimit}) while
+     * the estimated memory consumption of the Rete network, in bytes, exceeds the given budget. As the estimate is
+     * derived from the number of stored tuples, the budget is approximate. A non-positive value means no budget. </p>
+     * 
+     * This is an engine-wide setting, so it is only read from the engine default hints.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Long> matcherMemoryBudget =
+            hintOption("matcherMemoryBudget", 0L);
+
+    /**
+     * This hint makes the mailboxes of the Rete network measure the time spent delivering messages, as reported by
+     * the runtime metrics of the engine (see {@link MonitoredMailbox#getDeliveryTime()}). As it takes two clock reads
+     * per delivery, it is disabled by default; message counts are maintained regardless. </p>
+     * 
+     * This is an engine-wide setting, so it is only read from the engine default hints.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Boolean> measureDeliveryTime =
+            hintOption("measureDeliveryTime", false);
+
+    /**
+     * This hint makes the Rete network represent each model element by a dense integer ID instead of the element
+     * itself (see {@link InterningQueryRuntimeContext}), so that tuple elements hash and compare uniformly cheaply.
+     * Elements are translated back at the boundary of the pattern matchers, therefore matches are unaffected. The IDs
+     * of elements that disappear from the model are reused for new elements, provided that the network is
+     * single-threaded; constants, computed values and the elements used as seeds keep their IDs until the engine is
+     * wiped or disposed. </p>
+     * 
+     * The element representation applies to the entire Rete network of the query engine; therefore the hint is only
+     * read from the engine default hints.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Boolean> internElements =
+            hintOption("internElements", false);
+
+    /**
+     * This hint makes the Rete network store the contents of its projection indexers outside of the Java heap, in
+     * direct buffers, in order to reduce the heap size and garbage collection pauses for large indexes. Off-heap
+     * storage requires elements to be represented by integer IDs, therefore the hint implies {@link #internElements}.
+     * Indexers that are views of the memory of their parent node are not affected. </p>
+     * 
+     * The storage of indexers applies to the entire Rete network of the query engine; therefore the hint is only read
+     * from the engine default hints.
+     * 
+     * @since 1.7
+     */
+    public static final QueryHintOption<Boolean> offHeapIndexers =
+            hintOption("offHeapIndexers", false);
+
     // internal helper for conciseness
     private static <T> QueryHintOption<T> hintOption(String hintKeyLocalName, T defaultValue) {
         return new QueryHintOption<>(ReteHintOptions.class, hintKeyLocalName, defaultValue);
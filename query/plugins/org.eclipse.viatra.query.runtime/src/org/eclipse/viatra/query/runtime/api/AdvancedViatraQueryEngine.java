@@ -359,6 +359,23 @@ public abstract class AdvancedViatraQueryEngine extends ViatraQueryEngine {
      * @since 1.6
      */
     public abstract <V> V delayUpdatePropagation(Callable<V> callable) throws InvocationTargetException;
+
+    /**
+     * The given callable will be executed, and all update propagation in stateful query backends will be delayed until
+     * the execution is done, see {@link #delayUpdatePropagation(Callable)}.
+     * 
+     * <p> If requested, the change notifications of the base index are batched as well (see
+     * {@link org.eclipse.viatra.query.runtime.api.scope.IBaseIndex#batchNotifications(Callable)}), so model
+     * modifications that cancel each other out within the callable are not propagated to the backends at all. Note
+     * that this also delays the notifications of all other listeners of the base index until the execution is done.
+     * 
+     * @param callable the callable to be executed
+     * @param batchBaseIndexNotifications whether the change notifications of the base index shall be batched
+     * @return the result of the callable
+     * @since 1.7
+     */
+    public abstract <V> V delayUpdatePropagation(Callable<V> callable, boolean batchBaseIndexNotifications)
+            throws InvocationTargetException;
     
     /**
      * Returns true if the update propagation in this engine is currently delayed, false otherwise. 
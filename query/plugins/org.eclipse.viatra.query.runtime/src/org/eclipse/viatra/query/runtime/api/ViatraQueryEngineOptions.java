@@ -15,6 +15,8 @@ import java.util.Objects;
 
 import org.eclipse.viatra.query.runtime.matchers.backend.IQueryBackendFactory;
 import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
+import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 import org.eclipse.viatra.query.runtime.rete.matcher.ReteBackendFactory;
 
 /**
@@ -32,6 +34,8 @@ public final class ViatraQueryEngineOptions {
     private final QueryEvaluationHint engineDefaultHints;
 
     private final IQueryBackendFactory defaultCachingBackendFactory;
+    
+    private final ICollectionsFramework collectionsFramework;
 
     /** The default engine options; if options are not defined, this version will be used. */
     public static final ViatraQueryEngineOptions DEFAULT = new Builder().build();
@@ -41,6 +45,7 @@ public final class ViatraQueryEngineOptions {
 
         private IQueryBackendFactory defaultBackendFactory;
         private IQueryBackendFactory defaultCachingBackendFactory;
+        private ICollectionsFramework collectionsFramework;
 
         public Builder() {
 
@@ -50,6 +55,7 @@ public final class ViatraQueryEngineOptions {
             this.engineDefaultHints = from.engineDefaultHints;
             this.defaultBackendFactory = engineDefaultHints.getQueryBackendFactory();
             this.defaultCachingBackendFactory = from.defaultCachingBackendFactory;
+            this.collectionsFramework = from.collectionsFramework;
         }
 
         /**
@@ -75,11 +81,23 @@ public final class ViatraQueryEngineOptions {
             return this;
         }
 
+        /**
+         * Selects the collections implementation used by the query backends of the engine for their internal data
+         * structures. Unless configured otherwise in the base index options of the scope, the base index also uses
+         * this framework.
+         * 
+         * @since 1.7
+         */
+        public Builder withCollectionsFramework(ICollectionsFramework collectionsFramework) {
+            this.collectionsFramework = collectionsFramework;
+            return this;
+        }
+
         public ViatraQueryEngineOptions build() {
             IQueryBackendFactory defaultFactory = getDefaultBackend();
             IQueryBackendFactory defaultCachingFactory = getDefaultCachingBackend();
             QueryEvaluationHint hint = getEngineDefaultHints(defaultFactory);
-            return new ViatraQueryEngineOptions(hint, defaultCachingFactory);
+            return new ViatraQueryEngineOptions(hint, defaultCachingFactory, collectionsFramework);
         }
 
         private IQueryBackendFactory getDefaultBackend() {
@@ -123,9 +141,11 @@ public final class ViatraQueryEngineOptions {
         return new Builder(options);
     }
 
-    private ViatraQueryEngineOptions(QueryEvaluationHint engineDefaultHints, IQueryBackendFactory defaultCachingBackendFactory) {
+    private ViatraQueryEngineOptions(QueryEvaluationHint engineDefaultHints, IQueryBackendFactory defaultCachingBackendFactory, 
+            ICollectionsFramework collectionsFramework) {
         this.engineDefaultHints = engineDefaultHints;
         this.defaultCachingBackendFactory = defaultCachingBackendFactory;
+        this.collectionsFramework = collectionsFramework;
     }
 
     public QueryEvaluationHint getEngineDefaultHints() {
@@ -148,13 +168,33 @@ public final class ViatraQueryEngineOptions {
     public IQueryBackendFactory getDefaultCachingBackendFactory() {
         return defaultCachingBackendFactory;
     }
+    
+    /**
+     * Returns the collections implementation selected for the engine, or {@link CollectionsFactory#DEFAULT_FRAMEWORK}
+     * if none was selected explicitly.
+     * 
+     * @since 1.7
+     */
+    public ICollectionsFramework getCollectionsFramework() {
+        return CollectionsFactory.orDefault(collectionsFramework);
+    }
+    
+    /**
+     * Returns whether a collections implementation was selected explicitly for the engine.
+     * 
+     * @since 1.7
+     */
+    public boolean isCollectionsFrameworkSpecified() {
+        return collectionsFramework != null;
+    }
 
     @Override
     public String toString() {
         // TODO defaultCachingBackendFactory is ignored
+        String frameworkSuffix = collectionsFramework == null ? "" : " collections=" + collectionsFramework;
         if(Objects.equals(engineDefaultHints, DEFAULT.engineDefaultHints)) 
-            return "defaults";
+            return "defaults" + frameworkSuffix;
         else
-            return engineDefaultHints.toString();
+            return engineDefaultHints.toString() + frameworkSuffix;
     }
 }
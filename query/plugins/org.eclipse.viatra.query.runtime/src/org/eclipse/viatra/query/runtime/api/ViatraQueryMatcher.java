@@ -12,7 +12,9 @@
 package org.eclipse.viatra.query.runtime.api;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -55,6 +57,49 @@ public interface ViatraQueryMatcher<Match extends IPatternMatch> {
      */
     public abstract Collection<Match> getAllMatches(Match partialMatch);
 
+    /**
+     * Returns the matches of the pattern for each of the given partial matches. The result is the same as calling
+     * {@link #getAllMatches(IPatternMatch)} for each partial match, but the query backend may share work among them;
+     * e.g. local search prepares the search plan only once for partial matches binding the same parameters, and may
+     * distribute them among multiple threads if parallel execution is requested in its hints.
+     * 
+     * <p>
+     * The partial matches must not be modified while the returned map is in use, as they are its keys.
+     * 
+     * @param partialMatches
+     *            partial matches of the pattern where each non-null field binds the corresponding pattern parameter to
+     *            a fixed value.
+     * @return the matches conforming to each distinct partial match, in the iteration order of the partial matches.
+     * @since 1.7
+     */
+    public abstract Map<Match, Collection<Match>> getAllMatchesForEach(Collection<Match> partialMatches);
+
+    /**
+     * Lazily enumerates all pattern matches. Depending on the query backend, matches may be computed on demand as the
+     * returned iterator is consumed, so enumerating only the first few matches (e.g. by
+     * {@link com.google.common.collect.Iterators#limit(java.util.Iterator, int)}) can be considerably cheaper than
+     * {@link #getAllMatches()}.
+     * 
+     * <p>
+     * The model must not be modified while the iterator is in use.
+     * 
+     * @return an iterator over the matches represented as Match objects.
+     * @since 1.7
+     */
+    public abstract Iterator<Match> streamAllMatches();
+
+    /**
+     * Lazily enumerates the matches of the pattern that conform to the given fixed values of some parameters, see
+     * {@link #streamAllMatches()}.
+     * 
+     * @param partialMatch
+     *            a partial match of the pattern where each non-null field binds the corresponding pattern parameter to
+     *            a fixed value.
+     * @return an iterator over the matches represented as Match objects.
+     * @since 1.7
+     */
+    public abstract Iterator<Match> streamAllMatches(Match partialMatch);
+
     // variant(s) with input binding as pattern-specific parameters: not declared in interface
 
     // SINGLE MATCH
@@ -14,7 +14,11 @@ package org.eclipse.viatra.query.runtime.api.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.viatra.query.runtime.api.IMatchProcessor;
@@ -32,7 +36,9 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery.PQuerySt
 import org.eclipse.viatra.query.runtime.matchers.psystem.queries.QueryInitializationException;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
 
+import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
 
 /**
  * Base implementation of ViatraQueryMatcher.
@@ -168,6 +174,53 @@ public abstract class BaseMatcher<Match extends IPatternMatch> extends QueryResu
         return rawGetAllMatches(partialMatch.toArray());
     }
 
+    @Override
+    public Map<Match, Collection<Match>> getAllMatchesForEach(Collection<Match> partialMatches) {
+        List<Match> seeds = new ArrayList<Match>(new LinkedHashSet<Match>(partialMatches));
+        List<Object[]> parameters = new ArrayList<Object[]>(seeds.size());
+        for (Match seed : seeds) {
+            parameters.add(seed.toArray());
+        }
+        List<? extends Collection<? extends Tuple>> results = backend.getAllMatchesForEach(parameters);
+        Map<Match, Collection<Match>> matchesBySeed = new LinkedHashMap<Match, Collection<Match>>();
+        for (int i = 0; i < seeds.size(); i++) {
+            Collection<Match> matches = new ArrayList<Match>();
+            for (Tuple t : results.get(i))
+                matches.add(tupleToMatch(t));
+            matchesBySeed.put(seeds.get(i), matches);
+        }
+        return matchesBySeed;
+    }
+
+    @Override
+    public Iterator<Match> streamAllMatches() {
+        return rawStreamAllMatches(emptyArray());
+    }
+
+    @Override
+    public Iterator<Match> streamAllMatches(Match partialMatch) {
+        return rawStreamAllMatches(partialMatch.toArray());
+    }
+
+    /**
+     * Lazily enumerates the matches of the pattern that conform to the given fixed values of some parameters.
+     *
+     * @param parameters
+     *            array where each non-null element binds the corresponding pattern parameter to a fixed value.
+     * @pre size of input array must be equal to the number of parameters.
+     * @return an iterator over the matches represented as Match objects.
+     * @since 1.7
+     */
+    protected Iterator<Match> rawStreamAllMatches(Object[] parameters) {
+        // tuples are wrapped into match objects one by one, as they are consumed
+        return Iterators.transform(backend.streamAllMatches(parameters), new Function<Tuple, Match>() {
+            @Override
+            public Match apply(Tuple t) {
+                return tupleToMatch(t);
+            }
+        });
+    }
+
     // with input binding as pattern-specific parameters: not declared in interface
 
     @Override
@@ -31,6 +31,16 @@ public interface IBaseIndex {
      * @param callable
      */
     public <V> V coalesceTraversals(Callable<V> callable) throws InvocationTargetException;
+
+    /**
+     * The given callback will be executed, and the change notifications of the index will be accumulated until the
+     * execution is done. Afterwards, only the net changes are delivered; changes that cancel each other out are not
+     * delivered at all. Within the callback, the index itself is kept up to date.
+     * 
+     * @param callable
+     * @since 1.7
+     */
+    public <V> V batchNotifications(Callable<V> callable) throws InvocationTargetException;
     
     /**
      * Adds a coarse-grained listener that will be invoked after the NavigationHelper index or the underlying model is changed. Can be used
@@ -60,6 +60,18 @@ public class EMFBaseIndexWrapper implements IBaseIndex {
         return navigationHelper.coalesceTraversals(callable);
     }
 
+    @Override
+    public <V> V batchNotifications(Callable<V> callable) throws InvocationTargetException {
+        navigationHelper.beginBatch();
+        try {
+            return callable.call();
+        } catch (Exception e) {
+            throw new InvocationTargetException(e);
+        } finally {
+            navigationHelper.endBatch();
+        }
+    }
+
     Map<IIndexingErrorListener, IEMFIndexingErrorListener> indexErrorListeners =
             new HashMap<IIndexingErrorListener, IEMFIndexingErrorListener>();
     @Override
@@ -13,10 +13,13 @@ package org.eclipse.viatra.query.runtime.emf;
 
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
 import org.eclipse.viatra.query.runtime.api.ViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryEngineOptions;
 import org.eclipse.viatra.query.runtime.api.scope.IBaseIndex;
 import org.eclipse.viatra.query.runtime.api.scope.IEngineContext;
 import org.eclipse.viatra.query.runtime.api.scope.IIndexingErrorListener;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
 import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
 import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
 import org.eclipse.viatra.query.runtime.base.exception.ViatraBaseException;
@@ -54,7 +57,7 @@ class EMFEngineContext implements IEngineContext {
                 // sync to avoid crazy compiler reordering which would matter if derived features use VIATRA and call this
                 // reentrantly
                 synchronized (this) {
-                    navHelper = ViatraBaseFactory.getInstance().createNavigationHelper(null, this.emfScope.getOptions(),
+                    navHelper = ViatraBaseFactory.getInstance().createNavigationHelper(null, getBaseIndexOptions(),
                             logger);
                     getBaseIndex().addIndexingErrorListener(taintListener);
                 }
@@ -71,6 +74,20 @@ class EMFEngineContext implements IEngineContext {
         return navHelper;
     }
 
+    /**
+     * The options of the scope, with the collections framework of the engine applied unless the scope specifies one.
+     */
+    private BaseIndexOptions getBaseIndexOptions() {
+        BaseIndexOptions options = this.emfScope.getOptions();
+        if (!options.isCollectionsFrameworkSpecified() && engine instanceof AdvancedViatraQueryEngine) {
+            ViatraQueryEngineOptions engineOptions = ((AdvancedViatraQueryEngine) engine).getEngineOptions();
+            if (engineOptions != null && engineOptions.isCollectionsFrameworkSpecified()) {
+                options = options.withCollectionsFramework(engineOptions.getCollectionsFramework());
+            }
+        }
+        return options;
+    }
+
     private void ensureIndexLoaded() throws ViatraQueryException {
         try {
             for (Notifier scopeRoot : this.emfScope.getScopeRoots()) {
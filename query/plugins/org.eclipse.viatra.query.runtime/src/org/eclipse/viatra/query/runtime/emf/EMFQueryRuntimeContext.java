@@ -35,6 +35,7 @@ import org.eclipse.viatra.query.runtime.emf.types.EClassUnscopedTransitiveInstan
 import org.eclipse.viatra.query.runtime.emf.types.EDataTypeInSlotsKey;
 import org.eclipse.viatra.query.runtime.emf.types.EStructuralFeatureInstancesKey;
 import org.eclipse.viatra.query.runtime.matchers.context.AbstractQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
 import org.eclipse.viatra.query.runtime.matchers.context.IInputKey;
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryMetaContext;
 import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContextListener;
@@ -59,9 +60,13 @@ public class EMFQueryRuntimeContext extends AbstractQueryRuntimeContext {
     protected final NavigationHelper baseIndex;
     //private BaseIndexListener listener;
     
-    protected final Map<EClass, EnumSet<IndexingService>> indexedClasses = Maps.newHashMap();
-    protected final Map<EDataType, EnumSet<IndexingService>> indexedDataTypes = Maps.newHashMap();
-    protected final Map<EStructuralFeature, EnumSet<IndexingService>> indexedFeatures = Maps.newHashMap();
+    /*
+     * The indexing service sets stored in these maps are never modified, but replaced, as they may be read concurrently
+     * if the base index allows concurrent read access.
+     */
+    protected final Map<EClass, EnumSet<IndexingService>> indexedClasses = Maps.newConcurrentMap();
+    protected final Map<EDataType, EnumSet<IndexingService>> indexedDataTypes = Maps.newConcurrentMap();
+    protected final Map<EStructuralFeature, EnumSet<IndexingService>> indexedFeatures = Maps.newConcurrentMap();
     
     protected final EMFQueryMetaContext metaContext;
 
@@ -89,16 +94,27 @@ public class EMFQueryRuntimeContext extends AbstractQueryRuntimeContext {
      * @return
      */
     private static <K> boolean addIndexingService(Map<K, EnumSet<IndexingService>> map, K key, IndexingService service){
-        EnumSet<IndexingService> current = map.get(key);
-        if (current == null){
-            current = EnumSet.of(service);
-            map.put(key, current);
-            return true;
-        }else{
-            return current.add(service);
+        synchronized (map) {
+            EnumSet<IndexingService> current = map.get(key);
+            if (current == null){
+                map.put(key, EnumSet.of(service));
+                return true;
+            } else if (current.contains(service)) {
+                return false;
+            } else {
+                EnumSet<IndexingService> extended = EnumSet.copyOf(current);
+                extended.add(service);
+                map.put(key, extended);
+                return true;
+            }
         }
     }
     
+    private static <K> boolean hasIndexingService(Map<K, EnumSet<IndexingService>> map, K key, IndexingService service){
+        EnumSet<IndexingService> current = map.get(key);
+        return current != null && current.contains(service);
+    }
+    
     public void dispose() {
         //baseIndex.removeFeatureListener(indexedFeatures, listener);
         indexedFeatures.clear();
@@ -230,6 +246,17 @@ public class EMFQueryRuntimeContext extends AbstractQueryRuntimeContext {
         return instanceClass;
     }
     
+    @Override
+    public DegreeStatistics getDegreeStatistics(IInputKey key) {
+        if (key instanceof EStructuralFeatureInstancesKey) {
+            EStructuralFeature feature = ((EStructuralFeatureInstancesKey) key).getEmfKey();
+            if (baseIndex.getIndexingLevel(feature).hasStatistics()) {
+                return baseIndex.getFeatureDegreeStatistics(feature);
+            }
+        }
+        return null;
+    }
+    
     @Override
     public Iterable<Tuple> enumerateTuples(IInputKey key, Tuple seed) {
         ensureIndexed(key);
@@ -417,13 +444,15 @@ public class EMFQueryRuntimeContext extends AbstractQueryRuntimeContext {
      * @since 1.4
      */
     public void ensureIndexed(EClass eClass, IndexingService service) {
-        if (addIndexingService(indexedClasses, eClass, service)) {
+        if (!hasIndexingService(indexedClasses, eClass, service)) {
             final Set<EClass> newClasses = Collections.singleton(eClass);
             IndexingLevel level = IndexingLevel.toLevel(service);
             if (!baseIndex.getIndexingLevel(eClass).providesLevel(level)) {
                 baseIndex.registerEClasses(newClasses, level);
             }
             //baseIndex.addInstanceListener(newClasses, listener);
+            // recorded after the registration, so that concurrent readers do not proceed before the index is filled
+            addIndexingService(indexedClasses, eClass, service);
         }
     }
 
@@ -440,13 +469,15 @@ public class EMFQueryRuntimeContext extends AbstractQueryRuntimeContext {
      * @since 1.4
      */
     public void ensureIndexed(EDataType eDataType, IndexingService service) {
-        if (addIndexingService(indexedDataTypes, eDataType, service)) {
+        if (!hasIndexingService(indexedDataTypes, eDataType, service)) {
             final Set<EDataType> newDataTypes = Collections.singleton(eDataType);
             IndexingLevel level = IndexingLevel.toLevel(service);
             if (!baseIndex.getIndexingLevel(eDataType).providesLevel(level)) {
                 baseIndex.registerEDataTypes(newDataTypes, level);
             }
             //baseIndex.addDataTypeListener(newDataTypes, listener);
+            // recorded after the registration, so that concurrent readers do not proceed before the index is filled
+            addIndexingService(indexedDataTypes, eDataType, service);
         }
     }
 
@@ -463,13 +494,15 @@ public class EMFQueryRuntimeContext extends AbstractQueryRuntimeContext {
      * @since 1.4
      */
     public void ensureIndexed(EStructuralFeature feature, IndexingService service) {
-        if (addIndexingService(indexedFeatures, feature, service)) {
+        if (!hasIndexingService(indexedFeatures, feature, service)) {
             final Set<EStructuralFeature> newFeatures = Collections.singleton(feature);
             IndexingLevel level = IndexingLevel.toLevel(service);
             if (!baseIndex.getIndexingLevel(feature).providesLevel(level)) {
                 baseIndex.registerEStructuralFeatures(newFeatures, level);
             }
             //baseIndex.addFeatureListener(newFeatures, listener);
+            // recorded after the registration, so that concurrent readers do not proceed before the index is filled
+            addIndexingService(indexedFeatures, feature, service);
         }
     }
     
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.emf;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.viatra.query.runtime.rete.network.BasicSnapshotElementCodec;
+import org.eclipse.viatra.query.runtime.rete.network.ReteNetworkSnapshot;
+
+/**
+ * Identifies {@link EObject}s contained in resources by their URIs when a {@link ReteNetworkSnapshot} is persisted,
+ * and resolves them in a given {@link ResourceSet} without loading further resources. Other elements are supported as
+ * in {@link BasicSnapshotElementCodec}.
+ * 
+ * @author agent
+ * @since 1.7
+ */
+public class EMFSnapshotElementCodec extends BasicSnapshotElementCodec {
+
+    private final ResourceSet resourceSet;
+
+    /**
+     * @param resourceSet
+     *            the resource set in which the identified objects are resolved
+     */
+    public EMFSnapshotElementCodec(ResourceSet resourceSet) {
+        this.resourceSet = resourceSet;
+    }
+
+    @Override
+    protected String encodeOther(Object element) {
+        if (element instanceof EObject) {
+            Resource resource = ((EObject) element).eResource();
+            if (resource != null && resource.getURI() != null) {
+                return EcoreUtil.getURI((EObject) element).toString();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected Object decodeOther(String identifier) {
+        try {
+            return resourceSet.getEObject(URI.createURI(identifier), false);
+        } catch (RuntimeException e) {
+            // malformed URI or unresolvable fragment
+            return null;
+        }
+    }
+
+}
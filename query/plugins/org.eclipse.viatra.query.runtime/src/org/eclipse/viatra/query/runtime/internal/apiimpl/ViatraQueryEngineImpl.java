@@ -58,6 +58,7 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQueries;
 import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
 import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery.PQueryStatus;
 import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
 import org.eclipse.viatra.query.runtime.registry.IDefaultRegistryView;
 import org.eclipse.viatra.query.runtime.registry.IQuerySpecificationRegistry;
 import org.eclipse.viatra.query.runtime.registry.QuerySpecificationRegistry;
@@ -178,6 +179,12 @@ public final class ViatraQueryEngineImpl extends AdvancedViatraQueryEngine
 
     @Override
     public <V> V delayUpdatePropagation(Callable<V> callable) throws InvocationTargetException {
+        return delayUpdatePropagation(callable, false);
+    }
+
+    @Override
+    public <V> V delayUpdatePropagation(Callable<V> callable, boolean batchBaseIndexNotifications)
+            throws InvocationTargetException {
         boolean wasAlreadyDelayed = this.delayMessageDelivery;
         V result = null;
 
@@ -185,10 +192,19 @@ public final class ViatraQueryEngineImpl extends AdvancedViatraQueryEngine
             this.delayMessageDelivery = true;
         }
 
-        try {
-            result = callable.call();
-        } catch (Exception e) {
-            throw new InvocationTargetException(e);
+        if (batchBaseIndexNotifications) {
+            // the base index only delivers the net changes of the model modifications at the end
+            try {
+                result = getBaseIndex().batchNotifications(callable);
+            } catch (ViatraQueryException e) {
+                throw new InvocationTargetException(e);
+            }
+        } else {
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                throw new InvocationTargetException(e);
+            }
         }
 
         if (!wasAlreadyDelayed) {
@@ -369,6 +385,11 @@ public final class ViatraQueryEngineImpl extends AdvancedViatraQueryEngine
                         return ViatraQueryEngineImpl.this.delayMessageDelivery;
                     }
 
+                    @Override
+                    public ICollectionsFramework getCollectionsFramework() {
+                        return engineOptions.getCollectionsFramework();
+                    }
+
                 });
                 queryBackends.put(iQueryBackendFactory, iQueryBackend);
             }
@@ -647,13 +668,14 @@ public final class ViatraQueryEngineImpl extends AdvancedViatraQueryEngine
         }
     }
 
-    private QueryEvaluationHint getEngineDefaultHint() {
+    @Override
+    public QueryEvaluationHint getEngineDefaultHints() {
         return engineOptions.getEngineDefaultHints();
     }
 
     @Override
     public QueryEvaluationHint getQueryEvaluationHint(PQuery query) {
-        return getEngineDefaultHint().overrideBy(query.getEvaluationHints());
+        return getEngineDefaultHints().overrideBy(query.getEvaluationHints());
     }
 
     private QueryEvaluationHint getQueryEvaluationHint(IQuerySpecification<?> querySpecification,
@@ -32,6 +32,7 @@ import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery
 import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.DefaultFlattenCallPredicate
 import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.PBodyNormalizer
 import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.PQueryFlattener
+import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory
 import org.eclipse.viatra.query.tooling.cpp.localsearch.model.PatternDescriptor
 
 /**
@@ -138,6 +139,10 @@ class PlanCompiler implements IQueryBackendContext {
                 return new QueryEvaluationHint(Collections.emptyMap(), null)
             }
             
+            override getEngineDefaultHints() {
+                return new QueryEvaluationHint(Collections.emptyMap(), null)
+            }
+            
         }
     }   
 
@@ -165,4 +170,8 @@ class PlanCompiler implements IQueryBackendContext {
         throw new UnsupportedOperationException("PlanCompiler is never used in runtime!")
     }
 
+    override getCollectionsFramework() {
+        CollectionsFactory::DEFAULT_FRAMEWORK
+    }
+
 }
\ No newline at end of file
@@ -11,6 +11,8 @@
 
 package org.eclipse.viatra.query.runtime.base.itc;
 
+import org.eclipse.viatra.query.runtime.base.itc.bitmap.BitmapCompleteGraphTestCase;
+import org.eclipse.viatra.query.runtime.base.itc.bitmap.BitmapGraphsTestCase;
 import org.eclipse.viatra.query.runtime.base.itc.counting.CountingCompleteGraphTestCase;
 import org.eclipse.viatra.query.runtime.base.itc.dfs.DFSCompleteGraphTestCase;
 import org.eclipse.viatra.query.runtime.base.itc.dred.DRedCompleteGraphTestCase;
@@ -30,7 +32,9 @@ import org.junit.runners.Suite.SuiteClasses;
         CountingCompleteGraphTestCase.class,
         IncSCCGraphsTestCase.class,
         IncSCCCompleteGraphTestCase.class,
-        IncSCCPathConstructionTestCase.class
+        IncSCCPathConstructionTestCase.class,
+        BitmapGraphsTestCase.class,
+        BitmapCompleteGraphTestCase.class
 })
 public class TransitiveClosureAlgorithmTestSuite {
 
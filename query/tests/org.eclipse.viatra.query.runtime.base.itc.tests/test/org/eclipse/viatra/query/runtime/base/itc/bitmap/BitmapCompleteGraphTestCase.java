@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.viatra.query.runtime.base.itc.bitmap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.base.itc.alg.bitmap.BitmapDagAlg;
+import org.eclipse.viatra.query.runtime.base.itc.alg.dred.DRedTcRelation;
+import org.eclipse.viatra.query.runtime.base.itc.alg.incscc.IncSCCAlg;
+import org.eclipse.viatra.query.runtime.base.itc.alg.misc.dfs.DFSAlg;
+import org.eclipse.viatra.query.runtime.base.itc.graphimpl.Graph;
+import org.junit.Test;
+
+public class BitmapCompleteGraphTestCase {
+
+    private static final int NODE_COUNT = 10;
+
+    @Test
+    public void testAcyclicGraph() {
+        Graph<Integer> graph = new Graph<Integer>();
+        DFSAlg<Integer> dfsAlg = new DFSAlg<Integer>(graph);
+        BitmapDagAlg<Integer> bitmapAlg = new BitmapDagAlg<Integer>(graph);
+
+        for (int i = 0; i < NODE_COUNT; i++) {
+            graph.insertNode(i);
+        }
+
+        for (int i = 0; i < NODE_COUNT; i++) {
+            for (int j = i + 1; j < NODE_COUNT; j++) {
+                graph.insertEdge(i, j);
+                assertTcRelation(dfsAlg.getTcRelation(), bitmapAlg);
+            }
+        }
+
+        // identifiers of deleted nodes are reused
+        graph.deleteNode(5);
+        assertTcRelation(dfsAlg.getTcRelation(), bitmapAlg);
+        graph.insertNode(NODE_COUNT);
+        graph.insertNode(NODE_COUNT + 1);
+        graph.insertEdge(NODE_COUNT, 0);
+        graph.insertEdge(4, NODE_COUNT + 1);
+        assertTcRelation(dfsAlg.getTcRelation(), bitmapAlg);
+
+        for (int i = 0; i < NODE_COUNT; i++) {
+            for (int j = i + 1; j < NODE_COUNT; j++) {
+                graph.deleteEdge(i, j);
+                assertTcRelation(dfsAlg.getTcRelation(), bitmapAlg);
+            }
+        }
+    }
+
+    @Test
+    public void testCompleteGraph() {
+        Graph<Integer> graph = new Graph<Integer>();
+        DFSAlg<Integer> dfsAlg = new DFSAlg<Integer>(graph);
+        IncSCCAlg<Integer> incsccAlg = new IncSCCAlg<Integer>(graph, true);
+
+        for (int i = 0; i < NODE_COUNT; i++) {
+            graph.insertNode(i);
+        }
+
+        for (int i = 0; i < NODE_COUNT; i++) {
+            for (int j = 0; j < NODE_COUNT; j++) {
+                if (i != j) {
+                    graph.insertEdge(i, j);
+                    assertTrue(incsccAlg.checkTcRelation(dfsAlg.getTcRelation()));
+                }
+            }
+        }
+
+        for (int i = 0; i < NODE_COUNT; i++) {
+            for (int j = 0; j < NODE_COUNT; j++) {
+                if (i != j) {
+                    graph.deleteEdge(i, j);
+                    assertTrue(incsccAlg.checkTcRelation(dfsAlg.getTcRelation()));
+                }
+            }
+        }
+    }
+
+    private void assertTcRelation(DRedTcRelation<Integer> expected, BitmapDagAlg<Integer> actual) {
+        for (int i = 0; i <= NODE_COUNT + 1; i++) {
+            Set<Integer> expectedTargets = expected.getTupleEnds(i);
+            if (expectedTargets == null) {
+                expectedTargets = Collections.emptySet();
+            }
+            assertEquals(expectedTargets, actual.getAllReachableTargets(i));
+            for (Integer target : expectedTargets) {
+                assertTrue(actual.getAllReachableSources(target).contains(i));
+            }
+        }
+    }
+}
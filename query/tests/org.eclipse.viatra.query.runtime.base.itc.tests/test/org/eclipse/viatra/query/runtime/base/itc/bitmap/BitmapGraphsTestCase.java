@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   agent - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.viatra.query.runtime.base.itc.bitmap;
+
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.viatra.query.runtime.base.itc.BaseTransitiveClosureAlgorithmTest;
+import org.eclipse.viatra.query.runtime.base.itc.alg.fw.FloydWarshallAlg;
+import org.eclipse.viatra.query.runtime.base.itc.alg.incscc.IncSCCAlg;
+import org.eclipse.viatra.query.runtime.base.itc.graphs.TestGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class BitmapGraphsTestCase extends BaseTransitiveClosureAlgorithmTest {
+
+    protected TestGraph<Integer> testGraph;
+
+    public BitmapGraphsTestCase(TestGraph<Integer> testGraph) {
+        this.testGraph = testGraph;
+    }
+
+    @Test
+    public void testResult() {
+        FloydWarshallAlg<Integer> fwa = new FloydWarshallAlg<Integer>(testGraph);
+        IncSCCAlg<Integer> alg = new IncSCCAlg<Integer>(testGraph, true);
+        if (testGraph.getObserver() != null) {
+            alg.attachObserver(testGraph.getObserver());
+        }
+        testGraph.modify();
+        assertTrue(alg.checkTcRelation(fwa.getTcRelation()));
+    }
+}
@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.matchers.tuple.IdTuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.tuple.MaskedTupleMemory;
+import org.eclipse.viatra.query.runtime.rete.tuple.OffHeapTupleMemory;
+import org.eclipse.viatra.query.runtime.rete.tuple.TupleMemory;
+import org.junit.Test;
+
+/**
+ * Tests for the open-addressing tuple memories, comparing them against reference implementations based on Java
+ * collections.
+ *
+ * @author agent
+ *
+ */
+public class TupleMemoryTest {
+
+    private static final int ROUNDS = 50;
+    private static final int OPERATIONS = 5000;
+
+    @Test
+    public void testTupleMemoryMultiplicities() {
+        Random random = new Random(42);
+        for (int round = 0; round < ROUNDS; ++round) {
+            TupleMemory memory = new TupleMemory();
+            Map<Tuple, Integer> reference = new HashMap<Tuple, Integer>();
+            int range = 1 + random.nextInt(300);
+            for (int i = 0; i < OPERATIONS; ++i) {
+                Tuple tuple = Tuples.flatTupleOf(random.nextInt(range), random.nextInt(3));
+                Integer count = reference.get(tuple);
+                int operation = random.nextInt(10);
+                if (operation < 5) {
+                    assertEquals("add", count == null, memory.add(tuple));
+                    reference.put(tuple, count == null ? 1 : count + 1);
+                } else if (operation < 8 && count != null) {
+                    assertEquals("remove", count == 1, memory.remove(tuple));
+                    if (count == 1) {
+                        reference.remove(tuple);
+                    } else {
+                        reference.put(tuple, count - 1);
+                    }
+                } else if (operation < 9) {
+                    memory.clear(tuple);
+                    reference.remove(tuple);
+                } else {
+                    assertEquals("demandAdd", count != null, memory.demandAdd(tuple, 2));
+                    if (count != null) {
+                        reference.put(tuple, count + 2);
+                    }
+                }
+                assertEquals("size", reference.size(), memory.size());
+                Integer expected = reference.get(tuple);
+                assertEquals("get", expected == null ? 0 : expected.intValue(), memory.get(tuple));
+            }
+            assertEquals("contents", reference.keySet(), new HashSet<Tuple>(memory));
+        }
+    }
+
+    @Test
+    public void testTupleMemoryRemovalOfMissing() {
+        TupleMemory memory = new TupleMemory();
+        memory.add(Tuples.flatTupleOf(1));
+        try {
+            memory.remove(Tuples.flatTupleOf(2));
+            fail("Removal of missing tuple must be detected");
+        } catch (NullPointerException e) {
+            // expected, see UniquenessEnforcerNode
+        }
+    }
+
+    @Test
+    public void testTupleMemoryIteratorRemoval() {
+        Random random = new Random(7);
+        for (int round = 0; round < ROUNDS * 10; ++round) {
+            TupleMemory memory = new TupleMemory();
+            Set<Tuple> reference = new HashSet<Tuple>();
+            int size = random.nextInt(200);
+            for (int i = 0; i < size; ++i) {
+                Tuple tuple = Tuples.flatTupleOf(random.nextInt(1000));
+                memory.add(tuple);
+                reference.add(tuple);
+            }
+            Set<Tuple> visited = new HashSet<Tuple>();
+            Set<Tuple> retained = new HashSet<Tuple>();
+            Iterator<Tuple> iterator = memory.iterator();
+            while (iterator.hasNext()) {
+                Tuple tuple = iterator.next();
+                assertTrue("visited once", visited.add(tuple));
+                if (random.nextBoolean()) {
+                    iterator.remove();
+                } else {
+                    retained.add(tuple);
+                }
+            }
+            assertEquals("all visited", reference, visited);
+            assertEquals("retained", retained, new HashSet<Tuple>(memory));
+        }
+    }
+
+    @Test
+    public void testMaskedTupleMemory() {
+        checkMaskedTupleMemory(false);
+    }
+
+    @Test
+    public void testOffHeapTupleMemory() {
+        checkMaskedTupleMemory(true);
+    }
+
+    @Test
+    public void testOffHeapTupleMemoryDuplicates() {
+        TupleMask mask = TupleMask.selectSingle(1, 2);
+        OffHeapTupleMemory memory = new OffHeapTupleMemory(mask, null);
+        assertTrue(memory.add(Tuples.flatTupleOf(1, 2)));
+        assertFalse(memory.add(Tuples.flatTupleOf(3, 2)));
+        try {
+            memory.add(Tuples.flatTupleOf(1, 2));
+            fail("Duplicate insertion must be detected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            memory.remove(Tuples.flatTupleOf(2, 2));
+            fail("Removal of missing tuple must be detected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            memory.add(Tuples.flatTupleOf("a", 2));
+            fail("Only element IDs can be stored");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals(2, memory.getTotalSize());
+        assertTrue(memory.getOffHeapMemory() > 0);
+        memory.clear();
+        assertEquals(0, memory.getTotalSize());
+        assertNull(memory.get(Tuples.flatTupleOf(2)));
+    }
+
+    @Test
+    public void testOffHeapTupleMemoryIdTuples() {
+        OffHeapTupleMemory memory = new OffHeapTupleMemory(TupleMask.selectSingle(0, 2), null);
+        assertTrue(memory.add(IdTuple.of(1, IdTuple.NULL_ID)));
+        assertFalse(memory.add(Tuples.flatTupleOf(1, 2)));
+        Set<Tuple> expected = new HashSet<Tuple>();
+        expected.add(Tuples.flatTupleOf(1, null));
+        expected.add(IdTuple.of(1, 2));
+        assertEquals(expected, new HashSet<Tuple>(memory.get(IdTuple.of(1))));
+        for (Tuple tuple : memory) {
+            assertTrue("retrieved tuples are not boxed", tuple instanceof IdTuple);
+        }
+        assertFalse(memory.remove(Tuples.flatTupleOf(1, null)));
+        assertTrue(memory.remove(IdTuple.of(1, 2)));
+    }
+
+    /**
+     * The operations shared by the masked tuple memories.
+     */
+    private interface IndexedMemory extends Iterable<Tuple> {
+        boolean add(Tuple tuple);
+
+        boolean remove(Tuple tuple);
+
+        Collection<Tuple> get(Tuple signature);
+
+        Collection<Tuple> getSignatures();
+
+        int getTotalSize();
+
+        int getKeysetSize();
+    }
+
+    private static IndexedMemory createMemory(TupleMask mask, boolean offHeap) {
+        if (offHeap) {
+            final OffHeapTupleMemory memory = new OffHeapTupleMemory(mask, null);
+            return new IndexedMemory() {
+                @Override
+                public Iterator<Tuple> iterator() {
+                    return memory.iterator();
+                }
+
+                @Override
+                public boolean add(Tuple tuple) {
+                    return memory.add(tuple);
+                }
+
+                @Override
+                public boolean remove(Tuple tuple) {
+                    return memory.remove(tuple);
+                }
+
+                @Override
+                public Collection<Tuple> get(Tuple signature) {
+                    return memory.get(signature);
+                }
+
+                @Override
+                public Collection<Tuple> getSignatures() {
+                    return memory.getSignatures();
+                }
+
+                @Override
+                public int getTotalSize() {
+                    return memory.getTotalSize();
+                }
+
+                @Override
+                public int getKeysetSize() {
+                    return memory.getKeysetSize();
+                }
+            };
+        }
+        final MaskedTupleMemory memory = new MaskedTupleMemory(mask);
+        return new IndexedMemory() {
+            @Override
+            public Iterator<Tuple> iterator() {
+                return memory.iterator();
+            }
+
+            @Override
+            public boolean add(Tuple tuple) {
+                return memory.add(tuple);
+            }
+
+            @Override
+            public boolean remove(Tuple tuple) {
+                return memory.remove(tuple);
+            }
+
+            @Override
+            public Collection<Tuple> get(Tuple signature) {
+                return memory.get(signature);
+            }
+
+            @Override
+            public Collection<Tuple> getSignatures() {
+                return memory.getSignatures();
+            }
+
+            @Override
+            public int getTotalSize() {
+                return memory.getTotalSize();
+            }
+
+            @Override
+            public int getKeysetSize() {
+                return memory.getKeysetSize();
+            }
+        };
+    }
+
+    private void checkMaskedTupleMemory(boolean offHeap) {
+        Random random = new Random(13);
+        TupleMask mask = TupleMask.selectSingle(0, 2);
+        for (int round = 0; round < ROUNDS; ++round) {
+            IndexedMemory memory = createMemory(mask, offHeap);
+            Map<Tuple, Set<Tuple>> reference = new HashMap<Tuple, Set<Tuple>>();
+            int range = 1 + random.nextInt(500);
+            for (int i = 0; i < OPERATIONS; ++i) {
+                Tuple tuple = Tuples.flatTupleOf(random.nextInt(range), random.nextInt(4));
+                Tuple signature = mask.transform(tuple);
+                Set<Tuple> bucket = reference.get(signature);
+                boolean present = bucket != null && bucket.contains(tuple);
+                if (!present) {
+                    assertEquals("add", bucket == null, memory.add(tuple));
+                    if (bucket == null) {
+                        bucket = new HashSet<Tuple>();
+                        reference.put(signature, bucket);
+                    }
+                    bucket.add(tuple);
+                } else {
+                    bucket.remove(tuple);
+                    assertEquals("remove", bucket.isEmpty(), memory.remove(tuple));
+                    if (bucket.isEmpty()) {
+                        reference.remove(signature);
+                    }
+                }
+            }
+            assertEquals("keyset size", reference.size(), memory.getKeysetSize());
+            assertEquals("signatures", reference.keySet(), new HashSet<Tuple>(memory.getSignatures()));
+            List<Tuple> contents = new ArrayList<Tuple>();
+            for (Tuple tuple : memory) {
+                contents.add(tuple);
+            }
+            assertEquals("total size", contents.size(), memory.getTotalSize());
+            assertEquals("no duplicates", contents.size(), new HashSet<Tuple>(contents).size());
+            for (Map.Entry<Tuple, Set<Tuple>> entry : reference.entrySet()) {
+                assertEquals("bucket", entry.getValue(), new HashSet<Tuple>(memory.get(entry.getKey())));
+            }
+            assertNull("missing signature", memory.get(Tuples.flatTupleOf(-1)));
+            assertFalse("missing signature", memory.getSignatures().contains(Tuples.flatTupleOf(-1)));
+        }
+    }
+
+}
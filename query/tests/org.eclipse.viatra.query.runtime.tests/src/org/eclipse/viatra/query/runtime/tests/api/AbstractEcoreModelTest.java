@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.junit.After;
+import org.junit.Before;
+
+/**
+ * Common fixture of the tests of the base index: an Ecore model built in memory, without parsing, and base indexes
+ * that are disposed after each test.
+ *
+ * <p>
+ * The model consists of top-level packages, each with a data type and classes; the classes have attributes of that
+ * data type and references to the other classes of the package. Every element of the model is contained in the same
+ * resource. The model sets string, integer and boolean attributes; the names of the classes, and the lower bounds of
+ * the attributes are shared by several elements.
+ *
+ * @author agent
+ *
+ */
+public abstract class AbstractEcoreModelTest {
+
+    /**
+     * The number of distinct values of the lower bounds of attributes
+     */
+    protected static final int DISTINCT_VALUES = 13;
+
+    private static final EcorePackage ECORE = EcorePackage.eINSTANCE;
+
+    protected ResourceSet resourceSet;
+    protected Resource resource;
+
+    private final List<NavigationHelper> indexes = new ArrayList<NavigationHelper>();
+
+    @Before
+    public void setUpEcoreModel() {
+        resourceSet = new ResourceSetImpl();
+        resource = new XMIResourceImpl(URI.createURI("model.ecore"));
+        resourceSet.getResources().add(resource);
+    }
+
+    @After
+    public void tearDownEcoreModel() {
+        for (NavigationHelper index : indexes) {
+            index.dispose();
+        }
+        indexes.clear();
+    }
+
+    /**
+     * Adds new top-level packages to the given resource, each with the given number of classes. The packages are named
+     * <code>package0</code>, ..., the classes <code>Class0</code>, ... within each package.
+     *
+     * @return the added packages
+     */
+    protected static List<EPackage> createPackages(Resource resource, int packageCount, int classCount) {
+        EcoreFactory factory = EcoreFactory.eINSTANCE;
+        List<EPackage> packages = new ArrayList<EPackage>();
+        for (int p = 0; p < packageCount; p++) {
+            EPackage pack = factory.createEPackage();
+            pack.setName("package" + p);
+            pack.setNsURI("http://viatra.tests/package" + p);
+            pack.setNsPrefix("package" + p);
+            EDataType text = factory.createEDataType();
+            text.setName("Text");
+            text.setInstanceClassName(String.class.getName());
+            pack.getEClassifiers().add(text);
+            for (int i = 0; i < classCount; i++) {
+                EClass clazz = factory.createEClass();
+                clazz.setName("Class" + i);
+                clazz.setAbstract(i % 4 == 0);
+                pack.getEClassifiers().add(clazz);
+            }
+            for (int i = 0; i < classCount; i++) {
+                EClass clazz = (EClass) pack.getEClassifiers().get(i + 1);
+                EClass next = (EClass) pack.getEClassifiers().get((i + 1) % classCount + 1);
+                if (i % 3 != 0) {
+                    clazz.getESuperTypes().add(next);
+                }
+                EAttribute attribute = factory.createEAttribute();
+                attribute.setName("attribute");
+                attribute.setEType(text);
+                attribute.setLowerBound(i % DISTINCT_VALUES);
+                attribute.setChangeable(i % 2 == 0);
+                clazz.getEStructuralFeatures().add(attribute);
+                EReference reference = factory.createEReference();
+                reference.setName("reference");
+                reference.setEType(next);
+                reference.setUpperBound(i % 5 == 0 ? -1 : 1);
+                clazz.getEStructuralFeatures().add(reference);
+            }
+            packages.add(pack);
+        }
+        resource.getContents().addAll(packages);
+        return packages;
+    }
+
+    /**
+     * @return the class with the given index in the given package, see {@link #createPackages(Resource, int, int)}
+     */
+    protected static EClass getClass(EPackage pack, int index) {
+        return (EClass) pack.getEClassifiers().get(index + 1);
+    }
+
+    /**
+     * Creates a base index on the given notifier with the given options; it is disposed after the test.
+     */
+    protected NavigationHelper createIndex(Notifier root, BaseIndexOptions options) throws Exception {
+        NavigationHelper index = ViatraBaseFactory.getInstance().createNavigationHelper(root, options, null);
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Registers the Ecore classes, data types and features used by the model in the given index, and describes their
+     * indexed contents.
+     *
+     * @return the instances of each class and data type, and the holder-target pairs of each feature, with their
+     *         counts; model elements are represented by their URIs, so that the description compares equal across
+     *         indexes of separately loaded copies of the model
+     */
+    protected static List<Object> describeIndex(NavigationHelper index) {
+        Set<EClass> classes = new HashSet<EClass>(Arrays.asList(ECORE.getEPackage(), ECORE.getEClass(),
+                ECORE.getEDataType(), ECORE.getEAttribute(), ECORE.getEReference()));
+        Set<EDataType> dataTypes = new HashSet<EDataType>(
+                Arrays.asList(ECORE.getEString(), ECORE.getEInt(), ECORE.getEBoolean()));
+        Set<EStructuralFeature> features = new HashSet<EStructuralFeature>(Arrays.asList(
+                ECORE.getENamedElement_Name(), ECORE.getEClassifier_InstanceClassName(), ECORE.getEClass_Abstract(),
+                ECORE.getEClass_ESuperTypes(), ECORE.getEClass_EStructuralFeatures(), ECORE.getETypedElement_EType(),
+                ECORE.getETypedElement_LowerBound(), ECORE.getETypedElement_UpperBound(),
+                ECORE.getEStructuralFeature_Changeable()));
+        index.registerObservedTypes(classes, dataTypes, features, IndexingLevel.FULL);
+
+        List<Object> description = new ArrayList<Object>();
+        for (EClass clazz : classes) {
+            description.add(toURIs(index.getAllInstances(clazz)));
+            description.add(index.countAllInstances(clazz));
+        }
+        for (EDataType dataType : dataTypes) {
+            description.add(new HashSet<Object>(index.getDataTypeInstances(dataType)));
+            description.add(index.countDataTypeInstances(dataType));
+        }
+        for (EStructuralFeature feature : features) {
+            Map<Object, Set<Object>> targets = new HashMap<Object, Set<Object>>();
+            Map<Object, Set<Object>> holders = new HashMap<Object, Set<Object>>();
+            for (EObject holder : index.getHoldersOfFeature(feature)) {
+                Set<Object> values = index.getFeatureTargets(holder, feature);
+                targets.put(toURI(holder), toURIs(values));
+                for (Object value : values) {
+                    holders.put(toURI(value), toURIs(index.findByFeatureValue(value, feature)));
+                }
+            }
+            description.add(targets);
+            description.add(holders);
+            description.add(index.countFeatures(feature));
+        }
+        return description;
+    }
+
+    private static Set<Object> toURIs(Set<?> values) {
+        Set<Object> uris = new HashSet<Object>();
+        for (Object value : values) {
+            uris.add(toURI(value));
+        }
+        return uris;
+    }
+
+    private static Object toURI(Object value) {
+        return value instanceof EObject ? EcoreUtil.getURI((EObject) value) : value;
+    }
+
+}
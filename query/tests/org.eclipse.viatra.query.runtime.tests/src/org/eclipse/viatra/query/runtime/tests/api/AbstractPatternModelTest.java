@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.viatra.query.patternlanguage.emf.eMFPatternLanguage.PatternModel;
+import org.eclipse.viatra.query.patternlanguage.emf.specification.SpecificationBuilder;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Modifiers;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguageFactory;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguagePackage;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryEngineOptions;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.emf.EMFScope;
+import org.eclipse.viatra.query.runtime.exception.ViatraQueryException;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryHintOption;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteBackendFactory;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteEngine;
+import org.eclipse.viatra.query.testing.core.injector.EMFPatternLanguageInjectorProvider;
+import org.eclipse.xtext.junit4.InjectWith;
+import org.eclipse.xtext.junit4.XtextRunner;
+import org.eclipse.xtext.junit4.util.ParseHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+
+import com.google.inject.Inject;
+
+/**
+ * Common fixture of the tests that evaluate queries over a pattern model: parses a fixed set of patterns, provides
+ * their specifications by name, and creates model elements and query engines that are cleaned up after each test.
+ *
+ * @author agent
+ *
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(EMFPatternLanguageInjectorProvider.class)
+public abstract class AbstractPatternModelTest {
+
+    protected static final String PATTERN_CODE = "package org.eclipse.viatra.query.patternlanguage.emf.tests\n"
+            + "import \"http://www.eclipse.org/viatra/query/patternlanguage/PatternLanguage\"\n"
+            + "pattern namedPattern(p : Pattern, name) = {\n"
+            + " Pattern.name(p, name);\n"
+            + "}\n"
+            + "pattern privatePattern(p : Pattern) = {\n"
+            + " Pattern.modifiers(p, m);\n"
+            + " Modifiers.private(m, true);\n"
+            + "}\n"
+            + "pattern publicNamedPattern(p : Pattern, name) = {\n"
+            + " find namedPattern(p, name);\n"
+            + " neg find privatePattern(p);\n"
+            + "}\n"
+            + "pattern sameName(p1 : Pattern, p2 : Pattern) = {\n"
+            + " find namedPattern(p1, name);\n"
+            + " find namedPattern(p2, name);\n"
+            + " p1 != p2;\n"
+            + "}\n"
+            + "pattern patternCount(c) = {\n"
+            + " c == count find namedPattern(_, _);\n"
+            + "}\n"
+            + "pattern nameCount(p : Pattern, c) = {\n"
+            + " Pattern.name(p, name);\n"
+            + " c == count find namedPattern(_, name);\n"
+            + "}\n"
+            + "pattern uniquelyNamed(p : Pattern) = {\n"
+            + " Pattern.name(p, name);\n"
+            + " neg find sameName(p, _);\n"
+            + "}\n";
+
+    @Inject
+    ParseHelper<PatternModel> parseHelper;
+
+    protected PatternModel model;
+    protected ResourceSet resourceSet;
+
+    private final Map<String, IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>>> specifications =
+            new LinkedHashMap<String, IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>>>();
+    private final List<Pattern> addedPatterns = new ArrayList<Pattern>();
+    private final List<AdvancedViatraQueryEngine> engines = new ArrayList<AdvancedViatraQueryEngine>();
+
+    @Before
+    public void setUpPatternModel() throws Exception {
+        model = parseHelper.parse(PATTERN_CODE);
+        resourceSet = model.eResource().getResourceSet();
+        SpecificationBuilder builder = new SpecificationBuilder();
+        for (Pattern pattern : model.getPatterns()) {
+            specifications.put(pattern.getName(), builder.getOrCreateSpecification(pattern));
+        }
+    }
+
+    @After
+    public void tearDownPatternModel() {
+        for (AdvancedViatraQueryEngine engine : engines) {
+            engine.dispose();
+        }
+        engines.clear();
+        model.eResource().getContents().removeAll(addedPatterns);
+        addedPatterns.clear();
+    }
+
+    /**
+     * @return the specification of the pattern with the given simple name
+     */
+    protected IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> getSpecification(
+            String name) {
+        IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification = specifications
+                .get(name);
+        if (specification == null) {
+            throw new IllegalArgumentException("Unknown pattern " + name);
+        }
+        return specification;
+    }
+
+    /**
+     * @return the specifications of all patterns, in the order of declaration
+     */
+    protected Collection<IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>>> getSpecifications() {
+        return specifications.values();
+    }
+
+    /**
+     * Adds new top-level patterns to the resource of the pattern model; they are removed after the test. The patterns
+     * are named <code>prefix0</code>, ... <code>prefix(distinctNames-1)</code> in a round-robin fashion, and every
+     * third of them is private.
+     *
+     * @return the added patterns
+     */
+    protected List<Pattern> addPatterns(int count, String prefix, int distinctNames) {
+        List<Pattern> patterns = new ArrayList<Pattern>();
+        for (int i = 0; i < count; i++) {
+            patterns.add(createPattern(prefix + (i % distinctNames), i % 3 == 0));
+        }
+        addedPatterns.addAll(patterns);
+        model.eResource().getContents().addAll(patterns);
+        return patterns;
+    }
+
+    /**
+     * Adds a single new top-level pattern to the resource of the pattern model; it is removed after the test.
+     */
+    protected Pattern addPattern(String name) {
+        Pattern pattern = createPattern(name, false);
+        addedPatterns.add(pattern);
+        model.eResource().getContents().add(pattern);
+        return pattern;
+    }
+
+    private static Pattern createPattern(String name, boolean isPrivate) {
+        Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+        pattern.setName(name);
+        Modifiers modifiers = PatternLanguageFactory.eINSTANCE.createModifiers();
+        modifiers.setPrivate(isPrivate);
+        pattern.setModifiers(modifiers);
+        return pattern;
+    }
+
+    /**
+     * Creates an engine on the given scope with the given options; it is disposed after the test.
+     */
+    protected AdvancedViatraQueryEngine createEngine(EMFScope scope, ViatraQueryEngineOptions options)
+            throws ViatraQueryException {
+        return register(AdvancedViatraQueryEngine.createUnmanagedEngine(scope, options));
+    }
+
+    /**
+     * Creates an engine on the given scope with default options; it is disposed after the test.
+     */
+    protected AdvancedViatraQueryEngine createEngine(EMFScope scope) throws ViatraQueryException {
+        return register(AdvancedViatraQueryEngine.createUnmanagedEngine(scope));
+    }
+
+    private AdvancedViatraQueryEngine register(AdvancedViatraQueryEngine engine) {
+        engines.add(engine);
+        return engine;
+    }
+
+    /**
+     * Creates an engine on the resource set of the pattern model with default options; it is disposed after the test.
+     */
+    protected AdvancedViatraQueryEngine createEngine() throws ViatraQueryException {
+        return createEngine(new EMFScope(resourceSet));
+    }
+
+    /**
+     * Creates an engine on the resource set of the pattern model that uses the Rete backend with the given engine
+     * default hints; it is disposed after the test.
+     */
+    @SuppressWarnings("rawtypes")
+    protected AdvancedViatraQueryEngine createReteEngine(Map<QueryHintOption, Object> hints)
+            throws ViatraQueryException {
+        ViatraQueryEngineOptions options = ViatraQueryEngineOptions.defineOptions()
+                .withDefaultHint(new QueryEvaluationHint(hints, new ReteBackendFactory())).build();
+        return createEngine(new EMFScope(resourceSet), options);
+    }
+
+    /**
+     * Creates an engine on the resource set of the pattern model that uses the Rete backend with the given engine
+     * default hint; it is disposed after the test.
+     */
+    @SuppressWarnings("rawtypes")
+    protected <T> AdvancedViatraQueryEngine createReteEngine(QueryHintOption<T> option, T value)
+            throws ViatraQueryException {
+        Map<QueryHintOption, Object> hints = new HashMap<QueryHintOption, Object>();
+        hints.put(option, value);
+        return createReteEngine(hints);
+    }
+
+    protected static ReteEngine getReteEngine(AdvancedViatraQueryEngine engine) throws ViatraQueryException {
+        return (ReteEngine) engine.getQueryBackend(new ReteBackendFactory());
+    }
+
+    protected static NavigationHelper getBaseIndex(AdvancedViatraQueryEngine engine) throws ViatraQueryException {
+        return EMFScope.extractUnderlyingEMFIndex(engine);
+    }
+
+    /**
+     * Registers the classes, data types and features of the pattern model in the base index of the engine, and
+     * describes their indexed contents.
+     *
+     * @return the instances of each class and data type, and the holder-target pairs of each feature, with their
+     *         counts; the description compares equal across engines on the same model
+     */
+    protected static List<Object> describeBaseIndex(AdvancedViatraQueryEngine engine) throws ViatraQueryException {
+        PatternLanguagePackage pack = PatternLanguagePackage.eINSTANCE;
+        Set<EClass> classes = new HashSet<EClass>(Arrays.asList(pack.getPattern(), pack.getModifiers()));
+        Set<EDataType> dataTypes = new HashSet<EDataType>(Arrays.asList(EcorePackage.Literals.ESTRING));
+        Set<EAttribute> features = new HashSet<EAttribute>(
+                Arrays.asList(pack.getPattern_Name(), pack.getModifiers_Private()));
+        NavigationHelper index = getBaseIndex(engine);
+        index.registerObservedTypes(classes, dataTypes, features, IndexingLevel.FULL);
+
+        List<Object> description = new ArrayList<Object>();
+        for (EClass clazz : classes) {
+            description.add(new HashSet<EObject>(index.getAllInstances(clazz)));
+            description.add(index.countAllInstances(clazz));
+        }
+        for (EDataType dataType : dataTypes) {
+            description.add(new HashSet<Object>(index.getDataTypeInstances(dataType)));
+            description.add(index.countDataTypeInstances(dataType));
+        }
+        for (EStructuralFeature feature : features) {
+            Map<EObject, Set<Object>> targets = new HashMap<EObject, Set<Object>>();
+            Map<Object, Set<EObject>> holders = new HashMap<Object, Set<EObject>>();
+            for (EObject holder : index.getHoldersOfFeature(feature)) {
+                Set<Object> values = new HashSet<Object>(index.getFeatureTargets(holder, feature));
+                targets.put(holder, values);
+                for (Object value : values) {
+                    holders.put(value, new HashSet<EObject>(index.findByFeatureValue(value, feature)));
+                }
+            }
+            description.add(targets);
+            description.add(holders);
+            description.add(index.countFeatures(feature));
+        }
+        return description;
+    }
+
+    /**
+     * @return the matches of all patterns in the order of declaration, see {@link #collectMatches(ViatraQueryMatcher)}
+     */
+    protected List<Set<List<Object>>> collectMatches(AdvancedViatraQueryEngine engine) {
+        List<Set<List<Object>>> result = new ArrayList<Set<List<Object>>>();
+        for (IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification : getSpecifications()) {
+            result.add(collectMatches(engine.getMatcher(specification)));
+        }
+        return result;
+    }
+
+    /**
+     * @return the matches of the given pattern, see {@link #collectMatches(ViatraQueryMatcher)}
+     */
+    protected Set<List<Object>> collectMatches(AdvancedViatraQueryEngine engine, String patternName) {
+        return collectMatches(engine.getMatcher(getSpecification(patternName)));
+    }
+
+    /**
+     * @return the matches of the matcher as lists of parameter values, which compare equal across engines
+     */
+    protected static Set<List<Object>> collectMatches(ViatraQueryMatcher<? extends IPatternMatch> matcher) {
+        return toTuples(matcher.getAllMatches());
+    }
+
+    protected static Set<List<Object>> toTuples(Collection<? extends IPatternMatch> matches) {
+        Set<List<Object>> tuples = new HashSet<List<Object>>();
+        for (IPatternMatch match : matches) {
+            tuples.add(Arrays.asList(match.toArray()));
+        }
+        return tuples;
+    }
+
+}
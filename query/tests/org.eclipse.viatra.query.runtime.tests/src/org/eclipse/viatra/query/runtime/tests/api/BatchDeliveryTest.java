@@ -0,0 +1,405 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.TupleMask;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.index.BatchIndexerListener;
+import org.eclipse.viatra.query.runtime.rete.index.DefaultIndexerListener;
+import org.eclipse.viatra.query.runtime.rete.index.ExistenceNode;
+import org.eclipse.viatra.query.runtime.rete.index.GenericProjectionIndexer;
+import org.eclipse.viatra.query.runtime.rete.index.JoinNode;
+import org.eclipse.viatra.query.runtime.rete.index.ProjectionIndexer;
+import org.eclipse.viatra.query.runtime.rete.network.BatchReceiver;
+import org.eclipse.viatra.query.runtime.rete.network.DefaultMailbox;
+import org.eclipse.viatra.query.runtime.rete.network.Direction;
+import org.eclipse.viatra.query.runtime.rete.network.MessageKind;
+import org.eclipse.viatra.query.runtime.rete.network.Node;
+import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.network.StandardNode;
+import org.eclipse.viatra.query.runtime.rete.single.SingleInputNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the batched delivery of updates in the Rete network: mailboxes deliver their contents to
+ * {@link BatchReceiver}s in batches, projection indexers group the batches by signature, and join and antijoin nodes
+ * process the groups at once, with the same results as delivering each update on its own.
+ *
+ * @author agent
+ *
+ */
+public class BatchDeliveryTest extends AbstractPatternModelTest {
+
+    private ReteContainer container;
+
+    /**
+     * Records the batches and the single updates it receives.
+     */
+    private static final class RecordingReceiver extends SingleInputNode implements BatchReceiver {
+        final List<String> updates = new ArrayList<String>();
+
+        public RecordingReceiver(ReteContainer reteContainer) {
+            super(reteContainer);
+        }
+
+        @Override
+        public void update(Direction direction, Tuple updateElement) {
+            updates.add(direction + " " + updateElement);
+        }
+
+        @Override
+        public void batchUpdate(Direction direction, Collection<Tuple> updateElements) {
+            updates.add(direction + " " + updateElements);
+        }
+
+        @Override
+        public void pullInto(Collection<Tuple> collector) {
+        }
+    }
+
+    /**
+     * Records the notifications of an indexer, batch notifications only if batches are supported.
+     */
+    private static class RecordingListener extends DefaultIndexerListener {
+        final List<String> notifications = new ArrayList<String>();
+
+        public RecordingListener(Node owner) {
+            super(owner);
+        }
+
+        @Override
+        public void notifyIndexerUpdate(Direction direction, Tuple updateElement, Tuple signature, boolean change) {
+            notifications.add(direction + " " + updateElement + " @" + signature + " " + change);
+        }
+    }
+
+    private static final class RecordingBatchListener extends RecordingListener implements BatchIndexerListener {
+
+        public RecordingBatchListener(Node owner) {
+            super(owner);
+        }
+
+        @Override
+        public void notifyIndexerBatchUpdate(Direction direction, Collection<Tuple> updateElements, Tuple signature,
+                boolean change) {
+            notifications.add(direction + " " + updateElements + " @" + signature + " " + change);
+        }
+    }
+
+    /**
+     * A supplier of a set of tuples that is modified by the test.
+     */
+    private static final class SourceNode extends StandardNode {
+        final Set<Tuple> contents = new LinkedHashSet<Tuple>();
+
+        public SourceNode(ReteContainer reteContainer) {
+            super(reteContainer);
+        }
+
+        /**
+         * Inserts the tuple if absent, revokes it otherwise.
+         */
+        void toggle(Tuple tuple) {
+            if (contents.remove(tuple)) {
+                propagateUpdate(Direction.REVOKE, tuple);
+            } else {
+                contents.add(tuple);
+                propagateUpdate(Direction.INSERT, tuple);
+            }
+        }
+
+        @Override
+        public void pullInto(Collection<Tuple> collector) {
+            collector.addAll(contents);
+        }
+    }
+
+    /**
+     * Maintains the multiset of the tuples it receives.
+     */
+    private static final class SinkNode extends SingleInputNode {
+        final Map<Tuple, Integer> contents = new HashMap<Tuple, Integer>();
+
+        public SinkNode(ReteContainer reteContainer) {
+            super(reteContainer);
+        }
+
+        @Override
+        public void update(Direction direction, Tuple updateElement) {
+            Integer count = contents.get(updateElement);
+            int newCount = (count == null ? 0 : count) + (direction == Direction.INSERT ? 1 : -1);
+            if (newCount == 0) {
+                contents.remove(updateElement);
+            } else {
+                contents.put(updateElement, newCount);
+            }
+        }
+
+        @Override
+        public void pullInto(Collection<Tuple> collector) {
+            for (Map.Entry<Tuple, Integer> entry : contents.entrySet()) {
+                for (int i = 0; i < entry.getValue(); i++) {
+                    collector.add(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private static final class CountingJoinNode extends JoinNode {
+        int batchCount = 0;
+
+        public CountingJoinNode(ReteContainer reteContainer, TupleMask complementerSecondaryMask) {
+            super(reteContainer, complementerSecondaryMask);
+        }
+
+        @Override
+        public void notifyBatchUpdate(Side side, Direction direction, Collection<Tuple> updateElements,
+                Tuple signature, boolean change) {
+            batchCount++;
+            super.notifyBatchUpdate(side, direction, updateElements, signature, change);
+        }
+    }
+
+    private static final class CountingExistenceNode extends ExistenceNode {
+        int batchCount = 0;
+
+        public CountingExistenceNode(ReteContainer reteContainer, boolean negative) {
+            super(reteContainer, negative);
+        }
+
+        @Override
+        public void notifyBatchUpdate(Side side, Direction direction, Collection<Tuple> updateElements,
+                Tuple signature, boolean change) {
+            batchCount++;
+            super.notifyBatchUpdate(side, direction, updateElements, signature, change);
+        }
+    }
+
+    /**
+     * Joins left(a, b) and right(b, c) on b, and also computes the left tuples without a right tuple of the same b.
+     */
+    private final class BetaNetwork {
+        final SourceNode left = new SourceNode(container);
+        final SourceNode right = new SourceNode(container);
+        final CountingJoinNode join = new CountingJoinNode(container, TupleMask.selectSingle(1, 2));
+        final CountingExistenceNode antijoin = new CountingExistenceNode(container, true);
+        final SinkNode joinSink = new SinkNode(container);
+        final SinkNode antijoinSink = new SinkNode(container);
+
+        /**
+         * @param batched
+         *            if true, the indexer mailboxes store the updates until delivery, otherwise they pass each update
+         *            through at once
+         */
+        BetaNetwork(boolean batched) {
+            ProjectionIndexer leftIndexer = left.constructIndex(TupleMask.selectSingle(1, 2));
+            ProjectionIndexer rightIndexer = right.constructIndex(TupleMask.selectSingle(0, 2));
+            join.connectToIndexers(leftIndexer, rightIndexer);
+            antijoin.connectToIndexers(leftIndexer, rightIndexer);
+            container.connectAndSynchronize(join, joinSink);
+            container.connectAndSynchronize(antijoin, antijoinSink);
+            ((DefaultMailbox) ((GenericProjectionIndexer) leftIndexer).getMailbox()).setFallThrough(!batched);
+            ((DefaultMailbox) ((GenericProjectionIndexer) rightIndexer).getMailbox()).setFallThrough(!batched);
+        }
+
+        Map<Tuple, Integer> expectedJoin() {
+            Map<Tuple, Integer> expected = new HashMap<Tuple, Integer>();
+            for (Tuple l : left.contents) {
+                for (Tuple r : right.contents) {
+                    if (l.get(1).equals(r.get(0))) {
+                        expected.put(Tuples.staticArityFlatTupleOf(l.get(0), l.get(1), r.get(1)), 1);
+                    }
+                }
+            }
+            return expected;
+        }
+
+        Map<Tuple, Integer> expectedAntijoin() {
+            Map<Tuple, Integer> expected = new HashMap<Tuple, Integer>();
+            leftLoop: for (Tuple l : left.contents) {
+                for (Tuple r : right.contents) {
+                    if (l.get(1).equals(r.get(0))) {
+                        continue leftLoop;
+                    }
+                }
+                expected.put(l, 1);
+            }
+            return expected;
+        }
+
+        void assertConsistent() {
+            assertEquals(expectedJoin(), joinSink.contents);
+            assertEquals(expectedAntijoin(), antijoinSink.contents);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        AdvancedViatraQueryEngine engine = createEngine();
+        engine.getMatcher(getSpecification("namedPattern")).countMatches();
+        container = getReteEngine(engine).getReteNet().getHeadContainer();
+    }
+
+    @Test
+    public void testMailboxDeliversBatches() {
+        RecordingReceiver receiver = new RecordingReceiver(container);
+        DefaultMailbox mailbox = new DefaultMailbox(receiver, null);
+        Tuple a = Tuples.staticArityFlatTupleOf("a");
+        Tuple b = Tuples.staticArityFlatTupleOf("b");
+        Tuple c = Tuples.staticArityFlatTupleOf("c");
+        Tuple d = Tuples.staticArityFlatTupleOf("d");
+        mailbox.postMessage(Direction.INSERT, a);
+        mailbox.postMessage(Direction.INSERT, b);
+        mailbox.postMessage(Direction.REVOKE, c);
+        mailbox.postMessage(Direction.INSERT, a);
+        mailbox.postMessage(Direction.INSERT, d);
+        mailbox.postMessage(Direction.REVOKE, d);
+        mailbox.deliverAll(MessageKind.DEFAULT);
+
+        // revocations first, the cancelled updates of d are not delivered at all
+        assertEquals(Arrays.asList("REVOKE " + Arrays.asList(c), "INSERT " + Arrays.asList(a, a, b)),
+                receiver.updates);
+        assertEquals(3, mailbox.getDeliveredInsertCount());
+        assertEquals(1, mailbox.getDeliveredRevokeCount());
+
+        receiver.updates.clear();
+        mailbox.deliverAll(MessageKind.DEFAULT);
+        assertTrue(receiver.updates.isEmpty());
+    }
+
+    @Test
+    public void testIndexerGroupsBatchBySignature() {
+        GenericProjectionIndexer indexer = new GenericProjectionIndexer(container, TupleMask.selectSingle(0, 2));
+        RecordingListener listener = new RecordingBatchListener(new RecordingReceiver(container));
+        indexer.attachListener(listener);
+        Tuple s1 = Tuples.staticArityFlatTupleOf(1);
+        Tuple s2 = Tuples.staticArityFlatTupleOf(2);
+        Tuple t1a = Tuples.staticArityFlatTupleOf(1, "a");
+        Tuple t1b = Tuples.staticArityFlatTupleOf(1, "b");
+        Tuple t1c = Tuples.staticArityFlatTupleOf(1, "c");
+        Tuple t2a = Tuples.staticArityFlatTupleOf(2, "a");
+
+        indexer.batchUpdate(Direction.INSERT, Arrays.asList(t1a, t2a, t1b));
+        // a single update is not wrapped in a batch
+        indexer.batchUpdate(Direction.INSERT, Arrays.asList(t1c));
+        indexer.batchUpdate(Direction.REVOKE, Arrays.asList(t1a, t1b));
+        indexer.batchUpdate(Direction.REVOKE, Arrays.asList(t2a, t1c));
+
+        assertEquals(Arrays.asList(
+                "INSERT " + Arrays.asList(t1a, t1b) + " @" + s1 + " true",
+                "INSERT " + Arrays.asList(t2a) + " @" + s2 + " true",
+                "INSERT " + t1c + " @" + s1 + " false",
+                "REVOKE " + Arrays.asList(t1a, t1b) + " @" + s1 + " false",
+                "REVOKE " + Arrays.asList(t2a) + " @" + s2 + " true",
+                "REVOKE " + Arrays.asList(t1c) + " @" + s1 + " true"), listener.notifications);
+        assertTrue(indexer.getSignatures().isEmpty());
+    }
+
+    @Test
+    public void testIndexerWithoutBatchListenerNotifiesSingleUpdates() {
+        GenericProjectionIndexer indexer = new GenericProjectionIndexer(container, TupleMask.selectSingle(0, 2));
+        RecordingListener batchListener = new RecordingBatchListener(new RecordingReceiver(container));
+        RecordingListener listener = new RecordingListener(new RecordingReceiver(container));
+        indexer.attachListener(batchListener);
+        indexer.attachListener(listener);
+        Tuple s1 = Tuples.staticArityFlatTupleOf(1);
+        Tuple t1a = Tuples.staticArityFlatTupleOf(1, "a");
+        Tuple t1b = Tuples.staticArityFlatTupleOf(1, "b");
+
+        indexer.batchUpdate(Direction.INSERT, Arrays.asList(t1a, t1b));
+
+        List<String> expected = Arrays.asList("INSERT " + t1a + " @" + s1 + " true",
+                "INSERT " + t1b + " @" + s1 + " false");
+        assertEquals(expected, listener.notifications);
+        assertEquals(expected, batchListener.notifications);
+    }
+
+    @Test
+    public void testSecondaryBatchAtAntijoin() {
+        BetaNetwork network = new BetaNetwork(true);
+        network.left.toggle(Tuples.staticArityFlatTupleOf("x", 1));
+        network.left.toggle(Tuples.staticArityFlatTupleOf("y", 2));
+        container.deliverMessagesSingleThreaded();
+        network.assertConsistent();
+        assertEquals(2, network.antijoinSink.contents.size());
+
+        // several secondary tuples of the same signature arrive as a single batch
+        network.right.toggle(Tuples.staticArityFlatTupleOf(1, "a"));
+        network.right.toggle(Tuples.staticArityFlatTupleOf(1, "b"));
+        network.right.toggle(Tuples.staticArityFlatTupleOf(1, "c"));
+        container.deliverMessagesSingleThreaded();
+        network.assertConsistent();
+        assertEquals(1, network.antijoinSink.contents.size());
+        assertEquals(3, network.joinSink.contents.size());
+        assertTrue(network.antijoin.batchCount > 0);
+        assertTrue(network.join.batchCount > 0);
+
+        // the signature does not disappear while one of its tuples remains
+        network.right.toggle(Tuples.staticArityFlatTupleOf(1, "a"));
+        network.right.toggle(Tuples.staticArityFlatTupleOf(1, "b"));
+        container.deliverMessagesSingleThreaded();
+        network.assertConsistent();
+        assertEquals(1, network.antijoinSink.contents.size());
+
+        network.right.toggle(Tuples.staticArityFlatTupleOf(1, "c"));
+        container.deliverMessagesSingleThreaded();
+        network.assertConsistent();
+        assertEquals(2, network.antijoinSink.contents.size());
+    }
+
+    @Test
+    public void testBatchedAndUnbatchedResultsAgree() {
+        BetaNetwork batched = new BetaNetwork(true);
+        BetaNetwork unbatched = new BetaNetwork(false);
+        Random random = new Random(42);
+        for (int transaction = 0; transaction < 50; transaction++) {
+            // a tuple may be toggled several times within a transaction, so that its updates cancel out
+            for (int i = 0; i < 20; i++) {
+                Tuple tuple;
+                boolean onLeft = random.nextBoolean();
+                if (onLeft) {
+                    tuple = Tuples.staticArityFlatTupleOf(random.nextInt(6), random.nextInt(3));
+                } else {
+                    tuple = Tuples.staticArityFlatTupleOf(random.nextInt(3), random.nextInt(4));
+                }
+                (onLeft ? batched.left : batched.right).toggle(tuple);
+                (onLeft ? unbatched.left : unbatched.right).toggle(tuple);
+            }
+            container.deliverMessagesSingleThreaded();
+
+            batched.assertConsistent();
+            unbatched.assertConsistent();
+            assertEquals(unbatched.joinSink.contents, batched.joinSink.contents);
+            assertEquals(unbatched.antijoinSink.contents, batched.antijoinSink.contents);
+        }
+        assertTrue(batched.join.batchCount > 0);
+        assertTrue(batched.antijoin.batchCount > 0);
+        assertEquals(0, unbatched.join.batchCount);
+        assertEquals(0, unbatched.antijoin.batchCount);
+    }
+
+}
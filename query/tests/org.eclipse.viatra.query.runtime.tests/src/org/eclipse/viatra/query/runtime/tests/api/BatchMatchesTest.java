@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHints;
+import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.NeverFlattenCallPredicate;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the matches computed for many partial matches at once (see
+ * {@link ViatraQueryMatcher#getAllMatchesForEach(Collection)}) agree with those computed one by one.
+ *
+ * @author agent
+ *
+ */
+public class BatchMatchesTest extends AbstractPatternModelTest {
+
+    private IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> namedSpecification;
+    private IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> sameNameSpecification;
+    private List<Pattern> topLevelPatterns;
+    private AdvancedViatraQueryEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        namedSpecification = getSpecification("namedPattern");
+        sameNameSpecification = getSpecification("sameName");
+        topLevelPatterns = addPatterns(100, "topLevel", 11);
+        engine = createEngine();
+    }
+
+    @Test
+    public void testLocalSearchBatch() throws Exception {
+        assertBatchAgrees(engine.getMatcher(namedSpecification, LocalSearchHints.getDefault().build()));
+        assertBatchAgrees(engine.getMatcher(sameNameSpecification,
+                LocalSearchHints.getDefault().setFlattenCallPredicate(new NeverFlattenCallPredicate()).build()));
+    }
+
+    @Test
+    public void testParallelLocalSearchBatch() throws Exception {
+        assertBatchAgrees(engine.getMatcher(namedSpecification,
+                LocalSearchHints.getDefault().setParallelExecution(true).build()));
+        assertBatchAgrees(engine.getMatcher(sameNameSpecification, LocalSearchHints.getDefault()
+                .setFlattenCallPredicate(new NeverFlattenCallPredicate()).setParallelExecution(true).build()));
+    }
+
+    @Test
+    public void testReteBatch() throws Exception {
+        assertBatchAgrees(engine.getMatcher(namedSpecification));
+        assertBatchAgrees(engine.getMatcher(sameNameSpecification));
+    }
+
+    /**
+     * Binds the first parameter of most partial matches, and the second parameter of a few; a duplicate and an
+     * unbound partial match are also included.
+     */
+    private <Match extends IPatternMatch> void assertBatchAgrees(ViatraQueryMatcher<Match> matcher) {
+        List<Match> partialMatches = new ArrayList<Match>();
+        for (int i = 0; i < topLevelPatterns.size(); i++) {
+            Match partialMatch = matcher.newEmptyMatch();
+            partialMatch.set(0, topLevelPatterns.get(i));
+            partialMatches.add(partialMatch);
+        }
+        Match secondBound = matcher.newEmptyMatch();
+        secondBound.set(1, matcher.getParameterNames().get(1).equals("name") ? "topLevel3" : topLevelPatterns.get(3));
+        partialMatches.add(secondBound);
+        partialMatches.add(matcher.newEmptyMatch());
+        partialMatches.add(partialMatches.get(0));
+
+        Map<Match, Collection<Match>> batch = matcher.getAllMatchesForEach(partialMatches);
+        assertEquals(new HashSet<Match>(partialMatches).size(), batch.size());
+        for (Match partialMatch : partialMatches) {
+            Collection<Match> matches = batch.get(partialMatch);
+            assertEquals(new HashSet<Match>(matcher.getAllMatches(partialMatch)), new HashSet<Match>(matches));
+            assertEquals(new HashSet<Match>(matches).size(), matches.size());
+            assertTrue(!matches.isEmpty());
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Modifiers;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguageFactory;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguagePackage;
+import org.eclipse.viatra.query.runtime.base.api.EMFBaseIndexChangeListener;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.InstanceListener;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the base index absorbs subtrees and resources inserted in bulk (see
+ * {@link NavigationHelper#bulkInsert(org.eclipse.emf.common.util.EList, java.util.Collection)}), and keeps observing
+ * them afterwards.
+ *
+ * @author agent
+ *
+ */
+public class BulkInsertionTest {
+
+    private static final int PATTERN_COUNT = 10;
+
+    private ResourceSet resourceSet;
+    private Resource resource;
+    private NavigationHelper index;
+    private List<EObject> insertedInstances;
+    private int indexChanges;
+
+    @Before
+    public void setUp() throws Exception {
+        resourceSet = new ResourceSetImpl();
+        resource = new XMIResourceImpl(URI.createURI("bulk.xmi"));
+        resourceSet.getResources().add(resource);
+        index = ViatraBaseFactory.getInstance().createNavigationHelper(resourceSet, false, null);
+        index.registerObservedTypes(
+                new HashSet<EClass>(Arrays.asList(PatternLanguagePackage.Literals.PATTERN,
+                        PatternLanguagePackage.Literals.MODIFIERS)),
+                null, Collections.singleton(PatternLanguagePackage.Literals.PATTERN__NAME), IndexingLevel.FULL);
+
+        insertedInstances = new ArrayList<EObject>();
+        index.addInstanceListener(Collections.singleton(PatternLanguagePackage.Literals.PATTERN),
+                new InstanceListener() {
+                    @Override
+                    public void instanceInserted(EClass clazz, EObject instance) {
+                        insertedInstances.add(instance);
+                    }
+
+                    @Override
+                    public void instanceDeleted(EClass clazz, EObject instance) {
+                        insertedInstances.remove(instance);
+                    }
+                });
+        index.addBaseIndexChangeListener(new EMFBaseIndexChangeListener() {
+            @Override
+            public boolean onlyOnIndexChange() {
+                return true;
+            }
+
+            @Override
+            public void notifyChanged(boolean indexChanged) {
+                indexChanges++;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        index.dispose();
+    }
+
+    @Test
+    public void testSubtreesInserted() {
+        List<Pattern> patterns = createPatterns();
+        index.bulkInsert(resource.getContents(), patterns);
+
+        assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+        assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.MODIFIERS).size());
+        assertEquals(PATTERN_COUNT,
+                index.findByAttributeValue("pattern", PatternLanguagePackage.Literals.PATTERN__NAME).size());
+        assertEquals(PATTERN_COUNT, insertedInstances.size());
+        assertEquals(1, indexChanges);
+
+        // the inserted subtrees are observed
+        patterns.get(0).setModifiers(null);
+        patterns.get(1).setName("renamed");
+        resource.getContents().remove(patterns.get(2));
+        assertEquals(PATTERN_COUNT - 1, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+        assertEquals(PATTERN_COUNT - 2, index.getAllInstances(PatternLanguagePackage.Literals.MODIFIERS).size());
+        assertEquals(PATTERN_COUNT - 2,
+                index.findByAttributeValue("pattern", PatternLanguagePackage.Literals.PATTERN__NAME).size());
+        assertEquals(PATTERN_COUNT - 1, insertedInstances.size());
+    }
+
+    @Test
+    public void testResourceInserted() {
+        Resource newResource = new XMIResourceImpl(URI.createURI("bulk2.xmi"));
+        newResource.getContents().addAll(createPatterns());
+        index.bulkInsert(newResource, resourceSet);
+
+        assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+        assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.MODIFIERS).size());
+        assertEquals(PATTERN_COUNT, insertedInstances.size());
+
+        resourceSet.getResources().remove(newResource);
+        assertTrue(index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).isEmpty());
+        assertTrue(insertedInstances.isEmpty());
+    }
+
+    @Test
+    public void testInsertedWithinBatch() {
+        List<Pattern> patterns = createPatterns();
+        index.beginBatch();
+        try {
+            index.bulkInsert(resource.getContents(), patterns);
+            resource.getContents().remove(patterns.get(0));
+            assertEquals(PATTERN_COUNT - 1, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+            assertTrue(insertedInstances.isEmpty());
+        } finally {
+            index.endBatch();
+        }
+        // only the net changes are delivered
+        assertEquals(PATTERN_COUNT - 1, insertedInstances.size());
+        assertEquals(1, indexChanges);
+    }
+
+    private List<Pattern> createPatterns() {
+        List<Pattern> patterns = new ArrayList<Pattern>();
+        for (int i = 0; i < PATTERN_COUNT; i++) {
+            Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+            pattern.setName("pattern");
+            Modifiers modifiers = PatternLanguageFactory.eINSTANCE.createModifiers();
+            modifiers.setPrivate(true);
+            pattern.setModifiers(modifiers);
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+
+}
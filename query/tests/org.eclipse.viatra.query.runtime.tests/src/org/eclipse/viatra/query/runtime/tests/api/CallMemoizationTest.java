@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.CallMemoTable;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.AbstractLocalSearchResultProvider;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHints;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
+import org.eclipse.viatra.query.runtime.matchers.psystem.rewriters.NeverFlattenCallPredicate;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that memoized pattern calls (see {@link LocalSearchHints#setCallMemoizationSize(int)}) deliver the same
+ * matches as evaluating each call, including after model changes, and that model changes only drop the results of the
+ * called patterns depending on the changed elements.
+ *
+ * @author agent
+ *
+ */
+public class CallMemoizationTest extends AbstractPatternModelTest {
+
+    private List<Pattern> topLevelPatterns;
+    private AdvancedViatraQueryEngine memoizingEngine;
+    private AdvancedViatraQueryEngine plainEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        topLevelPatterns = addPatterns(100, "topLevel", 13);
+        addPattern("unique");
+        memoizingEngine = createEngine();
+        plainEngine = createEngine();
+    }
+
+    private static LocalSearchHints callingHints() {
+        return LocalSearchHints.getDefault().setFlattenCallPredicate(new NeverFlattenCallPredicate());
+    }
+
+    @Test
+    public void testMemoizedCallsAgree() throws Exception {
+        QueryEvaluationHint memoizingHint = callingHints().setCallMemoizationSize(1000).build();
+        for (IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification : getSpecifications()) {
+            ViatraQueryMatcher<? extends IPatternMatch> memoizingMatcher = memoizingEngine.getMatcher(specification,
+                    memoizingHint);
+            ViatraQueryMatcher<? extends IPatternMatch> plainMatcher = plainEngine.getMatcher(specification,
+                    callingHints().build());
+            Set<List<Object>> expected = collectMatches(plainMatcher);
+            assertFalse(expected.isEmpty());
+            assertEquals(specification.getFullyQualifiedName(), expected, collectMatches(memoizingMatcher));
+            assertEquals(plainMatcher.countMatches(), memoizingMatcher.countMatches());
+        }
+
+        CallMemoTable table = getCallMemoTable(memoizingEngine.getMatcher(getSpecification("nameCount"),
+                memoizingHint));
+        assertNotNull(table);
+        // names are shared by several patterns, so most counts are answered from the table
+        assertTrue(table.getHitCount() > 0);
+        assertTrue(table.getHitRate() > 0.5);
+        assertEquals(0, table.getEvictionCount());
+    }
+
+    @Test
+    public void testInvalidatedOnModelChange() throws Exception {
+        ViatraQueryMatcher<? extends IPatternMatch> memoizingMatcher = memoizingEngine.getMatcher(
+                getSpecification("uniquelyNamed"), callingHints().setCallMemoizationSize(1000).build());
+        ViatraQueryMatcher<? extends IPatternMatch> plainMatcher = plainEngine
+                .getMatcher(getSpecification("uniquelyNamed"), callingHints().build());
+        assertEquals(collectMatches(plainMatcher), collectMatches(memoizingMatcher));
+        int uniquelyNamedCount = memoizingMatcher.countMatches();
+
+        // the unique pattern gets a namesake
+        addPattern("unique");
+
+        assertEquals(collectMatches(plainMatcher), collectMatches(memoizingMatcher));
+        assertEquals(uniquelyNamedCount - 1, memoizingMatcher.countMatches());
+        assertTrue(getCallMemoTable(memoizingMatcher).getInvalidationCount() > 0);
+    }
+
+    @Test
+    public void testOnlyDependentResultsInvalidated() throws Exception {
+        // calls both namedPattern and privatePattern
+        ViatraQueryMatcher<? extends IPatternMatch> memoizingMatcher = memoizingEngine.getMatcher(
+                getSpecification("publicNamedPattern"), callingHints().setCallMemoizationSize(1000).build());
+        ViatraQueryMatcher<? extends IPatternMatch> plainMatcher = plainEngine
+                .getMatcher(getSpecification("publicNamedPattern"), callingHints().build());
+        assertEquals(collectMatches(plainMatcher), collectMatches(memoizingMatcher));
+        CallMemoTable table = getCallMemoTable(memoizingMatcher);
+        int memoizedCount = table.size();
+        assertTrue(memoizedCount > 0);
+        assertEquals(0, table.getInvalidationCount());
+
+        // privatePattern depends on the changed attribute, namedPattern does not
+        Pattern publicPattern = topLevelPatterns.get(1);
+        assertFalse(publicPattern.getModifiers().isPrivate());
+        publicPattern.getModifiers().setPrivate(true);
+        assertEquals(1, table.getInvalidationCount());
+        assertTrue(table.size() > 0);
+        assertTrue(table.size() < memoizedCount);
+        assertEquals(collectMatches(plainMatcher), collectMatches(memoizingMatcher));
+
+        // both depend on the Pattern instances
+        addPattern("later");
+        assertEquals(0, table.size());
+        assertEquals(collectMatches(plainMatcher), collectMatches(memoizingMatcher));
+    }
+
+    @Test
+    public void testBoundedSize() throws Exception {
+        ViatraQueryMatcher<? extends IPatternMatch> memoizingMatcher = memoizingEngine.getMatcher(
+                getSpecification("nameCount"), callingHints().setCallMemoizationSize(4).build());
+        ViatraQueryMatcher<? extends IPatternMatch> plainMatcher = plainEngine.getMatcher(getSpecification("nameCount"),
+                callingHints().build());
+        assertEquals(collectMatches(plainMatcher), collectMatches(memoizingMatcher));
+
+        CallMemoTable table = getCallMemoTable(memoizingMatcher);
+        assertTrue(table.size() <= 4);
+        assertTrue(table.getEvictionCount() > 0);
+    }
+
+    @Test
+    public void testMemoizationDisabledByDefault() throws Exception {
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = memoizingEngine.getMatcher(getSpecification("nameCount"),
+                callingHints().build());
+        assertNull(getCallMemoTable(matcher));
+    }
+
+    @Test
+    public void testHintsNotSubstituted() {
+        LocalSearchHints memoizing = LocalSearchHints.getDefault().setCallMemoizationSize(100);
+        assertEquals(100, memoizing.getCallMemoizationSize());
+        assertEquals(0, LocalSearchHints.getDefault().getCallMemoizationSize());
+        assertEquals(100, LocalSearchHints.parse(memoizing.build()).getCallMemoizationSize());
+        assertFalse(memoizing.canBeSubstitute(LocalSearchHints.getDefault()));
+    }
+
+    private CallMemoTable getCallMemoTable(ViatraQueryMatcher<? extends IPatternMatch> matcher) {
+        return ((AbstractLocalSearchResultProvider) memoizingEngine.getResultProviderOfMatcher(matcher))
+                .getCallMemoTable();
+    }
+
+}
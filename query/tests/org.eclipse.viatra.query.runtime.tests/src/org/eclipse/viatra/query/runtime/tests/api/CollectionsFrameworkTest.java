@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryEngineOptions;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.core.NavigationHelperImpl;
+import org.eclipse.viatra.query.runtime.emf.EMFScope;
+import org.eclipse.viatra.query.runtime.matchers.util.CollectionsFactory;
+import org.eclipse.viatra.query.runtime.matchers.util.ICollectionsFramework;
+import org.junit.Test;
+
+/**
+ * Checks that query results do not depend on the {@link ICollectionsFramework} selected for the engine, that the
+ * selected framework is actually used by both the Rete network and the base index, and that the collections of the
+ * open-addressing framework behave like their Java counterparts.
+ *
+ * @author agent
+ *
+ */
+public class CollectionsFrameworkTest extends AbstractPatternModelTest {
+
+    private static final String RETE_PACKAGE = "org.eclipse.viatra.query.runtime.rete";
+    private static final String BASE_PACKAGE = "org.eclipse.viatra.query.runtime.base";
+
+    /**
+     * Delegates to the open-addressing framework and records the packages of the classes that created collections.
+     */
+    private static final class RecordingFramework implements ICollectionsFramework {
+        final Set<String> creatorPackages = new HashSet<String>();
+
+        private void recordCreator() {
+            for (StackTraceElement element : new Throwable().getStackTrace()) {
+                String className = element.getClassName();
+                if (!className.startsWith(RecordingFramework.class.getName())
+                        && !className.equals(CollectionsFactory.class.getName())) {
+                    creatorPackages.add(className.substring(0, className.lastIndexOf('.')));
+                    return;
+                }
+            }
+        }
+
+        boolean isUsedBy(String packagePrefix) {
+            for (String creatorPackage : creatorPackages) {
+                if (creatorPackage.startsWith(packagePrefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public <K, V> Map<K, V> createMap() {
+            recordCreator();
+            return CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK.createMap();
+        }
+
+        @Override
+        public <E> Set<E> createSet() {
+            recordCreator();
+            return CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK.createSet();
+        }
+
+        @Override
+        public <K, V> Map<K, V> createMap(int expectedSize) {
+            recordCreator();
+            return CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK.createMap(expectedSize);
+        }
+
+        @Override
+        public <E> Set<E> createSet(int expectedSize) {
+            recordCreator();
+            return CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK.createSet(expectedSize);
+        }
+    }
+
+    @Test
+    public void testFrameworksAgree() throws Exception {
+        List<Object> reference = evaluate(CollectionsFactory.JAVA_FRAMEWORK);
+        assertEquals(reference, evaluate(CollectionsFactory.LINKED_FRAMEWORK));
+        assertEquals(reference, evaluate(CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK));
+        assertEquals(reference, evaluate(new RecordingFramework()));
+    }
+
+    @Test
+    public void testSelectedFrameworkUsed() throws Exception {
+        RecordingFramework framework = new RecordingFramework();
+        AdvancedViatraQueryEngine engine = createEngine(framework);
+        collectMatches(engine);
+        describeBaseIndex(engine);
+
+        assertSame(framework, getReteEngine(engine).getCollectionsFramework());
+        assertSame(framework, ((NavigationHelperImpl) getBaseIndex(engine)).getBaseIndexOptions()
+                .getCollectionsFramework());
+        assertTrue("Rete network did not use the selected framework: " + framework.creatorPackages,
+                framework.isUsedBy(RETE_PACKAGE));
+        assertTrue("Base index did not use the selected framework: " + framework.creatorPackages,
+                framework.isUsedBy(BASE_PACKAGE));
+    }
+
+    @Test
+    public void testBaseIndexOptions() {
+        BaseIndexOptions options = new BaseIndexOptions();
+        assertFalse(options.isCollectionsFrameworkSpecified());
+        assertEquals(CollectionsFactory.DEFAULT_FRAMEWORK, options.getCollectionsFramework());
+
+        BaseIndexOptions linked = options.withCollectionsFramework(CollectionsFactory.LINKED_FRAMEWORK);
+        assertTrue(linked.isCollectionsFrameworkSpecified());
+        assertEquals(CollectionsFactory.LINKED_FRAMEWORK, linked.getCollectionsFramework());
+        assertEquals(linked, linked.copy());
+        assertFalse(linked.equals(options));
+    }
+
+    @Test
+    public void testOpenAddressingMap() {
+        Random random = new Random(42);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        Map<Integer, Integer> actual = CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK.createMap();
+        for (int i = 0; i < 20000; i++) {
+            Integer key = random.nextInt(500);
+            switch (random.nextInt(4)) {
+            case 0:
+                assertEquals(expected.remove(key), actual.remove(key));
+                break;
+            case 1:
+                assertEquals(expected.get(key), actual.get(key));
+                assertEquals(expected.containsKey(key), actual.containsKey(key));
+                break;
+            default:
+                assertEquals(expected.put(key, i), actual.put(key, i));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+
+        for (Iterator<Map.Entry<Integer, Integer>> iterator = actual.entrySet().iterator(); iterator.hasNext();) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+                expected.remove(entry.getKey());
+            } else {
+                entry.setValue(-entry.getValue());
+                expected.put(entry.getKey(), -expected.get(entry.getKey()));
+            }
+        }
+        assertEquals(expected, actual);
+        actual.clear();
+        assertTrue(actual.isEmpty());
+        assertFalse(actual.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testOpenAddressingSet() {
+        Random random = new Random(42);
+        Set<Integer> expected = new HashSet<Integer>();
+        Set<Integer> actual = CollectionsFactory.OPEN_ADDRESSING_FRAMEWORK.createSet(10);
+        for (int i = 0; i < 20000; i++) {
+            Integer element = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(element), actual.add(element));
+            } else {
+                assertEquals(expected.remove(element), actual.remove(element));
+            }
+            assertEquals(expected.contains(element), actual.contains(element));
+        }
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+
+        List<Integer> removed = new ArrayList<Integer>();
+        for (Iterator<Integer> iterator = actual.iterator(); iterator.hasNext();) {
+            Integer element = iterator.next();
+            if (element % 3 == 0) {
+                iterator.remove();
+                removed.add(element);
+            }
+        }
+        expected.removeAll(removed);
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Evaluates all patterns and describes the base index with the given framework, before and after the model is
+     * changed; the model is restored afterwards.
+     */
+    private List<Object> evaluate(ICollectionsFramework framework) throws Exception {
+        AdvancedViatraQueryEngine engine = createEngine(framework);
+        List<Object> result = new ArrayList<Object>();
+        result.add(collectMatches(engine));
+        List<Pattern> patterns = addPatterns(30, "added", 4);
+        result.add(collectMatches(engine));
+        model.eResource().getContents().removeAll(patterns.subList(0, 15));
+        result.add(collectMatches(engine));
+        result.add(describeBaseIndex(engine));
+        model.eResource().getContents().removeAll(patterns);
+        return result;
+    }
+
+    private AdvancedViatraQueryEngine createEngine(ICollectionsFramework framework) throws Exception {
+        ViatraQueryEngineOptions options = ViatraQueryEngineOptions.defineOptions()
+                .withCollectionsFramework(framework).build();
+        return createEngine(new EMFScope(resourceSet), options);
+    }
+
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.metrics.BaseIndexMemoryUsage;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a base index using the compact store (see {@link BaseIndexOptions#withCompactStoreMode(boolean)}) has the
+ * same contents as one using the default store, also while values move in and out of bags, and that it needs less
+ * memory for them.
+ *
+ * @author agent
+ *
+ */
+public class CompactStoreModeTest extends AbstractEcoreModelTest {
+
+    private List<EPackage> packages;
+
+    @Before
+    public void setUp() throws Exception {
+        packages = createPackages(resource, 10, 26);
+    }
+
+    @Test
+    public void testIndexContentsAgree() throws Exception {
+        NavigationHelper index = createIndex(true);
+        NavigationHelper referenceIndex = createIndex(false);
+        assertEquals(describeIndex(referenceIndex), describeIndex(index));
+
+        modify();
+        assertEquals(describeIndex(referenceIndex), describeIndex(index));
+
+        // the last holder of a value is removed, and the value is added back with a single holder
+        EAttribute attribute = getAttribute(0, 0);
+        attribute.setLowerBound(200);
+        attribute.setLowerBound(1);
+        attribute.setLowerBound(200);
+        assertEquals(describeIndex(referenceIndex), describeIndex(index));
+    }
+
+    @Test
+    public void testLessMemoryUsed() throws Exception {
+        NavigationHelper index = createIndex(true);
+        NavigationHelper referenceIndex = createIndex(false);
+        describeIndex(index);
+        describeIndex(referenceIndex);
+
+        BaseIndexMemoryUsage usage = index.getMemoryUsage();
+        BaseIndexMemoryUsage referenceUsage = referenceIndex.getMemoryUsage();
+        assertEquals(referenceUsage.getTotalEntryCount(), usage.getTotalEntryCount());
+        assertTrue(usage.getTotalEstimatedMemory() < referenceUsage.getTotalEstimatedMemory());
+    }
+
+    @Test
+    public void testBaseIndexOptions() {
+        BaseIndexOptions options = new BaseIndexOptions();
+        assertFalse(options.isCompactStoreMode());
+
+        BaseIndexOptions compact = options.withCompactStoreMode(true);
+        assertTrue(compact.isCompactStoreMode());
+        assertEquals(compact, compact.copy());
+        assertFalse(compact.equals(options));
+    }
+
+    /**
+     * Moves values shared by several holders in and out of bags, and removes holders.
+     */
+    private void modify() {
+        getAttribute(0, 0).setLowerBound(100);
+        getAttribute(0, DISTINCT_VALUES).setLowerBound(100);
+        getAttribute(1, 0).setLowerBound(100);
+        getAttribute(0, DISTINCT_VALUES).setLowerBound(0);
+        getClass(packages.get(2), 1).setAbstract(true);
+        getClass(packages.get(3), 5).setName("Renamed");
+        resource.getContents().removeAll(packages.subList(5, 8));
+        resource.getContents().add(packages.get(5));
+    }
+
+    private EAttribute getAttribute(int packageIndex, int classIndex) {
+        return getClass(packages.get(packageIndex), classIndex).getEAttributes().get(0);
+    }
+
+    private NavigationHelper createIndex(boolean compactStoreMode) throws Exception {
+        return createIndex(resourceSet, new BaseIndexOptions().withCompactStoreMode(compactStoreMode));
+    }
+
+}
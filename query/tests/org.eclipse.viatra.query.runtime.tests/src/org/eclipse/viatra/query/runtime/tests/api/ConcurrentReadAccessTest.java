@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a base index with concurrent read access (see
+ * {@link BaseIndexOptions#withConcurrentReadAccess(boolean)}) can be read from multiple threads while the model is
+ * modified.
+ *
+ * @author agent
+ *
+ */
+public class ConcurrentReadAccessTest extends AbstractEcoreModelTest {
+
+    private static final int CLASS_COUNT = 20;
+    private static final int READER_COUNT = 4;
+    private static final int MODIFICATION_COUNT = 500;
+
+    @Before
+    public void setUp() throws Exception {
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            resource.getContents().add(createClass("fixed"));
+        }
+    }
+
+    private static EClass createClass(String name) {
+        EClass clazz = EcoreFactory.eINSTANCE.createEClass();
+        clazz.setName(name);
+        return clazz;
+    }
+
+    @Test
+    public void testReadersDuringModification() throws Exception {
+        BaseIndexOptions options = new BaseIndexOptions().withConcurrentReadAccess(true);
+        final NavigationHelper index = createIndex(resource, options);
+        ExecutorService executor = Executors.newFixedThreadPool(READER_COUNT);
+        try {
+            index.registerEClasses(Collections.singleton(EcorePackage.Literals.ECLASS));
+            index.registerEStructuralFeatures(Collections.singleton(EcorePackage.Literals.ENAMED_ELEMENT__NAME));
+
+            final AtomicBoolean finished = new AtomicBoolean(false);
+            List<Future<Integer>> readers = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < READER_COUNT; i++) {
+                readers.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int reads = 0;
+                        while (!finished.get()) {
+                            // the writer adds and removes a single class at a time
+                            int instances = index.getAllInstances(EcorePackage.Literals.ECLASS).size();
+                            assertTrue(instances == CLASS_COUNT || instances == CLASS_COUNT + 1);
+                            Set<EObject> fixed = index.findByAttributeValue("fixed",
+                                    EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+                            assertEquals(CLASS_COUNT, fixed.size());
+                            int transients = index.findByAttributeValue("transient",
+                                    EcorePackage.Literals.ENAMED_ELEMENT__NAME).size();
+                            assertTrue(transients <= 1);
+                            reads++;
+                        }
+                        return reads;
+                    }
+                }));
+            }
+
+            for (int i = 0; i < MODIFICATION_COUNT; i++) {
+                EClass clazz = createClass("transient");
+                resource.getContents().add(clazz);
+                resource.getContents().remove(clazz);
+            }
+            finished.set(true);
+
+            for (Future<Integer> reader : readers) {
+                // rethrows assertion failures of the readers
+                assertTrue(reader.get() > 0);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testResultsAreCopies() throws Exception {
+        BaseIndexOptions options = new BaseIndexOptions().withConcurrentReadAccess(true);
+        NavigationHelper index = createIndex(resource, options);
+        index.registerEClasses(Collections.singleton(EcorePackage.Literals.ECLASS));
+        Set<EObject> instances = index.getDirectInstances(EcorePackage.Literals.ECLASS);
+        resource.getContents().add(createClass("added"));
+        assertEquals(CLASS_COUNT, instances.size());
+        assertEquals(CLASS_COUNT + 1, index.getDirectInstances(EcorePackage.Literals.ECLASS).size());
+    }
+
+    @Test
+    public void testBaseIndexOptions() {
+        BaseIndexOptions options = new BaseIndexOptions();
+        assertFalse(options.isConcurrentReadAccess());
+
+        BaseIndexOptions concurrent = options.withConcurrentReadAccess(true);
+        assertTrue(concurrent.isConcurrentReadAccess());
+        assertEquals(concurrent, concurrent.copy());
+        assertFalse(concurrent.equals(options));
+    }
+
+}
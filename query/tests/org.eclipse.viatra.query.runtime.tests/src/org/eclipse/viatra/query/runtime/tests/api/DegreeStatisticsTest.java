@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.matchers.context.DegreeStatistics;
+import org.junit.Test;
+
+/**
+ * Checks the incrementally maintained degree statistics of features (see
+ * {@link NavigationHelper#getFeatureDegreeStatistics(org.eclipse.emf.ecore.EStructuralFeature)}).
+ *
+ * @author agent
+ *
+ */
+public class DegreeStatisticsTest extends AbstractEcoreModelTest {
+
+    @Test
+    public void testSkewedAttributeValues() throws Exception {
+        // 8 classes named "common", 1 named "rare"
+        List<EClass> classes = new ArrayList<EClass>();
+        for (int i = 0; i < 9; i++) {
+            EClass clazz = EcoreFactory.eINSTANCE.createEClass();
+            clazz.setName(i < 8 ? "common" : "rare");
+            classes.add(clazz);
+        }
+        resource.getContents().addAll(classes);
+        NavigationHelper index = createIndex(resource, new BaseIndexOptions());
+        index.registerEStructuralFeatures(Collections.singleton(EcorePackage.Literals.ENAMED_ELEMENT__NAME),
+                IndexingLevel.STATISTICS);
+        DegreeStatistics statistics = index.getFeatureDegreeStatistics(EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+        assertEquals(9, statistics.getTupleCount());
+        assertEquals(9, statistics.getDistinctSources());
+        assertEquals(2, statistics.getDistinctTargets());
+        assertEquals(1, statistics.getMaxOutDegree());
+        assertEquals(8, statistics.getMaxInDegree());
+        assertEquals(1.0, statistics.getOutDegreeSkew(), 1e-9);
+        assertEquals(4.5, statistics.getAverageInDegree(), 1e-9);
+        // (64 + 1) / 9 / 4.5
+        assertEquals(65.0 / 9 / 4.5, statistics.getInDegreeSkew(), 1e-9);
+        // degree 1 in bucket 0, degree 8 in bucket 3
+        assertArrayEquals(new int[] { 1, 0, 0, 1 }, statistics.getInDegreeHistogram());
+
+        // maintained incrementally
+        for (EClass clazz : classes.subList(0, 7)) {
+            clazz.setName("rare");
+        }
+        statistics = index.getFeatureDegreeStatistics(EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+        assertEquals(9, statistics.getTupleCount());
+        assertEquals(8, statistics.getMaxInDegree());
+        resource.getContents().removeAll(classes.subList(0, 6));
+        statistics = index.getFeatureDegreeStatistics(EcorePackage.Literals.ENAMED_ELEMENT__NAME);
+        assertEquals(3, statistics.getTupleCount());
+        assertEquals(2, statistics.getMaxInDegree());
+        assertArrayEquals(new int[] { 1, 1 }, statistics.getInDegreeHistogram());
+    }
+
+}
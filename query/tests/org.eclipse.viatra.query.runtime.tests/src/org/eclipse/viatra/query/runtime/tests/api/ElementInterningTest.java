@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IMatchUpdateListener;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.emf.EMFSnapshotElementCodec;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryHintOption;
+import org.eclipse.viatra.query.runtime.matchers.context.IQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.context.InterningQueryRuntimeContext;
+import org.eclipse.viatra.query.runtime.matchers.tuple.IdTuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.index.OffHeapProjectionIndexer;
+import org.eclipse.viatra.query.runtime.rete.matcher.RetePatternMatcher;
+import org.eclipse.viatra.query.runtime.rete.network.ISnapshotElementCodec;
+import org.eclipse.viatra.query.runtime.rete.network.Node;
+import org.eclipse.viatra.query.runtime.rete.network.ReteNetworkSnapshot;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a Rete network representing elements by interned IDs (see {@link ReteHintOptions#internElements})
+ * stores the IDs instead of the elements, while delivering the elements themselves at its boundaries.
+ *
+ * @author agent
+ *
+ */
+public class ElementInterningTest extends AbstractPatternModelTest {
+
+    private AdvancedViatraQueryEngine engine;
+    private AdvancedViatraQueryEngine referenceEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        addPatterns(20, "added", 3);
+        engine = createInterningEngine();
+        referenceEngine = createEngine();
+    }
+
+    @Test
+    public void testElementsAreInterned() throws Exception {
+        assertEquals(collectMatches(referenceEngine), collectMatches(engine));
+
+        IQueryRuntimeContext context = getReteEngine(engine).getRuntimeContext();
+        assertTrue(context instanceof InterningQueryRuntimeContext);
+        assertTrue(((InterningQueryRuntimeContext) context).getInternedElementCount() > 0);
+        Pattern pattern = model.getPatterns().get(0);
+        Object id = context.wrapElement(pattern);
+        assertTrue(id instanceof Integer);
+        assertSame(id, context.wrapElement(pattern));
+        assertSame(pattern, context.unwrapElement(id));
+
+        // the network stores the IDs only
+        Tuple seed = context.wrapTuple(Tuples.staticArityFlatTupleOf(pattern, null));
+        assertTrue(seed instanceof IdTuple);
+        assertEquals(Tuples.staticArityFlatTupleOf(id, null), seed);
+        assertEquals(Tuples.staticArityFlatTupleOf(id, null).hashCode(), seed.hashCode());
+        for (Tuple tuple : getProductionContents(engine, "namedPattern")) {
+            assertTrue(tuple.get(0) instanceof Integer);
+            assertTrue(tuple.get(1) instanceof Integer);
+        }
+        for (Tuple tuple : getProductionContents(referenceEngine, "namedPattern")) {
+            assertTrue(tuple.get(0) instanceof Pattern);
+            assertTrue(tuple.get(1) instanceof String);
+        }
+        assertFalse(getReteEngine(referenceEngine).getRuntimeContext() instanceof InterningQueryRuntimeContext);
+    }
+
+    @Test
+    public void testMatchesAgreeAfterModifications() throws Exception {
+        assertEquals(collectMatches(referenceEngine), collectMatches(engine));
+
+        List<Pattern> addedPatterns = addPatterns(20, "later", 3);
+        model.getPatterns().get(0).setName("renamed");
+        model.eResource().getContents().removeAll(addedPatterns.subList(0, 5));
+        assertEquals(collectMatches(referenceEngine), collectMatches(engine));
+
+        // bound parameters are translated as well
+        ViatraQueryMatcher<? extends IPatternMatch> sameName = engine.getMatcher(getSpecification("sameName"));
+        ViatraQueryMatcher<? extends IPatternMatch> referenceSameName = referenceEngine
+                .getMatcher(getSpecification("sameName"));
+        for (Pattern pattern : addedPatterns) {
+            assertEquals(collectMatches(referenceSameName, pattern, null), collectMatches(sameName, pattern, null));
+        }
+    }
+
+    @Test
+    public void testIdsAreReclaimed() throws Exception {
+        List<Set<List<Object>>> initialMatches = collectMatches(engine);
+        InterningQueryRuntimeContext context = (InterningQueryRuntimeContext) getReteEngine(engine)
+                .getRuntimeContext();
+        int initialCount = context.getInternedElementCount();
+
+        List<Pattern> addedPatterns = addPatterns(30, "later", 30);
+        int grownCount = context.getInternedElementCount();
+        assertTrue(grownCount > initialCount);
+        model.eResource().getContents().removeAll(addedPatterns);
+        assertEquals(initialCount, context.getInternedElementCount());
+        assertEquals(initialMatches, collectMatches(engine));
+
+        // new elements reuse the reclaimed IDs
+        addPatterns(30, "again", 30);
+        assertEquals(grownCount, context.getInternedElementCount());
+        assertEquals(collectMatches(referenceEngine), collectMatches(engine));
+    }
+
+    @Test
+    public void testListenerReceivesElements() throws Exception {
+        ViatraQueryMatcher<? extends IPatternMatch> named = engine.getMatcher(getSpecification("namedPattern"));
+        final List<IPatternMatch> appeared = new ArrayList<IPatternMatch>();
+        engine.addMatchUpdateListener(named, new IMatchUpdateListener<IPatternMatch>() {
+            @Override
+            public void notifyAppearance(IPatternMatch match) {
+                appeared.add(match);
+            }
+
+            @Override
+            public void notifyDisappearance(IPatternMatch match) {
+            }
+        }, false);
+
+        Pattern pattern = addPattern("later");
+        assertEquals(1, appeared.size());
+        assertSame(pattern, appeared.get(0).get(0));
+        assertEquals("later", appeared.get(0).get(1));
+    }
+
+    @Test
+    public void testSnapshotIsIndependentOfRepresentation() throws Exception {
+        List<Set<List<Object>>> expected = collectMatches(engine);
+        ISnapshotElementCodec codec = new EMFSnapshotElementCodec(resourceSet);
+        ReteNetworkSnapshot snapshot = getReteEngine(engine).captureSnapshot(codec);
+        assertFalse(snapshot.getKeys().isEmpty());
+        assertEquals(expected, collectMatches(referenceEngine));
+        assertTrue(getReteEngine(referenceEngine).captureSnapshot(codec).getDifferingKeys(snapshot).isEmpty());
+
+        // an interning network restored from the snapshot of a plain one
+        ReteNetworkSnapshot referenceSnapshot = getReteEngine(referenceEngine).captureSnapshot(codec);
+        AdvancedViatraQueryEngine restored = createInterningEngine();
+        getReteEngine(restored).restoreFrom(referenceSnapshot, codec);
+        assertEquals(expected, collectMatches(restored));
+        for (Tuple tuple : getProductionContents(restored, "namedPattern")) {
+            assertTrue(tuple.get(0) instanceof Integer);
+        }
+
+        AdvancedViatraQueryEngine plainRestored = createEngine();
+        getReteEngine(plainRestored).restoreFrom(snapshot, codec);
+        assertEquals(expected, collectMatches(plainRestored));
+    }
+
+    @Test
+    public void testOffHeapIndexers() throws Exception {
+        // off-heap indexing implies interning, the internElements hint is not needed
+        @SuppressWarnings("rawtypes")
+        Map<QueryHintOption, Object> hints = new HashMap<QueryHintOption, Object>();
+        hints.put(ReteHintOptions.offHeapIndexers, true);
+        AdvancedViatraQueryEngine offHeapEngine = createReteEngine(hints);
+        assertEquals(collectMatches(referenceEngine), collectMatches(offHeapEngine));
+        assertTrue(getReteEngine(offHeapEngine).getReteNet().isOffHeapIndexing());
+
+        int offHeapIndexers = 0;
+        for (Node node : getReteEngine(offHeapEngine).getReteNet().getHeadContainer().getAllNodes()) {
+            if (node instanceof OffHeapProjectionIndexer) {
+                offHeapIndexers++;
+            }
+        }
+        // the joins of sameName and the antijoins of publicNamedPattern and uniquelyNamed
+        assertTrue(offHeapIndexers > 0);
+
+        List<Pattern> addedPatterns = addPatterns(50, "later", 7);
+        model.eResource().getContents().removeAll(addedPatterns.subList(0, 20));
+        addedPatterns.get(30).setName("later0");
+        assertEquals(collectMatches(referenceEngine), collectMatches(offHeapEngine));
+    }
+
+    private AdvancedViatraQueryEngine createInterningEngine() throws Exception {
+        @SuppressWarnings("rawtypes")
+        Map<QueryHintOption, Object> hints = new HashMap<QueryHintOption, Object>();
+        hints.put(ReteHintOptions.internElements, true);
+        return createReteEngine(hints);
+    }
+
+    /**
+     * @return the tuples stored in the production node of the given pattern, in the representation of the network
+     */
+    private List<Tuple> getProductionContents(AdvancedViatraQueryEngine engine, String patternName)
+            throws Exception {
+        engine.getMatcher(getSpecification(patternName)).countMatches();
+        RetePatternMatcher matcher = (RetePatternMatcher) getReteEngine(engine)
+                .peekExistingResultProvider(getSpecification(patternName).getInternalQueryRepresentation());
+        List<Tuple> contents = new ArrayList<Tuple>();
+        matcher.getProductionNode().pullInto(contents);
+        assertFalse(contents.isEmpty());
+        return contents;
+    }
+
+    private static <Match extends IPatternMatch> Set<List<Object>> collectMatches(ViatraQueryMatcher<Match> matcher,
+            Object... parameters) {
+        return toTuples(matcher.getAllMatches(matcher.newMatch(parameters)));
+    }
+
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EAttribute;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that a base index built from index snapshots (see {@link BaseIndexOptions#withIndexSnapshots(boolean)})
+ * replays the saved snapshot of a resource, including its string, integer and boolean attribute values, that
+ * snapshots not matching the persisted resource are ignored, and that changed resources are traversed as usual.
+ *
+ * <p>
+ * The use of a snapshot is made observable by recording it while the in-memory contents of the resource differ from the
+ * persisted ones; such a snapshot is accepted, as only the persisted contents are verified.
+ *
+ * @author agent
+ *
+ */
+public class IndexSnapshotTest extends AbstractEcoreModelTest {
+
+    /**
+     * The class changed by {@link #tamper(ResourceSet, String)}; it is concrete and its attribute is changeable
+     */
+    private static final int TAMPERED_CLASS = 2;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private URI modelURI;
+
+    @Before
+    public void setUp() throws Exception {
+        modelURI = URI.createFileURI(new File(folder.getRoot(), "model.ecore").getAbsolutePath());
+        Resource savedResource = new XMIResourceImpl(modelURI);
+        createPackages(savedResource, 5, 10);
+        savedResource.save(Collections.emptyMap());
+        writeSnapshot(savedResource);
+    }
+
+    @Test
+    public void testSnapshotAgrees() throws Exception {
+        assertTrue(new File(modelURI.toFileString() + ".vqindex").isFile());
+        ResourceSet loadedResourceSet = loadModel();
+        ResourceSet referenceResourceSet = loadModel();
+        NavigationHelper index = createIndex(loadedResourceSet, true);
+        NavigationHelper referenceIndex = createIndex(referenceResourceSet, false);
+        List<Object> expected = describeIndex(referenceIndex);
+        assertEquals(expected, describeIndex(index));
+
+        // changed resources are traversed as usual
+        tamper(loadedResourceSet, "Renamed");
+        tamper(referenceResourceSet, "Renamed");
+        List<Object> modified = describeIndex(referenceIndex);
+        assertFalse(expected.equals(modified));
+        assertEquals(modified, describeIndex(index));
+    }
+
+    @Test
+    public void testSnapshotIsReplayed() throws Exception {
+        writeTamperedSnapshot();
+
+        ResourceSet loadedResourceSet = loadModel();
+        NavigationHelper index = createIndex(loadedResourceSet, true);
+        describeIndex(index);
+        EClass tampered = getClass(getPackage(loadedResourceSet), TAMPERED_CLASS);
+        EAttribute attribute = tampered.getEAttributes().get(0);
+        assertEquals(Collections.singleton(tampered),
+                index.findByAttributeValue("Tampered", EcorePackage.Literals.ENAMED_ELEMENT__NAME));
+        assertTrue(index.findByAttributeValue(true, EcorePackage.Literals.ECLASS__ABSTRACT).contains(tampered));
+        assertEquals(Collections.singleton(attribute),
+                index.findByAttributeValue(42, EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND));
+        assertTrue(index.findByAttributeValue(false, EcorePackage.Literals.ESTRUCTURAL_FEATURE__CHANGEABLE)
+                .contains(attribute));
+
+        NavigationHelper referenceIndex = createIndex(loadModel(), false);
+        describeIndex(referenceIndex);
+        assertEquals(4, index.findByAttributeValue("Class2", EcorePackage.Literals.ENAMED_ELEMENT__NAME).size());
+        assertEquals(5, referenceIndex.findByAttributeValue("Class2", EcorePackage.Literals.ENAMED_ELEMENT__NAME)
+                .size());
+        assertTrue(referenceIndex.findByAttributeValue(42, EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND)
+                .isEmpty());
+    }
+
+    @Test
+    public void testStaleSnapshotIsIgnored() throws Exception {
+        writeTamperedSnapshot();
+        ResourceSet savedResourceSet = loadModel();
+        getClass(getPackage(savedResourceSet), 1).setName("Saved");
+        savedResourceSet.getResources().get(0).save(Collections.emptyMap());
+
+        NavigationHelper index = createIndex(loadModel(), true);
+        NavigationHelper referenceIndex = createIndex(loadModel(), false);
+        List<Object> expected = describeIndex(referenceIndex);
+        assertEquals(expected, describeIndex(index));
+        assertEquals(1, index.findByAttributeValue("Saved", EcorePackage.Literals.ENAMED_ELEMENT__NAME).size());
+        assertTrue(index.findByAttributeValue("Tampered", EcorePackage.Literals.ENAMED_ELEMENT__NAME).isEmpty());
+    }
+
+    @Test
+    public void testChangedResourceIsTraversed() throws Exception {
+        writeTamperedSnapshot();
+        ResourceSet loadedResourceSet = loadModel();
+        NavigationHelper index = createIndex(loadedResourceSet, true);
+
+        // the resource is changed before anything is indexed, so the snapshot must not be used
+        getClass(getPackage(loadedResourceSet), 1).setName("Renamed");
+        describeIndex(index);
+        assertEquals(1, index.findByAttributeValue("Renamed", EcorePackage.Literals.ENAMED_ELEMENT__NAME).size());
+        assertEquals(5, index.findByAttributeValue("Class2", EcorePackage.Literals.ENAMED_ELEMENT__NAME).size());
+        assertTrue(index.findByAttributeValue("Tampered", EcorePackage.Literals.ENAMED_ELEMENT__NAME).isEmpty());
+        assertTrue(index.findByAttributeValue(42, EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND).isEmpty());
+    }
+
+    @Test
+    public void testBaseIndexOptions() {
+        BaseIndexOptions options = new BaseIndexOptions();
+        assertFalse(options.isIndexSnapshots());
+
+        BaseIndexOptions snapshots = options.withIndexSnapshots(true);
+        assertTrue(snapshots.isIndexSnapshots());
+        assertEquals(snapshots, snapshots.copy());
+        assertFalse(snapshots.equals(options));
+    }
+
+    /**
+     * Overwrites the snapshot of the model with one recorded while a class of the first package is changed in memory
+     * only, see {@link #tamper(ResourceSet, String)}.
+     */
+    private void writeTamperedSnapshot() throws Exception {
+        ResourceSet loadedResourceSet = loadModel();
+        tamper(loadedResourceSet, "Tampered");
+        writeSnapshot(loadedResourceSet.getResources().get(0));
+    }
+
+    /**
+     * Renames a class of the first package and makes it abstract; its attribute gets a lower bound of 42 and is made
+     * unchangeable. The changed values all differ from the defaults.
+     */
+    private static void tamper(ResourceSet resourceSet, String name) {
+        EClass clazz = getClass(getPackage(resourceSet), TAMPERED_CLASS);
+        clazz.setName(name);
+        clazz.setAbstract(true);
+        EAttribute attribute = clazz.getEAttributes().get(0);
+        attribute.setLowerBound(42);
+        attribute.setChangeable(false);
+    }
+
+    private static EPackage getPackage(ResourceSet resourceSet) {
+        return (EPackage) resourceSet.getResources().get(0).getContents().get(0);
+    }
+
+    private static void writeSnapshot(Resource resource) throws Exception {
+        NavigationHelper index = ViatraBaseFactory.getInstance().createNavigationHelper(resource,
+                new BaseIndexOptions(), null);
+        try {
+            index.writeIndexSnapshot(resource);
+        } finally {
+            index.dispose();
+        }
+    }
+
+    private ResourceSet loadModel() throws Exception {
+        ResourceSet loadedResourceSet = new ResourceSetImpl();
+        Resource loadedResource = new XMIResourceImpl(modelURI);
+        loadedResourceSet.getResources().add(loadedResource);
+        loadedResource.load(Collections.emptyMap());
+        return loadedResourceSet;
+    }
+
+    private NavigationHelper createIndex(ResourceSet loadedResourceSet, boolean indexSnapshots) throws Exception {
+        return createIndex(loadedResourceSet, new BaseIndexOptions().withIndexSnapshots(indexSnapshots));
+    }
+
+}
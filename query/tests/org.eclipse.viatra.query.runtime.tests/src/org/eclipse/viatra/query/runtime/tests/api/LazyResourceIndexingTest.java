@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Modifiers;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguageFactory;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguagePackage;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks that a base index with lazy resource indexing (see {@link BaseIndexOptions#withLazyResourceIndexing(boolean)})
+ * indexes resources once their contents are needed, and handles loading and unloading resources.
+ *
+ * @author agent
+ *
+ */
+public class LazyResourceIndexingTest {
+
+    private static final int PATTERN_COUNT = 5;
+    private static final int MODIFIERS_COUNT = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private URI patternsURI;
+    private URI modifiersURI;
+
+    @Before
+    public void setUp() throws Exception {
+        // ensures the registration of the package
+        PatternLanguagePackage.eINSTANCE.eClass();
+
+        patternsURI = URI.createFileURI(new File(folder.getRoot(), "patterns.xmi").getAbsolutePath());
+        Resource patterns = new XMIResourceImpl(patternsURI);
+        for (int i = 0; i < PATTERN_COUNT; i++) {
+            Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+            pattern.setName("pattern");
+            patterns.getContents().add(pattern);
+        }
+        patterns.save(Collections.emptyMap());
+
+        modifiersURI = URI.createFileURI(new File(folder.getRoot(), "modifiers.xmi").getAbsolutePath());
+        Resource modifiers = new XMIResourceImpl(modifiersURI);
+        for (int i = 0; i < MODIFIERS_COUNT; i++) {
+            Modifiers modifier = PatternLanguageFactory.eINSTANCE.createModifiers();
+            modifier.setPrivate(true);
+            modifiers.getContents().add(modifier);
+        }
+        modifiers.save(Collections.emptyMap());
+    }
+
+    @Test
+    public void testResourcesIndexedOnDemand() throws Exception {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        load(resourceSet, patternsURI);
+        load(resourceSet, modifiersURI);
+        NavigationHelper index = createLazyIndex(resourceSet);
+        try {
+            index.registerEClasses(Collections.singleton(PatternLanguagePackage.Literals.MODIFIERS));
+            assertEquals(MODIFIERS_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.MODIFIERS).size());
+
+            index.registerEStructuralFeatures(Collections.singleton(PatternLanguagePackage.Literals.PATTERN__NAME));
+            assertEquals(PATTERN_COUNT,
+                    index.findByAttributeValue("pattern", PatternLanguagePackage.Literals.PATTERN__NAME).size());
+            assertEquals(MODIFIERS_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.MODIFIERS).size());
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test
+    public void testResourceLoadedLater() throws Exception {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        NavigationHelper index = createLazyIndex(resourceSet);
+        try {
+            index.registerEClasses(Collections.singleton(PatternLanguagePackage.Literals.PATTERN));
+            load(resourceSet, modifiersURI);
+            load(resourceSet, patternsURI);
+            assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test
+    public void testUnloadAndReload() throws Exception {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        Resource patterns = load(resourceSet, patternsURI);
+        NavigationHelper index = createLazyIndex(resourceSet);
+        try {
+            index.registerEClasses(Collections.singleton(PatternLanguagePackage.Literals.PATTERN));
+            assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+
+            patterns.unload();
+            assertTrue(index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).isEmpty());
+
+            patterns.load(Collections.emptyMap());
+            assertEquals(PATTERN_COUNT, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+
+            // the reloaded resource is observed again
+            patterns.getContents().remove(1);
+            assertEquals(PATTERN_COUNT - 1, index.getAllInstances(PatternLanguagePackage.Literals.PATTERN).size());
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test
+    public void testBaseIndexOptions() {
+        BaseIndexOptions options = new BaseIndexOptions();
+        assertFalse(options.isLazyResourceIndexing());
+
+        BaseIndexOptions lazy = options.withLazyResourceIndexing(true);
+        assertTrue(lazy.isLazyResourceIndexing());
+        assertEquals(lazy, lazy.copy());
+        assertFalse(lazy.equals(options));
+    }
+
+    private NavigationHelper createLazyIndex(ResourceSet resourceSet) throws Exception {
+        BaseIndexOptions options = new BaseIndexOptions().withLazyResourceIndexing(true);
+        return ViatraBaseFactory.getInstance().createNavigationHelper(resourceSet, options, null);
+    }
+
+    private Resource load(ResourceSet resourceSet, URI uri) throws Exception {
+        Resource resource = new XMIResourceImpl(uri);
+        resourceSet.getResources().add(resource);
+        resource.load(Collections.emptyMap());
+        return resource;
+    }
+
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IMatchUpdateListener;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.exception.ViatraQueryException;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryHintOption;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteBackendFactory;
+import org.eclipse.viatra.query.runtime.rete.matcher.RetePatternMatcher;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that matchers evicted due to {@link ReteHintOptions#matcherEvictionLimit} or
+ * {@link ReteHintOptions#matcherMemoryBudget} release their Rete subnetworks, are evicted in least recently accessed
+ * order, and deliver correct results after being rebuilt.
+ *
+ * @author agent
+ *
+ */
+public class MatcherEvictionTest extends AbstractPatternModelTest {
+
+    private AdvancedViatraQueryEngine referenceEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        addPatterns(30, "added", 4);
+        referenceEngine = createEngine();
+    }
+
+    @Test
+    public void testEvictedMatcherIsRebuilt() throws Exception {
+        AdvancedViatraQueryEngine engine = createReteEngine(ReteHintOptions.matcherEvictionLimit, 1);
+        ViatraQueryMatcher<? extends IPatternMatch> named = engine.getMatcher(getSpecification("namedPattern"));
+        assertEquals(collectMatches(referenceEngine, "namedPattern"), collectMatches(named));
+        engine.getMatcher(getSpecification("privatePattern"));
+        assertTrue(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertFalse(getReteMatcher(engine, "privatePattern").isEvicted());
+
+        // modifications while evicted must be reflected after rebuilding
+        addPattern("later");
+        model.getPatterns().get(0).setName("renamed");
+
+        assertEquals(collectMatches(referenceEngine, "namedPattern"), collectMatches(named));
+        assertFalse(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertTrue(getReteMatcher(engine, "privatePattern").isEvicted());
+        assertEquals(collectMatches(referenceEngine), collectMatches(engine));
+    }
+
+    @Test
+    public void testEvictionReleasesNodes() throws Exception {
+        AdvancedViatraQueryEngine engine = createReteEngine(ReteHintOptions.matcherEvictionLimit, 1);
+        engine.getMatcher(getSpecification("sameName")).countMatches();
+        engine.getMatcher(getSpecification("privatePattern")).countMatches();
+        assertTrue(getReteMatcher(engine, "sameName").isEvicted());
+        assertNull(getReteMatcher(engine, "sameName").getProductionNode());
+
+        referenceEngine.getMatcher(getSpecification("privatePattern")).countMatches();
+        int referenceNodeCount = getReteEngine(referenceEngine).getMetrics().getNodeMetrics().size();
+        // at most the detached matcher object remains of the evicted subnetwork
+        assertTrue(getReteEngine(engine).getMetrics().getNodeMetrics().size() <= referenceNodeCount + 1);
+    }
+
+    @Test
+    public void testLeastRecentlyAccessedEvicted() throws Exception {
+        AdvancedViatraQueryEngine engine = createReteEngine(ReteHintOptions.matcherEvictionLimit, 2);
+        ViatraQueryMatcher<? extends IPatternMatch> named = engine.getMatcher(getSpecification("namedPattern"));
+        ViatraQueryMatcher<? extends IPatternMatch> privateMatcher = engine
+                .getMatcher(getSpecification("privatePattern"));
+        named.countMatches();
+        privateMatcher.countMatches();
+
+        // internal access to the production node does not count as an access
+        getReteMatcher(engine, "namedPattern").getProductionNode();
+        engine.getMatcher(getSpecification("uniquelyNamed")).countMatches();
+        assertTrue(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertFalse(getReteMatcher(engine, "privatePattern").isEvicted());
+
+        // each public entry point counts as an access
+        named.hasMatch();
+        assertFalse(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertTrue(getReteMatcher(engine, "privatePattern").isEvicted());
+        privateMatcher.getAllMatches();
+        assertTrue(getReteMatcher(engine, "uniquelyNamed").isEvicted());
+        assertEquals(collectMatches(referenceEngine), collectMatches(engine));
+    }
+
+    @Test
+    public void testMemoryBudgetEvicts() throws Exception {
+        AdvancedViatraQueryEngine engine = createReteEngine(ReteHintOptions.matcherMemoryBudget, 1L);
+        engine.getMatcher(getSpecification("namedPattern")).countMatches();
+        engine.getMatcher(getSpecification("privatePattern")).countMatches();
+        assertTrue(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertFalse(getReteMatcher(engine, "privatePattern").isEvicted());
+        assertEquals(collectMatches(referenceEngine, "namedPattern"), collectMatches(engine, "namedPattern"));
+    }
+
+    @Test
+    public void testQuerySpecificLimitIgnored() throws Exception {
+        @SuppressWarnings("rawtypes")
+        Map<QueryHintOption, Object> hints = new HashMap<QueryHintOption, Object>();
+        hints.put(ReteHintOptions.matcherEvictionLimit, 1);
+        QueryEvaluationHint hint = new QueryEvaluationHint(hints, new ReteBackendFactory());
+
+        AdvancedViatraQueryEngine engine = createEngine();
+        engine.getMatcher(getSpecification("namedPattern"), hint).countMatches();
+        engine.getMatcher(getSpecification("privatePattern"), hint).countMatches();
+        assertFalse(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertFalse(getReteMatcher(engine, "privatePattern").isEvicted());
+    }
+
+    @Test
+    public void testListenerPinsMatcher() throws Exception {
+        AdvancedViatraQueryEngine engine = createReteEngine(ReteHintOptions.matcherEvictionLimit, 1);
+        ViatraQueryMatcher<? extends IPatternMatch> named = engine.getMatcher(getSpecification("namedPattern"));
+        final List<IPatternMatch> appeared = new ArrayList<IPatternMatch>();
+        engine.addMatchUpdateListener(named, new IMatchUpdateListener<IPatternMatch>() {
+            @Override
+            public void notifyAppearance(IPatternMatch match) {
+                appeared.add(match);
+            }
+
+            @Override
+            public void notifyDisappearance(IPatternMatch match) {
+            }
+        }, false);
+        engine.getMatcher(getSpecification("privatePattern")).countMatches();
+        engine.getMatcher(getSpecification("sameName")).countMatches();
+        assertFalse(getReteMatcher(engine, "namedPattern").isEvicted());
+        assertTrue(getReteMatcher(engine, "namedPattern").isPinned());
+        assertTrue(getReteMatcher(engine, "privatePattern").isEvicted());
+
+        addPattern("later");
+        assertEquals(1, appeared.size());
+        assertEquals(collectMatches(referenceEngine, "sameName"), collectMatches(engine, "sameName"));
+    }
+
+    private RetePatternMatcher getReteMatcher(AdvancedViatraQueryEngine engine, String patternName)
+            throws ViatraQueryException {
+        return (RetePatternMatcher) getReteEngine(engine)
+                .peekExistingResultProvider(getSpecification(patternName).getInternalQueryRepresentation());
+    }
+
+}
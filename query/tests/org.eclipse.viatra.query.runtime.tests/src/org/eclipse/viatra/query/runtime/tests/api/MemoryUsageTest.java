@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import javax.management.ObjectName;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceImpl;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguageFactory;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguagePackage;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.eclipse.viatra.query.runtime.base.api.metrics.BaseIndexMemoryUsage;
+import org.eclipse.viatra.query.runtime.base.api.metrics.BaseIndexMemoryUsageExporter;
+import org.eclipse.viatra.query.runtime.base.api.metrics.IndexedKeyMemoryUsage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the memory usage reported by the base index, see {@link NavigationHelper#getMemoryUsage()}.
+ *
+ * @author agent
+ *
+ */
+public class MemoryUsageTest {
+
+    private static final int PATTERN_COUNT = 10;
+
+    private Resource resource;
+    private NavigationHelper index;
+
+    @Before
+    public void setUp() throws Exception {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resource = new XMIResourceImpl(URI.createURI("memory.xmi"));
+        resourceSet.getResources().add(resource);
+        for (int i = 0; i < PATTERN_COUNT; i++) {
+            Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+            pattern.setName("pattern" + i);
+            resource.getContents().add(pattern);
+        }
+        index = ViatraBaseFactory.getInstance().createNavigationHelper(resourceSet, false, null);
+    }
+
+    @After
+    public void tearDown() {
+        index.dispose();
+    }
+
+    @Test
+    public void testFullyIndexedTypes() {
+        index.registerObservedTypes(Collections.singleton(PatternLanguagePackage.Literals.PATTERN), null,
+                Collections.singleton(PatternLanguagePackage.Literals.PATTERN__NAME), IndexingLevel.FULL);
+        BaseIndexMemoryUsage usage = index.getMemoryUsage();
+
+        IndexedKeyMemoryUsage patternUsage = usage.getKeyUsage(PatternLanguagePackage.Literals.PATTERN);
+        assertNotNull(patternUsage);
+        assertEquals(IndexingLevel.FULL, patternUsage.getIndexingLevel());
+        assertEquals(PATTERN_COUNT, patternUsage.getInstanceStoreEntries());
+        assertTrue(patternUsage.getInstanceStoreMemory() > 0);
+
+        IndexedKeyMemoryUsage nameUsage = usage.getKeyUsage(PatternLanguagePackage.Literals.PATTERN__NAME);
+        assertNotNull(nameUsage);
+        assertEquals(PATTERN_COUNT, nameUsage.getInstanceStoreEntries());
+        assertTrue(nameUsage.getInstanceStoreMemory() > 0);
+
+        assertTrue(usage.getTotalEstimatedMemory() >= patternUsage.getEstimatedMemory()
+                + nameUsage.getEstimatedMemory());
+
+        // memory is released along with the contents
+        resource.getContents().clear();
+        patternUsage = index.getMemoryUsage().getKeyUsage(PatternLanguagePackage.Literals.PATTERN);
+        assertEquals(0, patternUsage.getInstanceStoreEntries());
+    }
+
+    @Test
+    public void testStatisticsOnly() {
+        index.registerObservedTypes(Collections.singleton(PatternLanguagePackage.Literals.PATTERN), null, null,
+                IndexingLevel.STATISTICS);
+        IndexedKeyMemoryUsage patternUsage = index.getMemoryUsage()
+                .getKeyUsage(PatternLanguagePackage.Literals.PATTERN);
+
+        assertEquals(IndexingLevel.STATISTICS, patternUsage.getIndexingLevel());
+        assertEquals(0, patternUsage.getInstanceStoreEntries());
+        assertTrue(patternUsage.getStatisticsStoreEntries() > 0);
+    }
+
+    @Test
+    public void testExporter() throws Exception {
+        index.registerObservedTypes(Collections.<EClass> singleton(PatternLanguagePackage.Literals.PATTERN), null,
+                null, IndexingLevel.FULL);
+        BaseIndexMemoryUsageExporter exporter = new BaseIndexMemoryUsageExporter(index);
+        ObjectName name = new ObjectName(
+                BaseIndexMemoryUsageExporter.DEFAULT_DOMAIN + ":type=BaseIndexMemoryUsage,name=MemoryUsageTest");
+        exporter.register(name);
+        try {
+            Object totalEntryCount = ManagementFactory.getPlatformMBeanServer().getAttribute(name,
+                    "TotalEntryCount");
+            assertEquals(index.getMemoryUsage().getTotalEntryCount(), totalEntryCount);
+            assertEquals(IndexingLevel.FULL.name(), exporter.getIndexingLevelByKey()
+                    .get(index.getMemoryUsage().getKeyUsage(PatternLanguagePackage.Literals.PATTERN).getName()));
+        } finally {
+            exporter.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+}
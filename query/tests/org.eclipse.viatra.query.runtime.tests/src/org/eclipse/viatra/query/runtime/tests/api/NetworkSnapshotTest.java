@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.emf.EMFSnapshotElementCodec;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.rete.index.GenericProjectionIndexer;
+import org.eclipse.viatra.query.runtime.rete.network.BasicSnapshotElementCodec;
+import org.eclipse.viatra.query.runtime.rete.network.ISnapshotElementCodec;
+import org.eclipse.viatra.query.runtime.rete.network.Node;
+import org.eclipse.viatra.query.runtime.rete.network.ReteNetworkSnapshot;
+import org.eclipse.viatra.query.runtime.rete.network.SnapshotableNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+/**
+ * Checks that Rete networks restored from a {@link ReteNetworkSnapshot} take the saved contents of their stateful
+ * nodes (including the projection indexers used as join memories), that snapshots of a different model are rejected,
+ * and that restored networks remain correct under model modifications.
+ *
+ * @author agent
+ *
+ */
+public class NetworkSnapshotTest extends AbstractPatternModelTest {
+
+    private ISnapshotElementCodec codec;
+
+    /**
+     * Decodes the name of the given pattern as a different string, so that the use of saved contents is observable.
+     */
+    private static final class TamperingCodec implements ISnapshotElementCodec {
+        private final ISnapshotElementCodec delegate;
+        private final String original;
+        private final String replacement;
+
+        public TamperingCodec(ISnapshotElementCodec delegate, String original, String replacement) {
+            this.delegate = delegate;
+            this.original = original;
+            this.replacement = replacement;
+        }
+
+        @Override
+        public String encode(Object element) {
+            return delegate.encode(element);
+        }
+
+        @Override
+        public Object decode(String identifier) {
+            Object element = delegate.decode(identifier);
+            return original.equals(element) ? replacement : element;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        addPatterns(20, "added", 3);
+        codec = new EMFSnapshotElementCodec(resourceSet);
+    }
+
+    @Test
+    public void testRestoredNetworkMatchesFresh() throws Exception {
+        AdvancedViatraQueryEngine original = createEngine();
+        List<Set<List<Object>>> expected = collectMatches(original);
+        ReteNetworkSnapshot snapshot = getReteEngine(original).captureSnapshot(codec);
+        assertFalse(snapshot.getKeys().isEmpty());
+        assertFalse(snapshot.getInputFingerprints().isEmpty());
+
+        ReteNetworkSnapshot loaded = writeAndRead(snapshot, codec);
+        assertEquals(snapshot, loaded);
+
+        AdvancedViatraQueryEngine restored = createEngine();
+        getReteEngine(restored).restoreFrom(loaded, codec);
+        assertEquals(expected, collectMatches(restored));
+        assertFalse(getReteEngine(restored).getReteNet().isRestoringSnapshot());
+        assertEquals(new HashSet<String>(), getReteEngine(restored).captureSnapshot(codec).getDifferingKeys(snapshot));
+
+        List<Pattern> addedPatterns = addPatterns(10, "later", 2);
+        model.getPatterns().get(0).setName("renamed");
+        model.eResource().getContents().removeAll(addedPatterns.subList(0, 5));
+
+        AdvancedViatraQueryEngine fresh = createEngine();
+        assertEquals(collectMatches(fresh), collectMatches(restored));
+        assertEquals(new HashSet<String>(), getReteEngine(restored).captureSnapshot(codec)
+                .getDifferingKeys(getReteEngine(fresh).captureSnapshot(codec)));
+    }
+
+    @Test
+    public void testSnapshotContentsAreUsed() throws Exception {
+        AdvancedViatraQueryEngine original = createEngine();
+        collectMatches(original);
+        ReteNetworkSnapshot snapshot = getReteEngine(original).captureSnapshot(codec);
+
+        // the input fingerprints are not decoded, so only the saved node contents see the tampered name
+        ReteNetworkSnapshot tampered = writeAndRead(snapshot, new TamperingCodec(codec, "sameName", "tampered"));
+        assertEquals(snapshot.getInputFingerprints(), tampered.getInputFingerprints());
+
+        AdvancedViatraQueryEngine restored = createEngine();
+        getReteEngine(restored).restoreFrom(tampered, codec);
+        Set<List<Object>> namedMatches = collectMatches(restored, "namedPattern");
+        Pattern sameName = model.getPatterns().get(3);
+        assertTrue(namedMatches.contains(Arrays.<Object> asList(sameName, "tampered")));
+        assertFalse(namedMatches.contains(Arrays.<Object> asList(sameName, "sameName")));
+    }
+
+    @Test
+    public void testIndexerContentsAreSaved() throws Exception {
+        AdvancedViatraQueryEngine original = createEngine();
+        collectMatches(original);
+        ReteNetworkSnapshot snapshot = getReteEngine(original).captureSnapshot(codec);
+
+        int otherNodes = 0;
+        List<Multiset<Tuple>> indexerContents = new ArrayList<Multiset<Tuple>>();
+        for (Node node : getReteEngine(original).getReteNet().getHeadContainer().getAllNodes()) {
+            if (node instanceof GenericProjectionIndexer) {
+                List<Tuple> collector = new ArrayList<Tuple>();
+                ((GenericProjectionIndexer) node).captureContents(collector);
+                indexerContents.add(HashMultiset.create(collector));
+            } else if (node instanceof SnapshotableNode) {
+                otherNodes++;
+            }
+        }
+        // the joins of sameName and the antijoins of publicNamedPattern and uniquelyNamed have indexers
+        assertFalse(indexerContents.isEmpty());
+        assertTrue(snapshot.getKeys().size() > otherNodes);
+        Set<Multiset<Tuple>> savedContents = new HashSet<Multiset<Tuple>>();
+        for (String key : snapshot.getKeys()) {
+            savedContents.add(snapshot.getContents(key));
+        }
+        indexerContents.retainAll(savedContents);
+        assertFalse(indexerContents.isEmpty());
+    }
+
+    @Test
+    public void testStaleSnapshotIsRejected() throws Exception {
+        AdvancedViatraQueryEngine original = createEngine();
+        collectMatches(original);
+        ReteNetworkSnapshot snapshot = getReteEngine(original).captureSnapshot(codec);
+
+        model.getPatterns().get(0).setName("renamed");
+        addPattern("renamed");
+        AdvancedViatraQueryEngine restored = createEngine();
+        getReteEngine(restored).restoreFrom(snapshot, codec);
+        AdvancedViatraQueryEngine fresh = createEngine();
+        assertEquals(collectMatches(fresh), collectMatches(restored));
+        assertFalse(getReteEngine(restored).getReteNet().isRestoringSnapshot());
+        assertEquals(new HashSet<String>(), getReteEngine(restored).captureSnapshot(codec)
+                .getDifferingKeys(getReteEngine(fresh).captureSnapshot(codec)));
+    }
+
+    @Test
+    public void testUnencodableContentsAreOmitted() throws Exception {
+        AdvancedViatraQueryEngine original = createEngine();
+        List<Set<List<Object>>> expected = collectMatches(original);
+        ReteNetworkSnapshot snapshot = getReteEngine(original).captureSnapshot(codec);
+
+        // EObjects are not supported by the basic codec
+        ReteNetworkSnapshot loaded = writeAndRead(snapshot, new BasicSnapshotElementCodec());
+        assertTrue(loaded.getKeys().size() < snapshot.getKeys().size());
+        assertTrue(snapshot.getKeys().containsAll(loaded.getKeys()));
+
+        AdvancedViatraQueryEngine restored = createEngine();
+        getReteEngine(restored).restoreFrom(loaded, codec);
+        assertEquals(expected, collectMatches(restored));
+
+        // without fingerprints, no saved contents are used at all
+        ReteNetworkSnapshot unverifiable = getReteEngine(original).captureSnapshot(new BasicSnapshotElementCodec());
+        assertTrue(unverifiable.getInputFingerprints().size() < snapshot.getInputFingerprints().size());
+        AdvancedViatraQueryEngine unrestored = createEngine();
+        getReteEngine(unrestored).restoreFrom(unverifiable, codec);
+        assertEquals(expected, collectMatches(unrestored));
+    }
+
+    private ReteNetworkSnapshot writeAndRead(ReteNetworkSnapshot snapshot, ISnapshotElementCodec codec)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeTo(out, codec);
+        return ReteNetworkSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()), codec);
+    }
+
+}
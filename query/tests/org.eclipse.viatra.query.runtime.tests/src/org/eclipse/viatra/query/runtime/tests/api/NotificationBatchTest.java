@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguageFactory;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguagePackage;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IMatchUpdateListener;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.base.api.FeatureListener;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.eclipse.viatra.query.runtime.base.api.ViatraBaseFactory;
+import org.junit.Test;
+
+/**
+ * Checks that the base index delivers only the net changes of a batch of model modifications (see
+ * {@link NavigationHelper#beginBatch()}), also when requested by
+ * {@link AdvancedViatraQueryEngine#delayUpdatePropagation(Callable, boolean)}.
+ *
+ * @author agent
+ *
+ */
+public class NotificationBatchTest extends AbstractPatternModelTest {
+
+    private static class RecordingFeatureListener implements FeatureListener {
+        final List<String> events = new ArrayList<String>();
+
+        @Override
+        public void featureInserted(EObject host, EStructuralFeature feature, Object value) {
+            events.add("+" + value);
+        }
+
+        @Override
+        public void featureDeleted(EObject host, EStructuralFeature feature, Object value) {
+            events.add("-" + value);
+        }
+    }
+
+    @Test
+    public void testNetChangesDelivered() throws Exception {
+        NavigationHelper index = ViatraBaseFactory.getInstance().createNavigationHelper(resourceSet, true, null);
+        try {
+            RecordingFeatureListener listener = new RecordingFeatureListener();
+            index.addFeatureListener(Collections.singleton(PatternLanguagePackage.Literals.PATTERN__NAME), listener);
+            Pattern pattern = model.getPatterns().get(0);
+            String originalName = pattern.getName();
+
+            index.beginBatch();
+            assertTrue(index.isInBatch());
+            pattern.setName("temporary");
+            pattern.setName("renamed");
+            // the index itself is up to date
+            assertEquals(Collections.singleton(pattern),
+                    index.findByAttributeValue("renamed", PatternLanguagePackage.Literals.PATTERN__NAME));
+            assertTrue(listener.events.isEmpty());
+            index.endBatch();
+
+            assertFalse(index.isInBatch());
+            assertEquals(2, listener.events.size());
+            assertTrue(listener.events.contains("-" + originalName));
+            assertTrue(listener.events.contains("+renamed"));
+
+            listener.events.clear();
+            index.beginBatch();
+            index.beginBatch();
+            pattern.setName("temporary");
+            index.endBatch();
+            pattern.setName("renamed");
+            index.endBatch();
+            assertTrue(listener.events.isEmpty());
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnmatchedEndBatch() throws Exception {
+        NavigationHelper index = ViatraBaseFactory.getInstance().createNavigationHelper(resourceSet, true, null);
+        try {
+            index.endBatch();
+        } finally {
+            index.dispose();
+        }
+    }
+
+    @Test
+    public void testDelayedUpdatePropagation() throws Exception {
+        AdvancedViatraQueryEngine engine = createEngine();
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = engine.getMatcher(getSpecification("namedPattern"));
+        final List<IPatternMatch> changes = new ArrayList<IPatternMatch>();
+        engine.addMatchUpdateListener(matcher, new IMatchUpdateListener<IPatternMatch>() {
+            @Override
+            public void notifyAppearance(IPatternMatch match) {
+                changes.add(match);
+            }
+
+            @Override
+            public void notifyDisappearance(IPatternMatch match) {
+                changes.add(match);
+            }
+        }, false);
+        final int matchCount = matcher.countMatches();
+        final RecordingFeatureListener listener = new RecordingFeatureListener();
+        getBaseIndex(engine)
+                .addFeatureListener(Collections.singleton(PatternLanguagePackage.Literals.PATTERN__NAME), listener);
+
+        engine.delayUpdatePropagation(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                addAndRemovePattern();
+                assertTrue(listener.events.isEmpty());
+                return null;
+            }
+        }, true);
+        assertTrue(changes.isEmpty());
+        assertTrue(listener.events.isEmpty());
+        assertEquals(matchCount, matcher.countMatches());
+    }
+
+    @Test
+    public void testBatchingIsOptIn() throws Exception {
+        AdvancedViatraQueryEngine engine = createEngine();
+        final RecordingFeatureListener listener = new RecordingFeatureListener();
+        getBaseIndex(engine)
+                .addFeatureListener(Collections.singleton(PatternLanguagePackage.Literals.PATTERN__NAME), listener);
+
+        engine.delayUpdatePropagation(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                addAndRemovePattern();
+                // other listeners of the base index are still notified immediately
+                assertEquals(Arrays.asList("+added", "-added"), listener.events);
+                return null;
+            }
+        });
+        assertEquals(2, listener.events.size());
+    }
+
+    private void addAndRemovePattern() {
+        Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+        pattern.setName("added");
+        model.getPatterns().add(pattern);
+        model.getPatterns().remove(pattern);
+    }
+
+}
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.viatra.query.patternlanguage.emf.eMFPatternLanguage.PatternModel;
+import org.eclipse.viatra.query.patternlanguage.emf.specification.SpecificationBuilder;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryEngineOptions;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.emf.EMFScope;
+import org.eclipse.viatra.query.runtime.localsearch.MatchingFrame;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchBackend;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchBackendFactory;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHints;
+import org.eclipse.viatra.query.runtime.localsearch.plan.SearchPlanExecutor;
+import org.eclipse.viatra.query.runtime.localsearch.profiler.LocalSearchProfilerAdapter;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that local search delivers the same matches when executed in parallel (see
+ * {@link LocalSearchHints#setParallelExecution(boolean)}) as when executed sequentially, both when the first iterating
+ * operation of the bodies is split and when the bindings of a batch of parameter values are distributed.
+ *
+ * @author agent
+ *
+ */
+public class ParallelLocalSearchTest extends AbstractPatternModelTest {
+
+    // the second body has no operation before its check of the constant
+    private static final String MULTI_BODY_PATTERN_CODE = "package org.eclipse.viatra.query.patternlanguage.emf.tests\n"
+            + "import \"http://www.eclipse.org/viatra/query/patternlanguage/PatternLanguage\"\n"
+            + "pattern privateOrFirst(p : Pattern) = {\n"
+            + " Pattern.modifiers(p, m);\n"
+            + " Modifiers.private(m, true);\n"
+            + "} or {\n"
+            + " Pattern.name(p, \"topLevel0\");\n"
+            + "}\n";
+
+    private final QueryEvaluationHint parallelHint = LocalSearchHints.getDefault().setParallelExecution(true).build();
+    private final QueryEvaluationHint sequentialHint = LocalSearchHints.getDefault().build();
+    private List<IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>>> specifications;
+    private List<Pattern> topLevelPatterns;
+    private AdvancedViatraQueryEngine parallelEngine;
+    private AdvancedViatraQueryEngine sequentialEngine;
+
+    @Before
+    public void setUp() throws Exception {
+        PatternModel multiBodyModel = parseHelper.parse(MULTI_BODY_PATTERN_CODE);
+        specifications = new ArrayList<IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>>>(
+                getSpecifications());
+        specifications.add(new SpecificationBuilder().getOrCreateSpecification(multiBodyModel.getPatterns().get(0)));
+
+        topLevelPatterns = addPatterns(200, "topLevel", 17);
+        parallelEngine = createEngine();
+        sequentialEngine = createEngine();
+    }
+
+    @Test
+    public void testParallelSearchAgrees() throws Exception {
+        assertSearchAgrees();
+
+        topLevelPatterns.get(0).setName("renamed");
+        topLevelPatterns.get(1).getModifiers().setPrivate(true);
+        model.eResource().getContents().removeAll(topLevelPatterns.subList(100, 150));
+        assertSearchAgrees();
+    }
+
+    @Test
+    public void testBoundParameters() throws Exception {
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = parallelEngine.getMatcher(getSpecification("namedPattern"),
+                parallelHint);
+        assertEquals(12, countMatches(matcher, null, "topLevel3"));
+        assertEquals(1, countMatches(matcher, topLevelPatterns.get(5), null));
+
+        ViatraQueryMatcher<? extends IPatternMatch> sameName = parallelEngine.getMatcher(getSpecification("sameName"),
+                parallelHint);
+        assertEquals(11, countMatches(sameName, topLevelPatterns.get(5), null));
+    }
+
+    @Test
+    public void testBindingsSearchedInParallel() throws Exception {
+        // namedPattern calls no patterns, so its bindings are distributed; sameName is searched sequentially
+        for (String patternName : new String[] { "namedPattern", "sameName" }) {
+            Map<List<Object>, Set<List<Object>>> expected = collectMatchesForEach(
+                    sequentialEngine.getMatcher(getSpecification(patternName), sequentialHint));
+            assertEquals(patternName, expected,
+                    collectMatchesForEach(parallelEngine.getMatcher(getSpecification(patternName), parallelHint)));
+            assertEquals(topLevelPatterns.size(), expected.size());
+        }
+    }
+
+    @Test
+    public void testAdaptersDisableParallelExecution() throws Exception {
+        final int[] foundMatches = { 0 };
+        ((LocalSearchBackend) parallelEngine.getQueryBackend(LocalSearchBackendFactory.INSTANCE))
+                .addAdapter(new LocalSearchProfilerAdapter() {
+                    @Override
+                    public void matchFound(SearchPlanExecutor planExecutor, MatchingFrame frame) {
+                        super.matchFound(planExecutor, frame);
+                        foundMatches[0]++;
+                    }
+                });
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = parallelEngine.getMatcher(getSpecification("namedPattern"),
+                parallelHint);
+        // the adapter observes the sequential search
+        assertEquals(collectMatches(sequentialEngine.getMatcher(getSpecification("namedPattern"), sequentialHint)),
+                collectMatches(matcher));
+        assertEquals(matcher.countMatches(), foundMatches[0]);
+    }
+
+    @Test
+    public void testThreadsOfEngine() throws Exception {
+        // the parallel hints of the engine apply to all of its matchers
+        QueryEvaluationHint engineHint = LocalSearchHints.getDefault().setParallelExecution(true)
+                .setParallelExecutionThreads(3).build();
+        parallelEngine = createEngine(new EMFScope(resourceSet),
+                ViatraQueryEngineOptions.defineOptions().withDefaultHint(engineHint).build());
+        for (IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification : specifications) {
+            assertEquals(specification.getFullyQualifiedName(),
+                    collectMatches(sequentialEngine.getMatcher(specification, sequentialHint)),
+                    collectMatches(parallelEngine.getMatcher(specification)));
+        }
+        parallelEngine.dispose();
+        // the threads of a disposed engine are not shared with other engines
+        parallelEngine = createEngine();
+        assertSearchAgrees();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeThreads() {
+        LocalSearchHints.getDefault().setParallelExecutionThreads(-1);
+    }
+
+    @Test
+    public void testHintsNotSubstituted() {
+        LocalSearchHints parallel = LocalSearchHints.getDefault().setParallelExecution(true);
+        assertTrue(parallel.isParallelExecution());
+        assertFalse(LocalSearchHints.getDefault().isParallelExecution());
+        assertTrue(LocalSearchHints.parse(parallel.build()).isParallelExecution());
+        assertFalse(parallel.canBeSubstitute(LocalSearchHints.getDefault()));
+
+        LocalSearchHints threads = LocalSearchHints.getDefault().setParallelExecutionThreads(2);
+        assertEquals(0, LocalSearchHints.getDefault().getParallelExecutionThreads());
+        assertEquals(2, LocalSearchHints.parse(threads.build()).getParallelExecutionThreads());
+    }
+
+    private void assertSearchAgrees() {
+        for (IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification : specifications) {
+            ViatraQueryMatcher<? extends IPatternMatch> parallelMatcher = parallelEngine.getMatcher(specification,
+                    parallelHint);
+            ViatraQueryMatcher<? extends IPatternMatch> sequentialMatcher = sequentialEngine
+                    .getMatcher(specification, sequentialHint);
+            Set<List<Object>> expected = collectMatches(sequentialMatcher);
+            assertFalse(expected.isEmpty());
+            assertEquals(specification.getFullyQualifiedName(), expected, collectMatches(parallelMatcher));
+            assertEquals(sequentialMatcher.countMatches(), parallelMatcher.countMatches());
+        }
+    }
+
+    /**
+     * @return the matches of the matcher for each added pattern bound as its first parameter
+     */
+    private <Match extends IPatternMatch> Map<List<Object>, Set<List<Object>>> collectMatchesForEach(
+            ViatraQueryMatcher<Match> matcher) {
+        List<Match> partialMatches = new ArrayList<Match>();
+        for (Pattern pattern : topLevelPatterns) {
+            Match partialMatch = matcher.newEmptyMatch();
+            partialMatch.set(0, pattern);
+            partialMatches.add(partialMatch);
+        }
+        Map<List<Object>, Set<List<Object>>> result = new HashMap<List<Object>, Set<List<Object>>>();
+        for (Map.Entry<Match, Collection<Match>> entry : matcher.getAllMatchesForEach(partialMatches).entrySet()) {
+            result.put(Arrays.asList(entry.getKey().toArray()), toTuples(entry.getValue()));
+        }
+        return result;
+    }
+
+    private <Match extends IPatternMatch> int countMatches(ViatraQueryMatcher<Match> matcher, Object... parameters) {
+        Match partialMatch = matcher.newEmptyMatch();
+        for (int i = 0; i < parameters.length; i++) {
+            partialMatch.set(i, parameters[i]);
+        }
+        return matcher.countMatches(partialMatch);
+    }
+
+}
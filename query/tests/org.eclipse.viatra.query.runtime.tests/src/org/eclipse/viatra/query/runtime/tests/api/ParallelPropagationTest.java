@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryEvaluationHint;
+import org.eclipse.viatra.query.runtime.matchers.backend.QueryHintOption;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuple;
+import org.eclipse.viatra.query.runtime.matchers.tuple.Tuples;
+import org.eclipse.viatra.query.runtime.rete.network.Direction;
+import org.eclipse.viatra.query.runtime.rete.network.Network;
+import org.eclipse.viatra.query.runtime.rete.network.ReteContainer;
+import org.eclipse.viatra.query.runtime.rete.single.SingleInputNode;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that parallel update propagation in the Rete network (see
+ * {@link ReteHintOptions#parallelUpdatePropagation}) delivers independent communication groups on the propagation pool
+ * of the engine, and yields the same results as single-threaded propagation.
+ *
+ * @author agent
+ *
+ */
+public class ParallelPropagationTest extends AbstractPatternModelTest {
+
+    private static final int POOL_SIZE = 3;
+
+    private AdvancedViatraQueryEngine sequentialEngine;
+    private AdvancedViatraQueryEngine parallelEngine;
+
+    /**
+     * Records the threads it is updated on; as a supplier, it has no contents.
+     */
+    private static final class RecordingNode extends SingleInputNode {
+        final List<Thread> updateThreads = new ArrayList<Thread>();
+
+        public RecordingNode(ReteContainer reteContainer) {
+            super(reteContainer);
+        }
+
+        @Override
+        public void update(Direction direction, Tuple updateElement) {
+            updateThreads.add(Thread.currentThread());
+        }
+
+        @Override
+        public void pullInto(Collection<Tuple> collector) {
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        sequentialEngine = createEngine();
+        @SuppressWarnings("rawtypes")
+        Map<QueryHintOption, Object> hints = new HashMap<QueryHintOption, Object>();
+        hints.put(ReteHintOptions.parallelUpdatePropagation, true);
+        hints.put(ReteHintOptions.parallelPropagationThreads, POOL_SIZE);
+        parallelEngine = createReteEngine(hints);
+    }
+
+    @Test
+    public void testIndependentGroupsDeliveredOnPool() throws Exception {
+        parallelEngine.getMatcher(getSpecification("namedPattern")).countMatches();
+        Network network = getReteEngine(parallelEngine).getReteNet();
+        ForkJoinPool pool = network.getPropagationPool();
+        assertNotNull(pool);
+        assertEquals(POOL_SIZE, pool.getParallelism());
+
+        // each sink forms a communication group of its own, with no dependency between them
+        ReteContainer container = network.getHeadContainer();
+        List<RecordingNode> sinks = new ArrayList<RecordingNode>();
+        for (int i = 0; i < 8; i++) {
+            RecordingNode source = new RecordingNode(container);
+            RecordingNode sink = new RecordingNode(container);
+            container.connect(source, sink);
+            sinks.add(sink);
+        }
+        for (int i = 0; i < sinks.size(); i++) {
+            container.sendUpdateInternal(sinks.get(i), Direction.INSERT, Tuples.staticArityFlatTupleOf(i));
+        }
+        container.deliverMessagesSingleThreaded();
+
+        for (RecordingNode sink : sinks) {
+            assertEquals(1, sink.updateThreads.size());
+            Thread thread = sink.updateThreads.get(0);
+            assertTrue("Group not delivered on the propagation pool: " + thread,
+                    thread instanceof ForkJoinWorkerThread);
+            assertSame(pool, ((ForkJoinWorkerThread) thread).getPool());
+        }
+    }
+
+    @Test
+    public void testQueryHintIgnored() throws Exception {
+        @SuppressWarnings("rawtypes")
+        Map<QueryHintOption, Object> hints = new HashMap<QueryHintOption, Object>();
+        hints.put(ReteHintOptions.parallelUpdatePropagation, true);
+        sequentialEngine.getMatcher(getSpecification("namedPattern"), new QueryEvaluationHint(hints, null))
+                .countMatches();
+        assertNull(getReteEngine(sequentialEngine).getReteNet().getPropagationPool());
+    }
+
+    @Test
+    public void testPoolOwnedByEngine() throws Exception {
+        parallelEngine.getMatcher(getSpecification("namedPattern")).countMatches();
+        sequentialEngine.getMatcher(getSpecification("namedPattern")).countMatches();
+        assertNull(getReteEngine(sequentialEngine).getReteNet().getPropagationPool());
+
+        AdvancedViatraQueryEngine otherEngine = createReteEngine(ReteHintOptions.parallelUpdatePropagation, true);
+        otherEngine.getMatcher(getSpecification("namedPattern")).countMatches();
+        ForkJoinPool pool = getReteEngine(parallelEngine).getReteNet().getPropagationPool();
+        ForkJoinPool otherPool = getReteEngine(otherEngine).getReteNet().getPropagationPool();
+        assertNotSame(pool, otherPool);
+        assertEquals(Runtime.getRuntime().availableProcessors(), otherPool.getParallelism());
+
+        parallelEngine.wipe();
+        assertTrue(pool.isShutdown());
+        assertTrue(!otherPool.isShutdown());
+    }
+
+    @Test
+    public void testResultsAgree() {
+        assertEquals(collectMatches(sequentialEngine), collectMatches(parallelEngine));
+
+        List<Pattern> addedPatterns = addPatterns(50, "added", 7);
+        assertEquals(collectMatches(sequentialEngine), collectMatches(parallelEngine));
+
+        for (int i = 0; i < addedPatterns.size(); i += 3) {
+            addedPatterns.get(i).setName("renamed" + (i % 5));
+            addedPatterns.get(i).getModifiers().setPrivate(i % 2 == 0);
+        }
+        assertEquals(collectMatches(sequentialEngine), collectMatches(parallelEngine));
+
+        model.eResource().getContents().removeAll(addedPatterns.subList(0, 25));
+        assertEquals(collectMatches(sequentialEngine), collectMatches(parallelEngine));
+    }
+
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.viatra.query.runtime.base.api.BaseIndexOptions;
+import org.eclipse.viatra.query.runtime.base.api.IndexingLevel;
+import org.eclipse.viatra.query.runtime.base.api.NavigationHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a base index built by parallel model traversal (see {@link BaseIndexOptions#withParallelTraversal(boolean)})
+ * has the same contents as one built sequentially, both when the index is created and when types are registered
+ * later, and that it stays in sync under modifications.
+ *
+ * @author agent
+ *
+ */
+public class ParallelTraversalTest extends AbstractEcoreModelTest {
+
+    private List<EPackage> packages;
+
+    @Before
+    public void setUp() throws Exception {
+        // the traversal is split at top-level objects
+        packages = createPackages(resource, 40, 10);
+    }
+
+    @Test
+    public void testWildcardIndexAgrees() throws Exception {
+        // the whole model is traversed when the index is created
+        NavigationHelper index = createIndex(true, true);
+        NavigationHelper referenceIndex = createIndex(false, true);
+        List<Object> expected = describeIndex(referenceIndex);
+        assertEquals(expected, describeIndex(index));
+
+        modify();
+        List<Object> modified = describeIndex(referenceIndex);
+        assertFalse(expected.equals(modified));
+        assertEquals(modified, describeIndex(index));
+    }
+
+    @Test
+    public void testIndexContentsAgree() throws Exception {
+        // nothing is registered beforehand, so the registration itself traverses the model
+        NavigationHelper index = createIndex(true, false);
+        NavigationHelper referenceIndex = createIndex(false, false);
+        List<Object> expected = describeIndex(referenceIndex);
+        assertEquals(expected, describeIndex(index));
+        assertEquals(400, index.countAllInstances(EcorePackage.Literals.ECLASS));
+
+        modify();
+        List<Object> modified = describeIndex(referenceIndex);
+        assertFalse(expected.equals(modified));
+        assertEquals(modified, describeIndex(index));
+    }
+
+    @Test
+    public void testStatisticsAgree() throws Exception {
+        Set<EClass> classes = Collections.singleton(EcorePackage.Literals.EATTRIBUTE);
+        Set<EStructuralFeature> features = Collections
+                .<EStructuralFeature> singleton(EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND);
+        NavigationHelper index = createIndex(true, false);
+        NavigationHelper referenceIndex = createIndex(false, false);
+        index.registerObservedTypes(classes, Collections.<EDataType> emptySet(), features, IndexingLevel.STATISTICS);
+        referenceIndex.registerObservedTypes(classes, Collections.<EDataType> emptySet(), features,
+                IndexingLevel.STATISTICS);
+
+        assertEquals(referenceIndex.countAllInstances(EcorePackage.Literals.EATTRIBUTE),
+                index.countAllInstances(EcorePackage.Literals.EATTRIBUTE));
+        assertEquals(referenceIndex.countFeatures(EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND),
+                index.countFeatures(EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND));
+        assertTrue(index.countFeatures(EcorePackage.Literals.ETYPED_ELEMENT__LOWER_BOUND) > 100);
+    }
+
+    @Test
+    public void testBaseIndexOptions() {
+        BaseIndexOptions options = new BaseIndexOptions();
+        assertFalse(options.isParallelTraversal());
+
+        BaseIndexOptions parallel = options.withParallelTraversal(true);
+        assertTrue(parallel.isParallelTraversal());
+        assertEquals(parallel, parallel.copy());
+        assertFalse(parallel.equals(options));
+
+        assertEquals(0, parallel.getTraversalThreads());
+        BaseIndexOptions twoThreads = parallel.withTraversalThreads(2);
+        assertEquals(2, twoThreads.getTraversalThreads());
+        assertEquals(twoThreads, twoThreads.copy());
+        assertFalse(twoThreads.equals(parallel));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTraversalThreads() {
+        new BaseIndexOptions().withTraversalThreads(-1);
+    }
+
+    @Test
+    public void testDisposedWithOwnThreads() throws Exception {
+        NavigationHelper index = createIndex(resourceSet,
+                new BaseIndexOptions().withParallelTraversal(true).withTraversalThreads(3));
+        NavigationHelper referenceIndex = createIndex(false, false);
+        assertEquals(describeIndex(referenceIndex), describeIndex(index));
+        index.dispose();
+        // the threads of a disposed index are not shared with other indexes
+        assertEquals(describeIndex(referenceIndex), describeIndex(createIndex(true, false)));
+    }
+
+    private void modify() {
+        getClass(packages.get(0), 0).setName("Renamed");
+        getClass(packages.get(1), 1).setAbstract(true);
+        getClass(packages.get(2), 2).getEAttributes().get(0).setLowerBound(100);
+        getClass(packages.get(3), 3).getESuperTypes().clear();
+        resource.getContents().removeAll(packages.subList(20, 30));
+        resource.getContents().add(packages.get(20));
+    }
+
+    private NavigationHelper createIndex(boolean parallelTraversal, boolean wildcardMode) throws Exception {
+        return createIndex(resourceSet,
+                new BaseIndexOptions().withParallelTraversal(parallelTraversal).withWildcardMode(wildcardMode));
+    }
+
+}
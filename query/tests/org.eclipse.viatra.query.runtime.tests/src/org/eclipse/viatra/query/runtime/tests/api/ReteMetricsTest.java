@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.Pattern;
+import org.eclipse.viatra.query.patternlanguage.patternLanguage.PatternLanguageFactory;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.matchers.psystem.queries.PQuery;
+import org.eclipse.viatra.query.runtime.rete.matcher.ReteEngine;
+import org.eclipse.viatra.query.runtime.rete.metrics.NodeMetrics;
+import org.eclipse.viatra.query.runtime.rete.metrics.ReteMetrics;
+import org.eclipse.viatra.query.runtime.rete.metrics.ReteMetricsExporter;
+import org.eclipse.viatra.query.runtime.rete.single.DefaultProductionNode;
+import org.eclipse.viatra.query.runtime.rete.util.ReteHintOptions;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the per-node runtime metrics of the Rete network, see {@link ReteMetrics}.
+ *
+ * @author agent
+ *
+ */
+public class ReteMetricsTest extends AbstractPatternModelTest {
+
+    private ReteEngine reteEngine;
+    private IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> named;
+    private ViatraQueryMatcher<? extends IPatternMatch> namedMatcher;
+    private PQuery namedQuery;
+    private PQuery sameNameQuery;
+
+    @Before
+    public void setUp() throws Exception {
+        AdvancedViatraQueryEngine engine = createEngine();
+        reteEngine = getReteEngine(engine);
+
+        named = getSpecification("namedPattern");
+        IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> sameName = getSpecification(
+                "sameName");
+        namedQuery = named.getInternalQueryRepresentation();
+        sameNameQuery = sameName.getInternalQueryRepresentation();
+        namedMatcher = engine.getMatcher(named);
+        engine.getMatcher(sameName);
+    }
+
+    @Test
+    public void testNodesAttributedToQueries() {
+        ReteMetrics metrics = reteEngine.getMetrics();
+        assertFalse(metrics.getNodeMetrics().isEmpty());
+        assertTrue(metrics.getQueries().contains(namedQuery));
+        assertTrue(metrics.getQueries().contains(sameNameQuery));
+        assertFalse(metrics.getNodeMetrics(sameNameQuery).isEmpty());
+
+        NodeMetrics production = getProduction(metrics, namedQuery);
+        assertTrue(production.isStateful());
+        assertEquals(namedMatcher.countMatches(), production.getTupleCount());
+        assertTrue(production.getEstimatedMemory() > 0);
+    }
+
+    @Test
+    public void testCountersFollowModifications() {
+        NodeMetrics before = getProduction(reteEngine.getMetrics(), namedQuery);
+
+        Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+        pattern.setName("added");
+        model.getPatterns().add(pattern);
+        NodeMetrics afterInsert = getProduction(reteEngine.getMetrics(), namedQuery);
+        assertEquals(before.getInsertCount() + 1, afterInsert.getInsertCount());
+        assertEquals(before.getTupleCount() + 1, afterInsert.getTupleCount());
+
+        model.getPatterns().remove(pattern);
+        NodeMetrics afterRemove = getProduction(reteEngine.getMetrics(), namedQuery);
+        assertEquals(before.getRevokeCount() + 1, afterRemove.getRevokeCount());
+        assertEquals(before.getTupleCount(), afterRemove.getTupleCount());
+    }
+
+    @Test
+    public void testDeliveryTimeMeasuredOnRequest() throws Exception {
+        Pattern pattern = PatternLanguageFactory.eINSTANCE.createPattern();
+        pattern.setName("added");
+        model.getPatterns().add(pattern);
+        assertEquals(0, ReteMetrics.getTotalDeliveryTime(reteEngine.getMetrics().getNodeMetrics()));
+
+        AdvancedViatraQueryEngine measuredEngine = createReteEngine(ReteHintOptions.measureDeliveryTime, true);
+        measuredEngine.getMatcher(named);
+        ReteEngine measuredReteEngine = getReteEngine(measuredEngine);
+        model.getPatterns().remove(pattern);
+        assertTrue(ReteMetrics.getTotalDeliveryTime(measuredReteEngine.getMetrics().getNodeMetrics()) > 0);
+    }
+
+    @Test
+    public void testJmxExport() throws Exception {
+        ReteMetricsExporter exporter = new ReteMetricsExporter(reteEngine.getReteNet());
+        ObjectName name = new ObjectName(ReteMetricsExporter.DEFAULT_DOMAIN + ":type=ReteMetrics,name=test");
+        exporter.register(name);
+        try {
+            Object nodeCount = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "NodeCount");
+            assertEquals(reteEngine.getMetrics().getNodeMetrics().size(), nodeCount);
+            assertTrue(exporter.getTupleCountByQuery().containsKey(namedQuery.getFullyQualifiedName()));
+        } finally {
+            exporter.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    private NodeMetrics getProduction(ReteMetrics metrics, PQuery query) {
+        NodeMetrics result = null;
+        for (NodeMetrics node : metrics.getNodeMetrics(query)) {
+            if (DefaultProductionNode.class.getSimpleName().equals(node.getNodeType())
+                    && node.getQueries().size() == 1) {
+                result = node;
+            }
+        }
+        assertNotNull("No production node for " + query.getFullyQualifiedName(), result);
+        return result;
+    }
+
+}
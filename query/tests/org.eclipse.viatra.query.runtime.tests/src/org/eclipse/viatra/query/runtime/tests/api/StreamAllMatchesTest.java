@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026, agent
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    agent - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.viatra.query.runtime.tests.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.viatra.query.patternlanguage.emf.eMFPatternLanguage.PatternModel;
+import org.eclipse.viatra.query.patternlanguage.emf.specification.SpecificationBuilder;
+import org.eclipse.viatra.query.runtime.api.AdvancedViatraQueryEngine;
+import org.eclipse.viatra.query.runtime.api.IPatternMatch;
+import org.eclipse.viatra.query.runtime.api.IQuerySpecification;
+import org.eclipse.viatra.query.runtime.api.ViatraQueryMatcher;
+import org.eclipse.viatra.query.runtime.localsearch.MatchingFrame;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.ILocalSearchAdaptable;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.ILocalSearchAdapter;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.LocalSearchMatcher;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchBackend;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchBackendFactory;
+import org.eclipse.viatra.query.runtime.localsearch.matcher.integration.LocalSearchHints;
+import org.eclipse.viatra.query.runtime.localsearch.plan.SearchPlanExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * Checks that the lazily enumerated matches (see {@link ViatraQueryMatcher#streamAllMatches()}) agree with the
+ * complete result, both with local search and Rete, and that local search only proceeds as far as the matches are
+ * consumed.
+ *
+ * @author agent
+ *
+ */
+public class StreamAllMatchesTest extends AbstractPatternModelTest {
+
+    // both bodies match private patterns, and the local variables are projected away
+    private static final String DUPLICATE_PATTERN_CODE = "package org.eclipse.viatra.query.patternlanguage.emf.tests\n"
+            + "import \"http://www.eclipse.org/viatra/query/patternlanguage/PatternLanguage\"\n"
+            + "pattern annotatedOrModified(p : Pattern) = {\n"
+            + " Pattern.modifiers(p, _m);\n"
+            + "} or {\n"
+            + " Pattern.name(p, _n);\n"
+            + " Pattern.modifiers(p, m);\n"
+            + " Modifiers.private(m, true);\n"
+            + "}\n";
+
+    /**
+     * Counts the matches found and the searches finished by local search matchers.
+     */
+    private static final class CountingAdapter implements ILocalSearchAdapter {
+        int foundMatches = 0;
+        int finishedSearches = 0;
+
+        @Override
+        public void adapterRegistered(ILocalSearchAdaptable adaptable) {
+        }
+
+        @Override
+        public void adapterUnregistered(ILocalSearchAdaptable adaptable) {
+        }
+
+        @Override
+        public void patternMatchingStarted(LocalSearchMatcher lsMatcher) {
+        }
+
+        @Override
+        public void patternMatchingFinished(LocalSearchMatcher lsMatcher) {
+            finishedSearches++;
+        }
+
+        @Override
+        public void planChanged(SearchPlanExecutor oldPlanExecutor, SearchPlanExecutor newPlanExecutor) {
+        }
+
+        @Override
+        public void operationSelected(SearchPlanExecutor planExecutor, MatchingFrame frame) {
+        }
+
+        @Override
+        public void operationExecuted(SearchPlanExecutor planExecutor, MatchingFrame frame) {
+        }
+
+        @Override
+        public void matchFound(SearchPlanExecutor planExecutor, MatchingFrame frame) {
+            foundMatches++;
+        }
+
+        @Override
+        public void executorInitializing(SearchPlanExecutor searchPlanExecutor, MatchingFrame frame) {
+        }
+
+        void reset() {
+            foundMatches = 0;
+            finishedSearches = 0;
+        }
+    }
+
+    private IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> duplicateSpecification;
+    private AdvancedViatraQueryEngine engine;
+
+    @Before
+    public void setUp() throws Exception {
+        PatternModel duplicateModel = parseHelper.parse(DUPLICATE_PATTERN_CODE);
+        duplicateSpecification = new SpecificationBuilder()
+                .getOrCreateSpecification(duplicateModel.getPatterns().get(0));
+        addPatterns(50, "topLevel", 7);
+        engine = createEngine();
+    }
+
+    @Test
+    public void testLocalSearchStreamAgrees() throws Exception {
+        for (IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification : getSpecifications()) {
+            assertStreamAgrees(engine.getMatcher(specification, LocalSearchHints.getDefault().build()));
+        }
+    }
+
+    @Test
+    public void testReteStreamAgrees() throws Exception {
+        for (IQuerySpecification<? extends ViatraQueryMatcher<? extends IPatternMatch>> specification : getSpecifications()) {
+            assertStreamAgrees(engine.getMatcher(specification));
+        }
+        assertStreamAgrees(engine.getMatcher(duplicateSpecification));
+    }
+
+    @Test
+    public void testDuplicatesEliminated() throws Exception {
+        CountingAdapter adapter = addCountingAdapter();
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = engine.getMatcher(duplicateSpecification,
+                LocalSearchHints.getDefault().build());
+        adapter.reset();
+        int streamed = assertStreamAgrees(matcher);
+        // private patterns are found by both bodies, but streamed only once
+        assertTrue(adapter.foundMatches > streamed);
+    }
+
+    @Test
+    public void testPartialMatchStreamed() throws Exception {
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = engine.getMatcher(getSpecification("namedPattern"),
+                LocalSearchHints.getDefault().build());
+        assertPartialMatchStreamed(matcher);
+    }
+
+    @Test
+    public void testSearchProceedsOnDemand() throws Exception {
+        CountingAdapter adapter = addCountingAdapter();
+        ViatraQueryMatcher<? extends IPatternMatch> matcher = engine.getMatcher(getSpecification("namedPattern"),
+                LocalSearchHints.getDefault().build());
+        int matchCount = matcher.countMatches();
+        assertTrue(matchCount > 5);
+
+        adapter.reset();
+        Iterator<? extends IPatternMatch> limited = Iterators.limit(matcher.streamAllMatches(), 5);
+        assertEquals(5, Iterators.size(limited));
+        assertEquals(5, adapter.foundMatches);
+        assertEquals(0, adapter.finishedSearches);
+
+        // an abandoned stream does not interfere with later ones
+        adapter.reset();
+        assertEquals(matchCount, Iterators.size(matcher.streamAllMatches()));
+        assertEquals(matchCount, adapter.foundMatches);
+        assertEquals(1, adapter.finishedSearches);
+    }
+
+    private CountingAdapter addCountingAdapter() throws Exception {
+        CountingAdapter adapter = new CountingAdapter();
+        ((LocalSearchBackend) engine.getQueryBackend(LocalSearchBackendFactory.INSTANCE)).addAdapter(adapter);
+        return adapter;
+    }
+
+    /**
+     * @return the number of streamed matches
+     */
+    private <Match extends IPatternMatch> int assertStreamAgrees(ViatraQueryMatcher<Match> matcher) {
+        List<Match> streamed = new ArrayList<Match>();
+        Iterators.addAll(streamed, matcher.streamAllMatches());
+        Set<Match> distinct = new HashSet<Match>(streamed);
+        assertEquals(streamed.size(), distinct.size());
+        assertEquals(new HashSet<Match>(matcher.getAllMatches()), distinct);
+        assertFalse(distinct.isEmpty());
+        return streamed.size();
+    }
+
+    private <Match extends IPatternMatch> void assertPartialMatchStreamed(ViatraQueryMatcher<Match> matcher) {
+        Match partialMatch = matcher.newEmptyMatch();
+        partialMatch.set(1, "topLevel3");
+        Set<Match> streamed = new HashSet<Match>();
+        Iterators.addAll(streamed, matcher.streamAllMatches(partialMatch));
+        assertEquals(new HashSet<Match>(matcher.getAllMatches(partialMatch)), streamed);
+        assertTrue(streamed.size() > 1);
+    }
+
+}